@@ -0,0 +1,96 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.audio.PcmKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link PcmKernels} kernel, scalar against Vector API, over one chunk of the size the redaction pass
+ * uses. To measure AVX2 on an AVX-512 machine, pass
+ * {@code -jvmArgsAppend "--add-modules=jdk.incubator.vector -XX:UseAVX=2"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class KernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String simd;
+
+    @Param({"2048"})
+    public int count;
+
+    private PcmKernels kernels;
+    private float[] samples;
+    private float[] band;
+    private short[] pcm;
+    private short[] original;
+    private short[] replaced;
+    private short[] weight;
+
+    @Setup
+    public void setUp() {
+        kernels = PcmKernels.forMode(simd);
+        Random random = new Random(1);
+        samples = new float[count];
+        band = new float[count];
+        pcm = new short[count];
+        original = new short[count];
+        replaced = new short[count];
+        weight = new short[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = (random.nextFloat() * 2 - 1) * 40000f;
+            band[i] = random.nextFloat() * 2 - 1;
+            original[i] = (short) random.nextInt();
+            weight[i] = (short) random.nextInt(Short.MAX_VALUE + 1);
+        }
+    }
+
+    @Benchmark
+    public short[] toPcm16() {
+        kernels.toPcm16(samples, pcm, count);
+        return pcm;
+    }
+
+    @Benchmark
+    public float[] scale() {
+        // Alternating gains keep the samples from decaying to denormals
+        kernels.scale(samples, count, 0.5f);
+        kernels.scale(samples, count, 2f);
+        return samples;
+    }
+
+    @Benchmark
+    public float[] mulAdd() {
+        kernels.mulAdd(samples, band, 0.25f, count);
+        kernels.mulAdd(samples, band, -0.25f, count);
+        return samples;
+    }
+
+    @Benchmark
+    public short[] crossfade() {
+        System.arraycopy(original, 0, replaced, 0, count);
+        kernels.crossfade(pcm, replaced, weight, count);
+        return replaced;
+    }
+
+    @Benchmark
+    public long sumOfSquares() {
+        return kernels.sumOfSquares(original, count);
+    }
+}
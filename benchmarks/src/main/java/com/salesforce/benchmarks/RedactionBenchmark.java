@@ -0,0 +1,78 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.audio.PcmSink;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.service.AudioRedactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the redaction pass over a minute of 44.1kHz stereo audio, for the tone and silence paths,
+ * with and without crossfades at the interval edges. Overlapping intervals merge into a few long ranges;
+ * disjoint ones give one pair of edges per interval.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedactionBenchmark {
+
+    @Param({"60"})
+    public int seconds;
+
+    @Param({"10", "500"})
+    public int intervalCount;
+
+    @Param({"overlapping", "disjoint"})
+    public String layout;
+
+    @Param({"0", "5"})
+    public double crossfadeMs;
+
+    private final AudioRedactionService service = new AudioRedactionService(new PipelineMetrics(new SimpleMeterRegistry()));
+    private byte[] audio;
+    private byte[] beep;
+    private List<TimeInterval> intervals;
+
+    @Setup
+    public void setUp() {
+        audio = SyntheticData.speechLikePcm(SyntheticData.CD_STEREO, seconds);
+        beep = service.generateReplacementSound(SyntheticData.CD_STEREO, 1000f, 0.5f, 0.3f, "beep");
+        intervals = "disjoint".equals(layout)
+                ? SyntheticData.disjointIntervals(seconds, intervalCount)
+                : SyntheticData.intervals(seconds, intervalCount);
+        service.setCrossfadeMillis(crossfadeMs);
+    }
+
+    @Benchmark
+    public void applyRedactions(Blackhole blackhole) throws IOException {
+        service.applyRedactions(audio, SyntheticData.CD_STEREO, intervals, beep, consume(blackhole));
+    }
+
+    @Benchmark
+    public void applyRedactionsWithSilence(Blackhole blackhole) throws IOException {
+        service.applyRedactionsWithSilence(audio, SyntheticData.CD_STEREO, intervals, consume(blackhole));
+    }
+
+    private static PcmSink consume(Blackhole blackhole) {
+        return (data, offset, length) -> blackhole.consume(data[offset + length - 1]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.audio.PcmKernels;
+import com.salesforce.audio.PcmSink;
+import com.salesforce.audio.Replacement;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.service.AudioRedactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redaction pass over a minute of 44.1kHz stereo audio per replacement: the pass alone into a blackhole,
+ * and the whole redact stage writing a WAV file. The 2x-of-silence bound applies to {@link #applyRedactions};
+ * the WAV stage is dominated by file writes and hides the cost of the replacement. Pink and brown noise meet
+ * the bound; matched noise does not (5-10x, see the README).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ReplacementBenchmark {
+
+    @Param({"silence", "beep", "pink", "brown", "matched"})
+    public String replacement;
+
+    @Param({"10", "500"})
+    public int intervalCount;
+
+    /** {@code audio.simd}; pass {@code -p simd=scalar,vector} to compare the kernels. */
+    @Param({"auto"})
+    public String simd;
+
+    private final AudioRedactionService service = new AudioRedactionService(new PipelineMetrics(new SimpleMeterRegistry()));
+    private PcmBuffer pcm;
+    private DecodedAudio audio;
+    private List<TimeInterval> intervals;
+    private RedactionOptions options;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        PcmKernels.use(PcmKernels.forMode(simd));
+        byte[] data = SyntheticData.speechLikePcm(SyntheticData.CD_STEREO, 60);
+        pcm = PcmBuffer.wrap(data);
+        audio = new DecodedAudio(SyntheticData.CD_STEREO, data, null);
+        intervals = SyntheticData.intervals(60, intervalCount);
+        String method = switch (replacement) {
+            case "silence", "beep" -> replacement;
+            default -> "noise";
+        };
+        options = new RedactionOptions(method, 1000f, 0.5f, 0.3f, method.equals("noise") ? replacement : "beep", "wav");
+        output = Files.createTempFile("replacement-benchmark", ".wav");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void applyRedactions(Blackhole blackhole) throws IOException {
+        service.applyRedactions(pcm, SyntheticData.CD_STEREO, intervals, newReplacement(), consume(blackhole));
+    }
+
+    @Benchmark
+    public void redactToWav() {
+        service.redactAudio(audio, output.toString(), intervals, options);
+    }
+
+    private Replacement newReplacement() {
+        return switch (replacement) {
+            case "silence" -> Replacement.silence();
+            case "beep" -> Replacement.pattern(
+                    service.generateReplacementSound(SyntheticData.CD_STEREO, 1000f, 0.5f, 0.3f, "beep"));
+            default -> service.noiseReplacement(replacement, 0.3f);
+        };
+    }
+
+    private static PcmSink consume(Blackhole blackhole) {
+        return (data, offset, length) -> blackhole.consume(data[offset + length - 1]);
+    }
+}
@@ -0,0 +1,40 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.utils.StreamingBenchmarkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downmix and resample of 30 seconds of 44.1kHz stereo to the 16kHz mono stream sent for transcription.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResampleBenchmark {
+
+    private byte[] audio;
+
+    @Setup
+    public void setUp() {
+        audio = SyntheticData.speechLikePcm(SyntheticData.CD_STEREO, 30);
+    }
+
+    @Benchmark
+    public byte[] convertAudioTo16kHzPCM() throws IOException {
+        return StreamingBenchmarkUtils.convertAudioTo16kHzPCM(audio, SyntheticData.CD_STEREO);
+    }
+}
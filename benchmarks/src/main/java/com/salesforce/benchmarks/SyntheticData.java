@@ -0,0 +1,146 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.models.WordItems;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic inputs so benchmark results do not depend on recordings checked into the tree.
+ */
+public final class SyntheticData {
+
+    public static final AudioFormat CD_STEREO = new AudioFormat(44100, 16, 2, true, false);
+    public static final AudioFormat PHONE_MONO = new AudioFormat(16000, 16, 1, true, false);
+
+    private static final String[] WORDS = {
+            "thanks", "for", "calling", "my", "name", "is", "card", "number", "the", "account",
+            "please", "confirm", "your", "address", "and", "phone", "today", "we", "can", "help"
+    };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Speech-like PCM: a few amplitude-modulated partials plus low-level noise, with short pauses.
+     */
+    public static byte[] speechLikePcm(AudioFormat format, double seconds) {
+        int sampleRate = (int) format.getSampleRate();
+        int channels = format.getChannels();
+        int frames = (int) (sampleRate * seconds);
+        byte[] pcm = new byte[frames * channels * 2];
+        Random random = new Random(42);
+        for (int i = 0; i < frames; i++) {
+            double t = (double) i / sampleRate;
+            double syllable = Math.max(0, Math.sin(2 * Math.PI * 3.5 * t));
+            double voiced = Math.sin(2 * Math.PI * 180 * t) + 0.5 * Math.sin(2 * Math.PI * 360 * t)
+                    + 0.25 * Math.sin(2 * Math.PI * 1250 * t);
+            double value = 6000 * syllable * voiced + random.nextGaussian() * 150;
+            short sample = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+            for (int ch = 0; ch < channels; ch++) {
+                int index = (i * channels + ch) * 2;
+                pcm[index] = (byte) sample;
+                pcm[index + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+
+    /**
+     * Evenly spread redaction intervals of roughly PII length (0.6-1.6 s).
+     */
+    static List<TimeInterval> intervals(double seconds, int count) {
+        List<TimeInterval> intervals = new ArrayList<>(count);
+        double spacing = seconds / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            double start = i * spacing;
+            intervals.add(new TimeInterval(start - 0.25, start + 0.6 + (i % 5) * 0.25));
+        }
+        return intervals;
+    }
+
+    /**
+     * {@code count} evenly spaced intervals, each half the spacing long, so none of them overlap.
+     */
+    static List<TimeInterval> disjointIntervals(double seconds, int count) {
+        List<TimeInterval> intervals = new ArrayList<>(count);
+        double spacing = seconds / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            double start = i * spacing;
+            intervals.add(new TimeInterval(start - spacing / 4, start + spacing / 4));
+        }
+        return intervals;
+    }
+
+    /**
+     * A transcript of {@code wordCount} words where every {@code entityEvery}-th word is a PII entity.
+     */
+    static Transcript transcript(int wordCount, int entityEvery) {
+        StringBuilder text = new StringBuilder();
+        List<PIIEntity> entities = new ArrayList<>();
+        WordItems.Builder items = new WordItems.Builder(wordCount);
+        double time = 0;
+        for (int i = 0; i < wordCount; i++) {
+            String word = i % entityEvery == 0 ? "4111" + (1000 + i) : WORDS[i % WORDS.length];
+            if (i % entityEvery == 0) {
+                entities.add(new PIIEntity("CREDIT_DEBIT_NUMBER", time, time + 0.4, word, 0.95));
+            }
+            items.addWord(time, time + 0.4, word, 0.98f);
+            text.append(word).append(' ');
+            time += 0.45;
+        }
+        return new Transcript(text.toString(), entities, items.build());
+    }
+
+    /**
+     * JSON for one final transcript event as sent by the transcription service.
+     */
+    static String transcriptEventJson(int wordCount, int entityEvery) {
+        Transcript transcript = transcript(wordCount, entityEvery);
+        StringBuilder json = new StringBuilder(wordCount * 128);
+        json.append("{\"transcript\":{\"results\":[{\"startTime\":0.0,\"endTime\":")
+                .append(wordCount * 0.45)
+                .append(",\"isPartial\":false,\"speechFinal\":true,\"languageIdentification\":[],")
+                .append("\"alternatives\":[{\"transcript\":\"").append(transcript.text.trim()).append("\",\"items\":[");
+        String[] words = transcript.text.trim().split(" ");
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"startTime\":").append(i * 0.45)
+                    .append(",\"endTime\":").append(i * 0.45 + 0.4)
+                    .append(",\"type\":\"pronunciation\",\"content\":\"").append(words[i])
+                    .append("\",\"confidence\":0.98,\"vocabularyFilterMatch\":false}");
+        }
+        json.append("],\"entities\":[");
+        for (int i = 0; i < transcript.entities.size(); i++) {
+            PIIEntity entity = transcript.entities.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"").append(entity.getType())
+                    .append("\",\"startTime\":").append(entity.getStartTime())
+                    .append(",\"endTime\":").append(entity.getEndTime())
+                    .append(",\"content\":\"").append(entity.getContent())
+                    .append("\",\"confidence\":").append(entity.getConfidence()).append('}');
+        }
+        json.append("]}]}]}}");
+        return json.toString();
+    }
+
+    static final class Transcript {
+        final String text;
+        final List<PIIEntity> entities;
+        final WordItems items;
+
+        Transcript(String text, List<PIIEntity> entities, WordItems items) {
+            this.text = text;
+            this.entities = entities;
+            this.items = items;
+        }
+    }
+}
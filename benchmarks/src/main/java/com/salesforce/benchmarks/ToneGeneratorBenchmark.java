@@ -0,0 +1,42 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.service.AudioRedactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating one replacement pattern per request for every sound type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToneGeneratorBenchmark {
+
+    @Param({"beep", "chime", "soft", "gentle"})
+    public String soundType;
+
+    @Param({"0.5", "2.0"})
+    public float duration;
+
+    private final AudioRedactionService service = new AudioRedactionService(new PipelineMetrics(new SimpleMeterRegistry()));
+
+    @Benchmark
+    public byte[] generateReplacementSound() {
+        return service.generateReplacementSound(SyntheticData.CD_STEREO, 1000f, duration, 0.3f, soundType);
+    }
+}
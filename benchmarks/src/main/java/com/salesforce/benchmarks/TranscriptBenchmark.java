@@ -0,0 +1,79 @@
+package com.salesforce.benchmarks;
+
+import com.google.gson.Gson;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.models.TranscriptEvent;
+import com.salesforce.models.TranscriptionResult;
+import com.salesforce.models.WordItems;
+import com.salesforce.service.TranscribeWithPII;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message and per-request transcript handling: parsing a final TranscriptEvent, building the redacted
+ * transcript, and deduplicating PII entities across segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptBenchmark {
+
+    /** Words per final segment for parsing; for the whole-call benchmarks, total words in the call. */
+    @Param({"40", "8000"})
+    public int words;
+
+    private static final int ENTITY_EVERY = 12;
+    private final Gson gson = new Gson();
+    private String eventJson;
+    private String transcript;
+    private List<PIIEntity> entities;
+    private WordItems items;
+    private List<TimeInterval> intervals;
+
+    @Setup
+    public void setUp() {
+        eventJson = SyntheticData.transcriptEventJson(words, ENTITY_EVERY);
+        SyntheticData.Transcript synthetic = SyntheticData.transcript(words, ENTITY_EVERY);
+        transcript = synthetic.text;
+        entities = synthetic.entities;
+        items = synthetic.items;
+        intervals = new ArrayList<>();
+        for (PIIEntity entity : entities) {
+            intervals.add(new TimeInterval(entity.getStartTime() - 0.25, entity.getEndTime()));
+        }
+    }
+
+    @Benchmark
+    public TranscriptEvent parseTranscriptEvent() {
+        return gson.fromJson(eventJson, TranscriptEvent.class);
+    }
+
+    @Benchmark
+    public TranscriptionResult redactTranscript() {
+        return new TranscriptionResult(transcript, intervals, entities, items);
+    }
+
+    @Benchmark
+    public List<PIIEntity> deduplicateEntities() {
+        List<PIIEntity> all = new ArrayList<>();
+        TranscribeWithPII.addUniqueEntities(all, entities);
+        return all;
+    }
+}
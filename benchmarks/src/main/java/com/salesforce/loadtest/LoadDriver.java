@@ -0,0 +1,211 @@
+package com.salesforce.loadtest;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.salesforce.benchmarks.SyntheticData;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-loop load generator for {@code POST /api/audio/redact}: requests are started at a fixed rate
+ * regardless of how many are still in flight, so queueing in the service shows up as latency instead of
+ * being hidden by a slower client. While the run is in progress the service's heap and live thread count
+ * are sampled from Actuator; at the end the per-stage means show whether time went to the transcription
+ * service or to our own processing.
+ * <p>
+ * Run with {@code java -cp benchmarks.jar com.salesforce.loadtest.LoadDriver [--target=http://localhost:8080]
+ * [--rate=2] [--duration=60] [--file=call.wav | --audio-seconds=20] [--outputFormat=wav] [--replacementMethod=beep]}.
+ */
+public class LoadDriver {
+
+    private static final String[] STAGES = {"upload", "decode", "resample", "stream", "wait-for-final", "redact", "write"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newCachedThreadPool())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String target;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int maxInFlight;
+    private volatile double maxHeapBytes;
+    private volatile double maxThreads;
+
+    public LoadDriver(String target) {
+        this.target = target;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String target = options.getOrDefault("target", "http://localhost:8080");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "2"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        byte[] audio = options.containsKey("file")
+                ? Files.readAllBytes(Path.of(options.get("file")))
+                : syntheticWav(Double.parseDouble(options.getOrDefault("audio-seconds", "20")));
+        String query = "outputFormat=" + options.getOrDefault("outputFormat", "wav")
+                + "&replacementMethod=" + options.getOrDefault("replacementMethod", "beep");
+
+        LoadDriver driver = new LoadDriver(target);
+        System.out.printf("Driving %s at %.2f req/s for %d s with %d byte uploads%n", target, rate, duration, audio.length);
+        long elapsedNanos = driver.run(audio, query, rate, duration);
+        driver.report(elapsedNanos);
+        System.exit(0);
+    }
+
+    /**
+     * Starts {@code rate * duration} requests at fixed intervals and waits for all of them to finish.
+     * @return wall-clock time from the first request to the last response
+     */
+    public long run(byte[] audio, String query, double rate, int durationSeconds) throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        scheduler.scheduleAtFixedRate(this::sampleServer, 0, 1, TimeUnit.SECONDS);
+
+        int total = (int) Math.max(1, Math.round(rate * durationSeconds));
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        List<CompletableFuture<Void>> requests = new ArrayList<>(total);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long wait = start + i * intervalNanos - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            requests.add(send(audio, query));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - start;
+        scheduler.shutdownNow();
+        return elapsed;
+    }
+
+    private CompletableFuture<Void> send(byte[] audio, String query) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/audio/redact?" + query))
+                .header("Content-Type", "audio/wav")
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(audio))
+                .build();
+        maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        failed.incrementAndGet();
+                    } else if (response.statusCode() / 100 == 2) {
+                        latenciesNanos.add(System.nanoTime() - start);
+                        succeeded.incrementAndGet();
+                    } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+
+    private void sampleServer() {
+        try {
+            maxHeapBytes = Math.max(maxHeapBytes, metricValue("jvm.memory.used?tag=area:heap", "VALUE"));
+            maxThreads = Math.max(maxThreads, metricValue("jvm.threads.live", "VALUE"));
+        } catch (Exception e) {
+            // Actuator unavailable; the report will show zeros
+        }
+    }
+
+    public void report(long elapsedNanos) {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.printf("Requests:    %d ok, %d rejected, %d failed in %.1f s%n", succeeded.get(), rejected.get(), failed.get(), seconds);
+        System.out.printf("Throughput:  %.2f req/s%n", succeeded.get() / seconds);
+        System.out.printf("Latency ms:  p50=%.0f p90=%.0f p99=%.0f max=%.0f%n",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+        System.out.printf("Concurrency: max %d in flight%n", maxInFlight);
+        System.out.printf("Server:      max heap %.1f MB, max live threads %.0f%n", maxHeapBytes / (1 << 20), maxThreads);
+        System.out.println("Stage means (ms, server lifetime):");
+        for (String stage : STAGES) {
+            try {
+                double count = metricValue("redaction.stage?tag=stage:" + stage, "COUNT");
+                double total = metricValue("redaction.stage?tag=stage:" + stage, "TOTAL_TIME");
+                System.out.printf("  %-15s %8.1f  (n=%.0f)%n", stage, count > 0 ? total * 1000 / count : 0, count);
+            } catch (Exception e) {
+                System.out.printf("  %-15s unavailable%n", stage);
+            }
+        }
+    }
+
+    private double metricValue(String metric, String statistic) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/metrics/" + metric))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " for " + metric);
+        }
+        JsonObject body = JsonParser.parseString(response.body()).getAsJsonObject();
+        for (var measurement : body.getAsJsonArray("measurements")) {
+            JsonObject value = measurement.getAsJsonObject();
+            if (statistic.equals(value.get("statistic").getAsString())) {
+                return value.get("value").getAsDouble();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanosecond samples, in milliseconds.
+     */
+    static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    static byte[] syntheticWav(double seconds) throws IOException {
+        byte[] pcm = SyntheticData.speechLikePcm(SyntheticData.PHONE_MONO, seconds);
+        AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(pcm), SyntheticData.PHONE_MONO,
+                pcm.length / SyntheticData.PHONE_MONO.getFrameSize());
+        ByteArrayOutputStream wav = new ByteArrayOutputStream(pcm.length + 44);
+        AudioSystem.write(stream, AudioFileFormat.Type.WAVE, wav);
+        return wav.toByteArray();
+    }
+
+    /**
+     * Parses {@code --key=value} arguments.
+     */
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                .forEach(arg -> options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1)));
+        return options;
+    }
+}
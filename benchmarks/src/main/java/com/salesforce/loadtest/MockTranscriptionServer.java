@@ -0,0 +1,179 @@
+package com.salesforce.loadtest;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the streaming transcription service. Each session replays a script of
+ * TranscriptEvent JSON messages: an event is sent once the client has streamed audio up to the event's
+ * end time, delayed by a fixed latency. When the client sends the empty end-of-stream frame, the rest of
+ * the script is flushed and the connection is closed normally, as the real service does.
+ * <p>
+ * Run with {@code java -cp benchmarks.jar com.salesforce.loadtest.MockTranscriptionServer
+ * [--port=8765] [--latency-ms=300] [--script=events.jsonl]}.
+ */
+public class MockTranscriptionServer extends WebSocketServer {
+
+    /** 16kHz, 16-bit mono, as sent by TranscribeWithPII. */
+    private static final double BYTES_PER_SECOND = 16000 * 2;
+
+    private final List<ScriptedEvent> script;
+    private final long latencyMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mock-transcribe-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger totalSessions = new AtomicInteger();
+
+    public MockTranscriptionServer(int port, List<ScriptedEvent> script, long latencyMillis) {
+        super(new InetSocketAddress(port));
+        this.script = script;
+        this.latencyMillis = latencyMillis;
+        setReuseAddr(true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadDriver.parseArgs(args);
+        int port = Integer.parseInt(options.getOrDefault("port", "8765"));
+        long latency = Long.parseLong(options.getOrDefault("latency-ms", "300"));
+        List<ScriptedEvent> script = options.containsKey("script")
+                ? loadScript(Files.newInputStream(Path.of(options.get("script"))))
+                : loadScript(MockTranscriptionServer.class.getResourceAsStream("/loadtest/transcript-events.jsonl"));
+
+        MockTranscriptionServer server = new MockTranscriptionServer(port, script, latency);
+        server.start();
+        System.out.printf("Mock transcription server on ws://localhost:%d/stream: %d scripted events, %d ms latency%n",
+                port, script.size(), latency);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Reads one TranscriptEvent JSON document per line; blank lines are skipped.
+     */
+    public static List<ScriptedEvent> loadScript(InputStream in) throws IOException {
+        List<ScriptedEvent> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonObject result = JsonParser.parseString(line).getAsJsonObject()
+                        .getAsJsonObject("transcript").getAsJsonArray("results").get(0).getAsJsonObject();
+                events.add(new ScriptedEvent(line, result.get("endTime").getAsDouble()));
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        conn.setAttachment(new Session());
+        activeSessions.incrementAndGet();
+        totalSessions.incrementAndGet();
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer audio) {
+        Session session = conn.getAttachment();
+        synchronized (session) {
+            if (session.ended) {
+                return;
+            }
+            if (!audio.hasRemaining()) {
+                session.ended = true;
+                replayUpTo(conn, session, Double.MAX_VALUE);
+                scheduler.schedule(() -> conn.close(CloseFrame.NORMAL), latencyMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+            session.bytesReceived += audio.remaining();
+            replayUpTo(conn, session, session.bytesReceived / BYTES_PER_SECOND);
+        }
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        // The client only streams binary audio
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        activeSessions.decrementAndGet();
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+        System.err.println("Mock transcription session error: " + ex.getMessage());
+    }
+
+    @Override
+    public void onStart() {
+        setConnectionLostTimeout(30);
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public int getTotalSessions() {
+        return totalSessions.get();
+    }
+
+    private void replayUpTo(WebSocket conn, Session session, double audioSeconds) {
+        while (session.nextEvent < script.size() && script.get(session.nextEvent).endTime <= audioSeconds) {
+            String json = script.get(session.nextEvent++).json;
+            // Single-threaded scheduler with equal delays keeps the script order
+            scheduler.schedule(() -> {
+                if (conn.isOpen()) {
+                    conn.send(json);
+                }
+            }, latencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Session {
+        private long bytesReceived;
+        private int nextEvent;
+        private boolean ended;
+    }
+
+    public static final class ScriptedEvent {
+        private final String json;
+        private final double endTime;
+
+        public ScriptedEvent(String json, double endTime) {
+            this.json = json;
+            this.endTime = endTime;
+        }
+    }
+}
@@ -1,3 +1,3 @@
 #!/bin/bash
 
-java $SCONE_RUNTIME_JAVA_OPTS -jar service.jar
+java --add-modules jdk.incubator.vector $SCONE_RUNTIME_JAVA_OPTS -jar service.jar
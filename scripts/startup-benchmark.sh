@@ -0,0 +1,115 @@
+#!/bin/bash
+# Measures cold start of the service as a plain JIT jar, with the startup warm-up, and as a Spring AOT
+# jar with an AppCDS archive trained on the warm-up. The warm-up runs only with the fast-startup profile.
+#
+# For each variant the median over RUNS launches is reported of:
+#   started - "Started App in" as logged by Spring Boot
+#   ready   - launch until /actuator/health/readiness answers 200 (after the warm-up, if enabled)
+#   first   - latency of the first POST /api/audio/redact with SAMPLE (only if SAMPLE is set)
+#
+# The first request is served from a transcription cache primed once before measuring, so it times
+# decoding, redaction and encoding rather than the real-time streaming to the transcription service.
+# Priming needs a transcription service: TRANSCRIPTION_URL, or the mock server from the benchmarks
+# module (make bench builds it) when unset.
+#
+# Usage: scripts/startup-benchmark.sh            RUNS=5 PORT=18080 SAMPLE=call.wav WORK=target/startup
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+SAMPLE=${SAMPLE:-}
+WORK=$(mkdir -p "${WORK:-target/startup}" && cd "${WORK:-target/startup}" && pwd)
+JAVA=${JAVA:-java}
+JAVA_OPTS="--add-modules jdk.incubator.vector ${JAVA_OPTS:-}"
+MOCK_PID=
+
+cleanup() {
+    [ -n "$MOCK_PID" ] && kill "$MOCK_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+echo "Building the fast-startup jar..."
+mvn -B -q -Pfast-startup package -DskipTests
+JAR=$(ls target/redact-audio-pi-*.jar | grep -v original | head -1)
+rm -rf "$WORK/app"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP_JAR=$(ls "$WORK"/app/*.jar)
+
+APP_ARGS=(--server.port="$PORT" --transcription.cache.dir="$WORK/cache")
+if [ -n "$SAMPLE" ]; then
+    SAMPLE=$(cd "$(dirname "$SAMPLE")" && pwd)/$(basename "$SAMPLE")
+    if [ -z "${TRANSCRIPTION_URL:-}" ]; then
+        "$JAVA" -cp benchmarks/target/benchmarks.jar com.salesforce.loadtest.MockTranscriptionServer \
+            --latency-ms=50 > "$WORK/mock.log" 2>&1 &
+        MOCK_PID=$!
+        TRANSCRIPTION_URL=ws://localhost:8765/stream
+        sleep 2
+    fi
+    APP_ARGS+=(--transcription.websocket-url="$TRANSCRIPTION_URL")
+fi
+
+# Starts the service in a fresh working directory and waits until it is ready; sets PID, STARTED, READY
+launch() {
+    rm -rf "$WORK/run" && mkdir -p "$WORK/run"
+    local begin=$(date +%s%N)
+    (cd "$WORK/run" && exec "$JAVA" $JAVA_OPTS "$@" "${APP_ARGS[@]}" > app.log 2>&1) &
+    PID=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health/readiness"; do
+        kill -0 "$PID" 2>/dev/null || { tail -20 "$WORK/run/app.log"; exit 1; }
+        sleep 0.02
+    done
+    READY=$(( ($(date +%s%N) - begin) / 1000000 ))
+    STARTED=$(grep -o 'Started App in [0-9.]*' "$WORK/run/app.log" | awk '{printf "%d", $4 * 1000}')
+}
+
+stop() {
+    kill "$PID" 2>/dev/null || true
+    wait "$PID" 2>/dev/null || true
+}
+
+# Milliseconds taken by one redaction of SAMPLE
+redact() {
+    curl -sf -o /dev/null -w '%{time_total}' -H 'Content-Type: audio/wav' --data-binary @"$SAMPLE" \
+        "http://localhost:$PORT/api/audio/redact" | awk '{printf "%d", $1 * 1000}'
+}
+
+median() {
+    sort -n | awk '{v[NR] = $1} END {print NR ? v[int((NR + 1) / 2)] : "-"}'
+}
+
+echo "Training the AppCDS archive on the warm-up..."
+(cd "$WORK/app" && "$JAVA" $JAVA_OPTS -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true \
+    -jar "$APP_JAR" "${APP_ARGS[@]}" --spring.profiles.active=fast-startup --startup.warmup.exit=true \
+    > "$WORK/training.log" 2>&1)
+
+if [ -n "$SAMPLE" ]; then
+    echo "Priming the transcription cache with $SAMPLE..."
+    launch -jar "$APP_JAR"
+    redact > /dev/null
+    stop
+fi
+
+measure() {
+    local name=$1
+    shift
+    local started=() ready=() first=()
+    for run in $(seq "$RUNS"); do
+        launch "$@"
+        started+=("$STARTED")
+        ready+=("$READY")
+        [ -n "$SAMPLE" ] && first+=("$(redact)")
+        stop
+    done
+    printf '%-22s %10s %10s %10s\n' "$name" \
+        "$(printf '%s\n' "${started[@]}" | median)" \
+        "$(printf '%s\n' "${ready[@]}" | median)" \
+        "$([ -n "$SAMPLE" ] && printf '%s\n' "${first[@]}" | median || echo -)"
+}
+
+printf '\n%-22s %10s %10s %10s\n' "median of $RUNS (ms)" started ready first
+measure "jit" -jar "$APP_JAR"
+measure "jit + warm-up" -jar "$APP_JAR" --spring.profiles.active=fast-startup
+measure "aot + warm-up" -Dspring.aot.enabled=true -jar "$APP_JAR" --spring.profiles.active=fast-startup
+measure "aot + cds + warm-up" -XX:SharedArchiveFile="$WORK/app/app.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR" \
+    --spring.profiles.active=fast-startup
@@ -0,0 +1,10 @@
+package com.salesforce.audio;
+
+import java.io.Closeable;
+
+/**
+ * Streaming encoder for redacted audio. Frames are written as soon as the redactor emits them and
+ * any container headers that depend on the total length are finalized on {@link #close()}.
+ */
+public interface AudioEncoder extends PcmSink, Closeable {
+}
@@ -0,0 +1,50 @@
+package com.salesforce.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Blends the audio under a replacement back in at the edges of a redacted range with a raised-cosine
+ * crossfade from {@link Fades#raisedCosine}. The fades lie outside the range, so no redacted audio is heard
+ * through them. Samples and weights are copied into scratch arrays first so the blend is one
+ * {@link PcmKernels#crossfade} over them. One instance per redaction pass; not thread safe.
+ */
+public final class Crossfader {
+
+    /** Samples blended per step. */
+    private static final int CHUNK = 2048;
+
+    private final PcmKernels kernels = PcmKernels.current();
+    private final int channels;
+    private final short[] original = new short[CHUNK];
+    private final short[] replaced = new short[CHUNK];
+    private final short[] weight = new short[CHUNK];
+
+    public Crossfader(int channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * Blends {@code block[from, to)}, which holds the replacement, with {@code under[from, to)}, the audio it
+     * replaced.
+     *
+     * @param fadeFrames Length of this fade in frames
+     * @param position   Frames into the fade at {@code block[from]}
+     * @param fadingIn   True for the fade before a range, where the replacement rises; false for the one after
+     */
+    public void blend(byte[] block, byte[] under, int from, int to, int fadeFrames, int position, boolean fadingIn) {
+        short[] curve = Fades.raisedCosine(fadeFrames, channels)[fadingIn ? 0 : 1];
+        int weightIndex = position * channels;
+        for (int offset = from; offset < to; ) {
+            int bytes = Math.min(to - offset, CHUNK * 2);
+            int count = bytes / 2;
+            ByteBuffer.wrap(under, offset, bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(original, 0, count);
+            ByteBuffer.wrap(block, offset, bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(replaced, 0, count);
+            System.arraycopy(curve, weightIndex, weight, 0, count);
+            kernels.crossfade(original, replaced, weight, count);
+            ByteBuffer.wrap(block, offset, bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(replaced, 0, count);
+            offset += bytes;
+            weightIndex += count;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Audio decoded once to interleaved 16-bit signed little-endian PCM at its original rate and channel
+ * count. Both the transcription and redaction stages work from this single copy, which is held off-heap in
+ * a {@link PcmBufferPool} buffer; {@link #close()} it when the job is done so the next job can reuse it.
+ */
+public class DecodedAudio implements AutoCloseable {
+
+    private final AudioFormat format;
+    private final PcmBuffer pcm;
+    private final String contentHash;
+
+    public DecodedAudio(AudioFormat format, PcmBuffer pcm, String contentHash) {
+        this.format = format;
+        this.pcm = pcm;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Wraps PCM already on the heap.
+     */
+    public DecodedAudio(AudioFormat format, byte[] pcm, String contentHash) {
+        this(format, PcmBuffer.wrap(pcm), contentHash);
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    public PcmBuffer getPcm() {
+        return pcm;
+    }
+
+    /**
+     * Hex SHA-256 of the encoded upload, or null when the audio was not hashed.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * The same audio under another content hash; the PCM buffer is shared, not copied.
+     */
+    public DecodedAudio withContentHash(String contentHash) {
+        return new DecodedAudio(format, pcm, contentHash);
+    }
+
+    public double getDurationSeconds() {
+        return (double) pcm.length() / format.getFrameSize() / format.getSampleRate();
+    }
+
+    /**
+     * Releases the PCM buffer to the pool.
+     */
+    @Override
+    public void close() {
+        pcm.close();
+    }
+
+    /**
+     * Decodes an audio file, converting to 16-bit PCM if needed.
+     */
+    public static DecodedAudio fromFile(File file, String contentHash) throws UnsupportedAudioFileException, IOException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+            return read(in, contentHash);
+        }
+    }
+
+    /**
+     * Reads an audio stream to the end, converting to 16-bit signed little-endian PCM if needed.
+     * The caller remains responsible for closing {@code in}.
+     */
+    public static DecodedAudio read(AudioInputStream in, String contentHash) throws IOException {
+        AudioFormat format = in.getFormat();
+        AudioInputStream pcmStream = in;
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED
+                || format.getSampleSizeInBits() != 16 || format.isBigEndian()) {
+            AudioFormat targetFormat = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    format.getSampleRate(),
+                    16,
+                    format.getChannels(),
+                    format.getChannels() * 2,
+                    format.getSampleRate(),
+                    false
+            );
+            pcmStream = AudioSystem.getAudioInputStream(targetFormat, in);
+            format = targetFormat;
+        }
+
+        // When the length is known the buffer is sized exactly; otherwise it grows as the stream is read
+        long expectedBytes = pcmStream.getFrameLength() * format.getFrameSize();
+        int initialBytes = pcmStream.getFrameLength() > 0 && expectedBytes < Integer.MAX_VALUE - 8 ? (int) expectedBytes : 1 << 20;
+        return new DecodedAudio(format, PcmBufferPool.shared().readFully(pcmStream, initialBytes), contentHash);
+    }
+}
@@ -0,0 +1,67 @@
+package com.salesforce.audio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fade curves, computed once per length and shared, so fading costs a table read and a multiply per sample
+ * instead of a division and a trig call.
+ */
+public final class Fades {
+
+    private static final Map<Long, short[][]> RAISED_COSINE = new ConcurrentHashMap<>();
+    private static final Map<Integer, double[]> LINEAR = new ConcurrentHashMap<>();
+
+    private Fades() {
+    }
+
+    /**
+     * Raised-cosine crossfade over {@code frames} frames of interleaved audio, as Q15 weights of the incoming
+     * signal, one per sample: {@code [0]} rises as sin^2(pi/2 t) and {@code [1]} falls as cos^2(pi/2 t). The
+     * curve starts and ends flat, so the switch has no corner to click on, and the two weights of a mix sum to
+     * one, so it never leaves the 16-bit range.
+     */
+    static short[][] raisedCosine(int frames, int channels) {
+        return RAISED_COSINE.computeIfAbsent((long) frames << 8 | channels, key -> {
+            short[] rise = new short[frames * channels];
+            short[] fall = new short[frames * channels];
+            for (int f = 0; f < frames; f++) {
+                double weight = Math.pow(Math.sin(Math.PI / 2 * (f + 0.5) / frames), 2);
+                for (int ch = 0; ch < channels; ch++) {
+                    rise[f * channels + ch] = (short) Math.round(weight * Short.MAX_VALUE);
+                    fall[f * channels + ch] = (short) Math.round((1 - weight) * Short.MAX_VALUE);
+                }
+            }
+            return new short[][]{rise, fall};
+        });
+    }
+
+    /**
+     * Linear ramp {@code i / length} for {@code i} from 0 to {@code length} inclusive.
+     */
+    public static double[] linear(int length) {
+        return LINEAR.computeIfAbsent(length, key -> {
+            double[] ramp = new double[length + 1];
+            for (int i = 0; i <= length; i++) {
+                ramp[i] = (double) i / length;
+            }
+            return ramp;
+        });
+    }
+
+    /**
+     * Fades {@code samples} in over its first {@code length} samples and out over its last, linearly: sample
+     * {@code i} is scaled by {@code min(1, i / length)} and by {@code min(1, (n - i) / length)}.
+     */
+    public static void applyLinear(double[] samples, int length) {
+        if (length <= 0) {
+            return;
+        }
+        double[] ramp = linear(length);
+        int n = samples.length;
+        for (int i = 0; i < Math.min(length, n); i++) {
+            samples[i] *= ramp[i];
+            samples[n - 1 - i] *= ramp[i + 1];
+        }
+    }
+}
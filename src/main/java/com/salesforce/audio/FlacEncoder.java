@@ -0,0 +1,442 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Streaming lossless FLAC encoder for 16-bit PCM.
+ * <p>
+ * Each block of {@value #BLOCK_SIZE} frames is encoded as soon as it is complete, using the best of the
+ * fixed polynomial predictors (order 0-4) per channel with partitioned Rice coding of the residual.
+ * STREAMINFO (total samples, frame size bounds and the MD5 of the PCM) is patched on {@link #close()}.
+ */
+public class FlacEncoder implements AudioEncoder {
+
+    static final int BLOCK_SIZE = 4096;
+    private static final int MAX_FIXED_ORDER = 4;
+    private static final int MAX_PARTITION_ORDER = 6;
+    private static final int MAX_RICE_PARAMETER = 14;
+    private static final int STREAMINFO_OFFSET = 4;
+
+    private final Path outputFile;
+    private final OutputStream out;
+    private final int channels;
+    private final int sampleRate;
+    private final byte[] pending;
+    private final int[][] samples;
+    private final int[] residual = new int[BLOCK_SIZE];
+    private final BitWriter bits = new BitWriter(BLOCK_SIZE * 4 + 64);
+    private final int[] bestParameters = new int[1 << MAX_PARTITION_ORDER];
+    private final int[] candidateParameters = new int[1 << MAX_PARTITION_ORDER];
+    private final MessageDigest md5;
+    private int pendingBytes;
+    private long frameNumber;
+    private long totalFrames;
+    private int minFrameSize = Integer.MAX_VALUE;
+    private int maxFrameSize;
+    private int bestPartitionOrder;
+
+    public FlacEncoder(Path outputFile, AudioFormat format) throws IOException {
+        OutputFormat.requirePcm16(format);
+        if (format.getChannels() > 8) {
+            throw new IllegalArgumentException("FLAC supports at most 8 channels, got: " + format.getChannels());
+        }
+        this.outputFile = outputFile;
+        this.channels = format.getChannels();
+        this.sampleRate = (int) format.getSampleRate();
+        this.pending = new byte[BLOCK_SIZE * channels * 2];
+        this.samples = new int[channels][BLOCK_SIZE];
+        try {
+            this.md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(outputFile), 64 * 1024);
+        out.write(new byte[]{'f', 'L', 'a', 'C'});
+        out.write(streamInfo());
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        md5.update(data, offset, length);
+        while (length > 0) {
+            int count = Math.min(length, pending.length - pendingBytes);
+            System.arraycopy(data, offset, pending, pendingBytes, count);
+            pendingBytes += count;
+            offset += count;
+            length -= count;
+            if (pendingBytes == pending.length) {
+                encodeFrame(BLOCK_SIZE);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        int frames = pendingBytes / (channels * 2);
+        if (frames > 0) {
+            encodeFrame(frames);
+        }
+        out.close();
+        try (RandomAccessFile file = new RandomAccessFile(outputFile.toFile(), "rw")) {
+            file.seek(STREAMINFO_OFFSET);
+            file.write(streamInfo());
+        }
+    }
+
+    private byte[] streamInfo() {
+        BitWriter info = new BitWriter(38);
+        info.write(1, 1);                 // last metadata block
+        info.write(0, 7);                 // STREAMINFO
+        info.write(34, 24);
+        info.write(BLOCK_SIZE, 16);
+        info.write(BLOCK_SIZE, 16);
+        info.write(totalFrames > 0 ? minFrameSize : 0, 24);
+        info.write(maxFrameSize, 24);
+        info.write(sampleRate, 20);
+        info.write(channels - 1, 3);
+        info.write(15, 5);                // 16 bits per sample
+        info.write((int) (totalFrames >>> 32), 4);
+        info.write((int) totalFrames, 32);
+        byte[] digest = totalFrames > 0 ? cloneDigest() : new byte[16];
+        for (byte b : digest) {
+            info.write(b & 0xFF, 8);
+        }
+        return info.toByteArray();
+    }
+
+    private byte[] cloneDigest() {
+        try {
+            return ((MessageDigest) md5.clone()).digest();
+        } catch (CloneNotSupportedException e) {
+            return new byte[16];
+        }
+    }
+
+    private void encodeFrame(int blockSize) throws IOException {
+        for (int i = 0, b = 0; i < blockSize; i++) {
+            for (int ch = 0; ch < channels; ch++, b += 2) {
+                samples[ch][i] = (short) ((pending[b] & 0xFF) | (pending[b + 1] << 8));
+            }
+        }
+
+        bits.reset();
+        bits.write(0x3FFE, 14);           // sync code
+        bits.write(0, 1);
+        bits.write(0, 1);                 // fixed block size stream
+        bits.write(0b0111, 4);            // block size in 16 bits at end of header
+        bits.write(0, 4);                 // sample rate from STREAMINFO
+        bits.write(channels - 1, 4);      // independent channels
+        bits.write(0b100, 3);             // 16 bits per sample
+        bits.write(0, 1);
+        writeUtf8(frameNumber);
+        bits.write(blockSize - 1, 16);
+        bits.write(Crc.crc8(bits.buffer(), bits.byteLength()), 8);
+
+        for (int ch = 0; ch < channels; ch++) {
+            encodeSubframe(samples[ch], blockSize);
+        }
+        bits.alignToByte();
+        bits.write(Crc.crc16(bits.buffer(), bits.byteLength()), 16);
+
+        int frameSize = bits.byteLength();
+        out.write(bits.buffer(), 0, frameSize);
+        minFrameSize = Math.min(minFrameSize, frameSize);
+        maxFrameSize = Math.max(maxFrameSize, frameSize);
+        totalFrames += blockSize;
+        frameNumber++;
+        pendingBytes = 0;
+    }
+
+    private void encodeSubframe(int[] x, int n) {
+        boolean constant = true;
+        for (int i = 1; i < n && constant; i++) {
+            constant = x[i] == x[0];
+        }
+        if (constant) {
+            bits.write(0, 8);             // pad, SUBFRAME_CONSTANT, no wasted bits
+            bits.writeSigned(x[0], 16);
+            return;
+        }
+
+        int order = chooseFixedOrder(x, n);
+        computeResidual(x, n, order);
+        long riceBits = estimateBestPartitioning(n, order);
+        long verbatimBits = (long) n * 16;
+
+        if (riceBits >= verbatimBits) {
+            bits.write(0b00000010, 8);    // SUBFRAME_VERBATIM
+            for (int i = 0; i < n; i++) {
+                bits.writeSigned(x[i], 16);
+            }
+            return;
+        }
+
+        bits.write(0, 1);
+        bits.write(0b001000 | order, 6);  // SUBFRAME_FIXED
+        bits.write(0, 1);
+        for (int i = 0; i < order; i++) {
+            bits.writeSigned(x[i], 16);
+        }
+        writeResidual(n, order, bestPartitionOrder);
+    }
+
+    private static int chooseFixedOrder(int[] x, int n) {
+        long[] error = new long[MAX_FIXED_ORDER + 1];
+        for (int i = MAX_FIXED_ORDER; i < n; i++) {
+            int e0 = x[i];
+            int e1 = e0 - x[i - 1];
+            int e2 = e1 - (x[i - 1] - x[i - 2]);
+            int e3 = e2 - (x[i - 1] - 2 * x[i - 2] + x[i - 3]);
+            int e4 = e3 - (x[i - 1] - 3 * x[i - 2] + 3 * x[i - 3] - x[i - 4]);
+            error[0] += Math.abs(e0);
+            error[1] += Math.abs(e1);
+            error[2] += Math.abs(e2);
+            error[3] += Math.abs(e3);
+            error[4] += Math.abs(e4);
+        }
+        int maxOrder = Math.min(MAX_FIXED_ORDER, n - 1);
+        int best = 0;
+        for (int order = 1; order <= maxOrder; order++) {
+            if (error[order] < error[best]) {
+                best = order;
+            }
+        }
+        return best;
+    }
+
+    private void computeResidual(int[] x, int n, int order) {
+        for (int i = order; i < n; i++) {
+            switch (order) {
+                case 0:
+                    residual[i] = x[i];
+                    break;
+                case 1:
+                    residual[i] = x[i] - x[i - 1];
+                    break;
+                case 2:
+                    residual[i] = x[i] - 2 * x[i - 1] + x[i - 2];
+                    break;
+                case 3:
+                    residual[i] = x[i] - 3 * x[i - 1] + 3 * x[i - 2] - x[i - 3];
+                    break;
+                default:
+                    residual[i] = x[i] - 4 * x[i - 1] + 6 * x[i - 2] - 4 * x[i - 3] + x[i - 4];
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Picks the partition order and per-partition Rice parameters that minimise the residual size.
+     * @return total subframe size in bits (header, warm-up and residual)
+     */
+    private long estimateBestPartitioning(int n, int order) {
+        long best = Long.MAX_VALUE;
+        for (int p = 0; p <= MAX_PARTITION_ORDER; p++) {
+            int partitions = 1 << p;
+            if (n % partitions != 0 || (n >> p) <= order) {
+                break;
+            }
+            long total = 6;
+            int partitionSize = n >> p;
+            for (int part = 0; part < partitions; part++) {
+                int start = part == 0 ? order : part * partitionSize;
+                int end = (part + 1) * partitionSize;
+                long sum = 0;
+                for (int i = start; i < end; i++) {
+                    sum += zigzag(residual[i]);
+                }
+                int count = end - start;
+                int k = riceParameter(sum, count);
+                candidateParameters[part] = k;
+                total += 4 + riceBits(start, end, k);
+            }
+            if (total < best) {
+                best = total;
+                bestPartitionOrder = p;
+                System.arraycopy(candidateParameters, 0, bestParameters, 0, partitions);
+            }
+        }
+        return best + 8 + (long) order * 16;
+    }
+
+    private long riceBits(int start, int end, int k) {
+        long total = (long) (end - start) * (k + 1);
+        for (int i = start; i < end; i++) {
+            total += zigzag(residual[i]) >>> k;
+        }
+        return total;
+    }
+
+    private static int riceParameter(long sum, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        long mean = sum / count;
+        int k = 0;
+        while (k < MAX_RICE_PARAMETER && (1L << (k + 1)) <= mean) {
+            k++;
+        }
+        return k;
+    }
+
+    private void writeResidual(int n, int order, int partitionOrder) {
+        bits.write(0, 2);                 // Rice coding with 4-bit parameters
+        bits.write(partitionOrder, 4);
+        int partitions = 1 << partitionOrder;
+        int partitionSize = n >> partitionOrder;
+        for (int part = 0; part < partitions; part++) {
+            int k = bestParameters[part];
+            bits.write(k, 4);
+            int start = part == 0 ? order : part * partitionSize;
+            int end = (part + 1) * partitionSize;
+            for (int i = start; i < end; i++) {
+                bits.writeRice(zigzag(residual[i]), k);
+            }
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private void writeUtf8(long value) {
+        if (value < 0x80) {
+            bits.write((int) value, 8);
+            return;
+        }
+        int continuation = value < 0x800 ? 1 : value < 0x10000 ? 2 : value < 0x200000 ? 3
+                : value < 0x4000000 ? 4 : 5;
+        int leadBits = 6 - continuation;
+        int lead = (0xFF00 >> (continuation + 1)) & 0xFF;
+        bits.write(lead | (int) (value >>> (6 * continuation)) & ((1 << leadBits) - 1), 8);
+        for (int i = continuation - 1; i >= 0; i--) {
+            bits.write(0x80 | (int) ((value >>> (6 * i)) & 0x3F), 8);
+        }
+    }
+
+    /**
+     * MSB-first bit writer over a growable byte array.
+     */
+    static final class BitWriter {
+        private byte[] buffer;
+        private int bytePosition;
+        private long accumulator;
+        private int accumulatedBits;
+
+        BitWriter(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void reset() {
+            bytePosition = 0;
+            accumulator = 0;
+            accumulatedBits = 0;
+        }
+
+        void write(int value, int count) {
+            if (count == 0) {
+                return;
+            }
+            accumulator = (accumulator << count) | (value & ((1L << count) - 1));
+            accumulatedBits += count;
+            while (accumulatedBits >= 8) {
+                accumulatedBits -= 8;
+                put((byte) (accumulator >>> accumulatedBits));
+            }
+        }
+
+        void writeSigned(int value, int count) {
+            write(value, count);
+        }
+
+        void writeRice(int value, int k) {
+            int quotient = value >>> k;
+            while (quotient >= 32) {
+                write(0, 32);
+                quotient -= 32;
+            }
+            write(1, quotient + 1);
+            write(value, k);
+        }
+
+        void alignToByte() {
+            if (accumulatedBits > 0) {
+                write(0, 8 - accumulatedBits);
+            }
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        /** Number of complete bytes written so far. */
+        int byteLength() {
+            return bytePosition;
+        }
+
+        byte[] toByteArray() {
+            alignToByte();
+            byte[] copy = new byte[bytePosition];
+            System.arraycopy(buffer, 0, copy, 0, bytePosition);
+            return copy;
+        }
+
+        private void put(byte b) {
+            if (bytePosition == buffer.length) {
+                byte[] grown = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, grown, 0, bytePosition);
+                buffer = grown;
+            }
+            buffer[bytePosition++] = b;
+        }
+    }
+
+    /**
+     * CRC-8 (poly 0x07) and CRC-16 (poly 0x8005) as used by FLAC frame headers and footers.
+     */
+    static final class Crc {
+        private static final int[] CRC8 = new int[256];
+        private static final int[] CRC16 = new int[256];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                int c8 = i;
+                int c16 = i << 8;
+                for (int j = 0; j < 8; j++) {
+                    c8 = (c8 & 0x80) != 0 ? (c8 << 1) ^ 0x07 : c8 << 1;
+                    c16 = (c16 & 0x8000) != 0 ? (c16 << 1) ^ 0x8005 : c16 << 1;
+                }
+                CRC8[i] = c8 & 0xFF;
+                CRC16[i] = c16 & 0xFFFF;
+            }
+        }
+
+        private Crc() {
+        }
+
+        static int crc8(byte[] data, int length) {
+            int crc = 0;
+            for (int i = 0; i < length; i++) {
+                crc = CRC8[(crc ^ data[i]) & 0xFF];
+            }
+            return crc;
+        }
+
+        static int crc16(byte[] data, int length) {
+            int crc = 0;
+            for (int i = 0; i < length; i++) {
+                crc = ((crc << 8) ^ CRC16[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+            }
+            return crc;
+        }
+    }
+}
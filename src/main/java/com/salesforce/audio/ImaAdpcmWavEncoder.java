@@ -0,0 +1,177 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams 16-bit PCM into an IMA ADPCM (WAVE_FORMAT_DVI_ADPCM) file, giving a fixed 4:1 reduction
+ * over PCM. Input is buffered one ADPCM block at a time so memory use is independent of file length.
+ */
+public class ImaAdpcmWavEncoder implements AudioEncoder {
+
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230,
+            253, 279, 307, 337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963,
+            1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066, 2272, 2499, 2749, 3024, 3327,
+            3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487,
+            12635, 13899, 15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+    private static final int[] INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8, -1, -1, -1, -1, 2, 4, 6, 8};
+
+    private static final int BLOCK_BYTES_PER_CHANNEL = 1024;
+    private static final int SAMPLES_PER_BLOCK = (BLOCK_BYTES_PER_CHANNEL - 4) * 2 + 1;
+    private static final int HEADER_SIZE = 60;
+
+    private final Path outputFile;
+    private final OutputStream out;
+    private final int channels;
+    private final int blockAlign;
+    private final byte[] pending;
+    private final byte[] encoded;
+    private final int[] stepIndex;
+    private int pendingBytes;
+    private long totalFrames;
+    private long dataBytes;
+
+    public ImaAdpcmWavEncoder(Path outputFile, AudioFormat format) throws IOException {
+        OutputFormat.requirePcm16(format);
+        this.outputFile = outputFile;
+        this.channels = format.getChannels();
+        this.blockAlign = BLOCK_BYTES_PER_CHANNEL * channels;
+        this.pending = new byte[SAMPLES_PER_BLOCK * channels * 2];
+        this.encoded = new byte[blockAlign];
+        this.stepIndex = new int[channels];
+        this.out = new BufferedOutputStream(Files.newOutputStream(outputFile), 64 * 1024);
+
+        int sampleRate = (int) format.getSampleRate();
+        byte[] header = new byte[HEADER_SIZE];
+        LittleEndian.putAscii(header, 0, "RIFF");
+        LittleEndian.putInt(header, 4, -1);
+        LittleEndian.putAscii(header, 8, "WAVE");
+        LittleEndian.putAscii(header, 12, "fmt ");
+        LittleEndian.putInt(header, 16, 20);
+        LittleEndian.putShort(header, 20, 0x0011);
+        LittleEndian.putShort(header, 22, channels);
+        LittleEndian.putInt(header, 24, sampleRate);
+        LittleEndian.putInt(header, 28, (int) ((long) sampleRate * blockAlign / SAMPLES_PER_BLOCK));
+        LittleEndian.putShort(header, 32, blockAlign);
+        LittleEndian.putShort(header, 34, 4);
+        LittleEndian.putShort(header, 36, 2);
+        LittleEndian.putShort(header, 38, SAMPLES_PER_BLOCK);
+        LittleEndian.putAscii(header, 40, "fact");
+        LittleEndian.putInt(header, 44, 4);
+        LittleEndian.putAscii(header, 52, "data");
+        LittleEndian.putInt(header, 56, -1);
+        out.write(header);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int count = Math.min(length, pending.length - pendingBytes);
+            System.arraycopy(data, offset, pending, pendingBytes, count);
+            pendingBytes += count;
+            offset += count;
+            length -= count;
+            if (pendingBytes == pending.length) {
+                encodeBlock(SAMPLES_PER_BLOCK);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        int frameBytes = channels * 2;
+        int frames = pendingBytes / frameBytes;
+        if (frames > 0) {
+            // Pad the final block by holding the last sample so the padding does not click
+            int last = (frames - 1) * frameBytes;
+            for (int i = frames * frameBytes; i < pending.length; i += frameBytes) {
+                System.arraycopy(pending, last, pending, i, frameBytes);
+            }
+            encodeBlock(frames);
+        }
+        out.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(outputFile.toFile(), "rw")) {
+            byte[] field = new byte[4];
+            LittleEndian.putInt(field, 0, (int) (dataBytes + HEADER_SIZE - 8));
+            file.seek(4);
+            file.write(field);
+            LittleEndian.putInt(field, 0, (int) totalFrames);
+            file.seek(48);
+            file.write(field);
+            LittleEndian.putInt(field, 0, (int) dataBytes);
+            file.seek(56);
+            file.write(field);
+        }
+    }
+
+    private void encodeBlock(int validFrames) throws IOException {
+        for (int ch = 0; ch < channels; ch++) {
+            int predictor = sample(0, ch);
+            int index = stepIndex[ch];
+            int headerOffset = ch * 4;
+            LittleEndian.putShort(encoded, headerOffset, predictor);
+            encoded[headerOffset + 2] = (byte) index;
+            encoded[headerOffset + 3] = 0;
+
+            // Samples 1..N are packed as 8-sample groups: 4 bytes per channel, channels interleaved
+            int dataStart = channels * 4;
+            for (int i = 1; i < SAMPLES_PER_BLOCK; i++) {
+                int s = sample(i, ch);
+                int step = STEP_TABLE[index];
+                int diff = s - predictor;
+                int nibble = 0;
+                if (diff < 0) {
+                    nibble = 8;
+                    diff = -diff;
+                }
+                int delta = step >> 3;
+                if (diff >= step) {
+                    nibble |= 4;
+                    diff -= step;
+                    delta += step;
+                }
+                step >>= 1;
+                if (diff >= step) {
+                    nibble |= 2;
+                    diff -= step;
+                    delta += step;
+                }
+                step >>= 1;
+                if (diff >= step) {
+                    nibble |= 1;
+                    delta += step;
+                }
+                predictor += (nibble & 8) != 0 ? -delta : delta;
+                predictor = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, predictor));
+                index = Math.max(0, Math.min(88, index + INDEX_TABLE[nibble]));
+
+                int n = i - 1;
+                int byteIndex = dataStart + (n >> 3) * 4 * channels + ch * 4 + ((n & 7) >> 1);
+                if ((n & 1) == 0) {
+                    encoded[byteIndex] = (byte) nibble;
+                } else {
+                    encoded[byteIndex] |= (byte) (nibble << 4);
+                }
+            }
+            stepIndex[ch] = index;
+        }
+        out.write(encoded);
+        dataBytes += encoded.length;
+        totalFrames += validFrames;
+        pendingBytes = 0;
+    }
+
+    private int sample(int frame, int channel) {
+        int i = (frame * channels + channel) * 2;
+        return (short) ((pending[i] & 0xFF) | (pending[i + 1] << 8));
+    }
+}
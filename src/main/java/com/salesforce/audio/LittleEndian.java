@@ -0,0 +1,29 @@
+package com.salesforce.audio;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Little-endian field helpers for writing RIFF headers.
+ */
+final class LittleEndian {
+
+    private LittleEndian() {
+    }
+
+    static void putShort(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+    }
+
+    static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+        buffer[offset + 3] = (byte) (value >> 24);
+    }
+
+    static void putAscii(byte[] buffer, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+    }
+}
@@ -0,0 +1,148 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Noise shaped to the spectrum of the audio around each range, so the masked gap sounds like the line
+ * noise and room tone of the call rather than an inserted sound.
+ * <p>
+ * The spectrum is a Welch estimate: Hann-windowed block FFTs over up to {@value #CONTEXT_FRAMES} frames of
+ * unredacted audio on each side of the range, never reaching into a neighbouring range. Its average density
+ * in each band of {@link NoiseTables#bands} sets the gain of that band's noise table, and the range is
+ * filled with the sum of the scaled bands: the context's spectral envelope at half-octave resolution through
+ * the speech range, and its level. A channel with no usable context is filled with silence.
+ */
+public final class MatchedNoiseReplacement implements Replacement {
+
+    /** Analysis frames taken from each side of a range. */
+    static final int CONTEXT_FRAMES = 8;
+
+    private static final Map<Integer, Fft> FFTS = new ConcurrentHashMap<>();
+    private static final Map<Integer, double[]> WINDOWS = new ConcurrentHashMap<>();
+
+    @Override
+    public Fill begin(PcmBuffer audio, AudioFormat format, int start, int end, int contextStart, int contextEnd) {
+        int channels = format.getChannels();
+        int frameSize = format.getFrameSize();
+        Fft fft = FFTS.computeIfAbsent(fftSize(format.getSampleRate()), Fft::new);
+        int[] context = contextFrames(fft.size() * frameSize, start, end, contextStart, contextEnd);
+        double[] edges = NoiseTables.bandEdges(format.getSampleRate());
+
+        float[][] gains = bandGains(audio, fft, context, format, edges);
+        float[][] bands = NoiseTables.bands(format.getSampleRate());
+        float[] band = new float[NoiseFill.CHUNK];
+        return new NoiseFill(channels, start) {
+            @Override
+            void render(int channel, int position, float[] samples, int count) {
+                Arrays.fill(samples, 0, count, 0);
+                float[] channelGains = gains[channel];
+                if (channelGains == null) {
+                    return;
+                }
+                for (int b = 0; b < bands.length; b++) {
+                    float gain = channelGains[b];
+                    if (gain == 0) {
+                        continue;
+                    }
+                    NoiseTables.copy(bands[b], position, band, count);
+                    kernels.mulAdd(samples, band, gain, count);
+                }
+            }
+        };
+    }
+
+    /**
+     * Byte offsets of the analysis frames, nearest to the range first on each side.
+     */
+    static int[] contextFrames(int frameBytes, int start, int end, int contextStart, int contextEnd) {
+        int[] offsets = new int[2 * CONTEXT_FRAMES];
+        int count = 0;
+        for (int f = 1; f <= CONTEXT_FRAMES && (long) start - (long) f * frameBytes >= contextStart; f++) {
+            offsets[count++] = start - f * frameBytes;
+        }
+        for (int f = 0; f < CONTEXT_FRAMES && (long) end + (long) (f + 1) * frameBytes <= contextEnd; f++) {
+            offsets[count++] = end + f * frameBytes;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Band gains per channel: the square root of the context's average power spectral density in each band,
+     * or null for a channel whose context is missing or silent. Frames are transformed two at a time as the
+     * real and imaginary parts of one complex FFT; the sum of their power spectra is
+     * (|Z[k]|^2 + |Z[N-k]|^2) / 2.
+     */
+    private static float[][] bandGains(PcmBuffer audio, Fft fft, int[] frames, AudioFormat format, double[] edges) {
+        int channels = format.getChannels();
+        float[][] gains = new float[channels][];
+        if (frames.length == 0) {
+            return gains;
+        }
+        int n = fft.size();
+        int frameBytes = n * format.getFrameSize();
+        double[] window = WINDOWS.computeIfAbsent(n, MatchedNoiseReplacement::hann);
+        byte[] first = new byte[frameBytes];
+        byte[] second = new byte[frameBytes];
+        double[] re = new double[n];
+        double[] im = new double[n];
+        double[][] power = new double[channels][n / 2 + 1];
+        for (int f = 0; f < frames.length; f += 2) {
+            boolean paired = f + 1 < frames.length;
+            audio.get(frames[f], first, 0, frameBytes);
+            if (paired) {
+                audio.get(frames[f + 1], second, 0, frameBytes);
+            }
+            for (int ch = 0; ch < channels; ch++) {
+                for (int i = 0, index = ch * 2; i < n; i++, index += channels * 2) {
+                    re[i] = window[i] * (short) ((first[index] & 0xFF) | (first[index + 1] << 8));
+                    im[i] = paired ? window[i] * (short) ((second[index] & 0xFF) | (second[index + 1] << 8)) : 0;
+                }
+                fft.transform(re, im);
+                for (int k = 0; k <= n / 2; k++) {
+                    int mirror = (n - k) & (n - 1);
+                    power[ch][k] += (re[k] * re[k] + im[k] * im[k] + re[mirror] * re[mirror] + im[mirror] * im[mirror]) / 2;
+                }
+            }
+        }
+
+        // Scaled to a density whose mean over all N bins is the variance of the context
+        double windowEnergy = 0;
+        for (double w : window) {
+            windowEnergy += w * w;
+        }
+        double scale = 1.0 / (frames.length * windowEnergy);
+        float sampleRate = format.getSampleRate();
+        for (int ch = 0; ch < channels; ch++) {
+            float[] channelGains = new float[edges.length - 1];
+            double variance = 0;
+            for (int b = 0; b < channelGains.length; b++) {
+                int low = (int) Math.ceil(edges[b] * n / sampleRate);
+                int high = Math.min(n / 2, (int) Math.ceil(edges[b + 1] * n / sampleRate) - 1);
+                double sum = 0;
+                for (int k = low; k <= high; k++) {
+                    sum += power[ch][k] * scale;
+                }
+                double density = high >= low ? sum / (high - low + 1) : 0;
+                channelGains[b] = (float) Math.sqrt(density);
+                variance += density * (edges[b + 1] - edges[b]) / (sampleRate / 2);
+            }
+            gains[ch] = variance < 1.0 ? null : channelGains;
+        }
+        return gains;
+    }
+
+    static int fftSize(float sampleRate) {
+        return sampleRate <= 24000 ? 512 : 1024;
+    }
+
+    private static double[] hann(int n) {
+        double[] window = new double[n];
+        for (int i = 0; i < n; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / n);
+        }
+        return window;
+    }
+}
@@ -0,0 +1,75 @@
+package com.salesforce.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Fills a range chunk by chunk from noise tables. Each channel is rendered into a float buffer by
+ * {@link #render} with the {@link PcmKernels} current when the fill began, converted to 16-bit samples,
+ * interleaved, and copied into the block in one bulk put.
+ */
+abstract class NoiseFill implements Replacement.Fill {
+
+    /** Frames rendered per chunk. */
+    static final int CHUNK = 1024;
+
+    /** Kernels for {@link #render}, fixed for the whole range. */
+    final PcmKernels kernels = PcmKernels.current();
+    private final int channels;
+    private final int[] positions;
+    private final float[] samples = new float[CHUNK];
+    private final short[] converted = new short[CHUNK];
+    private final short[] frames;
+
+    /**
+     * @param start Start of the range, which picks where each channel starts reading the tables
+     */
+    NoiseFill(int channels, int start) {
+        this.channels = channels;
+        this.positions = new int[channels];
+        for (int ch = 0; ch < channels; ch++) {
+            positions[ch] = offset(start, ch);
+        }
+        this.frames = new short[CHUNK * channels];
+    }
+
+    /**
+     * Renders {@code count} samples of one channel into {@code samples}, reading the tables from {@code position}.
+     */
+    abstract void render(int channel, int position, float[] samples, int count);
+
+    @Override
+    public void fill(byte[] block, int from, int to) {
+        ShortBuffer out = ByteBuffer.wrap(block, from, to - from).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        int total = (to - from) / (channels * 2);
+        for (int done = 0; done < total; ) {
+            int count = Math.min(total - done, CHUNK);
+            for (int ch = 0; ch < channels; ch++) {
+                render(ch, positions[ch], samples, count);
+                positions[ch] = (positions[ch] + count) & (NoiseTables.LENGTH - 1);
+                if (channels == 1) {
+                    kernels.toPcm16(samples, frames, count);
+                    continue;
+                }
+                kernels.toPcm16(samples, converted, count);
+                for (int n = 0, index = ch; n < count; n++, index += channels) {
+                    frames[index] = converted[n];
+                }
+            }
+            out.put(frames, 0, count * channels);
+            done += count;
+        }
+    }
+
+    /**
+     * Table offset for one channel of the range starting at {@code start} (splitmix64 finalizer), so
+     * channels are uncorrelated and a re-run of a job writes the same output.
+     */
+    static int offset(int start, int channel) {
+        long z = ((long) start << 8 | channel) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31)) & (NoiseTables.LENGTH - 1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pink (-3 dB/octave) or brown (-6 dB/octave) masking noise, read from a table synthesised once per sample
+ * rate (see {@link NoiseTables}). The table is scaled, converted to 16-bit samples and interleaved into one
+ * loop of frames when a range first needs it, so filling a range is a byte copy like a beep pattern. The
+ * last loop rendered for each color is kept for the next request, which usually has the same volume.
+ */
+public final class NoiseReplacement implements Replacement {
+
+    public enum Color {
+        PINK, BROWN
+    }
+
+    /** Last loop rendered per color; immutable, so racing requests at worst render it twice. */
+    private static final Map<Color, Frames> FRAMES = new ConcurrentHashMap<>();
+
+    private final Color color;
+    private final float gain;
+
+    /**
+     * @param color  Spectral slope of the noise
+     * @param volume Level from 0.0 to 1.0, where 1.0 peaks near full scale
+     */
+    public NoiseReplacement(Color color, float volume) {
+        this.color = color;
+        this.gain = volume * Short.MAX_VALUE;
+    }
+
+    @Override
+    public Fill begin(PcmBuffer audio, AudioFormat format, int start, int end, int contextStart, int contextEnd) {
+        byte[] loop = frames(format);
+        int startPosition = NoiseFill.offset(start, 0) * format.getFrameSize();
+        return new Fill() {
+            private int position = startPosition;
+
+            @Override
+            public void fill(byte[] block, int from, int to) {
+                while (from < to) {
+                    int count = Math.min(to - from, loop.length - position);
+                    System.arraycopy(loop, position, block, from, count);
+                    from += count;
+                    position += count;
+                    if (position == loop.length) {
+                        position = 0;
+                    }
+                }
+            }
+        };
+    }
+
+    private byte[] frames(AudioFormat format) {
+        Frames current = FRAMES.get(color);
+        if (current == null || current.gain != gain || current.sampleRate != format.getSampleRate()
+                || current.channels != format.getChannels()) {
+            current = new Frames(gain, format.getSampleRate(), format.getChannels(), render(format));
+            FRAMES.put(color, current);
+        }
+        return current.data;
+    }
+
+    /**
+     * One loop of the table as 16-bit little-endian frames. Channel {@code ch} reads the table from
+     * {@code ch / channels} of the way through it, so channels are uncorrelated.
+     */
+    private byte[] render(AudioFormat format) {
+        float[] table = NoiseTables.colored(color, format.getSampleRate());
+        int channels = format.getChannels();
+        int frameSize = channels * 2;
+        PcmKernels kernels = PcmKernels.current();
+        float[] samples = new float[NoiseFill.CHUNK];
+        short[] converted = new short[NoiseFill.CHUNK];
+        byte[] data = new byte[NoiseTables.LENGTH * frameSize];
+        for (int ch = 0; ch < channels; ch++) {
+            int shift = (int) ((long) ch * NoiseTables.LENGTH / channels);
+            for (int frame = 0; frame < NoiseTables.LENGTH; frame += NoiseFill.CHUNK) {
+                NoiseTables.copy(table, (frame + shift) & (NoiseTables.LENGTH - 1), samples, NoiseFill.CHUNK);
+                kernels.scale(samples, NoiseFill.CHUNK, gain);
+                kernels.toPcm16(samples, converted, NoiseFill.CHUNK);
+                for (int n = 0, index = frame * frameSize + ch * 2; n < NoiseFill.CHUNK; n++, index += frameSize) {
+                    data[index] = (byte) converted[n];
+                    data[index + 1] = (byte) (converted[n] >> 8);
+                }
+            }
+        }
+        return data;
+    }
+
+    private record Frames(float gain, float sampleRate, int channels, byte[] data) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.salesforce.audio;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Noise tables shared by the noise replacements, synthesised once per sample rate with an inverse FFT: each
+ * bin gets the magnitude of the wanted spectrum and a random phase. The result has the exact spectrum and
+ * loops seamlessly, the end of a table running into its start without a click. {@value #LENGTH} frames is
+ * 3 s at 44.1 kHz and 8 s at 16 kHz, longer than nearly every redacted gap, and each range and channel
+ * starts reading at its own offset.
+ */
+final class NoiseTables {
+
+    static final int LENGTH = 1 << 17;
+    /** Upper edges of the bands of {@link #bands}, in Hz; the last band runs to the Nyquist frequency. */
+    private static final double[] BAND_EDGES_HZ = {125, 250, 500, 1000, 2000, 3000, 4000, 6000, 8000, 12000, 16000};
+    /** RMS of pink and brown noise at volume 1.0, relative to full scale; peaks then reach about full scale. */
+    private static final double COLORED_RMS = 0.25;
+    /** Pink and brown noise have no energy below this; it would only be rumble. */
+    private static final double LOW_CUTOFF_HZ = 20;
+
+    private static final Map<String, float[]> COLORED = new ConcurrentHashMap<>();
+    private static final Map<Float, float[][]> BANDS = new ConcurrentHashMap<>();
+
+    private NoiseTables() {
+    }
+
+    /**
+     * Pink (power falling 3 dB/octave) or brown (6 dB/octave) noise for {@code sampleRate}, with an RMS of
+     * a quarter of full scale.
+     */
+    static float[] colored(NoiseReplacement.Color color, float sampleRate) {
+        return COLORED.computeIfAbsent(color + "@" + sampleRate, key -> {
+            int firstBin = (int) Math.ceil(LOW_CUTOFF_HZ * LENGTH / sampleRate);
+            IntToDoubleFunction magnitude = color == NoiseReplacement.Color.PINK
+                    ? bin -> bin < firstBin ? 0 : 1 / Math.sqrt(bin)
+                    : bin -> bin < firstBin ? 0 : 1.0 / bin;
+            float[] table = synthesize(magnitude, color.ordinal() + 1);
+            double energy = 0;
+            for (float sample : table) {
+                energy += sample * sample;
+            }
+            float scale = (float) (COLORED_RMS / Math.sqrt(energy / LENGTH));
+            for (int i = 0; i < LENGTH; i++) {
+                table[i] *= scale;
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Band edges for {@code sampleRate}, from 0 Hz to the Nyquist frequency; band {@code b} covers
+     * [edges[b], edges[b + 1]).
+     */
+    static double[] bandEdges(float sampleRate) {
+        double nyquist = sampleRate / 2;
+        int inside = 0;
+        while (inside < BAND_EDGES_HZ.length && BAND_EDGES_HZ[inside] < nyquist) {
+            inside++;
+        }
+        double[] edges = new double[inside + 2];
+        System.arraycopy(BAND_EDGES_HZ, 0, edges, 1, inside);
+        edges[inside + 1] = nyquist;
+        return edges;
+    }
+
+    /**
+     * White noise split into the bands of {@link #bandEdges}: band tables with a power spectral density of 1
+     * inside their band and 0 outside, so they sum to unit-variance white noise and {@code sum g[b] * band[b]}
+     * has density {@code g[b]^2} in band {@code b}.
+     */
+    static float[][] bands(float sampleRate) {
+        return BANDS.computeIfAbsent(sampleRate, rate -> {
+            double[] edges = bandEdges(rate);
+            float[][] bands = new float[edges.length - 1][];
+            for (int b = 0; b < bands.length; b++) {
+                double low = edges[b] * LENGTH / rate;
+                double high = edges[b + 1] * LENGTH / rate;
+                double magnitude = Math.sqrt(LENGTH);
+                bands[b] = synthesize(bin -> bin >= low && bin < high ? magnitude : 0, 0);
+            }
+            return bands;
+        });
+    }
+
+    /**
+     * Copies {@code count} samples of a table starting at {@code position}, wrapping at its end.
+     */
+    static void copy(float[] table, int position, float[] destination, int count) {
+        int first = Math.min(count, LENGTH - position);
+        System.arraycopy(table, position, destination, 0, first);
+        System.arraycopy(table, 0, destination, first, count - first);
+    }
+
+    /**
+     * Builds a real table from a Hermitian spectrum with the given magnitude per bin and random phases. The
+     * same seed gives the same phases, so tables built from disjoint bins with one seed sum to a single noise.
+     */
+    private static float[] synthesize(IntToDoubleFunction magnitude, long seed) {
+        double[] re = new double[LENGTH];
+        double[] im = new double[LENGTH];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int bin = 1; bin < LENGTH / 2; bin++) {
+            double phase = random.nextDouble(2 * Math.PI);
+            double m = magnitude.applyAsDouble(bin);
+            re[bin] = m * Math.cos(phase);
+            im[bin] = m * Math.sin(phase);
+            re[LENGTH - bin] = re[bin];
+            im[LENGTH - bin] = -im[bin];
+        }
+        new Fft(LENGTH).inverse(re, im);
+        float[] table = new float[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            table[i] = (float) re[i];
+        }
+        return table;
+    }
+}
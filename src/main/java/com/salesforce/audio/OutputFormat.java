@@ -0,0 +1,79 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Output container/codec for redacted audio, selected per request.
+ */
+public enum OutputFormat {
+    /** Uncompressed 16-bit PCM in a RIFF/WAVE container. */
+    WAV(".wav", "audio/wav"),
+    /** Lossless FLAC, typically 40-60% of the WAV size for speech. */
+    FLAC(".flac", "audio/flac"),
+    /** IMA ADPCM in a RIFF/WAVE container, a fixed 4:1 lossy compression of 16-bit PCM. */
+    ADPCM(".adpcm.wav", "audio/wav");
+
+    private final String extension;
+    private final String contentType;
+
+    OutputFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Opens a streaming encoder writing to the given path.
+     *
+     * @param outputFile Destination file, created or truncated
+     * @param format     Format of the PCM that will be written (16-bit signed little-endian)
+     */
+    public AudioEncoder createEncoder(Path outputFile, AudioFormat format) throws IOException {
+        switch (this) {
+            case FLAC:
+                return new FlacEncoder(outputFile, format);
+            case ADPCM:
+                return new ImaAdpcmWavEncoder(outputFile, format);
+            case WAV:
+            default:
+                return new WavEncoder(outputFile, format);
+        }
+    }
+
+    /**
+     * Parses a request parameter value, defaulting to WAV when absent.
+     *
+     * @throws IllegalArgumentException if the value names an unknown format
+     */
+    public static OutputFormat fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return WAV;
+        }
+        String normalized = value.trim().toUpperCase();
+        if ("IMA".equals(normalized) || "COMPRESSED".equals(normalized)) {
+            return ADPCM;
+        }
+        try {
+            return OutputFormat.valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported output format: " + value);
+        }
+    }
+
+    static void requirePcm16(AudioFormat format) {
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED
+                || format.getSampleSizeInBits() != 16
+                || format.isBigEndian()) {
+            throw new IllegalArgumentException("Encoder requires 16-bit signed little-endian PCM, got: " + format);
+        }
+    }
+}
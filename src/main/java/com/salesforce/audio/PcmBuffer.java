@@ -0,0 +1,215 @@
+package com.salesforce.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Interleaved 16-bit little-endian PCM held in a buffer taken from a {@link PcmBufferPool}, or wrapping a
+ * heap array. Closing a pooled buffer hands its memory to the next job, so it must not be read afterwards;
+ * reads of a closed buffer fail instead of returning another job's audio.
+ */
+public final class PcmBuffer implements AutoCloseable {
+
+    private static final int COPY_CHUNK = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final PcmBufferPool pool;
+    private int length;
+    private volatile boolean released;
+
+    PcmBuffer(ByteBuffer buffer, int length, PcmBufferPool pool) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.length = length;
+        this.pool = pool;
+    }
+
+    /**
+     * Wraps PCM already on the heap; closing it does nothing.
+     */
+    public static PcmBuffer wrap(byte[] pcm) {
+        return new PcmBuffer(ByteBuffer.wrap(pcm), pcm.length, null);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The 16-bit sample starting at {@code byteOffset}.
+     */
+    public short sample(int byteOffset) {
+        checkOpen();
+        return buffer.getShort(byteOffset);
+    }
+
+    /**
+     * Copies {@code count} 16-bit samples starting at {@code byteOffset} into {@code dst}, from index 0.
+     */
+    public void samples(int byteOffset, short[] dst, int count) {
+        checkOpen();
+        buffer.slice(byteOffset, count * 2).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(dst, 0, count);
+    }
+
+    /**
+     * Copies {@code count} bytes starting at {@code offset} into {@code dst}.
+     */
+    public void get(int offset, byte[] dst, int dstOffset, int count) {
+        checkOpen();
+        buffer.get(offset, dst, dstOffset, count);
+    }
+
+    /**
+     * A read-only view of {@code count} bytes starting at {@code offset}, valid until this buffer is closed.
+     */
+    public ByteBuffer slice(int offset, int count) {
+        checkOpen();
+        return buffer.slice(offset, count).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads the PCM as a stream, e.g. for {@link javax.sound.sampled.AudioInputStream}.
+     */
+    public InputStream newInputStream() {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                return position < length ? get(position++) : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                int count = Math.min(len, length - position);
+                if (count <= 0) {
+                    return -1;
+                }
+                get(position, b, off, count);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return length - position;
+            }
+        };
+    }
+
+    /**
+     * Reads one channel of the interleaved PCM as a mono stream, picking its samples out of each frame as it
+     * goes, so a channel can be resampled or streamed on its own without a de-interleaved copy.
+     *
+     * @param channel  Channel to read, counting from 0
+     * @param channels Channels per frame
+     */
+    public InputStream newChannelInputStream(int channel, int channels) {
+        int frameBytes = channels * 2;
+        int monoLength = length / frameBytes * 2;
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                if (position >= monoLength) {
+                    return -1;
+                }
+                int sample = sample(position / 2 * frameBytes + channel * 2);
+                int value = (position & 1) == 0 ? sample & 0xFF : (sample >> 8) & 0xFF;
+                position++;
+                return value;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (position >= monoLength) {
+                    return -1;
+                }
+                if ((position & 1) != 0 || len < 2) {
+                    b[off] = (byte) read();
+                    return 1;
+                }
+                checkOpen();
+                int count = Math.min(len, monoLength - position) / 2;
+                for (int i = 0, source = position / 2 * frameBytes + channel * 2; i < count; i++, source += frameBytes) {
+                    short sample = buffer.getShort(source);
+                    b[off++] = (byte) sample;
+                    b[off++] = (byte) (sample >> 8);
+                }
+                position += count * 2;
+                return count * 2;
+            }
+
+            @Override
+            public int available() {
+                return monoLength - position;
+            }
+        };
+    }
+
+    /**
+     * Writes the PCM to {@code sink} through a small heap buffer.
+     */
+    public void writeTo(PcmSink sink) throws IOException {
+        byte[] chunk = new byte[Math.min(length, COPY_CHUNK)];
+        for (int offset = 0; offset < length; offset += chunk.length) {
+            int count = Math.min(chunk.length, length - offset);
+            get(offset, chunk, 0, count);
+            sink.write(chunk, 0, count);
+        }
+    }
+
+    /**
+     * Copies the PCM to a heap array; for tests and small clips only.
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[length];
+        get(0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Returns the memory to the pool. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (pool == null || released) {
+            return;
+        }
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            released = true;
+        }
+        pool.release(buffer);
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    void setLength(int length) {
+        this.length = length;
+        buffer.limit(length);
+    }
+
+    private int get(int position) {
+        checkOpen();
+        return buffer.get(position) & 0xFF;
+    }
+
+    private void checkOpen() {
+        if (released) {
+            throw new IllegalStateException("PCM buffer was already released");
+        }
+    }
+}
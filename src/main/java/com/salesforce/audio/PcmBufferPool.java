@@ -0,0 +1,171 @@
+package com.salesforce.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct (off-heap) buffers for decoded PCM. Decoded audio is the largest allocation of a request;
+ * held on the heap it lands in humongous G1 regions and lengthens every GC pause. Off-heap buffers keep it
+ * out of the collector's way, and pooling them means a finished job's memory is handed straight to the
+ * next one instead of waiting for the collector to free it.
+ * <p>
+ * Capacities are rounded up to a quarter of an octave, so a buffer wastes at most a quarter of its size. A
+ * released buffer is kept for reuse while the idle buffers total at most {@link #setMaxPooledBytes}; beyond
+ * that it is dropped and freed once unreachable.
+ */
+public final class PcmBufferPool {
+
+    private static final int MIN_CAPACITY = 64 * 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int COPY_CHUNK = 64 * 1024;
+    private static final PcmBufferPool SHARED = new PcmBufferPool(256L << 20);
+
+    /** Idle buffers by capacity. */
+    private final TreeMap<Integer, ArrayDeque<ByteBuffer>> free = new TreeMap<>();
+    private final AtomicLong bytesInUse = new AtomicLong();
+    private final AtomicLong allocations = new AtomicLong();
+    private long pooledBytes;
+    private volatile long maxPooledBytes;
+
+    public PcmBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * The pool used for all decoded audio.
+     */
+    public static PcmBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Caps the idle buffers kept for reuse; 0 frees every buffer as soon as it is released.
+     */
+    public synchronized void setMaxPooledBytes(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        trim();
+    }
+
+    /**
+     * Takes a buffer of exactly {@code length} bytes, reusing an idle one when possible.
+     */
+    public PcmBuffer acquire(int length) {
+        int capacity = capacityFor(length);
+        ByteBuffer buffer = null;
+        synchronized (this) {
+            // Don't hand out a buffer more than twice the size asked for; it is better kept for a large job
+            Map.Entry<Integer, ArrayDeque<ByteBuffer>> entry = free.ceilingEntry(capacity);
+            if (entry != null && entry.getKey() / 2 <= capacity) {
+                buffer = entry.getValue().pollFirst();
+                if (entry.getValue().isEmpty()) {
+                    free.remove(entry.getKey());
+                }
+                pooledBytes -= buffer.capacity();
+            }
+        }
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(capacity);
+            allocations.incrementAndGet();
+        }
+        buffer.clear().limit(length);
+        bytesInUse.addAndGet(buffer.capacity());
+        return new PcmBuffer(buffer, length, this);
+    }
+
+    /**
+     * Reads a stream to the end into a pooled buffer.
+     *
+     * @param in             Stream to read; not closed
+     * @param expectedLength Expected number of bytes, used as the initial size; the buffer grows if needed
+     */
+    public PcmBuffer readFully(InputStream in, int expectedLength) throws IOException {
+        PcmBuffer pcm = acquire(Math.max(expectedLength, 0));
+        ByteBuffer target = pcm.buffer();
+        target.limit(target.capacity());
+        byte[] chunk = new byte[COPY_CHUNK];
+        try {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (target.remaining() < read) {
+                    PcmBuffer grown = acquire(grownLength(target.capacity(), target.position() + read));
+                    ByteBuffer grownTarget = grown.buffer();
+                    grownTarget.limit(grownTarget.capacity());
+                    grownTarget.put(target.flip());
+                    pcm.close();
+                    pcm = grown;
+                    target = grownTarget;
+                }
+                target.put(chunk, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            pcm.close();
+            throw e;
+        }
+        pcm.setLength(target.position());
+        return pcm;
+    }
+
+    synchronized void release(ByteBuffer buffer) {
+        bytesInUse.addAndGet(-buffer.capacity());
+        if (pooledBytes + buffer.capacity() > maxPooledBytes) {
+            return;
+        }
+        free.computeIfAbsent(buffer.capacity(), capacity -> new ArrayDeque<>()).addLast(buffer);
+        pooledBytes += buffer.capacity();
+    }
+
+    /**
+     * Off-heap bytes held by buffers that have not been released.
+     */
+    public long getBytesInUse() {
+        return bytesInUse.get();
+    }
+
+    /**
+     * Off-heap bytes held by idle buffers kept for reuse.
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Direct buffers allocated so far; stays flat while jobs are served from the pool.
+     */
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    private void trim() {
+        while (pooledBytes > maxPooledBytes && !free.isEmpty()) {
+            Map.Entry<Integer, ArrayDeque<ByteBuffer>> largest = free.lastEntry();
+            largest.getValue().pollFirst();
+            pooledBytes -= largest.getKey();
+            if (largest.getValue().isEmpty()) {
+                free.remove(largest.getKey());
+            }
+        }
+    }
+
+    /**
+     * Rounds up to a multiple of a quarter of the next lower power of two.
+     */
+    static int capacityFor(int length) {
+        if (length <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        long step = Integer.highestOneBit(length - 1) / 4;
+        return (int) Math.min(MAX_CAPACITY, (length + step - 1) / step * step);
+    }
+
+    private static int grownLength(int capacity, int needed) throws IOException {
+        if (needed < 0 || needed > MAX_CAPACITY) {
+            throw new IOException("Decoded audio exceeds 2 GB");
+        }
+        return (int) Math.min(MAX_CAPACITY, Math.max(needed, capacity + (long) capacity / 2));
+    }
+}
@@ -0,0 +1,128 @@
+package com.salesforce.audio;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Per-sample loops of the redaction pass, over whole arrays from index 0: converting rendered noise to
+ * 16-bit samples, scaling and mixing it, crossfading, and summing squares for the quiet-point scan.
+ * <p>
+ * The loops here are plain Java; C2 auto-vectorises the float ones, but not those that convert between
+ * element sizes. {@link #vector()} replaces those with the incubating Vector API and is only available when
+ * the JVM runs with {@code --add-modules jdk.incubator.vector}. Both give identical results. The
+ * kernels in use are chosen once at startup with {@code audio.simd} (see {@link #forMode}) and read with
+ * {@link #current()} whenever a fill or crossfade begins.
+ */
+public abstract class PcmKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "com.salesforce.audio.VectorPcmKernels";
+
+    private static volatile PcmKernels current = ScalarPcmKernels.INSTANCE;
+
+    public static PcmKernels current() {
+        return current;
+    }
+
+    public static void use(PcmKernels kernels) {
+        current = kernels;
+    }
+
+    public static PcmKernels scalar() {
+        return ScalarPcmKernels.INSTANCE;
+    }
+
+    /**
+     * Vector API kernels, or null when the JVM was started without the incubator module or the platform
+     * has no vector unit.
+     */
+    public static PcmKernels vector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (PcmKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return null;
+            }
+            throw new IllegalStateException("Cannot load " + VECTOR_KERNELS, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load " + VECTOR_KERNELS, e);
+        }
+    }
+
+    /**
+     * Kernels for an {@code audio.simd} setting: {@code vector} requires the Vector API, {@code scalar} never
+     * uses it, and {@code auto} uses it when it is available.
+     */
+    public static PcmKernels forMode(String mode) {
+        switch (mode.trim().toLowerCase()) {
+            case "scalar":
+                return scalar();
+            case "auto":
+                PcmKernels vector = vector();
+                return vector != null ? vector : scalar();
+            case "vector":
+                PcmKernels required = vector();
+                if (required == null) {
+                    throw new IllegalStateException("audio.simd=vector requires --add-modules " + VECTOR_MODULE);
+                }
+                return required;
+            default:
+                throw new IllegalArgumentException("Unknown audio.simd mode: " + mode);
+        }
+    }
+
+    /**
+     * Short name for logs and metrics, e.g. {@code scalar} or {@code vector-256}.
+     */
+    public abstract String name();
+
+    /**
+     * {@code samples[n] *= gain}.
+     */
+    public void scale(float[] samples, int count, float gain) {
+        for (int n = 0; n < count; n++) {
+            samples[n] *= gain;
+        }
+    }
+
+    /**
+     * {@code sum[n] += gain * samples[n]}.
+     */
+    public void mulAdd(float[] sum, float[] samples, float gain, int count) {
+        for (int n = 0; n < count; n++) {
+            sum[n] += gain * samples[n];
+        }
+    }
+
+    /**
+     * {@code out[n] = (short) samples[n]}, saturated to the 16-bit range.
+     */
+    public void toPcm16(float[] samples, short[] out, int count) {
+        for (int n = 0; n < count; n++) {
+            out[n] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, (int) samples[n]));
+        }
+    }
+
+    /**
+     * {@code replaced[n] = original[n] + ((replaced[n] - original[n]) * weight[n] >> 15)}: moves each sample
+     * from the original towards its replacement by a Q15 weight.
+     */
+    public void crossfade(short[] original, short[] replaced, short[] weight, int count) {
+        for (int n = 0; n < count; n++) {
+            replaced[n] = (short) (original[n] + ((replaced[n] - original[n]) * weight[n] >> 15));
+        }
+    }
+
+    /**
+     * Sum of {@code samples[n]^2}.
+     */
+    public long sumOfSquares(short[] samples, int count) {
+        long sum = 0;
+        for (int n = 0; n < count; n++) {
+            sum += samples[n] * samples[n];
+        }
+        return sum;
+    }
+}
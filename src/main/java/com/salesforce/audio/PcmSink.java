@@ -0,0 +1,16 @@
+package com.salesforce.audio;
+
+import java.io.IOException;
+
+/**
+ * Receives interleaved PCM frames as they are produced by the redaction pass.
+ */
+@FunctionalInterface
+public interface PcmSink {
+
+    /**
+     * Consumes {@code length} bytes of interleaved PCM starting at {@code offset}.
+     * Implementations must not retain a reference to {@code data} after returning.
+     */
+    void write(byte[] data, int offset, int length) throws IOException;
+}
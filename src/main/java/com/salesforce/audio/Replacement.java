@@ -0,0 +1,70 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+
+/**
+ * What a redacted range is overwritten with. The redactor calls {@link #begin} when it reaches a range and
+ * then fills the range block by block, in order, so a replacement generates its audio as the output is
+ * written instead of rendering the whole range up front.
+ */
+public interface Replacement {
+
+    /**
+     * Starts a redacted range.
+     *
+     * @param audio        Audio being redacted, with its original samples
+     * @param format       Format of {@code audio}
+     * @param start        First byte to fill, frame aligned: the start of the range, less the crossfade before it
+     * @param end          End of the fill (exclusive), frame aligned: the end of the range plus the crossfade after it
+     * @param contextStart Start of the unredacted audio before the range: the end of the previous range, or 0
+     * @param contextEnd   End of the unredacted audio after the range: the start of the next range, or the
+     *                     audio length. Both may overlap the crossfades, which start from the original audio
+     * @return fills the range in order
+     */
+    Fill begin(PcmBuffer audio, AudioFormat format, int start, int end, int contextStart, int contextEnd);
+
+    /**
+     * Writes the next part of a range.
+     */
+    interface Fill {
+
+        /**
+         * Overwrites {@code block[from, to)} with the next {@code to - from} bytes of the range; both frame aligned.
+         */
+        void fill(byte[] block, int from, int to);
+    }
+
+    /**
+     * Zeroes every range.
+     */
+    static Replacement silence() {
+        return (audio, format, start, end, contextStart, contextEnd) ->
+                (block, from, to) -> Arrays.fill(block, from, to, (byte) 0);
+    }
+
+    /**
+     * Loops {@code pattern} over each range, starting from its first byte at the start of the range.
+     */
+    static Replacement pattern(byte[] pattern) {
+        if (pattern.length == 0) {
+            return silence();
+        }
+        return (audio, format, start, end, contextStart, contextEnd) -> new Fill() {
+            private int index;
+
+            @Override
+            public void fill(byte[] block, int from, int to) {
+                while (from < to) {
+                    int count = Math.min(to - from, pattern.length - index);
+                    System.arraycopy(pattern, index, block, from, count);
+                    from += count;
+                    index += count;
+                    if (index == pattern.length) {
+                        index = 0;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.salesforce.audio;
+
+/**
+ * The plain loops of {@link PcmKernels}.
+ */
+final class ScalarPcmKernels extends PcmKernels {
+
+    static final ScalarPcmKernels INSTANCE = new ScalarPcmKernels();
+
+    private ScalarPcmKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,69 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams 16-bit PCM into a RIFF/WAVE file. The header is written up front with the conventional
+ * "unknown length" placeholder sizes, so the file is playable while it is still being written, and
+ * patched once the total length is known.
+ */
+public class WavEncoder implements AudioEncoder {
+
+    private static final int HEADER_SIZE = 44;
+
+    private final Path outputFile;
+    private final OutputStream out;
+    private long dataBytes;
+
+    public WavEncoder(Path outputFile, AudioFormat format) throws IOException {
+        OutputFormat.requirePcm16(format);
+        this.outputFile = outputFile;
+        this.out = new BufferedOutputStream(Files.newOutputStream(outputFile), 64 * 1024);
+
+        int channels = format.getChannels();
+        int sampleRate = (int) format.getSampleRate();
+        int blockAlign = channels * 2;
+
+        byte[] header = new byte[HEADER_SIZE];
+        LittleEndian.putAscii(header, 0, "RIFF");
+        LittleEndian.putInt(header, 4, -1);
+        LittleEndian.putAscii(header, 8, "WAVE");
+        LittleEndian.putAscii(header, 12, "fmt ");
+        LittleEndian.putInt(header, 16, 16);
+        LittleEndian.putShort(header, 20, 1);
+        LittleEndian.putShort(header, 22, channels);
+        LittleEndian.putInt(header, 24, sampleRate);
+        LittleEndian.putInt(header, 28, sampleRate * blockAlign);
+        LittleEndian.putShort(header, 32, blockAlign);
+        LittleEndian.putShort(header, 34, 16);
+        LittleEndian.putAscii(header, 36, "data");
+        LittleEndian.putInt(header, 40, -1);
+        out.write(header);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+        dataBytes += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        try (RandomAccessFile file = new RandomAccessFile(outputFile.toFile(), "rw")) {
+            byte[] size = new byte[4];
+            LittleEndian.putInt(size, 0, (int) (dataBytes + HEADER_SIZE - 8));
+            file.seek(4);
+            file.write(size);
+            LittleEndian.putInt(size, 0, (int) dataBytes);
+            file.seek(40);
+            file.write(size);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.salesforce.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Min/max peaks of the original and the redacted audio, built from the blocks of the redaction pass so
+ * the web UI can draw both waveforms without downloading either file.
+ * <p>
+ * Each peak is the lowest and highest sample, over all channels, of {@value #BASE_FRAMES_PER_PEAK} frames,
+ * kept as the high byte of the 16-bit sample. Coarser levels halve the peak count until an overview of at
+ * most {@value #OVERVIEW_PEAKS} peaks is left, so a reader can pick the level that fits its width and only
+ * read the slice it shows. The file is a header followed by each level's peaks, original then redacted:
+ * <pre>
+ * int magic, int version, int sampleRate, long frames, int levels,
+ * levels x (int framesPerPeak, int peaks, long offset),
+ * levels x (peaks x (byte min, byte max) original, peaks x (byte min, byte max) redacted)
+ * </pre>
+ */
+public final class WaveformPeaks {
+
+    public static final int BASE_FRAMES_PER_PEAK = 256;
+    public static final int OVERVIEW_PEAKS = 512;
+    private static final int MAGIC = 0x5045414B;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int LEVEL_BYTES = 16;
+
+    private final int sampleRate;
+    private final int channels;
+    private final long frames;
+    private final Track original;
+    private final Track redacted;
+
+    /**
+     * @param format Format of the 16-bit little-endian PCM that will be written
+     * @param frames Length of the audio in frames
+     */
+    public WaveformPeaks(AudioFormat format, long frames) {
+        this.sampleRate = Math.round(format.getSampleRate());
+        this.channels = format.getChannels();
+        this.frames = frames;
+        int peaks = (int) Math.max(1, (frames + BASE_FRAMES_PER_PEAK - 1) / BASE_FRAMES_PER_PEAK);
+        this.original = new Track(peaks);
+        this.redacted = new Track(peaks);
+    }
+
+    /**
+     * Receives the audio as it is read, before redaction, in whole frames.
+     */
+    public PcmSink original() {
+        return original;
+    }
+
+    /**
+     * Receives the redacted audio as it is written, in whole frames.
+     */
+    public PcmSink redacted() {
+        return redacted;
+    }
+
+    /**
+     * Writes the peaks of both tracks at every level, replacing {@code file} atomically.
+     */
+    public void write(Path file) throws IOException {
+        original.finish();
+        redacted.finish();
+        byte[][] originalLevels = levels(original.peaks);
+        byte[][] redactedLevels = levels(redacted.peaks);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sampleRate);
+            out.writeLong(frames);
+            out.writeInt(originalLevels.length);
+            long offset = HEADER_BYTES + (long) LEVEL_BYTES * originalLevels.length;
+            for (int level = 0; level < originalLevels.length; level++) {
+                out.writeInt(BASE_FRAMES_PER_PEAK << level);
+                out.writeInt(originalLevels[level].length / 2);
+                out.writeLong(offset);
+                offset += 2L * originalLevels[level].length;
+            }
+            for (int level = 0; level < originalLevels.length; level++) {
+                out.write(originalLevels[level]);
+                out.write(redactedLevels[level]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the peaks covering {@code [startSeconds, endSeconds)} at the coarsest level that still has at
+     * least {@code width} peaks in that range, or the finest level if none has.
+     *
+     * @throws IOException if the file is not a peaks file
+     */
+    public static Slice read(Path file, double startSeconds, double endSeconds, int width) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a peaks file: " + file);
+            }
+            int sampleRate = header.getInt();
+            long frames = header.getLong();
+            int levels = header.getInt();
+            ByteBuffer index = readFully(channel, HEADER_BYTES, LEVEL_BYTES * levels);
+
+            long startFrame = Math.max(0, Math.min(frames, (long) (startSeconds * sampleRate)));
+            long endFrame = Math.max(startFrame, Math.min(frames, (long) Math.ceil(endSeconds * sampleRate)));
+            int framesPerPeak = 0;
+            int peaks = 0;
+            long offset = 0;
+            for (int level = 0; level < levels; level++) {
+                int levelFramesPerPeak = index.getInt();
+                int levelPeaks = index.getInt();
+                long levelOffset = index.getLong();
+                if (level == 0 || (endFrame - startFrame) / levelFramesPerPeak >= width) {
+                    framesPerPeak = levelFramesPerPeak;
+                    peaks = levelPeaks;
+                    offset = levelOffset;
+                }
+            }
+            int first = (int) Math.min(peaks, startFrame / framesPerPeak);
+            int last = (int) Math.min(peaks, (endFrame + framesPerPeak - 1) / framesPerPeak);
+            int count = last - first;
+            byte[] original = new byte[2 * count];
+            byte[] redacted = new byte[2 * count];
+            readFully(channel, offset + 2L * first, original.length).get(original);
+            readFully(channel, offset + 2L * peaks + 2L * first, redacted.length).get(redacted);
+            return new Slice(sampleRate, frames, framesPerPeak, first, original, redacted);
+        }
+    }
+
+    /**
+     * Halves the peak count of the previous level until it fits the overview size.
+     */
+    private static byte[][] levels(byte[] base) {
+        int levels = 1;
+        for (int peaks = base.length / 2; peaks > OVERVIEW_PEAKS; peaks = (peaks + 1) / 2) {
+            levels++;
+        }
+        byte[][] result = new byte[levels][];
+        result[0] = base;
+        for (int level = 1; level < levels; level++) {
+            byte[] finer = result[level - 1];
+            int finerPeaks = finer.length / 2;
+            byte[] coarser = new byte[2 * ((finerPeaks + 1) / 2)];
+            for (int peak = 0; peak < finerPeaks; peak += 2) {
+                int pair = Math.min(peak + 1, finerPeaks - 1);
+                coarser[peak] = (byte) Math.min(finer[2 * peak], finer[2 * pair]);
+                coarser[peak + 1] = (byte) Math.max(finer[2 * peak + 1], finer[2 * pair + 1]);
+            }
+            result[level] = coarser;
+        }
+        return result;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated peaks file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Peaks of one range of the audio at one level, as interleaved min and max bytes.
+     *
+     * @param firstPeak Index of the first peak at this level; it starts at {@code firstPeak * framesPerPeak}
+     */
+    public record Slice(int sampleRate, long frames, int framesPerPeak, int firstPeak, byte[] original, byte[] redacted) {
+    }
+
+    /**
+     * Accumulates the base level of one track from interleaved 16-bit frames.
+     */
+    private final class Track implements PcmSink {
+        private final byte[] peaks;
+        private int peak;
+        private int framesInPeak;
+        private int min = Short.MAX_VALUE;
+        private int max = Short.MIN_VALUE;
+
+        private Track(int peaks) {
+            this.peaks = new byte[2 * peaks];
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            int frameBytes = 2 * channels;
+            int end = offset + length - length % frameBytes;
+            for (int frame = offset; frame < end; frame += frameBytes) {
+                for (int sample = frame; sample < frame + frameBytes; sample += 2) {
+                    int value = (short) ((data[sample] & 0xFF) | (data[sample + 1] << 8));
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                if (++framesInPeak == BASE_FRAMES_PER_PEAK) {
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * Stores the peak being accumulated, if it has any frames.
+         */
+        private void finish() {
+            if (framesInPeak == 0 || 2 * peak >= peaks.length) {
+                return;
+            }
+            peaks[2 * peak] = (byte) (min >> 8);
+            peaks[2 * peak + 1] = (byte) (max >> 8);
+            peak++;
+            framesInPeak = 0;
+            min = Short.MAX_VALUE;
+            max = Short.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.salesforce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesforce.service.AdmissionRejectedException;
+import com.salesforce.service.AdmissionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts {@code POST /api/audio/redact} and {@code POST /api/audio/batch} behind the {@link AdmissionService}. It runs before the multipart
+ * resolver, so a rejected request is answered with 429 and Retry-After without its body being read.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    static final String REDACT_PATH = "/api/audio/redact";
+    static final String BATCH_PATH = "/api/audio/batch";
+
+    private final AdmissionService admissionService;
+    private final ObjectMapper objectMapper;
+    private final String clientHeader;
+
+    public AdmissionFilter(AdmissionService admissionService, ObjectMapper objectMapper,
+                           @Value("${admission.client-header:X-Tenant-Id}") String clientHeader) {
+        this.admissionService = admissionService;
+        this.objectMapper = objectMapper;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !"POST".equals(request.getMethod()) || !(REDACT_PATH.equals(path) || BATCH_PATH.equals(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = request.getHeader(clientHeader);
+        AdmissionService.Ticket ticket;
+        try {
+            ticket = admissionService.admit(client != null ? client : request.getRemoteAddr(), request.getContentLengthLong());
+        } catch (AdmissionRejectedException e) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), JobResponses.error(e));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try (ticket) {
+            request.setAttribute(AdmissionService.TICKET_ATTRIBUTE, ticket);
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.salesforce.controller;
 
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
 import com.salesforce.models.TimeInterval;
-import com.salesforce.models.TranscriptionResult;
-import com.salesforce.service.TranscribeWithPII;
+import com.salesforce.service.ActiveOutputRegistry;
+import com.salesforce.service.AdmissionService;
+import com.salesforce.service.JobIdConflictException;
+import com.salesforce.service.JobIds;
+import com.salesforce.service.JobProgressService;
+import com.salesforce.service.RedactionJobService;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import com.salesforce.service.AudioRedactionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,95 +42,175 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/audio")
 @RequiredArgsConstructor
 public class AudioRedactionController {
 
-    private final AudioRedactionService audioRedactionService;
-    private final TranscribeWithPII transcribeWithPIIService;
-    private final String uploadDir = "uploads";
-    private final String outputDir = "outputs";
+    private final RedactionJobService redactionJobService;
+    private final ActiveOutputRegistry activeOutputRegistry;
+    private final StorageManager storageManager;
+    private final JobStore jobStore;
+    private final JobIds jobIds;
+    private final JobProgressService jobProgressService;
+    private final PipelineMetrics metrics;
 
 
-    @PostMapping("/redact")
+    /**
+     * Reserves a job id for a redact request that has not been sent yet, so the client can subscribe to its
+     * progress and follow its download before posting the upload with this id as {@code fileId}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> reserveJob() {
+        String fileId = jobIds.reserve();
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("fileId", fileId));
+    }
+
+    @PostMapping(value = "/redact", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> redactAudio(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "replacementMethod", defaultValue = "beep") String replacementMethod,
-            @RequestParam(value = "beepFrequency", required = false) Float beepFrequency,
-            @RequestParam(value = "beepDuration", required = false) Float beepDuration,
-            @RequestParam(value = "beepVolume", required = false) Float beepVolume,
-            @RequestParam(value = "soundType", defaultValue = "beep") String soundType) {
-
-        try {
-            log.info("Received redact request - method: {}, frequency: {}, duration: {}, volume: {}, sound type: {}", 
-                    replacementMethod, beepFrequency, beepDuration, beepVolume, soundType);
-            
-            // Create directories if they don't exist
-            createDirectories();
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String uniqueId = UUID.randomUUID().toString();
-            String inputFileName = uniqueId + "_input" + fileExtension;
-            String outputFileName = uniqueId + "_redacted.wav";
-
-            // Save uploaded file using absolute paths
-            Path inputPath = getAbsolutePath(uploadDir).resolve(inputFileName);
-            file.transferTo(inputPath.toFile());
-
-            TranscriptionResult transcriptionResult = 
-                transcribeWithPIIService.transcribeAndDetectPII(inputPath.toAbsolutePath().toString());
-
-            // Process audio
-            String inputFile = inputPath.toString();
-            String outputFile = getAbsolutePath(outputDir).resolve(outputFileName).toString();
-
-            // Use default values for beep parameters if not provided
-            float frequency = (beepFrequency != null) ? beepFrequency : 1000.0f;
-            float duration = (beepDuration != null) ? beepDuration : 0.5f;
-            float volume = (beepVolume != null) ? beepVolume : 0.3f;
-
-            log.info("Processing with - frequency: {}, duration: {}, volume: {}, sound type: {}", frequency, duration, volume, soundType);
-
-            audioRedactionService.redactAudio(inputFile, outputFile, transcriptionResult.getPiiIntervals(), replacementMethod, frequency, duration, volume, soundType);
-
-            // Clean up input file
-            Files.deleteIfExists(inputPath);
+            @ModelAttribute RedactionOptions options,
+            @RequestParam(value = "fileId", required = false) String requestedFileId,
+            @RequestAttribute(name = AdmissionService.TICKET_ATTRIBUTE, required = false) AdmissionService.Ticket ticket) {
+        // The part is read directly from the multipart resolver's storage; it is never copied into uploads/
+        try (InputStream body = file.getInputStream()) {
+            return redact(body, file.getOriginalFilename(), options, requestedFileId, ticket);
+        } catch (IOException e) {
+            log.error("Error reading uploaded file", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
 
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("fileId", uniqueId);
-            response.put("originalTranscription", transcriptionResult.getOriginalTranscription());
-            response.put("redactedTranscription", transcriptionResult.getRedactedTranscription());
-            response.put("piiIntervals", transcriptionResult.getPiiIntervals());
-            response.put("piiEntities", transcriptionResult.getPiiEntities());
-            response.put("message", "Audio redacted successfully");
+    /**
+     * Raw-body variant of {@link #redactAudio}: the request body is the audio file itself and the options are
+     * query parameters, so the upload is decoded as it arrives without being spooled by the multipart resolver.
+     */
+    @PostMapping(value = "/redact", consumes = {"audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> redactAudioStream(
+            InputStream body,
+            @ModelAttribute RedactionOptions options,
+            @RequestParam(value = "filename", required = false) String filename,
+            @RequestParam(value = "fileId", required = false) String requestedFileId,
+            @RequestAttribute(name = AdmissionService.TICKET_ATTRIBUTE, required = false) AdmissionService.Ticket ticket) {
+        return redact(body, filename, options, requestedFileId, ticket);
+    }
 
-            return ResponseEntity.ok(response);
+    private ResponseEntity<Map<String, Object>> redact(InputStream body, String originalFilename,
+                                                       RedactionOptions options, String requestedFileId,
+                                                       AdmissionService.Ticket ticket) {
+        RedactionJob job = null;
+        long start = System.nanoTime();
+        metrics.activeRequests().incrementAndGet();
+        try {
+            log.info("Received redact request - method: {}, frequency: {}, duration: {}, volume: {}, sound type: {}, output format: {}", 
+                    options.getReplacementMethod(), options.getBeepFrequency(), options.getBeepDuration(),
+                    options.getBeepVolume(), options.getSoundType(), options.getOutputFormat());
+            // A reserved id lets the client start following the download before this request returns
+            String uniqueId = jobIds.claim(requestedFileId);
+            job = new RedactionJob(uniqueId, originalFilename, options);
+            redactionJobService.run(job, body, ticket);
+            return ResponseEntity.ok(JobResponses.redacted(job));
 
+        } catch (JobIdConflictException e) {
+            log.warn("Rejected redact request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(JobResponses.error(e));
         } catch (Exception e) {
             log.error("Error processing audio redaction request", e);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
+        } finally {
+            metrics.activeRequests().decrementAndGet();
+            boolean completed = job != null && job.getStage() == JobStage.COMPLETED;
+            metrics.recordRequest(completed ? "success" : "error", job != null && job.isTranscriptionCached(), System.nanoTime() - start);
         }
     }
 
+    /**
+     * Status of a single redaction, including one resumed after a restart while its request was in flight.
+     * Once completed, the response carries the same transcription fields as {@code POST /redact}.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        RedactionJob job = jobStore.get(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(JobResponses.status(job));
+    }
+
+    /**
+     * Server-Sent Events stream of a job's progress: {@code stage}, {@code streamed} (percent of the audio
+     * sent for transcription), {@code partial} and {@code segment} (transcript with the PII found in it),
+     * {@code redacted} (percent written), then {@code completed} or {@code failed}. Subscribe with an id reserved
+     * by {@code POST /jobs} before posting it as {@code fileId} to {@code /redact} to follow the request from
+     * the start.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getJobEvents(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(jobProgressService.subscribe(UUID.fromString(jobId).toString()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Downloads a redacted file. Completed files support byte ranges (206/416), conditional requests via
+     * ETag/Last-Modified (304) and If-Range, so interrupted downloads resume where they stopped.
+     * While the file is still being written the response follows it with chunked transfer encoding.
+     */
     @GetMapping("/download/{fileId}")
-    public ResponseEntity<Resource> downloadRedactedAudio(@PathVariable String fileId) {
+    public ResponseEntity<?> downloadRedactedAudio(@PathVariable String fileId,
+                                                   @RequestHeader HttpHeaders requestHeaders) {
         try {
-            Path filePath = getAbsolutePath(outputDir).resolve(fileId + "_redacted.wav");
-            Resource resource = new UrlResource(filePath.toUri());
+            ActiveOutputRegistry.ActiveOutput activeOutput = activeOutputRegistry.get(fileId);
+            if (activeOutput != null) {
+                StreamingResponseBody body = out -> {
+                    try {
+                        activeOutputRegistry.follow(activeOutput, out);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                };
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, attachment(activeOutput.getPath()))
+                        .header(HttpHeaders.ACCEPT_RANGES, "none")
+                        .cacheControl(CacheControl.noStore())
+                        .contentType(MediaType.parseMediaType(activeOutput.getFormat().getContentType()))
+                        .body(body);
+            }
+
+            for (OutputFormat format : OutputFormat.values()) {
+                Path filePath = storageManager.resolve(StorageManager.Area.OUTPUTS, fileId + "_redacted" + format.getExtension());
+                if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+                    continue;
+                }
+                storageManager.touch(filePath);
+
+                long length = Files.size(filePath);
+                long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+                String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+                // Range and 304 handling are applied by Spring MVC for Resource bodies; an InputStreamResource
+                // opts out of range processing, which is what a stale If-Range requires.
+                Resource resource = ifRangeMatches(requestHeaders, eTag, lastModified)
+                        ? new FileSystemResource(filePath)
+                        : new InputStreamResource(() -> Files.newInputStream(filePath));
 
-            if (resource.exists() && resource.isReadable()) {
                 return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, attachment(filePath))
+                        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .eTag(eTag)
+                        .lastModified(lastModified)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .contentLength(length)
+                        .contentType(MediaType.parseMediaType(format.getContentType()))
                         .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             log.error("Error downloading file", e);
             return ResponseEntity.badRequest().build();
@@ -124,8 +220,10 @@ public class AudioRedactionController {
     @DeleteMapping("/cleanup/{fileId}")
     public ResponseEntity<String> cleanupFile(@PathVariable String fileId) {
         try {
-            Path filePath = getAbsolutePath(outputDir).resolve(fileId + "_redacted.wav");
-            Files.deleteIfExists(filePath);
+            for (OutputFormat format : OutputFormat.values()) {
+                storageManager.delete(storageManager.resolve(StorageManager.Area.OUTPUTS, fileId + "_redacted" + format.getExtension()));
+            }
+            storageManager.delete(redactionJobService.peaksPath(fileId));
             return ResponseEntity.ok("File cleaned up successfully");
         } catch (Exception e) {
             log.error("Error cleaning up file", e);
@@ -133,21 +231,27 @@ public class AudioRedactionController {
         }
     }
 
-    private void createDirectories() throws IOException {
-        Files.createDirectories(getAbsolutePath(uploadDir));
-        Files.createDirectories(getAbsolutePath(outputDir));
+    private String attachment(Path filePath) {
+        return "attachment; filename=\"" + filePath.getFileName() + "\"";
     }
 
-    private Path getAbsolutePath(String relativePath) {
-        // Get the current working directory and resolve the relative path
-        return Paths.get(System.getProperty("user.dir")).resolve(relativePath);
-    }
-
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf(".") == -1) {
-            return ".wav";
+    /**
+     * Evaluates If-Range: a range may only be served when the validator still matches the file.
+     */
+    private boolean ifRangeMatches(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange == null || requestHeaders.getFirst(HttpHeaders.RANGE) == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            long date = requestHeaders.getFirstZonedDateTime(HttpHeaders.IF_RANGE).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
-        return filename.substring(filename.lastIndexOf("."));
     }
 
     private List<TimeInterval> parseIntervals(String intervalsJson) {
@@ -0,0 +1,58 @@
+package com.salesforce.controller;
+
+import com.salesforce.models.RedactionAuditEntry;
+import com.salesforce.storage.RedactionAuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+
+    private final RedactionAuditLog auditLog;
+
+    /**
+     * Redacted intervals recorded in the audit log, oldest first, e.g. {@code ?type=PHONE} for the phone
+     * number redactions of the last 30 days.
+     *
+     * @param from ISO-8601 instant, inclusive; defaults to 30 days before {@code to}
+     * @param to   ISO-8601 instant, exclusive; defaults to now
+     */
+    @GetMapping("/redactions")
+    public ResponseEntity<Map<String, Object>> redactions(@RequestParam(value = "type", required = false) String type,
+                                                          @RequestParam(value = "fileId", required = false) String fileId,
+                                                          @RequestParam(value = "from", required = false) String from,
+                                                          @RequestParam(value = "to", required = false) String to,
+                                                          @RequestParam(value = "limit", defaultValue = "10000") int limit) throws IOException {
+        Instant end;
+        Instant start;
+        try {
+            end = to != null ? Instant.parse(to) : Instant.now();
+            start = from != null ? Instant.parse(from) : end.minus(DEFAULT_WINDOW);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid time: " + e.getParsedString()));
+        }
+        List<RedactionAuditEntry> entries = auditLog.query(start, end, type, fileId, limit);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", start.toString());
+        response.put("to", end.toString());
+        response.put("count", entries.size());
+        response.put("entries", entries);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,106 @@
+package com.salesforce.controller;
+
+import com.salesforce.models.BatchRequest;
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionBatch;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.service.BatchRedactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/audio/batch")
+@RequiredArgsConstructor
+public class BatchRedactionController {
+
+    private final BatchRedactionService batchRedactionService;
+
+    /**
+     * Starts a batch over files already on the server, listed relative to {@code batch.input-root}.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> submitManifest(@RequestBody BatchRequest request) {
+        try {
+            RedactionBatch batch = batchRedactionService.submitPaths(request.getPaths(), request.getOptions());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toStatus(batch));
+        } catch (IllegalArgumentException e) {
+            return error(e);
+        }
+    }
+
+    /**
+     * Starts a batch over the files of an uploaded zip archive.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> submitArchive(@RequestParam("archive") MultipartFile archive,
+                                                             @ModelAttribute RedactionOptions options) {
+        try (InputStream in = archive.getInputStream()) {
+            RedactionBatch batch = batchRedactionService.submitArchive(in, options);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toStatus(batch));
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Error reading batch archive", e);
+            return error(e);
+        }
+    }
+
+    /**
+     * Per-file progress of a batch; completed files can be downloaded while the rest are still running.
+     */
+    @GetMapping("/{batchId}")
+    public ResponseEntity<Map<String, Object>> getBatch(@PathVariable String batchId) {
+        RedactionBatch batch = batchRedactionService.get(batchId);
+        if (batch == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toStatus(batch));
+    }
+
+    private Map<String, Object> toStatus(RedactionBatch batch) {
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (RedactionJob job : batch.getJobs()) {
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("fileId", job.getJobId());
+            file.put("source", job.getSource());
+            file.put("stage", job.getStage().name().toLowerCase());
+            if (job.getError() != null) {
+                file.put("error", job.getError());
+            }
+            if (job.getStage() == JobStage.COMPLETED) {
+                file.put("piiEntities", job.getTranscription().getPiiEntities().size());
+                file.put("download", "/api/audio/download/" + job.getJobId());
+            }
+            files.add(file);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("batchId", batch.getBatchId());
+        status.put("total", batch.getJobs().size());
+        status.put("completed", batch.count(JobStage.COMPLETED));
+        status.put("failed", batch.count(JobStage.FAILED));
+        status.put("finished", batch.isFinished());
+        status.put("files", files);
+        return status;
+    }
+
+    private ResponseEntity<Map<String, Object>> error(Exception e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
@@ -0,0 +1,65 @@
+package com.salesforce.controller;
+
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.TranscriptionResult;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response bodies shared by the servlet and reactive redaction controllers.
+ */
+final class JobResponses {
+
+    private JobResponses() {
+    }
+
+    /**
+     * Body of a successful {@code POST /redact}.
+     */
+    static Map<String, Object> redacted(RedactionJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileId", job.getJobId());
+        putResult(response, job);
+        response.put("message", "Audio redacted successfully");
+        return response;
+    }
+
+    /**
+     * Body of {@code GET /jobs/{jobId}}; once completed it carries the same transcription fields as
+     * {@code POST /redact}.
+     */
+    static Map<String, Object> status(RedactionJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileId", job.getJobId());
+        response.put("source", job.getSource());
+        response.put("stage", job.getStage().name().toLowerCase());
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        if (job.getStage() == JobStage.COMPLETED) {
+            putResult(response, job);
+            response.put("download", "/api/audio/download/" + job.getJobId());
+        }
+        return response;
+    }
+
+    static Map<String, Object> error(Throwable e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        return errorResponse;
+    }
+
+    private static void putResult(Map<String, Object> response, RedactionJob job) {
+        TranscriptionResult transcriptionResult = job.getTranscription();
+        response.put("outputFormat", job.getOptions().getEffectiveOutputFormat().name().toLowerCase());
+        response.put("contentHash", job.getContentHash());
+        response.put("transcriptionCached", job.isTranscriptionCached());
+        response.put("originalTranscription", transcriptionResult.getOriginalTranscription());
+        response.put("redactedTranscription", transcriptionResult.getRedactedTranscription());
+        response.put("piiIntervals", transcriptionResult.getPiiIntervals());
+        response.put("piiEntities", transcriptionResult.getPiiEntities());
+        response.put("reviewEntities", transcriptionResult.getReviewEntities());
+    }
+}
@@ -0,0 +1,74 @@
+package com.salesforce.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesforce.service.AdmissionRejectedException;
+import com.salesforce.service.AdmissionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Reactive counterpart of {@link AdmissionFilter}: queued requests wait without holding a thread, and
+ * rejected ones are answered with 429 before their body is read.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAdmissionFilter implements WebFilter {
+
+    private final AdmissionService admissionService;
+    private final ObjectMapper objectMapper;
+    private final String clientHeader;
+
+    public ReactiveAdmissionFilter(AdmissionService admissionService, ObjectMapper objectMapper,
+                                   @Value("${admission.client-header:X-Tenant-Id}") String clientHeader) {
+        this.admissionService = admissionService;
+        this.objectMapper = objectMapper;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.POST || !AdmissionFilter.REDACT_PATH.equals(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+        String client = request.getHeaders().getFirst(clientHeader);
+        if (client == null) {
+            InetSocketAddress remote = request.getRemoteAddress();
+            client = remote != null ? remote.getHostString() : "unknown";
+        }
+        return Mono.usingWhen(admissionService.admitReactive(client, request.getHeaders().getContentLength()),
+                        ticket -> {
+                            exchange.getAttributes().put(AdmissionService.TICKET_ATTRIBUTE, ticket);
+                            return chain.filter(exchange);
+                        },
+                        ticket -> Mono.fromRunnable(ticket::close))
+                .onErrorResume(AdmissionRejectedException.class, e -> reject(exchange.getResponse(), e));
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, AdmissionRejectedException e) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer buffer = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(JobResponses.error(e)));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException jsonError) {
+            return response.setComplete();
+        }
+    }
+}
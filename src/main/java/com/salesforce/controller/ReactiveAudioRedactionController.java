@@ -0,0 +1,228 @@
+package com.salesforce.controller;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.service.AdmissionService;
+import com.salesforce.service.JobIdConflictException;
+import com.salesforce.service.JobIds;
+import com.salesforce.service.ReactiveRedactionService;
+import com.salesforce.service.RedactionJobService;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux variant of {@link AudioRedactionController}, active when the application runs as a reactive web
+ * application (the {@code reactive} profile). Request bodies are consumed as streams of buffers and handed
+ * to the decoder as they arrive; nothing is spooled to disk by a multipart resolver.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/audio")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAudioRedactionController {
+
+    private static final String FILE_PART = "file";
+
+    private final ReactiveRedactionService reactiveRedactionService;
+    private final RedactionJobService redactionJobService;
+    private final StorageManager storageManager;
+    private final JobStore jobStore;
+    private final JobIds jobIds;
+    private final PipelineMetrics metrics;
+
+    /**
+     * Reserves a job id for a redact request that has not been sent yet; see {@link AudioRedactionController#reserveJob}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> reserveJob() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("fileId", jobIds.reserve()));
+    }
+
+    /**
+     * Multipart upload with the same fields as the servlet endpoint. The file part is decoded while it is
+     * received; form fields may come before or after it, except {@code fileId}, which is only honoured
+     * when it precedes the file.
+     */
+    @PostMapping(value = "/redact", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> redactAudio(
+            @RequestBody Flux<PartEvent> parts,
+            @RequestAttribute(name = AdmissionService.TICKET_ATTRIBUTE, required = false) AdmissionService.Ticket ticket) {
+        Map<String, String> fields = new ConcurrentHashMap<>();
+        RedactionJob[] job = new RedactionJob[1];
+        DecodedAudio[] audio = new DecodedAudio[1];
+
+        Mono<RedactionJob> redaction = parts.windowUntil(PartEvent::isLast)
+                .concatMap(part -> part.switchOnFirst((first, events) -> {
+                    if (first.get() instanceof FilePartEvent file && FILE_PART.equals(file.name())) {
+                        if (job[0] != null) {
+                            return Mono.error(new IllegalArgumentException("Only one file part is allowed"));
+                        }
+                        job[0] = new RedactionJob(jobIds.claim(fields.get("fileId")), file.filename(), new RedactionOptions());
+                        return reactiveRedactionService.decode(job[0], events.map(PartEvent::content), ticket)
+                                .doOnNext(decoded -> audio[0] = decoded);
+                    }
+                    if (first.get() instanceof FormPartEvent form) {
+                        fields.put(form.name(), form.value());
+                    }
+                    return events.doOnNext(event -> DataBufferUtils.release(event.content())).then(Mono.<DecodedAudio>empty());
+                }))
+                .collectList()
+                .flatMap(decoded -> {
+                    if (decoded.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("Required part 'file' is not present"));
+                    }
+                    // Options may follow the file part, so they are bound once the whole form has been read
+                    try {
+                        job[0].setOptions(bindOptions(fields));
+                    } catch (IllegalArgumentException e) {
+                        redactionJobService.fail(job[0], e.getMessage());
+                        return Mono.error(e);
+                    }
+                    logRequest(job[0].getOptions());
+                    return reactiveRedactionService.finish(job[0], decoded.get(0));
+                })
+                // Released however the request ends, including when a later part fails
+                .doFinally(signal -> {
+                    if (audio[0] != null) {
+                        audio[0].close();
+                    }
+                });
+        return respond(redaction, () -> job[0]);
+    }
+
+    /**
+     * Raw-body variant of {@link #redactAudio}: the request body is the audio file itself and the options
+     * are query parameters.
+     */
+    @PostMapping(value = "/redact", consumes = {"audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public Mono<ResponseEntity<Map<String, Object>>> redactAudioStream(
+            @RequestBody Flux<DataBuffer> body,
+            @ModelAttribute RedactionOptions options,
+            @RequestParam(value = "filename", required = false) String filename,
+            @RequestParam(value = "fileId", required = false) String requestedFileId,
+            @RequestAttribute(name = AdmissionService.TICKET_ATTRIBUTE, required = false) AdmissionService.Ticket ticket) {
+        RedactionJob[] job = new RedactionJob[1];
+        Mono<RedactionJob> redaction = Mono.defer(() -> {
+            logRequest(options);
+            job[0] = new RedactionJob(jobIds.claim(requestedFileId), filename, options);
+            return reactiveRedactionService.run(job[0], body, ticket);
+        });
+        return respond(redaction, () -> job[0]);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        RedactionJob job = jobStore.get(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(JobResponses.status(job));
+    }
+
+    /**
+     * Downloads a redacted file once it is complete. Byte ranges are served by WebFlux for resource bodies
+     * and a matching ETag or Last-Modified answers 304.
+     */
+    @GetMapping("/download/{fileId}")
+    public Mono<ResponseEntity<Resource>> downloadRedactedAudio(@PathVariable String fileId) {
+        return Mono.fromCallable(() -> {
+            for (OutputFormat format : OutputFormat.values()) {
+                Path filePath = storageManager.resolve(StorageManager.Area.OUTPUTS, fileId + "_redacted" + format.getExtension());
+                if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+                    continue;
+                }
+                storageManager.touch(filePath);
+                long length = Files.size(filePath);
+                long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+                String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filePath.getFileName() + "\"")
+                        .eTag(eTag)
+                        .lastModified(lastModified)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .contentType(MediaType.parseMediaType(format.getContentType()))
+                        .<Resource>body(new FileSystemResource(filePath));
+            }
+            return ResponseEntity.notFound().<Resource>build();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> respond(Mono<RedactionJob> redaction,
+                                                              Supplier<RedactionJob> job) {
+        long[] start = new long[1];
+        return redaction
+                .map(done -> ResponseEntity.ok(JobResponses.redacted(done)))
+                .onErrorResume(e -> {
+                    if (e instanceof JobIdConflictException) {
+                        log.warn("Rejected redact request: {}", e.getMessage());
+                        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(JobResponses.error(e)));
+                    }
+                    log.error("Error processing audio redaction request", e);
+                    return Mono.just(ResponseEntity.badRequest().body(JobResponses.error(e)));
+                })
+                .doOnSubscribe(subscription -> {
+                    start[0] = System.nanoTime();
+                    metrics.activeRequests().incrementAndGet();
+                })
+                .doFinally(signal -> {
+                    metrics.activeRequests().decrementAndGet();
+                    RedactionJob finished = job.get();
+                    boolean completed = finished != null && finished.getStage() == JobStage.COMPLETED;
+                    metrics.recordRequest(completed ? "success" : "error",
+                            finished != null && finished.isTranscriptionCached(), System.nanoTime() - start[0]);
+                });
+    }
+
+    private static RedactionOptions bindOptions(Map<String, String> fields) {
+        RedactionOptions options = new RedactionOptions();
+        DataBinder binder = new DataBinder(options);
+        binder.setAllowedFields("replacementMethod", "beepFrequency", "beepDuration", "beepVolume", "soundType", "outputFormat",
+                "minConfidence", "confidenceThresholds", "reviewBand", "redactTypes", "skipTypes");
+        binder.bind(new MutablePropertyValues(fields));
+        List<String> errors = binder.getBindingResult().getFieldErrors().stream().map(FieldError::getField).toList();
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid value for " + String.join(", ", errors));
+        }
+        return options;
+    }
+
+    private static void logRequest(RedactionOptions options) {
+        log.info("Received reactive redact request - method: {}, frequency: {}, duration: {}, volume: {}, sound type: {}, output format: {}",
+                options.getReplacementMethod(), options.getBeepFrequency(), options.getBeepDuration(),
+                options.getBeepVolume(), options.getSoundType(), options.getOutputFormat());
+    }
+}
@@ -0,0 +1,36 @@
+package com.salesforce.controller;
+
+import com.salesforce.storage.StorageManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/storage")
+@RequiredArgsConstructor
+public class StorageController {
+
+    private final StorageManager storageManager;
+
+    /**
+     * Bytes used, file counts, evictions and sweep timings for uploads/ and outputs/.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(storageManager.getStats());
+    }
+
+    /**
+     * Runs an eviction sweep immediately instead of waiting for the next scheduled one.
+     */
+    @PostMapping("/sweep")
+    public ResponseEntity<Map<String, Object>> sweep() {
+        storageManager.sweep();
+        return ResponseEntity.ok(storageManager.getStats());
+    }
+}
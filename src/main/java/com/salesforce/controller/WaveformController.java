@@ -0,0 +1,85 @@
+package com.salesforce.controller;
+
+import com.salesforce.audio.WaveformPeaks;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.service.RedactionJobService;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/audio")
+@RequiredArgsConstructor
+public class WaveformController {
+
+    private static final int MAX_WIDTH = 10000;
+
+    private final RedactionJobService redactionJobService;
+    private final StorageManager storageManager;
+    private final JobStore jobStore;
+
+    /**
+     * Min/max peaks of the original and redacted audio of a completed job, with its redacted intervals, at
+     * the coarsest resolution that still gives {@code width} peaks between {@code start} and {@code end}.
+     * Peaks are interleaved min and max values from -128 to 127; peak {@code i} starts at
+     * {@code startTime + i * framesPerPeak / sampleRate} seconds.
+     *
+     * @param width Number of peaks wanted, typically the canvas width in pixels
+     * @param start Start of the range in seconds; defaults to the beginning
+     * @param end   End of the range in seconds; defaults to the end of the audio
+     */
+    @GetMapping("/peaks/{fileId}")
+    public ResponseEntity<Map<String, Object>> peaks(@PathVariable String fileId,
+                                                     @RequestParam(value = "width", defaultValue = "1000") int width,
+                                                     @RequestParam(value = "start", defaultValue = "0") double start,
+                                                     @RequestParam(value = "end", required = false) Double end) throws IOException {
+        String jobId;
+        try {
+            jobId = UUID.fromString(fileId).toString();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid file ID: " + fileId));
+        }
+        Path path = redactionJobService.peaksPath(jobId);
+        if (!Files.isRegularFile(path)) {
+            return ResponseEntity.notFound().build();
+        }
+        storageManager.touch(path);
+        WaveformPeaks.Slice slice = WaveformPeaks.read(path, start, end != null ? end : Double.MAX_VALUE,
+                Math.max(1, Math.min(MAX_WIDTH, width)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("fileId", jobId);
+        response.put("sampleRate", slice.sampleRate());
+        response.put("duration", (double) slice.frames() / slice.sampleRate());
+        response.put("framesPerPeak", slice.framesPerPeak());
+        response.put("startTime", (double) slice.firstPeak() * slice.framesPerPeak() / slice.sampleRate());
+        response.put("original", toInts(slice.original()));
+        response.put("redacted", toInts(slice.redacted()));
+        RedactionJob job = jobStore.get(jobId);
+        response.put("redactedIntervals", job != null && job.getTranscription() != null
+                ? job.getTranscription().getPiiIntervals() : List.of());
+        return ResponseEntity.ok(response);
+    }
+
+    private static int[] toInts(byte[] peaks) {
+        int[] values = new int[peaks.length];
+        for (int i = 0; i < peaks.length; i++) {
+            values[i] = peaks[i];
+        }
+        return values;
+    }
+}
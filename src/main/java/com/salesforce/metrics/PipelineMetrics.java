@@ -0,0 +1,249 @@
+package com.salesforce.metrics;
+
+import com.salesforce.audio.PcmBufferPool;
+import com.salesforce.audio.PcmSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the redaction pipeline. Each request is split into stages timed under
+ * {@code redaction.stage}; the stages owned by the transcription service (streaming and waiting for the
+ * final transcript) can then be compared against our own CPU stages at any percentile.
+ */
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        /** Time blocked reading the upload body. */
+        UPLOAD,
+        /** Decoding to PCM, excluding time spent waiting for upload bytes. */
+        DECODE,
+        /** Conversion to 16kHz mono for transcription. */
+        RESAMPLE,
+        /** Connecting to the transcription service and paced streaming of the audio. */
+        STREAM,
+        /** Waiting for the final transcript after the last chunk was sent. */
+        WAIT_FOR_FINAL,
+        /** Redaction pass, excluding time spent in the encoder. */
+        REDACT,
+        /** Encoding and writing the output file. */
+        WRITE;
+
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Counter uploadBytes;
+    private final Counter outputBytes;
+    private final Counter audioSeconds;
+    private final Counter piiEntities;
+    private final DistributionSummary piiEntitiesPerMinute;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger activeTranscriptions = new AtomicInteger();
+    private final AtomicInteger queuedTranscriptions = new AtomicInteger();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("redaction.stage")
+                    .description("Time spent in each stage of the redaction pipeline")
+                    .tag("stage", stage.tag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        uploadBytes = Counter.builder("redaction.bytes.processed").tag("direction", "in").baseUnit("bytes")
+                .description("Encoded audio bytes received").register(registry);
+        outputBytes = Counter.builder("redaction.bytes.processed").tag("direction", "out").baseUnit("bytes")
+                .description("Encoded audio bytes written").register(registry);
+        audioSeconds = Counter.builder("redaction.audio.duration").baseUnit("seconds")
+                .description("Seconds of audio processed").register(registry);
+        piiEntities = Counter.builder("redaction.pii.entities")
+                .description("PII entities detected").register(registry);
+        piiEntitiesPerMinute = DistributionSummary.builder("redaction.pii.entities.per.minute")
+                .description("PII entities per minute of audio, per request").register(registry);
+        Gauge.builder("redaction.requests.active", activeRequests, AtomicInteger::get)
+                .description("Redaction requests currently in progress").register(registry);
+        Gauge.builder("transcription.sessions.active", activeTranscriptions, AtomicInteger::get)
+                .description("Transcription WebSocket sessions currently streaming or waiting").register(registry);
+        Gauge.builder("transcription.sessions.queued", queuedTranscriptions, AtomicInteger::get)
+                .description("Transcriptions waiting for a free session").register(registry);
+        PcmBufferPool pcmPool = PcmBufferPool.shared();
+        Gauge.builder("audio.pcm.offheap.bytes", pcmPool, PcmBufferPool::getBytesInUse).tag("state", "in-use")
+                .baseUnit("bytes").description("Off-heap PCM held by decoded audio").register(registry);
+        Gauge.builder("audio.pcm.offheap.bytes", pcmPool, PcmBufferPool::getPooledBytes).tag("state", "pooled")
+                .baseUnit("bytes").description("Idle off-heap PCM buffers kept for reuse").register(registry);
+        FunctionCounter.builder("audio.pcm.offheap.allocations", pcmPool, PcmBufferPool::getAllocations)
+                .description("Direct PCM buffers allocated rather than reused").register(registry);
+    }
+
+    public void record(Stage stage, long nanos) {
+        stageTimers.get(stage).record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records {@code stage} as the time elapsed since {@code startNanos} and returns the current time,
+     * so consecutive stages can be chained.
+     */
+    public long recordSince(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        record(stage, now - startNanos);
+        return now;
+    }
+
+    /**
+     * Records a finished request.
+     * @param outcome "success" or "error"
+     * @param cached  Whether the transcription came from the cache
+     * @param nanos   Total request time
+     */
+    public void recordRequest(String outcome, boolean cached, long nanos) {
+        Timer.builder("redaction.request")
+                .description("End-to-end redaction request time")
+                .tags("outcome", outcome, "transcription", cached ? "cached" : "live")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutputBytes(long bytes) {
+        outputBytes.increment(bytes);
+    }
+
+    /**
+     * Records the entities found in one request together with its audio duration.
+     */
+    public void recordPiiEntities(int count, double durationSeconds) {
+        piiEntities.increment(count);
+        audioSeconds.increment(durationSeconds);
+        if (durationSeconds > 0) {
+            piiEntitiesPerMinute.record(count * 60.0 / durationSeconds);
+        }
+    }
+
+    /**
+     * Counts a transcription connection that failed to open or dropped mid-stream.
+     * @param phase "connect" or "stream"
+     */
+    public void recordConnectionFailure(String phase) {
+        registry.counter("transcription.websocket.failures", "phase", phase).increment();
+    }
+
+    public void recordCacheLookup(boolean hit) {
+        registry.counter("transcription.cache.lookups", "result", hit ? "hit" : "miss").increment();
+    }
+
+    public AtomicInteger activeRequests() {
+        return activeRequests;
+    }
+
+    public AtomicInteger activeTranscriptions() {
+        return activeTranscriptions;
+    }
+
+    public AtomicInteger queuedTranscriptions() {
+        return queuedTranscriptions;
+    }
+
+    /**
+     * Wraps an upload body so that the time blocked in {@code read} is attributed to {@link Stage#UPLOAD}
+     * and the bytes read are counted.
+     */
+    public TimedInputStream timeUpload(InputStream in) {
+        return new TimedInputStream(in);
+    }
+
+    /**
+     * Wraps an encoder so that the time spent writing is attributed to {@link Stage#WRITE}.
+     */
+    public TimedSink timeWrites(PcmSink sink) {
+        return new TimedSink(sink);
+    }
+
+    public class TimedInputStream extends FilterInputStream {
+        private long nanos;
+        private long bytes;
+
+        private TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            nanos += System.nanoTime() - start;
+            if (b >= 0) {
+                bytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            int n = super.read(b, off, len);
+            nanos += System.nanoTime() - start;
+            if (n > 0) {
+                bytes += n;
+            }
+            return n;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Records the upload stage and byte count; {@code totalNanos} minus the read time is recorded as decode.
+         */
+        public void finish(long totalNanos) {
+            record(Stage.UPLOAD, nanos);
+            record(Stage.DECODE, totalNanos - nanos);
+            uploadBytes.increment(bytes);
+        }
+    }
+
+    public class TimedSink implements PcmSink {
+        private final PcmSink delegate;
+        private long nanos;
+
+        private TimedSink(PcmSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            delegate.write(data, offset, length);
+            nanos += System.nanoTime() - start;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Records the write stage; {@code totalNanos} minus the write time is recorded as redaction.
+         */
+        public void finish(long totalNanos) {
+            record(Stage.WRITE, nanos);
+            record(Stage.REDACT, totalNanos - nanos);
+        }
+    }
+}
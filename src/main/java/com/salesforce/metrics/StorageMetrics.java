@@ -0,0 +1,38 @@
+package com.salesforce.metrics;
+
+import com.salesforce.storage.StorageManager;
+import com.salesforce.storage.TranscriptionCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the storage and transcription cache statistics as meters.
+ */
+@Component
+@RequiredArgsConstructor
+public class StorageMetrics implements MeterBinder {
+
+    private final StorageManager storageManager;
+    private final TranscriptionCache transcriptionCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (StorageManager.Area area : StorageManager.Area.values()) {
+            String tag = area.name().toLowerCase();
+            Gauge.builder("storage.bytes.used", storageManager, manager -> manager.getBytesUsed(area))
+                    .tag("area", tag).baseUnit("bytes").register(registry);
+            FunctionCounter.builder("storage.files.evicted", storageManager, manager -> manager.getFilesEvicted(area))
+                    .tag("area", tag).register(registry);
+        }
+        Gauge.builder("storage.sweep.last.duration", storageManager, StorageManager::getLastSweepMillis)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("transcription.cache.entries", transcriptionCache, TranscriptionCache::size)
+                .register(registry);
+        Gauge.builder("transcription.cache.disk.bytes", transcriptionCache, TranscriptionCache::getDiskBytes)
+                .baseUnit("bytes").register(registry);
+    }
+}
@@ -15,15 +15,15 @@ import java.util.List;
 @AllArgsConstructor
 public class Alternative {
     private String transcript;
-    private List<Object> items;
+    private WordItems items;
     private List<PIIEntity> entities;
 
     public String getTranscript() {
         return transcript != null ? transcript : "";
     }
 
-    public List<Object> getItems() {
-        return items != null ? items : Collections.emptyList();
+    public WordItems getItems() {
+        return items != null ? items : WordItems.EMPTY;
     }
 
     public List<PIIEntity> getEntities() {
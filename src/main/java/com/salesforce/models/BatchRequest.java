@@ -0,0 +1,22 @@
+package com.salesforce.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * JSON manifest for a batch: files to redact, relative to the batch input root, and shared options.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+    private List<String> paths;
+    private RedactionOptions options;
+
+    public RedactionOptions getOptions() {
+        return options != null ? options : new RedactionOptions();
+    }
+}
@@ -0,0 +1,17 @@
+package com.salesforce.models;
+
+/**
+ * Lifecycle of a redaction job.
+ */
+public enum JobStage {
+    QUEUED,
+    DECODING,
+    TRANSCRIBING,
+    REDACTING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
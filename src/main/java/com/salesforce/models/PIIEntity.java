@@ -18,6 +18,12 @@ public class PIIEntity {
     private double endTime;
     private String content;
     private double confidence;
+    /** Channel the entity was spoken on when channels are transcribed separately, otherwise null. */
+    private Integer channel;
+
+    public PIIEntity(String type, double startTime, double endTime, String content, double confidence) {
+        this(type, startTime, endTime, content, confidence, null);
+    }
 
     public String getType() {
         return Objects.requireNonNull(type, "PII type cannot be null");
@@ -51,6 +57,7 @@ public class PIIEntity {
                 ", endTime=" + endTime +
                 ", content='" + getContent() + '\'' +
                 ", confidence=" + confidence +
+                (channel != null ? ", channel=" + channel : "") +
                 '}';
     }
 
@@ -63,11 +70,12 @@ public class PIIEntity {
                Double.compare(piiEntity.endTime, endTime) == 0 &&
                Double.compare(piiEntity.confidence, confidence) == 0 &&
                Objects.equals(getType(), piiEntity.getType()) &&
-               Objects.equals(getContent(), piiEntity.getContent());
+               Objects.equals(getContent(), piiEntity.getContent()) &&
+               Objects.equals(channel, piiEntity.channel);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getType(), startTime, endTime, getContent(), confidence);
+        return Objects.hash(getType(), startTime, endTime, getContent(), confidence, channel);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.salesforce.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One redacted interval of one file as recorded in the audit log, with the PII that caused it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedactionAuditEntry {
+    /** When the redacted output was written, in epoch milliseconds. */
+    private long timestamp;
+    private String fileId;
+    /** Hex SHA-256 of the uploaded file, or null if it was not hashed. */
+    private String contentHash;
+    /** Replacement written over the interval, e.g. {@code beep:chime}, {@code noise:pink} or {@code silence}. */
+    private String method;
+    private double startTime;
+    private double endTime;
+    /** Channel the interval was redacted on, or null for every channel. */
+    private Integer channel;
+    private String type;
+    private double confidence;
+}
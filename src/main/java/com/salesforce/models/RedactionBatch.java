@@ -0,0 +1,36 @@
+package com.salesforce.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of redaction jobs submitted together.
+ */
+@Data
+@NoArgsConstructor
+public class RedactionBatch {
+    private String batchId;
+    private long createdAt;
+    private List<RedactionJob> jobs = new ArrayList<>();
+
+    public RedactionBatch(String batchId) {
+        this.batchId = batchId;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Counts the jobs currently in the given stage.
+     * @param stage Stage to count
+     * @return number of jobs
+     */
+    public long count(JobStage stage) {
+        return jobs.stream().filter(job -> job.getStage() == stage).count();
+    }
+
+    public boolean isFinished() {
+        return jobs.stream().allMatch(job -> job.getStage().isFinished());
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesforce.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One file to redact, either from a single request or as part of a batch, with its progress.
+ */
+@Data
+@NoArgsConstructor
+public class RedactionJob {
+    private String jobId;
+    private String batchId;
+    private String source;
+    /** Server-side copy of the input that the job can be re-decoded from, or null for a request body. */
+    private String inputPath;
+    /** Whether {@link #inputPath} was created for this job and should be deleted when it finishes. */
+    private boolean temporaryInput;
+    private RedactionOptions options;
+    private volatile JobStage stage = JobStage.QUEUED;
+    private volatile String error;
+    private String contentHash;
+    private boolean transcriptionCached;
+    private TranscriptionResult transcription;
+    private long createdAt;
+    private volatile long updatedAt;
+
+    public RedactionJob(String jobId, String source, RedactionOptions options) {
+        this.jobId = jobId;
+        this.source = source;
+        this.options = options;
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = createdAt;
+    }
+
+    public void setStage(JobStage stage) {
+        this.stage = stage;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Marks the job as failed with the given reason.
+     * @param error Failure message
+     */
+    public void fail(String error) {
+        this.error = error;
+        setStage(JobStage.FAILED);
+    }
+}
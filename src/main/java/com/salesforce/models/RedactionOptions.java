@@ -0,0 +1,73 @@
+package com.salesforce.models;
+
+import com.salesforce.audio.OutputFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-request redaction settings, bound from the form fields or query parameters of a redact request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedactionOptions {
+    private String replacementMethod = "beep";
+    private Float beepFrequency;
+    private Float beepDuration;
+    private Float beepVolume;
+    private String soundType = "beep";
+    private String outputFormat = "wav";
+    /** Minimum confidence for an entity to be redacted, for every type without its own threshold. */
+    private Double minConfidence;
+    /** Per-type thresholds as {@code TYPE:confidence}, comma separated, e.g. {@code NAME:0.9,ADDRESS:0.6}. */
+    private String confidenceThresholds;
+    /** How far below its threshold an entity is still reported for review rather than dropped. */
+    private Double reviewBand;
+    /** Comma-separated entity types to redact; all types when absent. */
+    private String redactTypes;
+    /** Comma-separated entity types never to redact. */
+    private String skipTypes;
+
+    public RedactionOptions(String replacementMethod, Float beepFrequency, Float beepDuration, Float beepVolume,
+                            String soundType, String outputFormat) {
+        this.replacementMethod = replacementMethod;
+        this.beepFrequency = beepFrequency;
+        this.beepDuration = beepDuration;
+        this.beepVolume = beepVolume;
+        this.soundType = soundType;
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * Gets the beep frequency, defaulting to 1000 Hz.
+     * @return frequency in Hz
+     */
+    public float getEffectiveFrequency() {
+        return beepFrequency != null ? beepFrequency : 1000.0f;
+    }
+
+    /**
+     * Gets the beep duration, defaulting to 0.5 seconds.
+     * @return duration in seconds
+     */
+    public float getEffectiveDuration() {
+        return beepDuration != null ? beepDuration : 0.5f;
+    }
+
+    /**
+     * Gets the beep volume, defaulting to 0.3.
+     * @return volume between 0.0 and 1.0
+     */
+    public float getEffectiveVolume() {
+        return beepVolume != null ? beepVolume : 0.3f;
+    }
+
+    public String getSoundType() {
+        return soundType != null ? soundType : "beep";
+    }
+
+    public OutputFormat getEffectiveOutputFormat() {
+        return OutputFormat.fromString(outputFormat);
+    }
+}
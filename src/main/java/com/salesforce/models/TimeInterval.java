@@ -13,6 +13,12 @@ import lombok.NoArgsConstructor;
 public class TimeInterval {
     private double startTime;
     private double endTime;
+    /** Channel the interval is redacted on, counting from 0, or null for every channel. */
+    private Integer channel;
+
+    public TimeInterval(double startTime, double endTime) {
+        this(startTime, endTime, null);
+    }
 
     /**
      * Gets the duration of this interval in seconds.
@@ -24,7 +30,7 @@ public class TimeInterval {
 
     @Override
     public String toString() {
-        return String.format("TimeInterval{startTime=%.2f, endTime=%.2f, duration=%.2f}", 
-            startTime, endTime, getDuration());
+        return String.format("TimeInterval{startTime=%.2f, endTime=%.2f, duration=%.2f%s}", 
+            startTime, endTime, getDuration(), channel != null ? ", channel=" + channel : "");
     }
 } 
\ No newline at end of file
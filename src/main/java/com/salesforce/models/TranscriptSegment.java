@@ -0,0 +1,29 @@
+package com.salesforce.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One final segment of a streaming transcription, with times relative to the start of the audio.
+ * Segments are checkpointed as they arrive so an interrupted transcription can resume after the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptSegment {
+    private double startTime;
+    private double endTime;
+    private String transcript;
+    private List<PIIEntity> piiEntities;
+    private WordItems items;
+    /** Channel the segment was heard on when channels are transcribed separately, otherwise null. */
+    private Integer channel;
+
+    public TranscriptSegment(double startTime, double endTime, String transcript, List<PIIEntity> piiEntities,
+                             WordItems items) {
+        this(startTime, endTime, transcript, piiEntities, items, null);
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -13,39 +14,156 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TranscriptionResult {
+    private static final String REDACTED = "[REDACTED]";
+    /** How far past the cursor a non-PII word is looked for before it is treated as missing from the text. */
+    private static final int SEARCH_WINDOW = 64;
+
     private String originalTranscription;
     private String redactedTranscription;
     private List<TimeInterval> piiIntervals;
     private List<PIIEntity> piiEntities;
-    
+    /** Entities just below their confidence threshold, reported for review but not redacted. */
+    private List<PIIEntity> reviewEntities;
+    /** Timed words of the transcript, kept so a different policy can be applied to a cached transcription. */
+    private WordItems items;
+    /** Per-channel results of a recording whose channels were transcribed separately, otherwise null. */
+    private List<TranscriptionResult> channels;
+
+    public TranscriptionResult(String originalTranscription, String redactedTranscription, List<TimeInterval> piiIntervals,
+                               List<PIIEntity> piiEntities, List<PIIEntity> reviewEntities) {
+        this(originalTranscription, redactedTranscription, piiIntervals, piiEntities, reviewEntities, null, null);
+    }
+
     public TranscriptionResult(String originalTranscription, List<TimeInterval> piiIntervals, List<PIIEntity> piiEntities) {
+        this(originalTranscription, piiIntervals, piiEntities, null);
+    }
+
+    public TranscriptionResult(String originalTranscription, String redactedTranscription, List<TimeInterval> piiIntervals,
+                               List<PIIEntity> piiEntities) {
+        this(originalTranscription, redactedTranscription, piiIntervals, piiEntities, List.of());
+    }
+
+    /**
+     * @param items Timed words of {@code originalTranscription}, in order; when present, only the words
+     *              whose timing overlaps a PII entity are redacted
+     */
+    public TranscriptionResult(String originalTranscription, List<TimeInterval> piiIntervals, List<PIIEntity> piiEntities,
+                               WordItems items) {
         this.originalTranscription = originalTranscription;
         this.piiIntervals = piiIntervals;
         this.piiEntities = piiEntities;
-        this.redactedTranscription = generateRedactedTranscription(originalTranscription, piiEntities);
+        this.redactedTranscription = items == null || items.isEmpty()
+                ? generateRedactedTranscription(originalTranscription, piiEntities)
+                : generateRedactedTranscription(originalTranscription, piiEntities, items);
+        this.reviewEntities = List.of();
+        this.items = items;
     }
-    
+
+    public List<PIIEntity> getReviewEntities() {
+        // Absent from results cached before review bands existed
+        return reviewEntities != null ? reviewEntities : List.of();
+    }
+
     /**
-     * Generates redacted transcription by replacing PII entities with [REDACTED] markers
+     * Generates redacted transcription by replacing each word that overlaps a PII entity in time with a
+     * [REDACTED] marker (one marker per entity). Words are located as whole words by scanning forward from
+     * the previous word, so the text is copied once and other occurrences of the same word are left alone.
+     * If a word that overlaps an entity cannot be located, the whole text falls back to the entity-content
+     * search so the PII is never left in plain text.
+     */
+    private String generateRedactedTranscription(String original, List<PIIEntity> entities, WordItems items) {
+        if (entities == null || entities.isEmpty()) {
+            return original;
+        }
+        List<PIIEntity> sortedEntities = entities.stream()
+                .sorted(Comparator.comparingDouble(PIIEntity::getStartTime))
+                .toList();
+
+        StringBuilder redacted = new StringBuilder(original.length());
+        int copied = 0;
+        int cursor = 0;
+        int entityIndex = 0;
+        PIIEntity lastRedactedEntity = null;
+        for (int i = 0; i < items.size(); i++) {
+            String content = items.getContent(i);
+            if (!items.isPronunciation(i) || content == null || content.isEmpty()) {
+                continue;
+            }
+            while (entityIndex < sortedEntities.size() && sortedEntities.get(entityIndex).getEndTime() <= items.getStartTime(i)) {
+                entityIndex++;
+            }
+            PIIEntity entity = entityIndex < sortedEntities.size() ? sortedEntities.get(entityIndex) : null;
+            boolean sensitive = entity != null && entity.getStartTime() < items.getEndTime(i);
+
+            // Words outside entities only move the cursor, so a short window keeps a misheard word from
+            // dragging it far ahead; entity words are searched for all the way to the end
+            int position = findWord(original, content, cursor, sensitive ? original.length() : cursor + SEARCH_WINDOW);
+            if (position < 0) {
+                if (sensitive) {
+                    return generateRedactedTranscription(original, entities);
+                }
+                continue;
+            }
+            cursor = position + content.length();
+
+            if (!sensitive) {
+                lastRedactedEntity = null;
+                continue;
+            }
+            // Consecutive words of the same entity collapse into a single marker
+            if (entity != lastRedactedEntity) {
+                redacted.append(original, copied, position).append(REDACTED);
+            }
+            copied = cursor;
+            lastRedactedEntity = entity;
+        }
+        return redacted.append(original, copied, original.length()).toString();
+    }
+
+    /**
+     * Fallback for results without word timings: each entity's content is redacted once, at its first
+     * occurrence after the previous entity, in start-time order.
      */
     private String generateRedactedTranscription(String original, List<PIIEntity> entities) {
         if (entities == null || entities.isEmpty()) {
             return original;
         }
         
-        String redacted = original;
-        // Sort entities by start time in descending order to avoid index shifting issues
+        StringBuilder redacted = new StringBuilder(original.length());
+        int copied = 0;
         List<PIIEntity> sortedEntities = entities.stream()
-                .sorted((e1, e2) -> Double.compare(e2.getStartTime(), e1.getStartTime()))
+                .sorted(Comparator.comparingDouble(PIIEntity::getStartTime))
                 .toList();
         
         for (PIIEntity entity : sortedEntities) {
             String content = entity.getContent();
             if (content != null && !content.trim().isEmpty()) {
-                redacted = redacted.replace(content, "[REDACTED]");
+                int position = original.indexOf(content, copied);
+                if (position >= 0) {
+                    redacted.append(original, copied, position).append(REDACTED);
+                    copied = position + content.length();
+                }
             }
         }
         
-        return redacted;
+        return redacted.append(original, copied, original.length()).toString();
+    }
+
+    /**
+     * Finds {@code word} as a whole word (not preceded or followed by a letter or digit) starting at or
+     * after {@code from} and no later than {@code until}.
+     */
+    private static int findWord(String text, String word, int from, int until) {
+        int limit = Math.min(text.length() - word.length(), until);
+        for (int i = from; i <= limit; i++) {
+            if (text.startsWith(word, i) && isBoundary(text, i - 1) && isBoundary(text, i + word.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,253 @@
+package com.salesforce.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The timed words and punctuation of a transcription alternative, stored column-wise in primitive
+ * arrays. Parsed straight from the JSON stream, so no per-word map or boxed timings are allocated.
+ * Punctuation items carry no timing; see {@link #isPronunciation(int)}.
+ */
+@JsonAdapter(WordItems.Adapter.class)
+public final class WordItems {
+
+    public static final WordItems EMPTY = new Builder(0).build();
+
+    private final int size;
+    private final double[] startTimes;
+    private final double[] endTimes;
+    private final float[] confidences;
+    private final boolean[] punctuation;
+    private final String[] contents;
+
+    private WordItems(Builder builder) {
+        this.size = builder.size;
+        this.startTimes = Arrays.copyOf(builder.startTimes, size);
+        this.endTimes = Arrays.copyOf(builder.endTimes, size);
+        this.confidences = Arrays.copyOf(builder.confidences, size);
+        this.punctuation = Arrays.copyOf(builder.punctuation, size);
+        this.contents = Arrays.copyOf(builder.contents, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getStartTime(int index) {
+        return startTimes[checkIndex(index)];
+    }
+
+    public double getEndTime(int index) {
+        return endTimes[checkIndex(index)];
+    }
+
+    public float getConfidence(int index) {
+        return confidences[checkIndex(index)];
+    }
+
+    public String getContent(int index) {
+        return contents[checkIndex(index)];
+    }
+
+    /**
+     * Checks if the item at {@code index} is a spoken word rather than punctuation.
+     * @param index Item index
+     * @return true for pronunciation items
+     */
+    public boolean isPronunciation(int index) {
+        return !punctuation[checkIndex(index)];
+    }
+
+    @Override
+    public String toString() {
+        return "WordItems{size=" + size + '}';
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Appends items one at a time, or whole alternatives, growing the arrays geometrically.
+     */
+    public static final class Builder {
+        private int size;
+        private double[] startTimes;
+        private double[] endTimes;
+        private float[] confidences;
+        private boolean[] punctuation;
+        private String[] contents;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int capacity) {
+            startTimes = new double[capacity];
+            endTimes = new double[capacity];
+            confidences = new float[capacity];
+            punctuation = new boolean[capacity];
+            contents = new String[capacity];
+        }
+
+        public Builder addWord(double startTime, double endTime, String content, float confidence) {
+            return add(startTime, endTime, content, confidence, false);
+        }
+
+        public Builder addPunctuation(String content) {
+            return add(0, 0, content, 0, true);
+        }
+
+        public Builder addAll(WordItems items) {
+            ensureCapacity(size + items.size);
+            System.arraycopy(items.startTimes, 0, startTimes, size, items.size);
+            System.arraycopy(items.endTimes, 0, endTimes, size, items.size);
+            System.arraycopy(items.confidences, 0, confidences, size, items.size);
+            System.arraycopy(items.punctuation, 0, punctuation, size, items.size);
+            System.arraycopy(items.contents, 0, contents, size, items.size);
+            size += items.size;
+            return this;
+        }
+
+        /**
+         * Appends items with their times shifted, e.g. words from a stream that started {@code offset}
+         * seconds into the audio. Punctuation keeps its zero times.
+         */
+        public Builder addAll(WordItems items, double offset) {
+            int from = size;
+            addAll(items);
+            for (int i = from; i < size; i++) {
+                if (!punctuation[i]) {
+                    startTimes[i] += offset;
+                    endTimes[i] += offset;
+                }
+            }
+            return this;
+        }
+
+        public WordItems build() {
+            return new WordItems(this);
+        }
+
+        private Builder add(double startTime, double endTime, String content, float confidence, boolean isPunctuation) {
+            ensureCapacity(size + 1);
+            startTimes[size] = startTime;
+            endTimes[size] = endTime;
+            confidences[size] = confidence;
+            punctuation[size] = isPunctuation;
+            contents[size] = content;
+            size++;
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= startTimes.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, startTimes.length * 2);
+            startTimes = Arrays.copyOf(startTimes, newCapacity);
+            endTimes = Arrays.copyOf(endTimes, newCapacity);
+            confidences = Arrays.copyOf(confidences, newCapacity);
+            punctuation = Arrays.copyOf(punctuation, newCapacity);
+            contents = Arrays.copyOf(contents, newCapacity);
+        }
+    }
+
+    /**
+     * Reads the {@code items} array of a transcript alternative field by field.
+     */
+    static final class Adapter extends TypeAdapter<WordItems> {
+
+        /**
+         * Bounded interner for word content: common words and punctuation repeat in every message, so
+         * retained transcripts share one instance per word. Collisions simply overwrite a slot.
+         */
+        private static final int INTERN_SLOTS = 4096;
+        private static final String[] INTERNED = new String[INTERN_SLOTS];
+
+        @Override
+        public WordItems read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return WordItems.EMPTY;
+            }
+            Builder builder = new Builder();
+            in.beginArray();
+            while (in.hasNext()) {
+                double startTime = 0;
+                double endTime = 0;
+                float confidence = 0;
+                String type = null;
+                String content = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    switch (name) {
+                        case "startTime" -> startTime = in.nextDouble();
+                        case "endTime" -> endTime = in.nextDouble();
+                        case "confidence" -> confidence = (float) in.nextDouble();
+                        case "type" -> type = in.nextString();
+                        case "content" -> content = intern(in.nextString());
+                        default -> in.skipValue();
+                    }
+                }
+                in.endObject();
+                if ("punctuation".equals(type)) {
+                    builder.addPunctuation(content);
+                } else {
+                    builder.addWord(startTime, endTime, content, confidence);
+                }
+            }
+            in.endArray();
+            return builder.build();
+        }
+
+        @Override
+        public void write(JsonWriter out, WordItems items) throws IOException {
+            if (items == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginArray();
+            for (int i = 0; i < items.size; i++) {
+                out.beginObject();
+                if (items.isPronunciation(i)) {
+                    out.name("startTime").value(items.startTimes[i]);
+                    out.name("endTime").value(items.endTimes[i]);
+                    out.name("type").value("pronunciation");
+                    out.name("confidence").value(items.confidences[i]);
+                } else {
+                    out.name("type").value("punctuation");
+                }
+                out.name("content").value(items.contents[i]);
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        private static String intern(String value) {
+            int slot = value.hashCode() & (INTERN_SLOTS - 1);
+            String interned = INTERNED[slot];
+            if (value.equals(interned)) {
+                return interned;
+            }
+            INTERNED[slot] = value;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.OutputFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks redacted outputs that are still being written so downloads can follow them while the
+ * encoder is appending, instead of waiting for the whole request to finish.
+ */
+@Slf4j
+@Component
+public class ActiveOutputRegistry {
+
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, ActiveOutput> activeOutputs = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an output that is about to be produced.
+     *
+     * @param fileId       Identifier used by the download endpoint
+     * @param outputPath   File the encoder will write to
+     * @param outputFormat Format being written
+     */
+    public void begin(String fileId, Path outputPath, OutputFormat outputFormat) {
+        activeOutputs.put(fileId, new ActiveOutput(outputPath, outputFormat));
+    }
+
+    /**
+     * Marks the output as finished (successfully or not) and wakes any followers.
+     */
+    public void finish(String fileId) {
+        ActiveOutput output = activeOutputs.remove(fileId);
+        if (output != null) {
+            synchronized (output) {
+                output.finished = true;
+                output.notifyAll();
+            }
+        }
+    }
+
+    public ActiveOutput get(String fileId) {
+        return activeOutputs.get(fileId);
+    }
+
+    /**
+     * Copies the output to {@code out} as it grows, returning once the writer has finished and every
+     * byte has been sent. Headers that are patched at the end of encoding (RIFF sizes, FLAC STREAMINFO)
+     * are sent with their streaming placeholders.
+     */
+    public void follow(ActiveOutput output, OutputStream out) throws IOException, InterruptedException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long position = 0;
+        while (true) {
+            boolean finished = output.isFinished();
+            position = copyAvailable(output.getPath(), position, buffer, out);
+            if (finished) {
+                // The last copy started after the writer finished, so it saw the complete file
+                return;
+            }
+            out.flush();
+            synchronized (output) {
+                if (!output.finished) {
+                    output.wait(POLL_INTERVAL_MS);
+                }
+            }
+        }
+    }
+
+    private long copyAvailable(Path path, long position, byte[] buffer, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(position))) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                position += read;
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("Output {} not created yet", path);
+        }
+        return position;
+    }
+
+    /**
+     * An output file currently being written.
+     */
+    public static final class ActiveOutput {
+        private final Path path;
+        private final OutputFormat format;
+        private volatile boolean finished;
+
+        ActiveOutput(Path path, OutputFormat format) {
+            this.path = path;
+            this.format = format;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public OutputFormat getFormat() {
+            return format;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
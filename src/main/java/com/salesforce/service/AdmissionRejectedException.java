@@ -0,0 +1,20 @@
+package com.salesforce.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a redaction request cannot be admitted because the node is saturated. The caller should
+ * answer 429 with {@link #getRetryAfterSeconds()} as Retry-After.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String reason, String message, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
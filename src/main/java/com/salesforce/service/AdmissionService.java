@@ -0,0 +1,337 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.salesforce.utils.StreamingBenchmarkUtils.SAMPLE_RATE;
+
+/**
+ * Admission control for redaction requests. A request is admitted only while the node is under all of its
+ * limits: concurrent requests (each of which opens a transcription session), upload bytes still being
+ * received and decoded, and decoded PCM held in memory. Until the upload is decoded its PCM is estimated
+ * from the request size; the estimate is replaced by the actual size once known.
+ * <p>
+ * Requests that do not fit wait in one queue per client and are admitted round-robin across clients, so a
+ * client submitting a burst cannot starve the others. When a client's queue or the total queue is full, or
+ * a request waits longer than {@code admission.max-wait}, it is rejected straight away with an estimate of
+ * when to retry, so overload shows up as latency and 429s rather than as exhausted threads and memory.
+ */
+@Slf4j
+@Service
+public class AdmissionService {
+
+    /** Request (or exchange) attribute holding the {@link Ticket} of an admitted request. */
+    public static final String TICKET_ATTRIBUTE = "com.salesforce.admission.ticket";
+
+    private static final long MAX_RETRY_AFTER_SECONDS = 300;
+
+    private final int maxActive;
+    private final int maxActivePerClient;
+    private final long maxInFlightBytes;
+    private final long maxPcmBytes;
+    private final long defaultRequestBytes;
+    private final int maxQueued;
+    private final int maxQueuedPerClient;
+    private final Duration maxWait;
+    private final MeterRegistry registry;
+
+    // All guarded by this
+    private int active;
+    private long inFlightBytes;
+    private long pcmBytes;
+    private int queued;
+    private final Map<String, Integer> activeByClient = new HashMap<>();
+    /** Waiting requests per client; iteration order is the round-robin order. */
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+    /** Moving average of how long admitted requests hold their ticket, for Retry-After. */
+    private double averageHoldSeconds = 10;
+
+    public AdmissionService(@Value("${admission.max-active:${transcription.max-concurrent-sessions:16}}") int maxActive,
+                            @Value("${admission.max-active-per-client:0}") int maxActivePerClient,
+                            @Value("${admission.max-in-flight-bytes:1073741824}") long maxInFlightBytes,
+                            @Value("${admission.max-pcm-bytes:2147483648}") long maxPcmBytes,
+                            @Value("${admission.default-request-bytes:67108864}") long defaultRequestBytes,
+                            @Value("${admission.max-queued:64}") int maxQueued,
+                            @Value("${admission.max-queued-per-client:8}") int maxQueuedPerClient,
+                            @Value("${admission.max-wait:PT30S}") Duration maxWait,
+                            MeterRegistry registry) {
+        this.maxActive = maxActive;
+        this.maxActivePerClient = maxActivePerClient > 0 ? maxActivePerClient : maxActive;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.maxPcmBytes = maxPcmBytes;
+        this.defaultRequestBytes = defaultRequestBytes;
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerClient = maxQueuedPerClient;
+        this.maxWait = maxWait;
+        this.registry = registry;
+        Gauge.builder("admission.requests.active", this, service -> service.snapshot().active())
+                .description("Admitted redaction requests").register(registry);
+        Gauge.builder("admission.requests.queued", this, service -> service.snapshot().queued())
+                .description("Redaction requests waiting for admission").register(registry);
+        Gauge.builder("admission.bytes.in.flight", this, service -> service.snapshot().inFlightBytes())
+                .baseUnit("bytes").description("Upload bytes of admitted requests not yet decoded").register(registry);
+        Gauge.builder("admission.pcm.bytes", this, service -> service.snapshot().pcmBytes())
+                .baseUnit("bytes").description("Decoded PCM reserved by admitted requests").register(registry);
+    }
+
+    /**
+     * Admits a request, waiting in the client's queue if the node is saturated.
+     *
+     * @param client        Client (tenant) the request is queued under
+     * @param contentLength Declared request size, or -1 if unknown
+     * @return the ticket to {@link Ticket#close() close} when the request finishes
+     * @throws AdmissionRejectedException if the queue is full or the request waited too long
+     */
+    public Ticket admit(String client, long contentLength) throws InterruptedException {
+        CompletableFuture<Ticket> admission = request(client, contentLength);
+        try {
+            return admission.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Ticket ticket = withdraw(admission);
+            if (ticket != null) {
+                return ticket;
+            }
+            throw rejected("timeout", "Timed out waiting for admission");
+        } catch (InterruptedException e) {
+            Ticket ticket = withdraw(admission);
+            if (ticket != null) {
+                ticket.close();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #admit}; cancelling the returned Mono leaves the queue.
+     */
+    public Mono<Ticket> admitReactive(String client, long contentLength) {
+        return Mono.defer(() -> {
+            CompletableFuture<Ticket> admission = request(client, contentLength);
+            return Mono.fromFuture(admission, true)
+                    .doOnCancel(() -> {
+                        Ticket ticket = withdraw(admission);
+                        if (ticket != null) {
+                            ticket.close();
+                        }
+                    })
+                    .timeout(maxWait, Mono.defer(() -> Mono.error(rejected("timeout", "Timed out waiting for admission"))));
+        });
+    }
+
+    /**
+     * Admits the request immediately if nothing is queued and it fits, otherwise queues it.
+     *
+     * @throws AdmissionRejectedException if the client's queue or the total queue is full
+     */
+    CompletableFuture<Ticket> request(String client, long contentLength) {
+        long bytes = contentLength > 0 ? contentLength : defaultRequestBytes;
+        // Inputs are uncompressed PCM, plus a 16kHz mono copy for transcription that is at most as large
+        Ticket ticket = new Ticket(client, bytes, 2 * bytes);
+        synchronized (this) {
+            if (queued == 0 && fits(ticket)) {
+                acquire(ticket);
+                return CompletableFuture.completedFuture(ticket);
+            }
+            // Queue behind the waiting requests; it may still be admitted at once if they are only held
+            // back by their own client's limit
+            Waiter waiter = new Waiter(ticket, new CompletableFuture<>());
+            ArrayDeque<Waiter> queue = queues.computeIfAbsent(client, key -> new ArrayDeque<>());
+            queue.addLast(waiter);
+            queued++;
+            dispatch();
+            if (waiter.admission.isDone()) {
+                return waiter.admission;
+            }
+            boolean queueFull = queued > maxQueued;
+            if (queueFull || queue.size() > maxQueuedPerClient) {
+                queue.removeLast();
+                queued--;
+                if (queue.isEmpty()) {
+                    queues.remove(client);
+                }
+                throw queueFull
+                        ? rejected("queue-full", "Server is busy; too many requests are waiting")
+                        : rejected("client-queue-full", "Too many requests from client " + client + " are waiting");
+            }
+            return waiter.admission;
+        }
+    }
+
+    /**
+     * Leaves the queue, or returns the ticket if the request was admitted in the meantime.
+     */
+    private synchronized Ticket withdraw(CompletableFuture<Ticket> admission) {
+        if (admission.cancel(false)) {
+            for (Iterator<Map.Entry<String, ArrayDeque<Waiter>>> it = queues.entrySet().iterator(); it.hasNext(); ) {
+                ArrayDeque<Waiter> queue = it.next().getValue();
+                if (queue.removeIf(waiter -> waiter.admission == admission)) {
+                    queued--;
+                    if (queue.isEmpty()) {
+                        it.remove();
+                    }
+                    break;
+                }
+            }
+            dispatch();
+            return null;
+        }
+        try {
+            return admission.join();
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Admits waiting requests round-robin across clients while they fit. A client at its own limit is
+     * skipped; a request that does not fit the node's limits stops admission, so large requests are not
+     * overtaken indefinitely by small ones.
+     */
+    private void dispatch() {
+        boolean admitted = true;
+        while (admitted && !queues.isEmpty()) {
+            admitted = false;
+            for (Iterator<Map.Entry<String, ArrayDeque<Waiter>>> it = queues.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, ArrayDeque<Waiter>> entry = it.next();
+                if (activeByClient.getOrDefault(entry.getKey(), 0) >= maxActivePerClient) {
+                    continue;
+                }
+                ArrayDeque<Waiter> queue = entry.getValue();
+                Waiter waiter = queue.peekFirst();
+                if (!fits(waiter.ticket)) {
+                    return;
+                }
+                queue.pollFirst();
+                queued--;
+                // The client goes to the back of the rotation
+                it.remove();
+                if (!queue.isEmpty()) {
+                    queues.put(entry.getKey(), queue);
+                }
+                acquire(waiter.ticket);
+                if (!waiter.admission.complete(waiter.ticket)) {
+                    releaseLocked(waiter.ticket);
+                }
+                admitted = true;
+                break;
+            }
+        }
+    }
+
+    private boolean fits(Ticket ticket) {
+        // A request larger than a limit is still admitted on its own, rather than never
+        return active < maxActive
+                && activeByClient.getOrDefault(ticket.client, 0) < maxActivePerClient
+                && (inFlightBytes == 0 || inFlightBytes + ticket.uploadBytes <= maxInFlightBytes)
+                && (pcmBytes == 0 || pcmBytes + ticket.pcmBytes <= maxPcmBytes);
+    }
+
+    private void acquire(Ticket ticket) {
+        active++;
+        activeByClient.merge(ticket.client, 1, Integer::sum);
+        inFlightBytes += ticket.uploadBytes;
+        pcmBytes += ticket.pcmBytes;
+        ticket.admittedAt = System.nanoTime();
+    }
+
+    synchronized void decoded(Ticket ticket, long actualPcmBytes) {
+        if (ticket.released) {
+            return;
+        }
+        inFlightBytes -= ticket.uploadBytes;
+        ticket.uploadBytes = 0;
+        pcmBytes += actualPcmBytes - ticket.pcmBytes;
+        ticket.pcmBytes = actualPcmBytes;
+        dispatch();
+    }
+
+    private synchronized void release(Ticket ticket) {
+        if (!ticket.released) {
+            releaseLocked(ticket);
+            averageHoldSeconds = 0.8 * averageHoldSeconds + 0.2 * (System.nanoTime() - ticket.admittedAt) / 1e9;
+            dispatch();
+        }
+    }
+
+    private void releaseLocked(Ticket ticket) {
+        ticket.released = true;
+        active--;
+        activeByClient.computeIfPresent(ticket.client, (client, count) -> count > 1 ? count - 1 : null);
+        inFlightBytes -= ticket.uploadBytes;
+        pcmBytes -= ticket.pcmBytes;
+    }
+
+    private AdmissionRejectedException rejected(String reason, String message) {
+        registry.counter("admission.rejected", "reason", reason).increment();
+        long retryAfter = retryAfterSeconds();
+        log.warn("Rejected redaction request ({}); retry after {}s", reason, retryAfter);
+        return new AdmissionRejectedException(reason, message, retryAfter);
+    }
+
+    /**
+     * Time until the queue ahead would have drained, from the average time requests hold their ticket.
+     */
+    synchronized long retryAfterSeconds() {
+        long rounds = queued / Math.max(1, maxActive) + 1;
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, Math.round(averageHoldSeconds * rounds)));
+    }
+
+    synchronized Snapshot snapshot() {
+        return new Snapshot(active, queued, inFlightBytes, pcmBytes);
+    }
+
+    record Snapshot(int active, int queued, long inFlightBytes, long pcmBytes) {
+    }
+
+    private record Waiter(Ticket ticket, CompletableFuture<Ticket> admission) {
+    }
+
+    /**
+     * An admitted request's share of the node's limits, returned when it is closed.
+     */
+    public final class Ticket implements AutoCloseable {
+        private final String client;
+        private long uploadBytes;
+        private long pcmBytes;
+        private long admittedAt;
+        private boolean released;
+
+        private Ticket(String client, long uploadBytes, long pcmBytes) {
+            this.client = client;
+            this.uploadBytes = uploadBytes;
+            this.pcmBytes = pcmBytes;
+        }
+
+        /**
+         * Replaces the PCM estimate with the decoded audio and its 16kHz copy, and frees the upload bytes.
+         */
+        public void decoded(DecodedAudio audio) {
+            long transcriptionBytes = (long) (audio.getDurationSeconds() * SAMPLE_RATE * 2);
+            AdmissionService.this.decoded(this, audio.getPcm().length() + transcriptionBytes);
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
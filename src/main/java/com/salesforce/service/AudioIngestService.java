@@ -0,0 +1,150 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.PcmBufferPool;
+import com.salesforce.metrics.PipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Decodes uploads straight from the request body into PCM, hashing the encoded bytes on the fly.
+ * The raw upload is only written to disk when no audio reader can parse it as a stream.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AudioIngestService {
+
+    /** Upper bound on the header bytes an audio reader may inspect before we have to give up streaming. */
+    private static final int MARK_LIMIT = 1 << 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PipelineMetrics metrics;
+
+    /**
+     * Caps the idle off-heap PCM buffers kept for reuse between jobs.
+     */
+    @Value("${audio.pcm-pool.max-pooled-bytes:268435456}")
+    public void setMaxPooledPcmBytes(long maxPooledBytes) {
+        PcmBufferPool.shared().setMaxPooledBytes(maxPooledBytes);
+    }
+
+    /**
+     * Decodes an upload, computing its SHA-256 as it is read.
+     *
+     * @param body      Upload body (request body or multipart part stream); not closed
+     * @param spillFile Where to spill the raw upload if it cannot be decoded as a stream
+     * @return decoded PCM with the content hash of the encoded upload
+     */
+    public DecodedAudio ingest(InputStream body, Path spillFile) throws IOException, UnsupportedAudioFileException {
+        return ingest(body, spillFile, null);
+    }
+
+    /**
+     * Decodes an upload, computing its SHA-256 and copying the encoded bytes to {@code copy} as they are read.
+     *
+     * @param body      Upload body (request body or multipart part stream); not closed
+     * @param spillFile Where to spill the raw upload if it cannot be decoded as a stream
+     * @param copy      Receives every byte of the upload exactly once, or null; not closed
+     * @return decoded PCM with the content hash of the encoded upload
+     */
+    public DecodedAudio ingest(InputStream body, Path spillFile, OutputStream copy) throws IOException, UnsupportedAudioFileException {
+        long start = System.nanoTime();
+        PipelineMetrics.TimedInputStream timedBody = metrics.timeUpload(body);
+        MessageDigest digest = newSha256();
+        InputStream source = copy != null ? new CopyingInputStream(timedBody, copy) : timedBody;
+        BufferedInputStream in = new BufferedInputStream(new DigestInputStream(source, digest), BUFFER_SIZE);
+        in.mark(MARK_LIMIT);
+
+        AudioInputStream audioStream;
+        try {
+            audioStream = AudioSystem.getAudioInputStream(in);
+        } catch (UnsupportedAudioFileException e) {
+            // Some readers need a file with a known length; spill the raw upload and decode from disk
+            in.reset();
+            log.info("Upload is not stream-decodable, spilling to {}", spillFile);
+            try {
+                Files.copy(in, spillFile, StandardCopyOption.REPLACE_EXISTING);
+                DecodedAudio decoded = DecodedAudio.fromFile(spillFile.toFile(), HexFormat.of().formatHex(digest.digest()));
+                timedBody.finish(System.nanoTime() - start);
+                return decoded;
+            } finally {
+                Files.deleteIfExists(spillFile);
+            }
+        }
+
+        DecodedAudio decoded = DecodedAudio.read(audioStream, null);
+        // Drain anything the decoder did not consume (e.g. trailing chunks) so the hash covers the whole upload
+        in.transferTo(OutputStream.nullOutputStream());
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        timedBody.finish(System.nanoTime() - start);
+
+        log.info("Decoded upload {} in a single pass: {} bytes of PCM, {}", contentHash, decoded.getPcm().length(), decoded.getFormat());
+        return decoded.withContentHash(contentHash);
+    }
+
+    /**
+     * Copies what is read to another stream. It sits below the mark/reset buffer, so bytes re-read after a
+     * reset are not copied twice.
+     */
+    private static final class CopyingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        CopyingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                copy.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes still belong in the copy
+            byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,17 +1,62 @@
 package com.salesforce.service;
 
+import com.salesforce.audio.AudioEncoder;
+import com.salesforce.audio.Crossfader;
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.Fades;
+import com.salesforce.audio.MatchedNoiseReplacement;
+import com.salesforce.audio.NoiseReplacement;
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.audio.PcmKernels;
+import com.salesforce.audio.PcmSink;
+import com.salesforce.audio.Replacement;
+import com.salesforce.audio.WaveformPeaks;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.RedactionOptions;
 import com.salesforce.models.TimeInterval;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.sound.sampled.*;
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.DoubleConsumer;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class AudioRedactionService {
 
+    /** Number of frames redacted and handed to the encoder per step. */
+    private static final int BLOCK_FRAMES = 8192;
+
+    private final PipelineMetrics metrics;
+
+    /** Length of the crossfade at each edge of a redacted range; 0 switches abruptly. */
+    private double crossfadeMillis = 5;
+
+    @Value("${redaction.crossfade-ms:5}")
+    public void setCrossfadeMillis(double crossfadeMillis) {
+        this.crossfadeMillis = Math.max(0, crossfadeMillis);
+    }
+
+    /**
+     * Selects the sample kernels of the redaction pass: {@code auto}, {@code vector} or {@code scalar}.
+     */
+    @Value("${audio.simd:auto}")
+    public void setSimd(String mode) {
+        PcmKernels.use(PcmKernels.forMode(mode));
+        log.info("Using {} PCM kernels (audio.simd={})", PcmKernels.current().name(), mode);
+    }
+
     /**
      * Redacts audio by replacing specified time intervals with beep sounds
      *
@@ -22,45 +67,48 @@ public class AudioRedactionService {
      * @param beepDuration       Duration of each beep (in seconds)
      * @param beepVolume         Volume of the beep sound (0.0 to 1.0)
      * @param soundType          Type of sound to generate ("beep", "chime", "soft", "gentle")
+     * @param outputFormat       Container/codec of the output file
      */
     public void redactAudioWithBeep(String inputFile, String outputFile,
                                     List<TimeInterval> redactionIntervals,
-                                    float beepFrequency, float beepDuration, float beepVolume, String soundType) {
-        try {
-            // Load the audio file
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(inputFile));
-            AudioFormat format = audioInputStream.getFormat();
-
-            log.info("Processing audio file: {} with format: {}", inputFile, format);
-
-            // Convert to PCM if needed
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                AudioFormat targetFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        format.getSampleRate(),
-                        16,
-                        format.getChannels(),
-                        format.getChannels() * 2,
-                        format.getSampleRate(),
-                        false
-                );
-                audioInputStream = AudioSystem.getAudioInputStream(targetFormat, audioInputStream);
-                format = targetFormat;
-            }
+                                    float beepFrequency, float beepDuration, float beepVolume, String soundType,
+                                    OutputFormat outputFormat) {
+        try (DecodedAudio audio = loadAudio(inputFile)) {
+            redactAudioWithBeep(audio, outputFile, redactionIntervals,
+                    beepFrequency, beepDuration, beepVolume, soundType, outputFormat);
+        }
+    }
+
+    /**
+     * Redacts already decoded audio by replacing specified time intervals with beep sounds
+     *
+     * @param audio              Decoded 16-bit PCM
+     * @see #redactAudioWithBeep(String, String, List, float, float, float, String, OutputFormat)
+     */
+    public void redactAudioWithBeep(DecodedAudio audio, String outputFile,
+                                    List<TimeInterval> redactionIntervals,
+                                    float beepFrequency, float beepDuration, float beepVolume, String soundType,
+                                    OutputFormat outputFormat) {
+        redactAudioWithBeep(audio, outputFile, redactionIntervals, beepFrequency, beepDuration, beepVolume, soundType,
+                outputFormat, null, null);
+    }
 
-            // Read all audio data
-            byte[] audioData = readAudioData(audioInputStream);
+    private void redactAudioWithBeep(DecodedAudio audio, String outputFile,
+                                     List<TimeInterval> redactionIntervals,
+                                     float beepFrequency, float beepDuration, float beepVolume, String soundType,
+                                     OutputFormat outputFormat, DoubleConsumer onProgress, WaveformPeaks peaks) {
+        try {
+            long start = System.nanoTime();
+            AudioFormat format = audio.getFormat();
+            log.info("Processing {} bytes of audio with format: {}", audio.getPcm().length(), format);
 
             // Generate replacement sound based on type
             byte[] replacementData = generateReplacementSound(format, beepFrequency, beepDuration, beepVolume, soundType);
 
-            // Apply redactions
-            byte[] redactedData = applyRedactions(audioData, format, redactionIntervals, replacementData);
-
-            // Write output file
-            writeAudioFile(redactedData, format, outputFile);
+            writeRedacted(audio, outputFile, redactionIntervals, Replacement.pattern(replacementData), outputFormat,
+                    onProgress, peaks, start);
 
-            log.info("Audio redaction completed. Output saved to: {}", outputFile);
+            log.info("Audio redaction completed. Output saved to: {} ({})", outputFile, outputFormat);
 
         } catch (Exception e) {
             log.error("Error during audio redaction", e);
@@ -74,41 +122,37 @@ public class AudioRedactionService {
      * @param inputFile          Input audio file (WAV or MP3)
      * @param outputFile         Output audio file
      * @param redactionIntervals List of time intervals to redact (in seconds)
+     * @param outputFormat       Container/codec of the output file
      */
     public void redactAudioWithSilence(String inputFile, String outputFile,
-                                       List<TimeInterval> redactionIntervals) {
-        try {
-            // Load the audio file
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(inputFile));
-            AudioFormat format = audioInputStream.getFormat();
-
-            log.info("Processing audio file: {} with format: {}", inputFile, format);
-
-            // Convert to PCM if needed
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                AudioFormat targetFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        format.getSampleRate(),
-                        16,
-                        format.getChannels(),
-                        format.getChannels() * 2,
-                        format.getSampleRate(),
-                        false
-                );
-                audioInputStream = AudioSystem.getAudioInputStream(targetFormat, audioInputStream);
-                format = targetFormat;
-            }
+                                       List<TimeInterval> redactionIntervals, OutputFormat outputFormat) {
+        try (DecodedAudio audio = loadAudio(inputFile)) {
+            redactAudioWithSilence(audio, outputFile, redactionIntervals, outputFormat);
+        }
+    }
 
-            // Read all audio data
-            byte[] audioData = readAudioData(audioInputStream);
+    /**
+     * Redacts already decoded audio by replacing specified time intervals with silence
+     *
+     * @param audio              Decoded 16-bit PCM
+     * @see #redactAudioWithSilence(String, String, List, OutputFormat)
+     */
+    public void redactAudioWithSilence(DecodedAudio audio, String outputFile,
+                                       List<TimeInterval> redactionIntervals, OutputFormat outputFormat) {
+        redactAudioWithSilence(audio, outputFile, redactionIntervals, outputFormat, null, null);
+    }
 
-            // Apply redactions with silence
-            byte[] redactedData = applyRedactionsWithSilence(audioData, format, redactionIntervals);
+    private void redactAudioWithSilence(DecodedAudio audio, String outputFile,
+                                        List<TimeInterval> redactionIntervals, OutputFormat outputFormat,
+                                        DoubleConsumer onProgress, WaveformPeaks peaks) {
+        try {
+            long start = System.nanoTime();
+            AudioFormat format = audio.getFormat();
+            log.info("Processing {} bytes of audio with format: {}", audio.getPcm().length(), format);
 
-            // Write output file
-            writeAudioFile(redactedData, format, outputFile);
+            writeRedacted(audio, outputFile, redactionIntervals, Replacement.silence(), outputFormat, onProgress, peaks, start);
 
-            log.info("Audio redaction with silence completed. Output saved to: {}", outputFile);
+            log.info("Audio redaction with silence completed. Output saved to: {} ({})", outputFile, outputFormat);
 
         } catch (Exception e) {
             log.error("Error during audio redaction with silence", e);
@@ -117,42 +161,144 @@ public class AudioRedactionService {
     }
 
     /**
-     * Redacts audio with specified replacement method (beep or silence)
+     * Redacts audio with specified replacement method (beep, silence or noise)
      *
      * @param inputFile          Input audio file (WAV or MP3)
      * @param outputFile         Output audio file
      * @param redactionIntervals List of time intervals to redact (in seconds)
-     * @param replacementMethod  "beep" or "silence"
+     * @param replacementMethod  "beep", "silence" or "noise"
      * @param beepFrequency      Frequency of the beep sound (in Hz) - only used if replacementMethod is "beep"
      * @param beepDuration       Duration of each beep (in seconds) - only used if replacementMethod is "beep"
-     * @param beepVolume         Volume of the beep sound (0.0 to 1.0) - only used if replacementMethod is "beep"
-     * @param soundType          Type of sound to generate ("beep", "chime", "soft", "gentle") - only used if replacementMethod is "beep"
+     * @param beepVolume         Volume of the beep sound, or of pink and brown noise (0.0 to 1.0)
+     * @param soundType          Type of sound to generate ("beep", "chime", "soft", "gentle"), or of noise
+     *                           ("pink", "brown", "matched") if replacementMethod is "noise"
      */
     public void redactAudio(String inputFile, String outputFile,
                             List<TimeInterval> redactionIntervals,
                             String replacementMethod,
                             float beepFrequency, float beepDuration, float beepVolume, String soundType) {
-        log.info("Redacting audio with method: {}, frequency: {} Hz, duration: {} seconds, volume: {}, sound type: {}", 
-                replacementMethod, beepFrequency, beepDuration, beepVolume, soundType);
+        RedactionOptions options = new RedactionOptions(replacementMethod, beepFrequency, beepDuration, beepVolume,
+                soundType, OutputFormat.WAV.name());
+        try (DecodedAudio audio = loadAudio(inputFile)) {
+            redactAudio(audio, outputFile, redactionIntervals, options);
+        }
+    }
+
+    /**
+     * Redacts already decoded audio using the replacement method and output format in {@code options}
+     *
+     * @param audio              Decoded 16-bit PCM
+     * @param outputFile         Output audio file
+     * @param redactionIntervals List of time intervals to redact (in seconds)
+     * @param options            Replacement method, tone parameters and output format
+     */
+    public void redactAudio(DecodedAudio audio, String outputFile,
+                            List<TimeInterval> redactionIntervals, RedactionOptions options) {
+        redactAudio(audio, outputFile, redactionIntervals, options, null);
+    }
+
+    /**
+     * Variant of {@link #redactAudio(DecodedAudio, String, List, RedactionOptions)} that reports progress
+     *
+     * @param onProgress Called with the fraction of the audio written (0 to 1) as blocks are encoded, or null
+     */
+    public void redactAudio(DecodedAudio audio, String outputFile,
+                            List<TimeInterval> redactionIntervals, RedactionOptions options, DoubleConsumer onProgress) {
+        redactAudio(audio, outputFile, redactionIntervals, options, onProgress, null);
+    }
+
+    /**
+     * Variant of {@link #redactAudio(DecodedAudio, String, List, RedactionOptions, DoubleConsumer)} that also
+     * collects waveform peaks of the audio before and after redaction, in the same pass
+     *
+     * @param peaks Receives every block as read and as written, or null
+     */
+    public void redactAudio(DecodedAudio audio, String outputFile, List<TimeInterval> redactionIntervals,
+                            RedactionOptions options, DoubleConsumer onProgress, WaveformPeaks peaks) {
+        OutputFormat outputFormat = options.getEffectiveOutputFormat();
+        log.info("Redacting audio with method: {}, frequency: {} Hz, duration: {} seconds, volume: {}, sound type: {}, output: {}", 
+                options.getReplacementMethod(), options.getEffectiveFrequency(), options.getEffectiveDuration(),
+                options.getEffectiveVolume(), options.getSoundType(), outputFormat);
         log.info("Redaction intervals: {}", redactionIntervals);
         
-        if ("silence".equalsIgnoreCase(replacementMethod)) {
-            redactAudioWithSilence(inputFile, outputFile, redactionIntervals);
+        if ("silence".equalsIgnoreCase(options.getReplacementMethod())) {
+            redactAudioWithSilence(audio, outputFile, redactionIntervals, outputFormat, onProgress, peaks);
+        } else if ("noise".equalsIgnoreCase(options.getReplacementMethod())) {
+            redactAudioWithNoise(audio, outputFile, redactionIntervals, options.getSoundType(),
+                    options.getEffectiveVolume(), outputFormat, onProgress, peaks);
         } else {
-            redactAudioWithBeep(inputFile, outputFile, redactionIntervals, beepFrequency, beepDuration, beepVolume, soundType);
+            redactAudioWithBeep(audio, outputFile, redactionIntervals, options.getEffectiveFrequency(),
+                    options.getEffectiveDuration(), options.getEffectiveVolume(), options.getSoundType(), outputFormat,
+                    onProgress, peaks);
+        }
+    }
+
+    private void redactAudioWithNoise(DecodedAudio audio, String outputFile,
+                                      List<TimeInterval> redactionIntervals, String noiseType, float volume,
+                                      OutputFormat outputFormat, DoubleConsumer onProgress, WaveformPeaks peaks) {
+        try {
+            long start = System.nanoTime();
+            log.info("Processing {} bytes of audio with format: {}", audio.getPcm().length(), audio.getFormat());
+
+            writeRedacted(audio, outputFile, redactionIntervals, noiseReplacement(noiseType, volume), outputFormat,
+                    onProgress, peaks, start);
+
+            log.info("Audio redaction with {} noise completed. Output saved to: {} ({})", noiseType, outputFile, outputFormat);
+
+        } catch (Exception e) {
+            log.error("Error during audio redaction with noise", e);
+            throw new RuntimeException("Failed to redact audio with noise", e);
+        }
+    }
+
+    /**
+     * Applies the redactions, streaming each block straight into the encoder for {@code outputFormat}.
+     *
+     * @param peaks Collects the peaks of each block before and after redaction, or null
+     * @param start {@link System#nanoTime()} when the redact stage started, for the write timer
+     */
+    private void writeRedacted(DecodedAudio audio, String outputFile, List<TimeInterval> redactionIntervals,
+                               Replacement replacement, OutputFormat outputFormat, DoubleConsumer onProgress,
+                               WaveformPeaks peaks, long start) throws IOException {
+        PipelineMetrics.TimedSink sink;
+        try (AudioEncoder encoder = outputFormat.createEncoder(Paths.get(outputFile), audio.getFormat())) {
+            sink = metrics.timeWrites(encoder);
+            PcmSink output = withProgress(sink, audio.getPcm().length(), onProgress);
+            if (peaks != null) {
+                output = tee(output, peaks.redacted());
+            }
+            applyRedactions(audio.getPcm(), audio.getFormat(), redactionIntervals, replacement, output,
+                    peaks != null ? peaks.original() : null);
         }
+        sink.finish(System.nanoTime() - start);
     }
 
-    private byte[] readAudioData(AudioInputStream audioInputStream) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        int bytesRead;
+    private static PcmSink tee(PcmSink sink, PcmSink copy) {
+        return (data, offset, length) -> {
+            sink.write(data, offset, length);
+            copy.write(data, offset, length);
+        };
+    }
 
-        while ((bytesRead = audioInputStream.read(buffer)) != -1) {
-            baos.write(buffer, 0, bytesRead);
+    private static PcmSink withProgress(PcmSink sink, long totalBytes, DoubleConsumer onProgress) {
+        if (onProgress == null || totalBytes == 0) {
+            return sink;
         }
+        long[] written = {0};
+        return (data, offset, length) -> {
+            sink.write(data, offset, length);
+            written[0] += length;
+            onProgress.accept((double) written[0] / totalBytes);
+        };
+    }
 
-        return baos.toByteArray();
+    private DecodedAudio loadAudio(String inputFile) {
+        try {
+            log.info("Loading audio file: {}", inputFile);
+            return DecodedAudio.fromFile(new File(inputFile), null);
+        } catch (UnsupportedAudioFileException | IOException e) {
+            throw new RuntimeException("Failed to read audio file " + inputFile, e);
+        }
     }
 
     private byte[] generateBeep(AudioFormat format, float frequency, float duration, float volume) {
@@ -192,90 +338,264 @@ public class AudioRedactionService {
         return beepData;
     }
 
-    private byte[] applyRedactions(byte[] audioData, AudioFormat format,
-                                   List<TimeInterval> redactionIntervals, byte[] beepData) {
-        log.info("Applying redactions to {} intervals with beep data of {} bytes", redactionIntervals.size(), beepData.length);
-        
-        int sampleRate = (int) format.getSampleRate();
-        int channels = format.getChannels();
-        int bytesPerSample = format.getSampleSizeInBits() / 8;
-        int bytesPerFrame = channels * bytesPerSample;
-
-        byte[] result = audioData.clone();
+    /**
+     * Copies the audio to the sink block by block, overwriting every redacted range with {@code replacement}.
+     * Ranges are filled in order as the blocks pass, so a replacement continues seamlessly across block
+     * boundaries and the output is identical to redacting the whole buffer at once. The replacement starts
+     * {@code redaction.crossfade-ms} before each range and ends as long after it, crossfaded with the audio
+     * there; fades are shortened to share the gap between ranges that are closer than two fades.
+     * <p>
+     * An interval with a {@link TimeInterval#getChannel() channel} only replaces that channel, in place in the
+     * interleaved block; the others keep their audio.
+     *
+     * @param audioData          Interleaved 16-bit PCM
+     * @param format             Format of {@code audioData}
+     * @param redactionIntervals List of time intervals to redact (in seconds)
+     * @param replacement        Audio written over each redacted range
+     * @param sink               Receives the redacted audio in order
+     */
+    public void applyRedactions(PcmBuffer audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                Replacement replacement, PcmSink sink) throws IOException {
+        applyRedactions(audioData, format, redactionIntervals, replacement, sink, null);
+    }
 
-        for (TimeInterval interval : redactionIntervals) {
-            int startSample = (int) (interval.getStartTime() * sampleRate);
-            int endSample = (int) (interval.getEndTime() * sampleRate);
+    /**
+     * Variant of {@link #applyRedactions(PcmBuffer, AudioFormat, List, Replacement, PcmSink)} that also hands
+     * each block to {@code source} as it is read, before it is redacted.
+     *
+     * @param source Receives the original audio in order, or null
+     */
+    public void applyRedactions(PcmBuffer audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                Replacement replacement, PcmSink sink, PcmSink source) throws IOException {
+        int bytesPerFrame = format.getFrameSize();
+        int audioLength = audioData.length();
+        int fadeFrames = (int) Math.round(crossfadeMillis * format.getSampleRate() / 1000);
+        List<Track> tracks = new ArrayList<>();
+        for (Map.Entry<Integer, List<TimeInterval>> channel : byChannel(redactionIntervals, format.getChannels()).entrySet()) {
+            int[][] ranges = withCrossfades(toByteRanges(channel.getValue(), format, audioLength), fadeFrames,
+                    bytesPerFrame, audioLength);
+            tracks.add(new Track(channel.getKey(), ranges));
+        }
+        Crossfader crossfader = new Crossfader(format.getChannels());
+        // The only heap copies are this block and the audio under the replacement; the source stays off-heap
+        byte[] block = new byte[BLOCK_FRAMES * bytesPerFrame];
+        byte[] under = new byte[block.length];
+
+        for (int offset = 0; offset < audioLength; offset += block.length) {
+            int length = Math.min(block.length, audioLength - offset);
+            int blockEnd = offset + length;
+            audioData.get(offset, block, 0, length);
+            if (source != null) {
+                source.write(block, 0, length);
+            }
 
-            int startByte = startSample * bytesPerFrame;
-            int endByte = endSample * bytesPerFrame;
+            for (Track track : tracks) {
+                int[][] ranges = track.ranges;
+                while (track.next < ranges.length && ranges[track.next][0] < blockEnd) {
+                    int[] range = ranges[track.next];
+                    if (track.fill == null) {
+                        int contextStart = track.next > 0 ? ranges[track.next - 1][2] : 0;
+                        int contextEnd = track.next + 1 < ranges.length ? ranges[track.next + 1][1] : audioLength;
+                        track.fill = replacement.begin(audioData, format, range[0], range[3], contextStart, contextEnd);
+                    }
+                    int from = Math.max(range[0], offset) - offset;
+                    int to = Math.min(range[3], blockEnd) - offset;
+                    int fadeInEnd = Math.max(from, Math.min(to, range[1] - offset));
+                    int fadeOutStart = Math.min(to, Math.max(from, range[2] - offset));
+                    // Keep what the fill overwrites wherever it is blended back in or restored
+                    if (track.channel != null) {
+                        System.arraycopy(block, from, under, from, to - from);
+                    } else {
+                        System.arraycopy(block, from, under, from, fadeInEnd - from);
+                        System.arraycopy(block, fadeOutStart, under, fadeOutStart, to - fadeOutStart);
+                    }
+                    track.fill.fill(block, from, to);
+                    if (from < fadeInEnd) {
+                        crossfader.blend(block, under, from, fadeInEnd, (range[1] - range[0]) / bytesPerFrame,
+                                (from + offset - range[0]) / bytesPerFrame, true);
+                    }
+                    if (fadeOutStart < to) {
+                        crossfader.blend(block, under, fadeOutStart, to, (range[3] - range[2]) / bytesPerFrame,
+                                (fadeOutStart + offset - range[2]) / bytesPerFrame, false);
+                    }
+                    if (track.channel != null) {
+                        keepOnly(track.channel, block, under, from, to, bytesPerFrame);
+                    }
+                    if (range[3] > blockEnd) {
+                        break;
+                    }
+                    track.fill = null;
+                    track.next++;
+                }
+            }
+            sink.write(block, 0, length);
+        }
+    }
 
-            log.info("Redacting interval: {} to {} seconds (samples {} to {}, bytes {} to {})", 
-                    interval.getStartTime(), interval.getEndTime(), startSample, endSample, startByte, endByte);
+    /**
+     * Redacted ranges of one channel, or of every channel, and the replacement being filled in the current one.
+     */
+    private static final class Track {
+        private final Integer channel;
+        /** {fade start, range start, range end, fade end} per range, in bytes. */
+        private final int[][] ranges;
+        private int next;
+        private Replacement.Fill fill;
+
+        private Track(Integer channel, int[][] ranges) {
+            this.channel = channel;
+            this.ranges = ranges;
+        }
+    }
 
-            // Ensure we don't go beyond the audio data
-            if (endByte > result.length) {
-                endByte = result.length;
-                log.warn("Adjusted end byte to {} to stay within audio data bounds", endByte);
+    /**
+     * Groups intervals by channel, those of single channels first in channel order and those of every
+     * channel last, under a null key. A channel the audio does not have, or any channel of mono audio,
+     * counts as every channel.
+     */
+    private static Map<Integer, List<TimeInterval>> byChannel(List<TimeInterval> intervals, int channels) {
+        Map<Integer, List<TimeInterval>> groups = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (TimeInterval interval : intervals) {
+            Integer channel = interval.getChannel();
+            if (channel != null && (channel < 0 || channel >= channels || channels == 1)) {
+                channel = null;
             }
+            groups.computeIfAbsent(channel, key -> new ArrayList<>()).add(interval);
+        }
+        return groups;
+    }
 
-            // Replace the interval with beep sounds
-            int intervalLength = endByte - startByte;
-            int beepLength = beepData.length;
+    /**
+     * Keeps only the {@code channel} samples of the replacement in {@code block[from, to)}: they are moved into
+     * {@code under}, which holds the audio of every channel before the fill, and that is copied back.
+     */
+    private static void keepOnly(int channel, byte[] block, byte[] under, int from, int to, int bytesPerFrame) {
+        for (int sample = from + channel * 2; sample < to; sample += bytesPerFrame) {
+            under[sample] = block[sample];
+            under[sample + 1] = block[sample + 1];
+        }
+        System.arraycopy(under, from, block, from, to - from);
+    }
 
-            log.info("Replacing {} bytes with beep pattern of {} bytes", intervalLength, beepLength);
+    /**
+     * Variant of {@link #applyRedactions(PcmBuffer, AudioFormat, List, Replacement, PcmSink)} that loops
+     * {@code replacementData} over each interval, or writes silence when it is null.
+     */
+    public void applyRedactions(PcmBuffer audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                byte[] replacementData, PcmSink sink) throws IOException {
+        applyRedactions(audioData, format, redactionIntervals,
+                replacementData == null ? Replacement.silence() : Replacement.pattern(replacementData), sink);
+    }
 
-            int beepIndex = 0;
-            for (int i = startByte; i < endByte; i++) {
-                result[i] = beepData[beepIndex % beepLength];
-                beepIndex++;
-            }
-        }
+    /**
+     * Heap-array variant of {@link #applyRedactions(PcmBuffer, AudioFormat, List, byte[], PcmSink)}.
+     */
+    public void applyRedactions(byte[] audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                byte[] replacementData, PcmSink sink) throws IOException {
+        applyRedactions(PcmBuffer.wrap(audioData), format, redactionIntervals, replacementData, sink);
+    }
 
-        return result;
+    /**
+     * Silence variant of {@link #applyRedactions(PcmBuffer, AudioFormat, List, Replacement, PcmSink)}.
+     */
+    public void applyRedactionsWithSilence(PcmBuffer audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                           PcmSink sink) throws IOException {
+        applyRedactions(audioData, format, redactionIntervals, Replacement.silence(), sink);
     }
 
-    private byte[] applyRedactionsWithSilence(byte[] audioData, AudioFormat format,
-                                              List<TimeInterval> redactionIntervals) {
-        int sampleRate = (int) format.getSampleRate();
-        int channels = format.getChannels();
-        int bytesPerSample = format.getSampleSizeInBits() / 8;
-        int bytesPerFrame = channels * bytesPerSample;
+    /**
+     * Heap-array variant of {@link #applyRedactionsWithSilence(PcmBuffer, AudioFormat, List, PcmSink)}.
+     */
+    public void applyRedactionsWithSilence(byte[] audioData, AudioFormat format, List<TimeInterval> redactionIntervals,
+                                           PcmSink sink) throws IOException {
+        applyRedactions(PcmBuffer.wrap(audioData), format, redactionIntervals, Replacement.silence(), sink);
+    }
+
+    /**
+     * Noise replacement for a {@code soundType} of the "noise" method: "brown", "matched" (shaped to the
+     * surrounding audio) or, by default, "pink".
+     *
+     * @param volume Level of pink and brown noise (0.0 to 1.0); matched noise takes the level of its context
+     */
+    public Replacement noiseReplacement(String soundType, float volume) {
+        switch (soundType.toLowerCase()) {
+            case "brown":
+                return new NoiseReplacement(NoiseReplacement.Color.BROWN, volume);
+            case "matched":
+                return new MatchedNoiseReplacement();
+            case "pink":
+            default:
+                return new NoiseReplacement(NoiseReplacement.Color.PINK, volume);
+        }
+    }
 
-        byte[] result = audioData.clone();
+    /**
+     * Converts intervals to frame-aligned [start, end) byte ranges clipped to the audio, sorted by start,
+     * with overlapping and touching ranges merged.
+     */
+    private int[][] toByteRanges(List<TimeInterval> redactionIntervals, AudioFormat format, int audioLength) {
+        int sampleRate = (int) format.getSampleRate();
+        int bytesPerFrame = format.getFrameSize();
+        List<int[]> ranges = new ArrayList<>(redactionIntervals.size());
 
         for (TimeInterval interval : redactionIntervals) {
-            int startSample = (int) (interval.getStartTime() * sampleRate);
-            int endSample = (int) (interval.getEndTime() * sampleRate);
+            long startByte = Math.max(0L, (long) (interval.getStartTime() * sampleRate) * bytesPerFrame);
+            long endByte = Math.min(audioLength, (long) (interval.getEndTime() * sampleRate) * bytesPerFrame);
 
-            int startByte = startSample * bytesPerFrame;
-            int endByte = endSample * bytesPerFrame;
+            log.info("Redacting interval: {} to {} seconds (bytes {} to {})",
+                    interval.getStartTime(), interval.getEndTime(), startByte, endByte);
 
-            // Ensure we don't go beyond the audio data
-            if (endByte > result.length) {
-                endByte = result.length;
+            if (startByte < endByte) {
+                ranges.add(new int[]{(int) startByte, (int) endByte});
             }
-
-            // Replace the interval with silence (zeros)
-            for (int i = startByte; i < endByte; i++) {
-                result[i] = 0;
+        }
+        ranges.sort(Comparator.comparingInt(range -> range[0]));
+
+        // Merge overlapping ranges so each byte is replaced once and a replacement never restarts mid-gap
+        List<int[]> merged = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1]) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
             }
         }
-
-        return result;
+        return merged.toArray(new int[0][]);
     }
 
-    private void writeAudioFile(byte[] audioData, AudioFormat format, String outputFile) throws IOException {
-        ByteArrayInputStream bais = new ByteArrayInputStream(audioData);
-        AudioInputStream ais = new AudioInputStream(bais, format, audioData.length / format.getFrameSize());
-
-        AudioSystem.write(ais, AudioFileFormat.Type.WAVE, new File(outputFile));
+    /**
+     * Widens byte ranges by a crossfade of up to {@code fadeFrames} on each side, within the audio. A gap
+     * shorter than two fades is split between the fade out of one range and the fade in of the next.
+     *
+     * @return {fade start, range start, range end, fade end} per range
+     */
+    private static int[][] withCrossfades(int[][] ranges, int fadeFrames, int bytesPerFrame, int audioLength) {
+        int[][] faded = new int[ranges.length][];
+        for (int i = 0; i < ranges.length; i++) {
+            int gapFrames = (ranges[i][0] - (i > 0 ? ranges[i - 1][1] : 0)) / bytesPerFrame;
+            if (i > 0) {
+                int fadeOut = Math.min(fadeFrames, gapFrames / 2);
+                faded[i - 1][3] = ranges[i - 1][1] + fadeOut * bytesPerFrame;
+                gapFrames -= fadeOut;
+            }
+            int fadeIn = Math.min(fadeFrames, gapFrames);
+            faded[i] = new int[]{ranges[i][0] - fadeIn * bytesPerFrame, ranges[i][0], ranges[i][1], ranges[i][1]};
+        }
+        if (ranges.length > 0) {
+            int[] last = faded[ranges.length - 1];
+            last[3] = last[2] + Math.min(fadeFrames, (audioLength - last[2]) / bytesPerFrame) * bytesPerFrame;
+        }
+        return faded;
     }
 
     /**
      * Generates replacement sound based on the specified type
+     *
+     * @param soundType Type of sound to generate ("beep", "chime", "soft", "gentle")
+     * @return one period of the replacement pattern as interleaved 16-bit PCM in {@code format}
      */
-    private byte[] generateReplacementSound(AudioFormat format, float frequency, float duration, float volume, String soundType) {
+    public byte[] generateReplacementSound(AudioFormat format, float frequency, float duration, float volume, String soundType) {
         log.info("Generating {} sound with frequency: {} Hz, duration: {} seconds, volume: {}", soundType, frequency, duration, volume);
         
         switch (soundType.toLowerCase()) {
@@ -307,6 +627,7 @@ public class AudioRedactionService {
         double[] frequencies = {800.0, 1200.0, 1600.0}; // Harmonic series
         double[] amplitudes = {1.0, 0.6, 0.3}; // Decreasing amplitudes for harmonics
 
+        double[] wave = new double[numSamples];
         for (int i = 0; i < numSamples; i++) {
             double time = (double) i / sampleRate;
             double amplitude = 0.0;
@@ -318,15 +639,15 @@ public class AudioRedactionService {
 
             // Apply exponential decay for natural chime sound
             double decay = Math.exp(-time * 3.0); // Faster decay for chime effect
-            amplitude *= decay;
+            wave[i] = amplitude * decay;
+        }
 
-            // Apply fade-in and fade-out
-            double fadeIn = Math.min(1.0, time / 0.05); // 50ms fade-in
-            double fadeOut = Math.min(1.0, (duration - time) / 0.05); // 50ms fade-out
-            amplitude *= fadeIn * fadeOut;
+        // Apply fade-in and fade-out
+        Fades.applyLinear(wave, (int) (sampleRate * 0.05)); // 50ms fade-in and fade-out
 
+        for (int i = 0; i < numSamples; i++) {
             // Convert to 16-bit PCM with configurable volume
-            short sample = (short) (amplitude * 32767 * volume * 0.3); // Reduced overall volume for chime
+            short sample = (short) (wave[i] * 32767 * volume * 0.3); // Reduced overall volume for chime
 
             for (int ch = 0; ch < channels; ch++) {
                 int index = (i * channels + ch) * bytesPerSample;
@@ -351,6 +672,7 @@ public class AudioRedactionService {
         int numSamples = (int) (sampleRate * duration);
         byte[] softData = new byte[numSamples * channels * bytesPerSample];
 
+        double[] wave = new double[numSamples];
         for (int i = 0; i < numSamples; i++) {
             double time = (double) i / sampleRate;
             
@@ -361,17 +683,17 @@ public class AudioRedactionService {
             // Add a subtle second harmonic for warmth
             amplitude += 0.2 * Math.sin(2 * Math.PI * baseFreq * 2 * time);
 
-            // Apply gentle fade-in and fade-out
-            double fadeIn = Math.min(1.0, time / 0.1); // 100ms fade-in
-            double fadeOut = Math.min(1.0, (duration - time) / 0.1); // 100ms fade-out
-            amplitude *= fadeIn * fadeOut;
-
             // Apply soft envelope
             double envelope = Math.sin(Math.PI * time / duration);
-            amplitude *= envelope;
+            wave[i] = amplitude * envelope;
+        }
 
+        // Apply gentle fade-in and fade-out
+        Fades.applyLinear(wave, (int) (sampleRate * 0.1)); // 100ms fade-in and fade-out
+
+        for (int i = 0; i < numSamples; i++) {
             // Convert to 16-bit PCM with reduced volume
-            short sample = (short) (amplitude * 32767 * volume * 0.4); // 40% of original volume
+            short sample = (short) (wave[i] * 32767 * volume * 0.4); // 40% of original volume
 
             for (int ch = 0; ch < channels; ch++) {
                 int index = (i * channels + ch) * bytesPerSample;
@@ -396,6 +718,7 @@ public class AudioRedactionService {
         int numSamples = (int) (sampleRate * duration);
         byte[] gentleData = new byte[numSamples * channels * bytesPerSample];
 
+        double[] wave = new double[numSamples];
         for (int i = 0; i < numSamples; i++) {
             double time = (double) i / sampleRate;
             
@@ -403,17 +726,17 @@ public class AudioRedactionService {
             double baseFreq = frequency * 0.5; // 50% lower frequency
             double amplitude = Math.sin(2 * Math.PI * baseFreq * time);
 
-            // Very long fade-in and fade-out for maximum gentleness
-            double fadeIn = Math.min(1.0, time / 0.2); // 200ms fade-in
-            double fadeOut = Math.min(1.0, (duration - time) / 0.2); // 200ms fade-out
-            amplitude *= fadeIn * fadeOut;
-
             // Apply very gentle envelope
             double envelope = Math.sin(Math.PI * time / duration);
-            amplitude *= envelope * envelope; // Square for extra smoothness
+            wave[i] = amplitude * envelope * envelope; // Square for extra smoothness
+        }
 
+        // Very long fade-in and fade-out for maximum gentleness
+        Fades.applyLinear(wave, (int) (sampleRate * 0.2)); // 200ms fade-in and fade-out
+
+        for (int i = 0; i < numSamples; i++) {
             // Convert to 16-bit PCM with very low volume
-            short sample = (short) (amplitude * 32767 * volume * 0.15); // Only 15% of original volume
+            short sample = (short) (wave[i] * 32767 * volume * 0.15); // Only 15% of original volume
 
             for (int ch = 0; ch < channels; ch++) {
                 int index = (i * channels + ch) * bytesPerSample;
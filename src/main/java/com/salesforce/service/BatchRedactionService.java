@@ -0,0 +1,335 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionBatch;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Schedules batches of files over shared pools instead of one HTTP request per file. Decoding and
+ * redaction run on a CPU pool sized to the cores; transcription, which mostly waits on the service,
+ * runs on a pool sized to the allowed number of concurrent transcription sessions. The number of files
+ * decoded but not yet written is bounded so large batches don't hold every file's PCM in memory.
+ * Each output is written and registered as soon as its file completes.
+ * <p>
+ * Jobs left unfinished by a previous run, single requests included, are resumed on the same pools at
+ * startup from their last checkpoint.
+ * <p>
+ * Archives are extracted under limits on the number of entries, the size of each entry and their total
+ * size, so a zip bomb is rejected before it can fill uploads/.
+ */
+@Slf4j
+@Service
+public class BatchRedactionService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final RedactionJobService redactionJobService;
+    private final ActiveOutputRegistry activeOutputRegistry;
+    private final StorageManager storageManager;
+    private final JobStore jobStore;
+    private final Path inputRoot;
+    private final int maxArchiveEntries;
+    private final long maxEntryBytes;
+    private final long maxArchiveBytes;
+    private final ExecutorService cpuPool;
+    private final ExecutorService transcriptionPool;
+    private final ExecutorService dispatcher;
+    private final Semaphore inFlight;
+    private final Map<String, RedactionBatch> batches = new ConcurrentHashMap<>();
+
+    public BatchRedactionService(RedactionJobService redactionJobService,
+                                 ActiveOutputRegistry activeOutputRegistry,
+                                 StorageManager storageManager,
+                                 JobStore jobStore,
+                                 @Value("${batch.input-root:batch-input}") String inputRoot,
+                                 @Value("${batch.archive.max-entries:1000}") int maxArchiveEntries,
+                                 @Value("${batch.archive.max-entry-bytes:536870912}") long maxEntryBytes,
+                                 @Value("${batch.archive.max-bytes:1073741824}") long maxArchiveBytes,
+                                 @Value("${batch.cpu-workers:0}") int cpuWorkers,
+                                 @Value("${transcription.max-concurrent-sessions:16}") int transcriptionWorkers,
+                                 @Value("${batch.max-in-flight:0}") int maxInFlight) {
+        this.redactionJobService = redactionJobService;
+        this.activeOutputRegistry = activeOutputRegistry;
+        this.storageManager = storageManager;
+        this.jobStore = jobStore;
+        this.inputRoot = Paths.get(inputRoot).toAbsolutePath().normalize();
+        this.maxArchiveEntries = maxArchiveEntries;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxArchiveBytes = maxArchiveBytes;
+        int cpuThreads = cpuWorkers > 0 ? cpuWorkers : Runtime.getRuntime().availableProcessors();
+        this.cpuPool = Executors.newFixedThreadPool(cpuThreads, threadFactory("batch-cpu"));
+        this.transcriptionPool = Executors.newFixedThreadPool(transcriptionWorkers, threadFactory("batch-transcribe"));
+        this.dispatcher = Executors.newSingleThreadExecutor(threadFactory("batch-dispatch"));
+        this.inFlight = new Semaphore(maxInFlight > 0 ? maxInFlight : cpuThreads + transcriptionWorkers);
+    }
+
+    /**
+     * Submits files that are already on the server.
+     *
+     * @param paths   Paths relative to {@code batch.input-root}
+     * @param options Options applied to every file
+     * @return the batch, whose jobs are updated as they progress
+     * @throws IllegalArgumentException if a path is outside the input root or is not a readable file
+     */
+    public RedactionBatch submitPaths(List<String> paths, RedactionOptions options) {
+        if (paths == null || paths.isEmpty()) {
+            throw new IllegalArgumentException("No paths given");
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (String path : paths) {
+            Path input = inputRoot.resolve(path).normalize();
+            if (!input.startsWith(inputRoot) || !Files.isRegularFile(input) || !Files.isReadable(input)) {
+                throw new IllegalArgumentException("Not a readable file under the batch input root: " + path);
+            }
+            inputs.add(input);
+        }
+        RedactionBatch batch = new RedactionBatch(UUID.randomUUID().toString());
+        for (Path input : inputs) {
+            batch.getJobs().add(newJob(batch, UUID.randomUUID().toString(), inputRoot.relativize(input).toString(), input, false, options));
+        }
+        return schedule(batch);
+    }
+
+    /**
+     * Submits the files of a zip archive. Entries are extracted to uploads/ and deleted once processed.
+     *
+     * @param archive Zip stream; not closed
+     * @param options Options applied to every file
+     * @return the batch, whose jobs are updated as they progress
+     * @throws IllegalArgumentException if the archive is empty or exceeds the entry count or size limits
+     */
+    public RedactionBatch submitArchive(InputStream archive, RedactionOptions options) throws IOException {
+        RedactionBatch batch = new RedactionBatch(UUID.randomUUID().toString());
+        List<Path> inputs = new ArrayList<>();
+        long extracted = 0;
+        try {
+            ZipInputStream zip = new ZipInputStream(archive);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (inputs.size() >= maxArchiveEntries) {
+                    throw new IllegalArgumentException("Archive has more than " + maxArchiveEntries + " files");
+                }
+                String jobId = UUID.randomUUID().toString();
+                Path input = storageManager.resolve(StorageManager.Area.UPLOADS, jobId + "_batch");
+                storageManager.pin(input);
+                inputs.add(input);
+                extracted += extract(zip, input, Math.min(maxEntryBytes, maxArchiveBytes - extracted));
+                storageManager.register(StorageManager.Area.UPLOADS, input);
+                batch.getJobs().add(newJob(batch, jobId, Paths.get(entry.getName()).getFileName().toString(), input, true, options));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path input : inputs) {
+                releaseInput(input);
+            }
+            throw e;
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("Archive contains no files");
+        }
+        return schedule(batch);
+    }
+
+    /**
+     * Copies the current zip entry to {@code input}, stopping as soon as it is larger than {@code limit}.
+     * The declared entry size is not trusted, as it is easily forged.
+     *
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the entry is larger than {@code limit}
+     */
+    private long extract(ZipInputStream zip, Path input, long limit) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(input)) {
+            int read;
+            while ((read = zip.read(buffer)) != -1) {
+                written += read;
+                if (written > limit) {
+                    throw new IllegalArgumentException("Archive exceeds the size limit of " + maxEntryBytes
+                            + " bytes per file and " + maxArchiveBytes + " bytes in total");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return written;
+    }
+
+    public RedactionBatch get(String batchId) {
+        return batches.get(batchId);
+    }
+
+    /**
+     * Rebuilds the batches persisted by a previous run and resumes every unfinished job from its last
+     * checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (RedactionJob job : jobStore.all()) {
+            if (job.getBatchId() != null) {
+                batches.computeIfAbsent(job.getBatchId(), RedactionBatch::new).getJobs().add(job);
+            }
+        }
+        List<RedactionJob> unfinished = jobStore.unfinished();
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        log.info("Resuming {} unfinished jobs from the previous run", unfinished.size());
+        for (RedactionJob job : unfinished) {
+            if (job.isTemporaryInput()) {
+                storageManager.pin(Path.of(job.getInputPath()));
+            }
+        }
+        dispatch(unfinished, job -> redactionJobService.restore(job));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        transcriptionPool.shutdownNow();
+        cpuPool.shutdownNow();
+    }
+
+    private RedactionBatch schedule(RedactionBatch batch) {
+        batches.put(batch.getBatchId(), batch);
+        for (RedactionJob job : batch.getJobs()) {
+            jobStore.save(job);
+        }
+        log.info("Scheduling batch {} with {} files", batch.getBatchId(), batch.getJobs().size());
+        dispatch(batch.getJobs(), this::decode);
+        return batch;
+    }
+
+    private void dispatch(List<RedactionJob> jobs, DecodeStage decode) {
+        dispatcher.execute(() -> {
+            for (RedactionJob job : jobs) {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                start(job, decode);
+            }
+        });
+    }
+
+    private void start(RedactionJob job, DecodeStage decode) {
+        // Downloads follow the output while it is written instead of serving it as if it were complete
+        activeOutputRegistry.begin(job.getJobId(), redactionJobService.outputPath(job), job.getOptions().getEffectiveOutputFormat());
+        // Held outside the pipeline so the PCM is released however the job ends
+        AtomicReference<DecodedAudio> decoded = new AtomicReference<>();
+        CompletableFuture
+                .supplyAsync(() -> {
+                    DecodedAudio audio = call(() -> decode.decode(job));
+                    decoded.set(audio);
+                    return audio;
+                }, cpuPool)
+                .thenApplyAsync(audio -> {
+                    call(() -> redactionJobService.transcribe(job, audio));
+                    return audio;
+                }, transcriptionPool)
+                .thenAcceptAsync(audio -> call(() -> redactionJobService.redact(job, audio)), cpuPool)
+                .whenComplete((ignored, error) -> {
+                    DecodedAudio audio = decoded.get();
+                    if (audio != null) {
+                        audio.close();
+                    }
+                    inFlight.release();
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        log.warn("Batch {} file {} failed: {}", job.getBatchId(), job.getSource(), cause.getMessage());
+                        redactionJobService.fail(job, cause.getMessage());
+                    }
+                    activeOutputRegistry.finish(job.getJobId());
+                    if (job.isTemporaryInput()) {
+                        releaseInput(Path.of(job.getInputPath()));
+                    }
+                });
+    }
+
+    private DecodedAudio decode(RedactionJob job) throws Exception {
+        try (InputStream in = Files.newInputStream(Path.of(job.getInputPath()))) {
+            return redactionJobService.decode(job, in);
+        }
+    }
+
+    private RedactionJob newJob(RedactionBatch batch, String jobId, String source, Path input, boolean temporaryInput,
+                                RedactionOptions options) {
+        RedactionJob job = new RedactionJob(jobId, source, options);
+        job.setBatchId(batch.getBatchId());
+        job.setInputPath(input.toString());
+        job.setTemporaryInput(temporaryInput);
+        job.setStage(JobStage.QUEUED);
+        return job;
+    }
+
+    private void releaseInput(Path input) {
+        storageManager.unpin(input);
+        try {
+            storageManager.delete(input);
+        } catch (IOException e) {
+            log.warn("Failed to delete batch input {}: {}", input, e.getMessage());
+        }
+    }
+
+    private static <T> T call(StageCall<T> stage) {
+        try {
+            return stage.call();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageCall<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface DecodeStage {
+        DecodedAudio decode(RedactionJob job) throws Exception;
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.audio.PcmKernels;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.models.WordItems;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns PII entities into redaction intervals. Each entity is first snapped outwards to the words it
+ * overlaps, then padded by up to the configured amount for its type, never reaching into the neighbouring
+ * words. Within that padding each boundary is placed at the quietest point, found with a short-window RMS
+ * scan of the PCM, so cuts fall in pauses rather than mid-syllable.
+ * <p>
+ * Padding is configured as {@code before,after} seconds in {@code redaction.padding.default} and can be
+ * overridden per entity type, e.g. {@code redaction.padding.CREDIT_DEBIT_NUMBER=0.3,0.2}.
+ */
+@Component
+public class IntervalRefiner {
+
+    private static final String PADDING_PREFIX = "redaction.padding.";
+    private static final double[] DEFAULT_PADDING = {0.25, 0.1};
+    /** RMS window used to look for quiet points. */
+    private static final double WINDOW_SECONDS = 0.01;
+
+    private final Environment environment;
+    private final Map<String, double[]> paddingByType = new ConcurrentHashMap<>();
+
+    public IntervalRefiner(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Computes one redaction interval per entity, on the entity's channel, in the same order as {@code entities}.
+     * @param entities Detected PII entities
+     * @param words    Timed words of the transcript, in time order; may be empty
+     * @param pcm      16-bit little-endian PCM the timings refer to, or null to skip the energy scan
+     * @param format   Format of {@code pcm}
+     * @return refined intervals
+     */
+    public List<TimeInterval> refine(List<PIIEntity> entities, WordItems words, PcmBuffer pcm, AudioFormat format) {
+        Integer[] order = new Integer[entities.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingDouble(i -> entities.get(i).getStartTime()));
+
+        TimeInterval[] intervals = new TimeInterval[entities.size()];
+        int[] spoken = spokenWordIndexes(words);
+        int cursor = 0;
+        for (int index : order) {
+            PIIEntity entity = entities.get(index);
+            double start = entity.getStartTime();
+            double end = entity.getEndTime();
+            double previousWordEnd = 0;
+            double nextWordStart = Double.MAX_VALUE;
+
+            // Entities are visited in start order, so the word cursor only moves forward
+            while (cursor < spoken.length && words.getEndTime(spoken[cursor]) <= start) {
+                cursor++;
+            }
+            int first = cursor;
+            int last = cursor - 1;
+            while (last + 1 < spoken.length && words.getStartTime(spoken[last + 1]) < end) {
+                last++;
+            }
+            if (last >= first) {
+                start = Math.min(start, words.getStartTime(spoken[first]));
+                end = Math.max(end, words.getEndTime(spoken[last]));
+            }
+            if (first > 0) {
+                previousWordEnd = words.getEndTime(spoken[first - 1]);
+            }
+            if (last + 1 < spoken.length) {
+                nextWordStart = words.getStartTime(spoken[last + 1]);
+            }
+
+            double[] padding = paddingFor(entity.getType());
+            double earliestStart = Math.max(0, Math.min(start, Math.max(start - padding[0], previousWordEnd)));
+            double latestEnd = Math.max(end, Math.min(end + padding[1], nextWordStart));
+            if (pcm != null) {
+                start = quietestPoint(pcm, format, earliestStart, start, true);
+                end = quietestPoint(pcm, format, end, latestEnd, false);
+            } else {
+                start = earliestStart;
+                end = latestEnd;
+            }
+            intervals[index] = new TimeInterval(start, end, entity.getChannel());
+        }
+        return new ArrayList<>(Arrays.asList(intervals));
+    }
+
+    /**
+     * Returns the {@code before,after} padding for an entity type.
+     */
+    double[] paddingFor(String type) {
+        return paddingByType.computeIfAbsent(type, t -> {
+            String value = environment.getProperty(PADDING_PREFIX + t, environment.getProperty(PADDING_PREFIX + "default"));
+            return value == null ? DEFAULT_PADDING : parsePadding(value);
+        });
+    }
+
+    /**
+     * Finds the quietest {@link #WINDOW_SECONDS} window between {@code from} and {@code to}. For a start
+     * boundary the window's start is returned, so ties favour cutting earlier; for an end boundary its end,
+     * so ties favour cutting later. Either way the redaction only grows.
+     */
+    private static double quietestPoint(PcmBuffer pcm, AudioFormat format, double from, double to, boolean startBoundary) {
+        int frameSize = format.getFrameSize();
+        double sampleRate = format.getSampleRate();
+        int window = (int) Math.max(1, Math.round(sampleRate * WINDOW_SECONDS));
+        long totalFrames = pcm.length() / frameSize;
+        long fromFrame = Math.max(0, Math.round(from * sampleRate));
+        long toFrame = Math.min(totalFrames, Math.round(to * sampleRate));
+        if (toFrame - fromFrame < window) {
+            return startBoundary ? from : to;
+        }
+
+        double best = startBoundary ? from : to;
+        long bestEnergy = Long.MAX_VALUE;
+        short[] scratch = new short[window * frameSize / 2];
+        if (startBoundary) {
+            for (long frame = fromFrame; frame + window <= toFrame; frame += window) {
+                long energy = energy(pcm, frameSize, frame, scratch);
+                if (energy < bestEnergy) {
+                    bestEnergy = energy;
+                    best = frame / sampleRate;
+                }
+            }
+        } else {
+            for (long frame = toFrame - window; frame >= fromFrame; frame -= window) {
+                long energy = energy(pcm, frameSize, frame, scratch);
+                if (energy < bestEnergy) {
+                    bestEnergy = energy;
+                    best = (frame + window) / sampleRate;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Sum of squares over all channels of {@code window} frames; proportional to RMS squared.
+     */
+    private static long energy(PcmBuffer pcm, int frameSize, long startFrame, short[] scratch) {
+        int count = scratch.length;
+        pcm.samples((int) (startFrame * frameSize), scratch, count);
+        return PcmKernels.current().sumOfSquares(scratch, count);
+    }
+
+    private static int[] spokenWordIndexes(WordItems words) {
+        int[] indexes = new int[words.size()];
+        int count = 0;
+        for (int i = 0; i < words.size(); i++) {
+            if (words.isPronunciation(i)) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private static double[] parsePadding(String value) {
+        String[] parts = value.split(",");
+        double before = Double.parseDouble(parts[0].trim());
+        double after = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 0;
+        return new double[]{before, after};
+    }
+}
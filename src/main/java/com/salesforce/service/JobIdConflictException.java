@@ -0,0 +1,12 @@
+package com.salesforce.service;
+
+/**
+ * Thrown when a redaction request names a {@code fileId} that was not reserved with {@link JobIds#reserve()}
+ * or already belongs to a job. The caller should answer 409.
+ */
+public class JobIdConflictException extends RuntimeException {
+
+    public JobIdConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out job ids. A client that wants to follow a job's progress or download before its redact request
+ * returns reserves an id first; the id can then be used by exactly one redact request, so a client cannot
+ * take over another job's output, record or events by reusing its id.
+ */
+@Component
+public class JobIds {
+
+    private final ActiveOutputRegistry activeOutputRegistry;
+    private final JobStore jobStore;
+    private final StorageManager storageManager;
+    private final Duration ttl;
+    /** Reserved ids not yet claimed, with the time they expire. */
+    private final Map<String, Long> reserved = new ConcurrentHashMap<>();
+
+    public JobIds(ActiveOutputRegistry activeOutputRegistry,
+                  JobStore jobStore,
+                  StorageManager storageManager,
+                  @Value("${jobs.reservation-ttl:PT10M}") Duration ttl) {
+        this.activeOutputRegistry = activeOutputRegistry;
+        this.jobStore = jobStore;
+        this.storageManager = storageManager;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Reserves a fresh id for a redact request that has not been sent yet.
+     */
+    public String reserve() {
+        String id = UUID.randomUUID().toString();
+        reserved.put(id, System.currentTimeMillis() + ttl.toMillis());
+        return id;
+    }
+
+    /**
+     * Returns the id a redact request runs under: a fresh one when none was requested, otherwise the
+     * requested id, which is consumed.
+     *
+     * @throws IllegalArgumentException if the requested id is not a UUID
+     * @throws JobIdConflictException   if the requested id was not reserved, has expired, was already
+     *                                  claimed, or belongs to an existing job or output
+     */
+    public String claim(String requestedId) {
+        if (requestedId == null) {
+            return UUID.randomUUID().toString();
+        }
+        String id = UUID.fromString(requestedId).toString();
+        Long expiresAt = reserved.remove(id);
+        if (expiresAt == null || expiresAt < System.currentTimeMillis()) {
+            throw new JobIdConflictException("fileId " + id + " is not reserved; obtain one from POST /api/audio/jobs");
+        }
+        if (inUse(id)) {
+            throw new JobIdConflictException("fileId " + id + " is already in use");
+        }
+        return id;
+    }
+
+    private boolean inUse(String id) {
+        if (activeOutputRegistry.get(id) != null || jobStore.get(id) != null) {
+            return true;
+        }
+        for (OutputFormat format : OutputFormat.values()) {
+            if (Files.exists(storageManager.resolve(StorageManager.Area.OUTPUTS, id + "_redacted" + format.getExtension()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets reservations that were never used.
+     */
+    @Scheduled(fixedDelayString = "${storage.sweep-interval:PT1M}", initialDelayString = "${storage.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        reserved.values().removeIf(expiresAt -> expiresAt < now);
+    }
+}
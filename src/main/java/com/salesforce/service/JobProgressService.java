@@ -0,0 +1,404 @@
+package com.salesforce.service;
+
+import com.salesforce.models.JobStage;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.TranscriptSegment;
+import com.salesforce.storage.JobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes per-job progress to Server-Sent Events subscribers: stage changes, the share of audio
+ * streamed for transcription, interim and final transcript segments with the PII found in them, and
+ * redaction progress, ending with a {@code completed} or {@code failed} event.
+ * <p>
+ * A client may subscribe before submitting (with its own {@code fileId}) or part way through; late
+ * subscribers are first sent the current stage, percentages and every final segment so far.
+ * <p>
+ * Each subscriber has its own bounded queue, drained by one thread at a time from a shared pool, so a
+ * slow client only delays its own events and never the pipeline. While a subscriber is behind, a newer
+ * {@code streamed}, {@code partial} or {@code redacted} event replaces the one still queued; a subscriber
+ * whose queue fills up anyway is disconnected.
+ */
+@Slf4j
+@Service
+public class JobProgressService {
+
+    private final JobStore jobStore;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final Map<String, JobProgress> progress = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    public JobProgressService(JobStore jobStore,
+                              @Value("${progress.sse-timeout:PT30M}") Duration timeout,
+                              @Value("${progress.sender-threads:4}") int senderThreads,
+                              @Value("${progress.subscriber-queue:256}") int queueCapacity) {
+        this.jobStore = jobStore;
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        AtomicInteger count = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "progress-sse-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Subscribes to a job's progress. A job that already finished gets its final event and the stream ends.
+     *
+     * @param jobId Job (file) id; may name a job that has not been submitted yet
+     */
+    public SseEmitter subscribe(String jobId) {
+        SseEmitter emitter = newEmitter();
+        RedactionJob stored = jobStore.get(jobId);
+        Subscriber subscriber = new Subscriber(emitter);
+        if (stored != null && stored.getStage().isFinished() && !progress.containsKey(jobId)) {
+            subscriber.close(finalEvent(stored));
+            return emitter;
+        }
+
+        JobProgress state = progress.computeIfAbsent(jobId, id -> new JobProgress());
+        Runnable remove = () -> unsubscribe(jobId, state, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        synchronized (state) {
+            // Queued under the lock, so every live event published from now on follows the replay
+            subscriber.replay(state.snapshot());
+            state.subscribers.add(subscriber);
+        }
+        // The job may have finished between the lookup above and the subscription
+        RedactionJob current = jobStore.get(jobId);
+        if (current != null && current.getStage().isFinished() && state.stage == null) {
+            progress.putIfAbsent(jobId, state);
+            finished(current);
+        }
+        return emitter;
+    }
+
+    public void stage(RedactionJob job) {
+        JobProgress state = progress.computeIfAbsent(job.getJobId(), id -> new JobProgress());
+        synchronized (state) {
+            state.stage = job.getStage();
+            publish(state, stageEvent(state));
+        }
+    }
+
+    public void streamed(RedactionJob job, double seconds, double totalSeconds) {
+        JobProgress state = progress.get(job.getJobId());
+        if (state == null) {
+            return;
+        }
+        int percent = totalSeconds > 0 ? (int) Math.min(100, seconds * 100 / totalSeconds) : 100;
+        synchronized (state) {
+            if (percent != state.streamedPercent) {
+                state.streamedPercent = percent;
+                state.streamedSeconds = seconds;
+                publish(state, streamedEvent(state));
+            }
+        }
+    }
+
+    public void partial(RedactionJob job, double startTime, String transcript) {
+        JobProgress state = progress.get(job.getJobId());
+        if (state == null) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("startTime", startTime);
+        data.put("transcript", transcript);
+        synchronized (state) {
+            publish(state, new Event("partial", data));
+        }
+    }
+
+    public void segment(RedactionJob job, TranscriptSegment segment) {
+        JobProgress state = progress.get(job.getJobId());
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            List<PIIEntity> entities = segment.getPiiEntities() != null ? segment.getPiiEntities() : List.of();
+            state.piiCount += entities.size();
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("startTime", segment.getStartTime());
+            data.put("endTime", segment.getEndTime());
+            data.put("transcript", segment.getTranscript());
+            data.put("piiEntities", entities);
+            data.put("piiCount", state.piiCount);
+            state.segments.add(data);
+            publish(state, new Event("segment", data));
+        }
+    }
+
+    public void redacted(RedactionJob job, double fraction) {
+        JobProgress state = progress.get(job.getJobId());
+        if (state == null) {
+            return;
+        }
+        int percent = (int) Math.min(100, fraction * 100);
+        synchronized (state) {
+            if (percent != state.redactedPercent) {
+                state.redactedPercent = percent;
+                publish(state, redactedEvent(state));
+            }
+        }
+    }
+
+    /**
+     * Sends the job's final event and ends every subscription.
+     */
+    public void finished(RedactionJob job) {
+        JobProgress state = progress.remove(job.getJobId());
+        if (state == null) {
+            return;
+        }
+        Event event = finalEvent(job);
+        synchronized (state) {
+            for (Subscriber subscriber : state.subscribers) {
+                subscriber.close(event);
+            }
+        }
+    }
+
+    /**
+     * Emitter for a new subscription; tests override it to record what is sent.
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void publish(JobProgress state, Event event) {
+        for (Subscriber subscriber : state.subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void unsubscribe(String jobId, JobProgress state, Subscriber subscriber) {
+        synchronized (state) {
+            state.subscribers.remove(subscriber);
+            // Drop subscriptions to jobs that never started once nobody is waiting for them
+            if (state.subscribers.isEmpty() && state.stage == null) {
+                progress.remove(jobId, state);
+            }
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, Event event) {
+        try {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping progress subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static Event stageEvent(JobProgress state) {
+        return new Event("stage", Map.of("stage", state.stage.name().toLowerCase()));
+    }
+
+    private static Event streamedEvent(JobProgress state) {
+        return new Event("streamed", Map.of("percent", state.streamedPercent, "seconds", state.streamedSeconds));
+    }
+
+    private static Event redactedEvent(JobProgress state) {
+        return new Event("redacted", Map.of("percent", state.redactedPercent));
+    }
+
+    private static Event finalEvent(RedactionJob job) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("fileId", job.getJobId());
+        if (job.getStage() == JobStage.COMPLETED) {
+            data.put("piiCount", job.getTranscription().getPiiEntities().size());
+            data.put("download", "/api/audio/download/" + job.getJobId());
+            return new Event("completed", data);
+        }
+        data.put("error", job.getError());
+        return new Event("failed", data);
+    }
+
+    /** An event to send; builders can only be sent once, so one is created per subscriber. */
+    private record Event(String name, Object data) {
+
+        /** Progress that a newer event of the same name supersedes. */
+        boolean isCoalescable() {
+            return name.equals("streamed") || name.equals("partial") || name.equals("redacted");
+        }
+    }
+
+    /**
+     * One SSE client and the events queued for it. At most one pool thread drains the queue at a time.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // All guarded by this
+        /** Events that bring a late subscriber up to date, sent before {@link #queue} and not subject to its limit. */
+        private final ArrayDeque<Event> backlog = new ArrayDeque<>();
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closing;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the events that bring a late subscriber up to date.
+         */
+        synchronized void replay(List<Event> events) {
+            backlog.addAll(events);
+            schedule();
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closing || closed) {
+                    return;
+                }
+                if (event.isCoalescable() && replaceQueued(event)) {
+                    return;
+                }
+                if (queue.size() < queueCapacity) {
+                    queue.add(event);
+                    schedule();
+                    return;
+                }
+                backlog.clear();
+                queue.clear();
+                closed = true;
+            }
+            // Completed outside the lock, as completion callbacks may run on this thread
+            log.debug("Dropping progress subscriber that fell {} events behind", queueCapacity);
+            emitter.completeWithError(new IOException("Progress subscriber too slow"));
+        }
+
+        /**
+         * Queues the final event; the stream ends once it has been sent.
+         */
+        synchronized void close(Event event) {
+            if (closing || closed) {
+                return;
+            }
+            queue.add(event);
+            closing = true;
+            schedule();
+        }
+
+        private boolean replaceQueued(Event event) {
+            Iterator<Event> queued = queue.descendingIterator();
+            while (queued.hasNext()) {
+                if (queued.next().name().equals(event.name())) {
+                    queued.remove();
+                    queue.add(event);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void schedule() {
+            if (draining || (backlog.isEmpty() && queue.isEmpty())) {
+                return;
+            }
+            draining = true;
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Event event;
+                boolean complete = false;
+                synchronized (this) {
+                    event = closed ? null : backlog.isEmpty() ? queue.poll() : backlog.poll();
+                    if (event == null) {
+                        draining = false;
+                        if (closing && !closed) {
+                            closed = true;
+                            complete = true;
+                        }
+                    }
+                }
+                if (event == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                // Sent outside the lock so publishers never wait on this client's socket
+                if (!send(emitter, event)) {
+                    synchronized (this) {
+                        backlog.clear();
+                        queue.clear();
+                        closed = true;
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class JobProgress {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final List<Map<String, Object>> segments = new ArrayList<>();
+        private JobStage stage;
+        private int streamedPercent = -1;
+        private double streamedSeconds;
+        private int redactedPercent = -1;
+        private int piiCount;
+
+        /**
+         * Events that bring a late subscriber up to date.
+         */
+        private List<Event> snapshot() {
+            List<Event> events = new ArrayList<>();
+            if (stage != null) {
+                events.add(stageEvent(this));
+            }
+            if (streamedPercent >= 0) {
+                events.add(streamedEvent(this));
+            }
+            for (Map<String, Object> segment : segments) {
+                events.add(new Event("segment", segment));
+            }
+            if (redactedPercent >= 0) {
+                events.add(redactedEvent(this));
+            }
+            return events;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.TranscriptionResult;
+import com.salesforce.storage.JobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+
+/**
+ * Runs redaction jobs for the reactive endpoints. The upload is decoded as its buffers arrive, the
+ * transcription session is a non-blocking stream, and the CPU-bound stages (decoding, resampling,
+ * refinement, writing the output) run on a bounded scheduler, so event-loop threads are never blocked and
+ * no thread is parked per request while the transcription service is listening.
+ * <p>
+ * Stages, checkpoints and caching are those of {@link RedactionJobService}.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedactionService {
+
+    /** Buffers requested from the request body ahead of the decoder. */
+    private static final int BODY_DEMAND = 16;
+
+    private final RedactionJobService redactionJobService;
+    private final TranscribeWithPII transcribeWithPIIService;
+    private final JobStore jobStore;
+    private final Scheduler scheduler;
+
+    public ReactiveRedactionService(RedactionJobService redactionJobService,
+                                    TranscribeWithPII transcribeWithPIIService,
+                                    JobStore jobStore,
+                                    @Value("${reactive.redaction-threads:0}") int threads,
+                                    @Value("${reactive.redaction-queue:1000}") int queue) {
+        this.redactionJobService = redactionJobService;
+        this.transcribeWithPIIService = transcribeWithPIIService;
+        this.jobStore = jobStore;
+        int threadCap = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(threadCap, queue, "redaction");
+        log.info("Reactive redaction scheduler: {} threads, {} queued tasks", threadCap, queue);
+    }
+
+    /**
+     * Runs all stages over a streamed request body.
+     *
+     * @param job    Job to run; its stage and results are updated in place
+     * @param body   Encoded upload
+     * @param ticket Admission ticket told the decoded size, or null
+     * @return the job, once its output is written
+     */
+    public Mono<RedactionJob> run(RedactionJob job, Flux<DataBuffer> body, AdmissionService.Ticket ticket) {
+        return Mono.fromRunnable(() -> jobStore.save(job))
+                .subscribeOn(scheduler)
+                .then(Mono.usingWhen(decode(job, body, ticket),
+                        audio -> finish(job, audio),
+                        audio -> Mono.fromRunnable(audio::close)));
+    }
+
+    /**
+     * Decodes the upload while it is still arriving; the request buffers are released as they are read.
+     * The subscriber closes the audio once the job no longer needs it.
+     */
+    public Mono<DecodedAudio> decode(RedactionJob job, Flux<DataBuffer> body, AdmissionService.Ticket ticket) {
+        return Mono.fromCallable(() -> {
+                    DecodedAudio audio;
+                    try (InputStream in = DataBufferUtils.subscriberInputStream(body, BODY_DEMAND)) {
+                        audio = redactionJobService.decode(job, in);
+                    }
+                    if (ticket != null) {
+                        ticket.decoded(audio);
+                    }
+                    return audio;
+                })
+                .subscribeOn(scheduler)
+                .doOnError(e -> redactionJobService.fail(job, e.getMessage()));
+    }
+
+    /**
+     * Transcribes and redacts decoded audio.
+     *
+     * @return the job, once its output is written
+     */
+    public Mono<RedactionJob> finish(RedactionJob job, DecodedAudio audio) {
+        return transcribe(job, audio)
+                .then(Mono.fromCallable(() -> redactionJobService.redact(job, audio)).subscribeOn(scheduler))
+                .thenReturn(job)
+                .doOnError(e -> redactionJobService.fail(job, e.getMessage()));
+    }
+
+    private Mono<TranscriptionResult> transcribe(RedactionJob job, DecodedAudio audio) {
+        // The cache lookup may read from disk, so it runs on the scheduler too
+        return Mono.fromCallable(() -> redactionJobService.policy(job))
+                .flatMap(policy -> Mono.fromCallable(() -> redactionJobService.reuseTranscription(job, audio, policy))
+                        .subscribeOn(scheduler)
+                        .switchIfEmpty(Mono.defer(() -> Mono.fromCallable(() -> redactionJobService.checkpointedSegments(job))
+                                .subscribeOn(scheduler)
+                                .flatMap(completed -> transcribeWithPIIService.transcribeReactive(audio, completed,
+                                        redactionJobService.transcriptionListener(job), scheduler))
+                                .flatMap(result -> Mono.fromCallable(() -> redactionJobService.completeTranscription(job, audio, policy, result))
+                                        .subscribeOn(scheduler)))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,356 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.audio.WaveformPeaks;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptSegment;
+import com.salesforce.models.TranscriptionResult;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.RedactionAuditLog;
+import com.salesforce.storage.StorageManager;
+import com.salesforce.storage.TranscriptionCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the stages of a redaction job: decode the upload, transcribe it (or reuse a cached
+ * transcription of identical audio), and write the redacted output. The stages can be run back to back
+ * with {@link #run} or individually, so a scheduler can put each on a pool sized for its bottleneck.
+ * <p>
+ * The job is checkpointed to the {@link JobStore} after each stage (a copy of the upload written while it
+ * is decoded, transcript segments as they arrive, the finished transcription), so a job interrupted by a
+ * restart can be resumed with {@link #restore} and {@link #transcribe} without redoing completed work.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedactionJobService {
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}$");
+
+    private final AudioRedactionService audioRedactionService;
+    private final TranscribeWithPII transcribeWithPIIService;
+    private final ActiveOutputRegistry activeOutputRegistry;
+    private final TranscriptionCache transcriptionCache;
+    private final AudioIngestService audioIngestService;
+    private final StorageManager storageManager;
+    private final JobStore jobStore;
+    private final RedactionAuditLog auditLog;
+    private final RedactionPolicyCompiler policyCompiler;
+    private final JobProgressService progress;
+    private final PipelineMetrics metrics;
+
+    /** Set once shutdown begins; jobs interrupted by it keep their checkpoints and resume on the next start. */
+    private volatile boolean shuttingDown;
+
+    /**
+     * Runs all stages on the calling thread. Downloads of the job's output can be followed from the
+     * moment this is called.
+     *
+     * @param job    Job to run; its stage and results are updated in place
+     * @param body   Encoded upload; not closed
+     * @param ticket Admission ticket told the decoded size, or null if the request was not admitted through one
+     */
+    public void run(RedactionJob job, InputStream body, AdmissionService.Ticket ticket) throws Exception {
+        OutputFormat format = job.getOptions().getEffectiveOutputFormat();
+        // Invalid thresholds are rejected before the upload is read
+        RedactionPolicy policy = policy(job);
+        activeOutputRegistry.begin(job.getJobId(), outputPath(job), format);
+        jobStore.save(job);
+        DecodedAudio audio = null;
+        try {
+            audio = decode(job, body);
+            if (ticket != null) {
+                ticket.decoded(audio);
+            }
+            transcribe(job, audio, policy);
+            redact(job, audio);
+        } catch (Exception e) {
+            fail(job, e.getMessage());
+            throw e;
+        } finally {
+            if (audio != null) {
+                audio.close();
+            }
+            activeOutputRegistry.finish(job.getJobId());
+        }
+    }
+
+    /**
+     * Decodes the upload in a single pass while hashing it; uploads/ is only used if it must be spilled.
+     * An upload without a server-side input is copied to its checkpoint as it is read.
+     * The caller closes the returned audio once the job no longer needs it.
+     */
+    public DecodedAudio decode(RedactionJob job, InputStream body) throws IOException, UnsupportedAudioFileException {
+        // Server-side inputs can simply be decoded again, so they are not checkpointed
+        return decode(job, body, job.getInputPath() == null ? jobStore.openUploadCheckpoint(job) : null);
+    }
+
+    private DecodedAudio decode(RedactionJob job, InputStream body, JobStore.UploadCheckpoint checkpoint)
+            throws IOException, UnsupportedAudioFileException {
+        job.setStage(JobStage.DECODING);
+        progress.stage(job);
+        DecodedAudio audio;
+        try {
+            audio = audioIngestService.ingest(body,
+                    storageManager.resolve(StorageManager.Area.UPLOADS, job.getJobId() + "_input" + extension(job.getSource())),
+                    checkpoint);
+            if (checkpoint != null) {
+                checkpoint.commit();
+            }
+        } finally {
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+        }
+        job.setContentHash(audio.getContentHash());
+        jobStore.save(job);
+        return audio;
+    }
+
+    /**
+     * Recovers the decoded audio of a job interrupted by a restart by decoding its server-side input or its
+     * upload checkpoint again.
+     *
+     * @throws IllegalStateException if the job stopped before its upload was received in full, or it was
+     *                               not checkpointed
+     */
+    public DecodedAudio restore(RedactionJob job) throws IOException, UnsupportedAudioFileException {
+        Path input = job.getInputPath() != null ? Path.of(job.getInputPath()) : jobStore.uploadCheckpoint(job).orElse(null);
+        if (input == null || !Files.isRegularFile(input)) {
+            throw new IllegalStateException("Interrupted before the upload was decoded; resubmit the file");
+        }
+        log.info("Resuming job {} by decoding {}", job.getJobId(), input.getFileName());
+        try (InputStream in = Files.newInputStream(input)) {
+            return decode(job, in, null);
+        }
+    }
+
+    /**
+     * Transcribes the audio, reusing the cached transcription when identical audio was seen before. A job
+     * that was already transcribed keeps its transcription, and one interrupted mid-stream resumes after
+     * its last checkpointed segment.
+     */
+    public TranscriptionResult transcribe(RedactionJob job, DecodedAudio audio) throws Exception {
+        return transcribe(job, audio, policy(job));
+    }
+
+    private TranscriptionResult transcribe(RedactionJob job, DecodedAudio audio, RedactionPolicy policy) throws Exception {
+        TranscriptionResult reused = reuseTranscription(job, audio, policy);
+        if (reused != null) {
+            return reused;
+        }
+        TranscriptionResult transcriptionResult = transcribeWithPIIService.transcribeAndDetectPII(audio,
+                checkpointedSegments(job), transcriptionListener(job));
+        return completeTranscription(job, audio, policy, transcriptionResult);
+    }
+
+    /**
+     * Compiles the job's confidence thresholds and type lists into the policy applied to detected entities.
+     *
+     * @throws IllegalArgumentException if the options hold an invalid threshold
+     */
+    RedactionPolicy policy(RedactionJob job) {
+        return policyCompiler.compile(job.getOptions());
+    }
+
+    /**
+     * Starts the transcription stage and returns the job's existing or cached transcription, if any. A cached
+     * transcription holds every entity detected, so the job's policy is applied to it again.
+     *
+     * @return the transcription to reuse, or {@code null} if the audio has to be transcribed
+     */
+    TranscriptionResult reuseTranscription(RedactionJob job, DecodedAudio audio, RedactionPolicy policy) throws IOException {
+        if (job.getTranscription() != null) {
+            return job.getTranscription();
+        }
+        job.setStage(JobStage.TRANSCRIBING);
+        progress.stage(job);
+        // Identical audio (e.g. resubmitted with different beep settings) reuses the earlier transcription
+        TranscriptionResult cached = transcriptionCache.get(transcribeWithPIIService.cacheKey(audio)).orElse(null);
+        metrics.recordCacheLookup(cached != null);
+        if (cached == null) {
+            return null;
+        }
+        TranscriptionResult filtered = transcribeWithPIIService.applyPolicy(cached, audio, policy);
+        job.setTranscriptionCached(true);
+        job.setTranscription(filtered);
+        jobStore.save(job);
+        return filtered;
+    }
+
+    /**
+     * Segments received before the job was interrupted, replayed to progress subscribers.
+     */
+    List<TranscriptSegment> checkpointedSegments(RedactionJob job) throws IOException {
+        List<TranscriptSegment> completed = jobStore.loadSegments(job);
+        for (TranscriptSegment segment : completed) {
+            progress.segment(job, segment);
+        }
+        return completed;
+    }
+
+    /**
+     * Reports transcription progress and checkpoints each final segment as it arrives.
+     */
+    TranscriptionListener transcriptionListener(RedactionJob job) {
+        return new TranscriptionListener() {
+            @Override
+            public void onStreamed(double seconds, double totalSeconds) {
+                progress.streamed(job, seconds, totalSeconds);
+            }
+
+            @Override
+            public void onPartial(double startTime, String transcript) {
+                progress.partial(job, startTime, transcript);
+            }
+
+            @Override
+            public void onSegment(TranscriptSegment segment) {
+                jobStore.appendSegment(job, segment);
+                progress.segment(job, segment);
+            }
+        };
+    }
+
+    /**
+     * Caches a fresh, unfiltered transcription, then applies the job's policy to it and checkpoints the result.
+     */
+    TranscriptionResult completeTranscription(RedactionJob job, DecodedAudio audio, RedactionPolicy policy,
+                                              TranscriptionResult transcriptionResult) throws IOException {
+        // An empty transcript usually means the service timed out, so don't pin it in the cache
+        if (!transcriptionResult.getOriginalTranscription().isBlank()) {
+            transcriptionCache.put(transcribeWithPIIService.cacheKey(audio), transcriptionResult);
+        }
+        TranscriptionResult filtered = transcribeWithPIIService.applyPolicy(transcriptionResult, audio, policy);
+        job.setTranscriptionCached(false);
+        job.setTranscription(filtered);
+        jobStore.save(job);
+        return filtered;
+    }
+
+    /**
+     * Writes the redacted output and the waveform peaks of the audio before and after redaction, registers
+     * them with the storage manager and records what was redacted in the audit log. A partial output is
+     * deleted if redaction fails.
+     */
+    public Path redact(RedactionJob job, DecodedAudio audio) throws IOException {
+        job.setStage(JobStage.REDACTING);
+        progress.stage(job);
+        Path outputPath = outputPath(job);
+        boolean completed = false;
+        WaveformPeaks peaks = new WaveformPeaks(audio.getFormat(), audio.getPcm().length() / audio.getFormat().getFrameSize());
+        storageManager.pin(outputPath);
+        try {
+            audioRedactionService.redactAudio(audio, outputPath.toString(), job.getTranscription().getPiiIntervals(), job.getOptions(),
+                    fraction -> progress.redacted(job, fraction), peaks);
+            storageManager.register(StorageManager.Area.OUTPUTS, outputPath);
+            completed = true;
+        } finally {
+            storageManager.unpin(outputPath);
+            if (!completed) {
+                deletePartialOutput(outputPath);
+            }
+        }
+        writePeaks(job, peaks);
+        TranscriptionResult transcription = job.getTranscription();
+        auditLog.append(job.getJobId(), job.getContentHash(), auditedMethod(job.getOptions()),
+                transcription.getPiiIntervals(), transcription.getPiiEntities());
+        metrics.recordOutputBytes(Files.size(outputPath));
+        metrics.recordPiiEntities(transcription.getPiiEntities().size(), audio.getDurationSeconds());
+        job.setStage(JobStage.COMPLETED);
+        jobStore.save(job);
+        jobStore.releaseCheckpoints(job);
+        progress.finished(job);
+        return outputPath;
+    }
+
+    /**
+     * Marks the job as failed and drops its checkpoints; a failed job is not resumed. Failures caused by
+     * shutting down are not persisted, so the job resumes on the next start.
+     */
+    public void fail(RedactionJob job, String error) {
+        job.fail(error);
+        if (shuttingDown) {
+            log.info("Job {} interrupted by shutdown; it will resume on the next start", job.getJobId());
+            return;
+        }
+        jobStore.save(job);
+        jobStore.releaseCheckpoints(job);
+        progress.finished(job);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        shuttingDown = true;
+    }
+
+    public Path outputPath(RedactionJob job) {
+        OutputFormat format = job.getOptions().getEffectiveOutputFormat();
+        return storageManager.resolve(StorageManager.Area.OUTPUTS, job.getJobId() + "_redacted" + format.getExtension());
+    }
+
+    public Path peaksPath(RedactionJob job) {
+        return peaksPath(job.getJobId());
+    }
+
+    public Path peaksPath(String jobId) {
+        return storageManager.resolve(StorageManager.Area.OUTPUTS, jobId + "_peaks.bin");
+    }
+
+    /**
+     * The peaks are only a preview, so failing to write them does not fail the job.
+     */
+    private void writePeaks(RedactionJob job, WaveformPeaks peaks) {
+        Path peaksPath = peaksPath(job);
+        try {
+            peaks.write(peaksPath);
+            storageManager.register(StorageManager.Area.OUTPUTS, peaksPath);
+        } catch (IOException e) {
+            log.warn("Failed to write waveform peaks for job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private void deletePartialOutput(Path outputPath) {
+        try {
+            storageManager.delete(outputPath);
+        } catch (IOException e) {
+            log.warn("Failed to delete partial output {}: {}", outputPath, e.getMessage());
+        }
+    }
+
+    /**
+     * The replacement as recorded in the audit log: {@code silence}, or the method and its sound type.
+     */
+    private static String auditedMethod(RedactionOptions options) {
+        String method = options.getReplacementMethod();
+        return "silence".equalsIgnoreCase(method) ? "silence" : String.valueOf(method).toLowerCase() + ":" + options.getSoundType();
+    }
+
+    /**
+     * Extension of a client-supplied file name, used for the spill file; anything unusual falls back to .wav.
+     */
+    private static String extension(String filename) {
+        if (filename == null) {
+            return ".wav";
+        }
+        Matcher matcher = EXTENSION.matcher(filename);
+        return matcher.find() ? matcher.group() : ".wav";
+    }
+}
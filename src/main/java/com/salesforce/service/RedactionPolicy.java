@@ -0,0 +1,86 @@
+package com.salesforce.service;
+
+import com.salesforce.models.PIIEntity;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Decides, per detected entity, whether it is redacted, only reported for review, or ignored. Built once
+ * per request by {@link RedactionPolicyCompiler} from its type lists and confidence thresholds, so deciding
+ * is one map lookup and two comparisons.
+ * <p>
+ * An entity is redacted when its confidence is at least the threshold for its type, and reported for review
+ * when it falls short by no more than the review band.
+ */
+public final class RedactionPolicy {
+
+    /** What to do with one entity. */
+    public enum Decision {
+        REDACT, REVIEW, SKIP
+    }
+
+    /** Redacts every entity regardless of type or confidence. */
+    public static final RedactionPolicy REDACT_ALL = new RedactionPolicy(0, Map.of(), 0, null, Set.of());
+
+    private static final Rule NEVER = new Rule(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private final Map<String, Rule> rules = new HashMap<>();
+    /** Rule for types without their own, {@link #NEVER} when only listed types are redacted. */
+    private final Rule otherTypes;
+    private final boolean redactsAll;
+
+    /**
+     * @param minConfidence Threshold for types without their own
+     * @param thresholds    Threshold per upper-case type
+     * @param reviewBand    How far below the threshold an entity is reported for review
+     * @param redactTypes   Upper-case types to redact, or null for all types
+     * @param skipTypes     Upper-case types never to redact, taking precedence over {@code redactTypes}
+     */
+    RedactionPolicy(double minConfidence, Map<String, Double> thresholds, double reviewBand,
+                    Set<String> redactTypes, Set<String> skipTypes) {
+        otherTypes = redactTypes == null ? new Rule(minConfidence, minConfidence - reviewBand) : NEVER;
+        thresholds.forEach((type, threshold) -> rules.put(type, new Rule(threshold, threshold - reviewBand)));
+        if (redactTypes != null) {
+            for (String type : redactTypes) {
+                rules.computeIfAbsent(type, t -> new Rule(minConfidence, minConfidence - reviewBand));
+            }
+            rules.keySet().retainAll(redactTypes);
+        }
+        for (String type : skipTypes) {
+            rules.put(type, NEVER);
+        }
+        redactsAll = otherTypes.redactAt <= 0 && rules.values().stream().allMatch(rule -> rule.redactAt <= 0);
+    }
+
+    public Decision decide(PIIEntity entity) {
+        Rule rule = rules.getOrDefault(entity.getType().toUpperCase(Locale.ROOT), otherTypes);
+        double confidence = entity.getConfidence();
+        if (confidence >= rule.redactAt) {
+            return Decision.REDACT;
+        }
+        return confidence >= rule.reviewAt ? Decision.REVIEW : Decision.SKIP;
+    }
+
+    /**
+     * Whether every entity is redacted, so results are the same as with no policy at all.
+     */
+    public boolean redactsAll() {
+        return redactsAll;
+    }
+
+    @Override
+    public String toString() {
+        return redactsAll ? "redact all" : new TreeMap<>(rules) + ", other types " + otherTypes;
+    }
+
+    private record Rule(double redactAt, double reviewAt) {
+        @Override
+        public String toString() {
+            return redactAt == Double.POSITIVE_INFINITY ? "never" : redactAt + "/" + reviewAt;
+        }
+    }
+}
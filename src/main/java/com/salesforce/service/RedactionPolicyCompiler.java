@@ -0,0 +1,109 @@
+package com.salesforce.service;
+
+import com.salesforce.models.RedactionOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the {@link RedactionPolicy} of a request from its options and the server defaults.
+ * <p>
+ * The default threshold is {@code redaction.min-confidence.default}, overridden per entity type with
+ * {@code redaction.min-confidence.<TYPE>}, and the review band is {@code redaction.review-band}. A request's
+ * {@code minConfidence} replaces all of the configured thresholds, its {@code confidenceThresholds} replace
+ * those of the types they name, and its {@code reviewBand} replaces the configured band.
+ */
+@Slf4j
+@Component
+public class RedactionPolicyCompiler {
+
+    private static final String DEFAULT_TYPE = "DEFAULT";
+
+    private final double defaultThreshold;
+    private final Map<String, Double> thresholds = new HashMap<>();
+    private final double reviewBand;
+
+    public RedactionPolicyCompiler(Environment environment) {
+        Binder binder = Binder.get(environment);
+        binder.bind("redaction.min-confidence", Bindable.mapOf(String.class, Double.class))
+                .orElse(Map.of())
+                .forEach((type, threshold) -> thresholds.put(type.toUpperCase(Locale.ROOT), checkConfidence(threshold, type)));
+        defaultThreshold = thresholds.getOrDefault(DEFAULT_TYPE, 0.0);
+        thresholds.remove(DEFAULT_TYPE);
+        reviewBand = checkConfidence(binder.bind("redaction.review-band", Double.class).orElse(0.0), "review band");
+        log.info("Redacting entities with confidence of at least {} (per type: {}), review band {}",
+                defaultThreshold, thresholds, reviewBand);
+    }
+
+    /**
+     * Compiles the policy of one request.
+     *
+     * @throws IllegalArgumentException if a threshold or the review band is not between 0 and 1, or a
+     *                                  threshold cannot be parsed
+     */
+    public RedactionPolicy compile(RedactionOptions options) {
+        double minConfidence = defaultThreshold;
+        Map<String, Double> effective = new HashMap<>();
+        if (options.getMinConfidence() != null) {
+            minConfidence = checkConfidence(options.getMinConfidence(), "minConfidence");
+        } else {
+            effective.putAll(thresholds);
+        }
+        effective.putAll(parseThresholds(options.getConfidenceThresholds()));
+        double band = options.getReviewBand() != null ? checkConfidence(options.getReviewBand(), "reviewBand") : reviewBand;
+        // An empty list of types to redact, like a blank form field, means all of them
+        Set<String> redactTypes = parseTypes(options.getRedactTypes());
+        return new RedactionPolicy(minConfidence, effective, band, redactTypes.isEmpty() ? null : redactTypes,
+                parseTypes(options.getSkipTypes()));
+    }
+
+    private static Map<String, Double> parseThresholds(String value) {
+        Map<String, Double> parsed = new HashMap<>();
+        if (value == null) {
+            return parsed;
+        }
+        for (String pair : value.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int colon = pair.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid confidence threshold, expected TYPE:confidence: " + pair.trim());
+            }
+            String type = pair.substring(0, colon).trim().toUpperCase(Locale.ROOT);
+            try {
+                parsed.put(type, checkConfidence(Double.parseDouble(pair.substring(colon + 1).trim()), type));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid confidence threshold for " + type + ": " + pair.substring(colon + 1).trim());
+            }
+        }
+        return parsed;
+    }
+
+    private static Set<String> parseTypes(String value) {
+        Set<String> types = new LinkedHashSet<>();
+        if (value != null) {
+            for (String type : value.split(",")) {
+                if (!type.isBlank()) {
+                    types.add(type.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return types;
+    }
+
+    private static double checkConfidence(double value, String name) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException("Confidence for " + name + " must be between 0 and 1, got: " + value);
+        }
+        return value;
+    }
+}
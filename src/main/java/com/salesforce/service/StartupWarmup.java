@@ -0,0 +1,202 @@
+package com.salesforce.service;
+
+import com.google.gson.Gson;
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.audio.WaveformPeaks;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Redacts synthetic calls before the application reports ready, so the first real request does not pay
+ * for class loading and interpreted code: WAV parsing and resampling, transcript parsing with Gson through
+ * the WebSocket client's message path (replayed, never connected), every tone and noise generator, and
+ * every encoder. The services it runs are private instances recording into their own meter registry, so
+ * the synthetic calls never show up in the production {@code redaction.*} meters.
+ * <p>
+ * With {@code startup.warmup.exit} the application exits once warmed up, which makes the run a training
+ * run for an AppCDS archive (see {@code scripts/startup-benchmark.sh}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Gson gson = new Gson();
+    private static final double SECONDS = 2.0;
+    private static final double WORD_SECONDS = 0.15;
+
+    /** Replacement method and sound type of each redaction pass. */
+    private static final String[][] REPLACEMENTS = {
+            {"beep", "beep"}, {"beep", "chime"}, {"beep", "soft"}, {"beep", "gentle"},
+            {"noise", "pink"}, {"noise", "brown"}, {"noise", "matched"}, {"silence", "beep"}
+    };
+
+    private final IntervalRefiner intervalRefiner;
+    private final RedactionPolicyCompiler policyCompiler;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${startup.warmup.enabled:false}")
+    private boolean enabled;
+
+    /** Each round redacts both synthetic calls with every replacement and output format. */
+    @Value("${startup.warmup.rounds:1}")
+    private int rounds;
+
+    @Value("${startup.warmup.exit:false}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            long start = System.nanoTime();
+            try {
+                warmUp();
+                log.info("Warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                // A cold first request is slower, not wrong
+                log.warn("Startup warm-up failed: {}", e.getMessage(), e);
+            }
+        }
+        if (exit) {
+            log.info("Exiting after warm-up (startup.warmup.exit)");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private void warmUp() throws Exception {
+        // A wideband stereo recording that is downmixed and resampled, and a narrowband phone call
+        List<byte[]> calls = List.of(
+                wav(new AudioFormat(44100, 16, 2, true, false)),
+                wav(new AudioFormat(8000, 16, 1, true, false)));
+        RedactionPolicy policy = policyCompiler.compile(new RedactionOptions());
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        AudioIngestService audioIngestService = configure(new AudioIngestService(metrics));
+        AudioRedactionService audioRedactionService = configure(new AudioRedactionService(metrics));
+        TranscribeWithPII transcribeWithPII = configure(new TranscribeWithPII(metrics, intervalRefiner));
+        Path directory = Files.createTempDirectory("warmup");
+        try {
+            for (int round = 0; round < rounds; round++) {
+                for (byte[] call : calls) {
+                    try (DecodedAudio audio = audioIngestService.ingest(new ByteArrayInputStream(call),
+                            directory.resolve("upload"))) {
+                        TranscriptionResult result = transcribeWithPII.replay(audio, transcript(), policy);
+                        gson.fromJson(gson.toJson(result), TranscriptionResult.class);
+                        redactAll(audioRedactionService, audio, result, directory);
+                    }
+                }
+            }
+        } finally {
+            context.getAutowireCapableBeanFactory().destroyBean(transcribeWithPII);
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Injects the configuration of a private service instance, as for the application's own bean.
+     */
+    private <T> T configure(T service) {
+        context.getAutowireCapableBeanFactory().autowireBean(service);
+        return service;
+    }
+
+    private static void redactAll(AudioRedactionService audioRedactionService, DecodedAudio audio,
+                                  TranscriptionResult result, Path directory) throws IOException {
+        long frames = audio.getPcm().length() / audio.getFormat().getFrameSize();
+        for (OutputFormat format : OutputFormat.values()) {
+            for (String[] replacement : REPLACEMENTS) {
+                Path output = directory.resolve("redacted" + format.getExtension());
+                WaveformPeaks peaks = new WaveformPeaks(audio.getFormat(), frames);
+                audioRedactionService.redactAudio(audio, output.toString(), result.getPiiIntervals(),
+                        new RedactionOptions(replacement[0], null, null, null, replacement[1], format.name()), null, peaks);
+                peaks.write(directory.resolve("peaks.bin"));
+            }
+        }
+    }
+
+    /**
+     * A voiced, syllable-rate modulated tone over low noise, encoded as a WAV upload.
+     */
+    private static byte[] wav(AudioFormat format) throws IOException {
+        int frames = (int) (SECONDS * format.getSampleRate());
+        int channels = format.getChannels();
+        byte[] pcm = new byte[frames * format.getFrameSize()];
+        Random random = new Random(frames);
+        for (int frame = 0; frame < frames; frame++) {
+            double t = frame / format.getSampleRate();
+            double voice = Math.sin(2 * Math.PI * 180 * t) + 0.5 * Math.sin(2 * Math.PI * 360 * t)
+                    + 0.25 * Math.sin(2 * Math.PI * 720 * t);
+            double envelope = 0.5 + 0.5 * Math.sin(2 * Math.PI * 4 * t);
+            for (int channel = 0; channel < channels; channel++) {
+                double sample = 6000 * envelope * voice / (channel + 1) + 200 * random.nextGaussian();
+                int value = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+                int offset = (frame * channels + channel) * 2;
+                pcm[offset] = (byte) value;
+                pcm[offset + 1] = (byte) (value >> 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pcm.length + 64);
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, frames), AudioFileFormat.Type.WAVE, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Service messages for the synthetic call: an interim result and two final segments with PII.
+     */
+    private static List<String> transcript() {
+        return List.of(
+                segment(true, 0.1, new String[]{"my", "name"}, null, 0, 0),
+                segment(false, 0.1, new String[]{"my", "name", "is", "jane", "doe"}, "NAME", 3, 0.95),
+                segment(false, 1.0, new String[]{"call", "me", "at", "five", "five", "five"}, "PHONE", 3, 0.9));
+    }
+
+    /**
+     * One transcript event with a word every {@link #WORD_SECONDS} from {@code start} and an entity
+     * covering the words from {@code entityFrom} to the end.
+     */
+    private static String segment(boolean partial, double start, String[] words, String entityType, int entityFrom,
+                                  double confidence) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            items.append(i > 0 ? "," : "").append(String.format(Locale.ROOT,
+                    "{\"startTime\":%.2f,\"endTime\":%.2f,\"type\":\"pronunciation\",\"content\":\"%s\",\"confidence\":0.99}",
+                    start + WORD_SECONDS * i, start + WORD_SECONDS * (i + 0.8), words[i]));
+        }
+        double end = start + WORD_SECONDS * words.length;
+        String entities = entityType == null ? "" : String.format(Locale.ROOT,
+                "{\"type\":\"%s\",\"startTime\":%.2f,\"endTime\":%.2f,\"content\":\"%s\",\"confidence\":%.2f}",
+                entityType, start + WORD_SECONDS * entityFrom, end, String.join(" ", List.of(words).subList(entityFrom, words.length)),
+                confidence);
+        return String.format(Locale.ROOT,
+                "{\"transcript\":{\"results\":[{\"startTime\":%.2f,\"endTime\":%.2f,\"isPartial\":%b,\"alternatives\":"
+                        + "[{\"transcript\":\"%s\",\"items\":[%s],\"entities\":[%s]}]}]}}",
+                start, end, partial, String.join(" ", words), items, entities);
+    }
+}
@@ -1,24 +1,44 @@
 package com.salesforce.service;
 
 import com.google.gson.Gson;
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.utils.ReactiveTranscriptionClient;
 import com.salesforce.utils.TranscriptionWebSocketClient;
 import com.salesforce.models.TranscriptEvent;
 import com.salesforce.models.Result;
 import com.salesforce.models.PIIEntity;
 import com.salesforce.models.TimeInterval;
+import com.salesforce.models.TranscriptSegment;
 import com.salesforce.models.TranscriptionResult;
+import com.salesforce.models.WordItems;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
-import javax.sound.sampled.UnsupportedAudioFileException;
+import javax.sound.sampled.AudioFormat;
 import java.io.IOException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -27,11 +47,43 @@ import static java.lang.Thread.sleep;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class TranscribeWithPII {
 
     private static final long CHUNK_DURATION_MS = calculateChunkDurationMS();
     private static final Gson gson = new Gson();
 
+    static final int DEFAULT_MAX_SESSIONS = 16;
+    static final String APP_CONTEXT_HEADER = "x-sfdc-app-context";
+    static final String APP_CONTEXT = "EinsteinGPT";
+    static final String DEFAULT_WEBSOCKET_URL = "wss://einstein-transcribe.sfproxy.einstein.perf2-uswest2.aws.sfdc.cl/transcribe/v1/tenant/stream";
+
+    /** Format of the PCM streamed for transcription, which the word and entity timings refer to. */
+    private static final AudioFormat STREAM_FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    private final PipelineMetrics metrics;
+    private final IntervalRefiner intervalRefiner;
+
+    private final ReactiveTranscriptionClient reactiveClient = new ReactiveTranscriptionClient();
+
+    /** Limits concurrent WebSocket sessions across single requests and batch workers. */
+    private volatile Semaphore sessionPermits = new Semaphore(DEFAULT_MAX_SESSIONS, true);
+    private volatile int maxSessions = DEFAULT_MAX_SESSIONS;
+
+    /** Runs one session per channel when the channels of a recording are transcribed separately. */
+    private final ExecutorService channelSessions = Executors.newCachedThreadPool(channelThreadFactory());
+
+    /**
+     * Transcribe each channel of multi-channel audio in its own concurrent session instead of a mono
+     * downmix, so PII is attributed to the channel it was spoken on and only that channel is redacted.
+     */
+    @Value("${transcription.split-channels:false}")
+    private boolean splitChannels;
+
+    /** Streaming endpoint; point it at a local mock server for offline load tests. */
+    @Value("${transcription.websocket-url:" + DEFAULT_WEBSOCKET_URL + "}")
+    private String websocketUrl = DEFAULT_WEBSOCKET_URL;
+
     /**
      * Transcribes an audio file and returns transcription results with PII detection
      * @param audioFilePath Path to the audio file to transcribe
@@ -39,83 +91,363 @@ public class TranscribeWithPII {
      * @throws Exception if transcription fails
      */
     public TranscriptionResult transcribeAndDetectPII(String audioFilePath) throws Exception {
+        log.info("Starting transcription for file: {}", audioFilePath);
+        long start = System.nanoTime();
+        PcmBuffer pcm = PcmBuffer.wrap(convertAudioTo16kHzPCM(audioFilePath));
+        metrics.recordSince(PipelineMetrics.Stage.RESAMPLE, start);
+        return transcribeTracks(List.of(pcm), List.of(), TranscriptionListener.NONE);
+    }
+
+    /**
+     * Transcribes already decoded audio and returns transcription results with PII detection
+     * @param audio Decoded PCM at its original rate; resampled to 16kHz mono in memory
+     * @return TranscriptionResult object containing original transcription, redacted transcription, and PII intervals
+     * @throws Exception if transcription fails
+     */
+    public TranscriptionResult transcribeAndDetectPII(DecodedAudio audio) throws Exception {
+        return transcribeAndDetectPII(audio, List.of(), TranscriptionListener.NONE);
+    }
+
+    /**
+     * Transcribes already decoded audio, resuming after segments received by an earlier, interrupted attempt
+     * @param audio     Decoded PCM at its original rate; resampled to 16kHz mono in memory, one stream per
+     *                  channel if {@link #splitsChannels} is true for its format
+     * @param completed Final segments already received for this audio, in order; only the audio after the
+     *                  last one is streamed
+     * @param listener  Receives streaming progress, interim results and each new final segment
+     * @return TranscriptionResult object covering the earlier segments and the newly streamed ones, with
+     *         every entity detected; see {@link #applyPolicy}
+     * @throws Exception if transcription fails
+     */
+    public TranscriptionResult transcribeAndDetectPII(DecodedAudio audio, List<TranscriptSegment> completed,
+                                                      TranscriptionListener listener) throws Exception {
+        log.info("Starting transcription for {} seconds of decoded audio", String.format("%.2f", audio.getDurationSeconds()));
+        long start = System.nanoTime();
+        // The 16kHz copies are held off-heap for the whole session and released as soon as it ends
+        List<PcmBuffer> tracks = resample(audio);
+        try {
+            metrics.recordSince(PipelineMetrics.Stage.RESAMPLE, start);
+            return transcribeTracks(tracks, completed, listener);
+        } finally {
+            tracks.forEach(PcmBuffer::close);
+        }
+    }
+
+    /**
+     * Applies a redaction policy to a transcription holding every detected entity, such as a fresh or cached
+     * one: entities the policy does not redact lose their interval and their marker in the redacted text, and
+     * the intervals of the others are refined again against the audio. That costs a resample of the audio,
+     * but no new transcription.
+     *
+     * @param unfiltered Result of {@link #transcribeAndDetectPII}, with its word timings
+     * @param audio      The audio that was transcribed
+     * @param policy     Decides which entities are redacted and which are only reported for review
+     * @return the result to redact with; {@code unfiltered} itself when the policy redacts everything
+     */
+    public TranscriptionResult applyPolicy(TranscriptionResult unfiltered, DecodedAudio audio, RedactionPolicy policy)
+            throws IOException {
+        if (policy.redactsAll()) {
+            return unfiltered;
+        }
+        long start = System.nanoTime();
+        List<PcmBuffer> tracks = resample(audio);
+        try {
+            metrics.recordSince(PipelineMetrics.Stage.RESAMPLE, start);
+            return applyPolicy(unfiltered, tracks, policy);
+        } finally {
+            tracks.forEach(PcmBuffer::close);
+        }
+    }
+
+    private TranscriptionResult applyPolicy(TranscriptionResult unfiltered, List<PcmBuffer> tracks, RedactionPolicy policy) {
+        if (policy.redactsAll()) {
+            return unfiltered;
+        }
+        List<TranscriptionResult> channels = unfiltered.getChannels();
+        if (channels == null || channels.size() != tracks.size()) {
+            return filter(unfiltered, tracks.get(0), policy);
+        }
+        List<TranscriptionResult> results = new ArrayList<>(channels.size());
+        for (int channel = 0; channel < channels.size(); channel++) {
+            results.add(filter(channels.get(channel), tracks.get(channel), policy));
+        }
+        return combineChannels(results);
+    }
+
+    /**
+     * Applies the policy to the result of one track.
+     */
+    private TranscriptionResult filter(TranscriptionResult unfiltered, PcmBuffer pcm, RedactionPolicy policy) {
+        List<PIIEntity> redacted = new ArrayList<>();
+        List<PIIEntity> review = new ArrayList<>();
+        for (PIIEntity entity : unfiltered.getPiiEntities()) {
+            switch (policy.decide(entity)) {
+                case REDACT -> redacted.add(entity);
+                case REVIEW -> review.add(entity);
+                case SKIP -> log.debug("Not redacting {}", entity);
+            }
+        }
+        if (!review.isEmpty()) {
+            log.info("{} PII entities below their confidence threshold reported for review", review.size());
+        }
+        WordItems words = unfiltered.getItems() != null ? unfiltered.getItems() : WordItems.EMPTY;
+        List<TimeInterval> timeIntervals = intervalRefiner.refine(redacted, words, pcm, STREAM_FORMAT);
+        TranscriptionResult result = new TranscriptionResult(unfiltered.getOriginalTranscription(), timeIntervals, redacted, words);
+        result.setReviewEntities(review);
+        return result;
+    }
+
+    /**
+     * Whether audio in {@code format} is transcribed one channel at a time: {@code transcription.split-channels}
+     * is set, the audio has more than one channel, and there are enough sessions to stream them all at once.
+     */
+    public boolean splitsChannels(AudioFormat format) {
+        return splitChannels && format.getChannels() > 1 && format.getChannels() <= maxSessions;
+    }
+
+    /**
+     * Key of the audio's transcription in the transcription cache; a per-channel transcription is cached
+     * apart from the mixed one. Only unfiltered transcriptions are cached, so every policy shares the entry.
+     */
+    public String cacheKey(DecodedAudio audio) {
+        return splitsChannels(audio.getFormat()) ? audio.getContentHash() + "-channels" : audio.getContentHash();
+    }
+
+    /**
+     * Resamples the audio to 16kHz mono for streaming: a downmix, or each channel on its own.
+     */
+    private List<PcmBuffer> resample(DecodedAudio audio) throws IOException {
+        AudioFormat format = audio.getFormat();
+        if (!splitsChannels(format)) {
+            return List.of(convertAudioTo16kHzPCM(audio.getPcm(), format));
+        }
+        List<PcmBuffer> tracks = new ArrayList<>(format.getChannels());
+        try {
+            for (int channel = 0; channel < format.getChannels(); channel++) {
+                tracks.add(convertAudioTo16kHzPCM(audio.getPcm(), format, channel));
+            }
+        } catch (IOException | RuntimeException e) {
+            tracks.forEach(PcmBuffer::close);
+            throw e;
+        }
+        return tracks;
+    }
+
+    /**
+     * Feeds recorded service messages through the client, parser and collector of a live session without
+     * connecting, so startup warm-up exercises the transcription path offline.
+     *
+     * @param messages Transcript events as the service sends them, one JSON document each
+     */
+    TranscriptionResult replay(DecodedAudio audio, List<String> messages, RedactionPolicy policy) throws Exception {
+        List<PcmBuffer> tracks = resample(audio);
+        try {
+            TranscriptCollector collector = new TranscriptCollector(List.of(), TranscriptionListener.NONE, null);
+            TranscriptionWebSocketClient client = new TranscriptionWebSocketClient(streamUri(),
+                    Map.of(APP_CONTEXT_HEADER, APP_CONTEXT), new CompletableFuture<>(), new CompletableFuture<>());
+            client.addMessageHandler(message -> collector.accept(gson.fromJson(message, TranscriptEvent.class)));
+            messages.forEach(client::onMessage);
+            return applyPolicy(collector.result(tracks.get(0)), tracks, policy);
+        } finally {
+            tracks.forEach(PcmBuffer::close);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #transcribeAndDetectPII(DecodedAudio, List, TranscriptionListener)}: the
+     * session is a stream of transcript events and audio is paced by the Reactor timer, so no thread is held
+     * while the service listens. Resampling and interval refinement run on {@code scheduler}.
+     * @param audio     Decoded PCM at its original rate
+     * @param completed Final segments already received for this audio, in order
+     * @param listener  Receives streaming progress, interim results and each new final segment
+     * @param scheduler Bounded scheduler for the CPU-bound steps
+     * @return the unfiltered transcription result, emitted once the service closes the session
+     */
+    public Mono<TranscriptionResult> transcribeReactive(DecodedAudio audio, List<TranscriptSegment> completed,
+                                                        TranscriptionListener listener, Scheduler scheduler) {
+        Mono<List<PcmBuffer>> resampled = Mono.fromCallable(() -> {
+                    log.info("Starting transcription for {} seconds of decoded audio", String.format("%.2f", audio.getDurationSeconds()));
+                    long start = System.nanoTime();
+                    List<PcmBuffer> tracks = resample(audio);
+                    metrics.recordSince(PipelineMetrics.Stage.RESAMPLE, start);
+                    return tracks;
+                })
+                .subscribeOn(scheduler);
+        return Mono.usingWhen(resampled, tracks -> {
+                    ChannelProgress progress = new ChannelProgress(listener, tracks.size());
+                    List<TranscriptCollector> collectors = new ArrayList<>(tracks.size());
+                    List<Mono<Void>> sessions = new ArrayList<>(tracks.size());
+                    for (int track = 0; track < tracks.size(); track++) {
+                        PcmBuffer pcm = tracks.get(track);
+                        Integer channel = channelOf(tracks, track);
+                        TranscriptionListener trackListener = progress.track(track);
+                        TranscriptCollector collector = new TranscriptCollector(segmentsOf(completed, channel), trackListener, channel);
+                        collectors.add(collector);
+                        int offsetBytes = collector.offsetBytes(pcm.length());
+                        reportResumed(trackListener, offsetBytes, pcm.length());
+                        if (offsetBytes < pcm.length()) {
+                            sessions.add(streamReactive(pcm, offsetBytes, collector, trackListener));
+                        }
+                    }
+                    Mono<TranscriptionResult> result = Mono.fromCallable(() -> {
+                        List<TranscriptionResult> results = new ArrayList<>(tracks.size());
+                        for (int track = 0; track < tracks.size(); track++) {
+                            results.add(collectors.get(track).result(tracks.get(track)));
+                        }
+                        return combineChannels(results);
+                    }).subscribeOn(scheduler);
+                    if (sessions.isEmpty()) {
+                        return result;
+                    }
+                    return Mono.usingWhen(acquireSessions(sessions.size()),
+                            permits -> Flux.merge(sessions).then(result),
+                            permits -> releaseSessions(permits, sessions.size()));
+                },
+                tracks -> Mono.fromRunnable(() -> tracks.forEach(PcmBuffer::close)));
+    }
+
+    private Mono<Void> streamReactive(PcmBuffer pcm, int offsetBytes, TranscriptCollector collector, TranscriptionListener listener) {
+        double bytesPerSecond = SAMPLE_RATE * 2.0;
+        long[] start = {System.nanoTime()};
+        return Mono.fromCallable(this::streamUri)
+                .flatMapMany(uri -> reactiveClient.stream(uri, Map.of(APP_CONTEXT_HEADER, APP_CONTEXT), pcm, offsetBytes, sent -> {
+                    listener.onStreamed(sent / bytesPerSecond, pcm.length() / bytesPerSecond);
+                    if (sent == pcm.length()) {
+                        start[0] = metrics.recordSince(PipelineMetrics.Stage.STREAM, start[0]);
+                    }
+                }))
+                .doOnNext(collector::accept)
+                .doOnError(e -> {
+                    log.error("Transcription session failed: {}", e.getMessage());
+                    metrics.recordConnectionFailure("stream");
+                })
+                .then(Mono.fromRunnable(() -> metrics.recordSince(PipelineMetrics.Stage.WAIT_FOR_FINAL, start[0])));
+    }
+
+    /**
+     * Reactive variant of {@link #takeSessions}; waiting for permits is blocking, so it happens on the bounded
+     * elastic pool.
+     */
+    private Mono<Semaphore> acquireSessions(int sessions) {
+        return Mono.fromCallable(() -> takeSessions(sessions)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> releaseSessions(Semaphore permits, int sessions) {
+        return Mono.fromRunnable(() -> returnSessions(permits, sessions));
+    }
+
+    /**
+     * Takes the permits for all sessions of one recording at once, so two recordings can never each hold
+     * some of the permits the other is waiting for.
+     */
+    private Semaphore takeSessions(int sessions) throws InterruptedException {
+        Semaphore permits = sessionPermits;
+        metrics.queuedTranscriptions().incrementAndGet();
+        try {
+            permits.acquire(sessions);
+        } finally {
+            metrics.queuedTranscriptions().decrementAndGet();
+        }
+        metrics.activeTranscriptions().addAndGet(sessions);
+        return permits;
+    }
+
+    private void returnSessions(Semaphore permits, int sessions) {
+        metrics.activeTranscriptions().addAndGet(-sessions);
+        permits.release(sessions);
+    }
+
+    @Value("${transcription.max-concurrent-sessions:" + DEFAULT_MAX_SESSIONS + "}")
+    public void setMaxConcurrentSessions(int maxConcurrentSessions) {
+        this.sessionPermits = new Semaphore(maxConcurrentSessions, true);
+        this.maxSessions = maxConcurrentSessions;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelSessions.shutdownNow();
+    }
+
+    /**
+     * Streams each track in its own session, the first on the calling thread and the others on the channel
+     * session pool, and waits for all of them.
+     */
+    private TranscriptionResult transcribeTracks(List<PcmBuffer> tracks, List<TranscriptSegment> completed,
+                                                 TranscriptionListener listener) throws Exception {
+        Semaphore permits = takeSessions(tracks.size());
+        try {
+            if (tracks.size() == 1) {
+                return streamForTranscription(tracks.get(0), completed, listener, null);
+            }
+            ChannelProgress progress = new ChannelProgress(listener, tracks.size());
+            List<CompletableFuture<TranscriptionResult>> sessions = new ArrayList<>(tracks.size());
+            for (int track = 1; track < tracks.size(); track++) {
+                int channel = track;
+                sessions.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return streamForTranscription(tracks.get(channel), segmentsOf(completed, channel),
+                                progress.track(channel), channel);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, channelSessions));
+            }
+            List<TranscriptionResult> results = new ArrayList<>(tracks.size());
+            Exception failure = null;
+            try {
+                results.add(streamForTranscription(tracks.get(0), segmentsOf(completed, 0), progress.track(0), 0));
+            } catch (Exception e) {
+                failure = e;
+            }
+            // Every session finishes before the tracks are released, even when one of them failed
+            for (CompletableFuture<TranscriptionResult> session : sessions) {
+                try {
+                    results.add(session.join());
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof Exception cause ? cause : e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return combineChannels(results);
+        } finally {
+            returnSessions(permits, tracks.size());
+        }
+    }
+
+    private TranscriptionResult streamForTranscription(PcmBuffer audioBytesData, List<TranscriptSegment> completed,
+                                                       TranscriptionListener listener, Integer channel) throws Exception {
+        final TranscriptCollector collector = new TranscriptCollector(completed, listener, channel);
+        int offsetBytes = collector.offsetBytes(audioBytesData.length());
+        reportResumed(listener, offsetBytes, audioBytesData.length());
+        if (offsetBytes >= audioBytesData.length()) {
+            return collector.result(audioBytesData);
+        }
+
         CompletableFuture<Void> openFuture = new CompletableFuture<>();
         CompletableFuture<Void> closeFuture = new CompletableFuture<>();
 
-        log.info("Starting transcription for file: {}", audioFilePath);
-        String websocketUrl = "wss://einstein-transcribe.sfproxy.einstein.perf2-uswest2.aws.sfdc.cl/transcribe/v1/tenant/stream";
-
         // Create WebSocket client
         final TranscriptionWebSocketClient clientEndPoint = new TranscriptionWebSocketClient(
-                new URI(websocketUrl + "?engine=aws&media-encoding=pcm&media-sample-rate-hertz=16000&content-redaction-type=PII&pii-entity-types=ALL"),
-                Map.of("x-sfdc-app-context", "EinsteinGPT"),
+                streamUri(),
+                Map.of(APP_CONTEXT_HEADER, APP_CONTEXT),
                 openFuture,
                 closeFuture);
 
-        final List<PIIEntity> allPIIEntities = new ArrayList<>();
-        final Set<String> processedSegments = new HashSet<>();
-        final StringBuilder finalTranscription = new StringBuilder();
-        final boolean[] finalTranscriptionReceived = {false};
-
         clientEndPoint.addMessageHandler(message -> {
             try {
                 log.debug("Received message: {}", message);
-                
-                TranscriptEvent event = gson.fromJson(message, TranscriptEvent.class);
-                if(event != null && event.getTranscript() != null && event.getTranscript().hasResults() && !event.getTranscript().getResults().isEmpty()) {
-                    Result transcriptResult = event.getTranscript().getResults().get(0);
-                    
-                    if (!transcriptResult.isPartial()) {
-                        String transcript = transcriptResult.getTranscript();
-                        
-                        // Create a unique key for this segment to avoid duplicates
-                        String segmentKey = transcriptResult.getStartTime() + "-" + transcriptResult.getEndTime() + "-" + transcript.hashCode();
-                        
-                        // Only process if we haven't seen this segment before
-                        if (!processedSegments.contains(segmentKey)) {
-                            processedSegments.add(segmentKey);
-                            
-                            // Extract PII entities directly from the parsed event
-                            List<PIIEntity> piiEntities = event.getAllPIIEntities();
-                            if (!piiEntities.isEmpty()) {
-                                log.info("=== PII INTERVALS FOUND ===");
-                                for (PIIEntity entity : piiEntities) {
-                                    log.info("PII Entity: {}", entity.toString());
-                                }
-                                log.info("==========================");
-                            }
-                            
-                            // Add only unique PII intervals (deduplicate by content and timing)
-                            for (PIIEntity newEntity : piiEntities) {
-                                boolean isDuplicate = false;
-                                for (PIIEntity existingEntity : allPIIEntities) {
-                                    if (existingEntity.getContent().equals(newEntity.getContent()) &&
-                                        Math.abs(existingEntity.getStartTime() - newEntity.getStartTime()) < 1.0) {
-                                        isDuplicate = true;
-                                        break;
-                                    }
-                                }
-                                if (!isDuplicate) {
-                                    allPIIEntities.add(newEntity);
-                                }
-                            }
-                            
-                            finalTranscription.append(transcript).append(" ");
-                            finalTranscriptionReceived[0] = true;
-                            
-                            log.info("=== SEGMENT TRANSCRIPTION ===");
-                            log.info("Time: {}s - {}s", transcriptResult.getStartTime(), transcriptResult.getEndTime());
-                            log.info("Text: {}", transcript);
-                            log.info("============================");
-                        }
-                    }
-                }
+                collector.accept(gson.fromJson(message, TranscriptEvent.class));
             } catch (Exception e) {
                 log.error("Error parsing message: {}", e.getMessage(), e);
             }
         });
 
-        log.info("Connecting to WebSocket...");
+        log.info(channel == null ? "Connecting to WebSocket..." : "Connecting to WebSocket for channel {}...", channel);
+        long start = System.nanoTime();
         clientEndPoint.connect();
         
         try {
@@ -123,16 +455,18 @@ public class TranscribeWithPII {
             log.info("WebSocket connected successfully!");
         } catch (Exception e) {
             log.error("Failed to connect to WebSocket: {}", e.getMessage(), e);
+            metrics.recordConnectionFailure("connect");
             throw new RuntimeException("Failed to connect to transcription service", e);
         }
 
         log.info("Sending audio stream...");
         try {
-            sendAudioStream(clientEndPoint, audioFilePath);
+            sendAudioStream(clientEndPoint, audioBytesData, offsetBytes, listener);
+            start = metrics.recordSince(PipelineMetrics.Stage.STREAM, start);
             
             // Wait for final transcription
             int waitCount = 0;
-            while (!finalTranscriptionReceived[0] && waitCount < 30) {
+            while (!collector.finalTranscriptionReceived && waitCount < 30) {
                 sleep(1000);
                 waitCount++;
             }
@@ -142,37 +476,135 @@ public class TranscribeWithPII {
             throw new RuntimeException("Failed to stream audio", e);
         }
 
-        // Log final results
-        log.info("\n=== COMPLETE TRANSCRIPTION ===");
-        log.info("{}", finalTranscription.toString());
-
-        log.info("\n=== PII INTERVALS FOR BEEP INSERTION ===");
-        if (!allPIIEntities.isEmpty()) {
-            log.info("Total PII intervals: {}", allPIIEntities.size());
-            for (PIIEntity entity : allPIIEntities) {
-                log.info(" {}s - {}s ({}: {})",
-                    String.format("%.2f", entity.getStartTime()), 
-                    String.format("%.2f", entity.getEndTime()), 
-                    entity.getType(), entity.getContent());
-            }
-        } else {
-            log.info("No PII intervals detected");
-        }
-
         try {
             closeFuture.get();
             log.info("Transcription completed successfully.");
         } catch (Exception e) {
             log.error("Error waiting for completion: {}", e.getMessage(), e);
         }
+        metrics.recordSince(PipelineMetrics.Stage.WAIT_FOR_FINAL, start);
 
-        // Convert PII entities to TimeInterval objects
-        List<TimeInterval> timeIntervals = new ArrayList<>();
-        for (PIIEntity entity : allPIIEntities) {
-            timeIntervals.add(new TimeInterval(entity.getStartTime() - 0.25, entity.getEndTime()));
+        return collector.result(audioBytesData);
+    }
+
+    URI streamUri() throws URISyntaxException {
+        return new URI(websocketUrl + "?engine=aws&media-encoding=pcm&media-sample-rate-hertz=16000&content-redaction-type=PII&pii-entity-types=ALL");
+    }
+
+    /**
+     * Accumulates the final segments of one transcription, deduplicated, with times shifted to the start
+     * of the audio when resuming after checkpointed segments. Shared by the blocking and reactive clients.
+     * Every detected entity is kept; a request's policy is applied to the result with {@link #applyPolicy},
+     * so the unfiltered result can be cached for any policy.
+     */
+    final class TranscriptCollector {
+        private final List<PIIEntity> allPIIEntities = new ArrayList<>();
+        private final WordItems.Builder allItems = new WordItems.Builder(1024);
+        private final Set<String> processedSegments = new HashSet<>();
+        private final StringBuilder finalTranscription = new StringBuilder();
+        private final TranscriptionListener listener;
+        private final Integer channel;
+        private final double offset;
+        private volatile boolean finalTranscriptionReceived;
+
+        /**
+         * @param channel Channel transcribed in this session, recorded on its segments and entities, or null
+         *                for a downmix
+         */
+        TranscriptCollector(List<TranscriptSegment> completed, TranscriptionListener listener, Integer channel) {
+            this.listener = listener;
+            this.channel = channel;
+            // Replay checkpointed segments; the service only hears the audio after the last of them
+            for (TranscriptSegment segment : completed) {
+                addUniqueEntities(allPIIEntities, segment.getPiiEntities());
+                finalTranscription.append(segment.getTranscript()).append(" ");
+                allItems.addAll(segment.getItems() != null ? segment.getItems() : WordItems.EMPTY);
+            }
+            this.offset = completed.isEmpty() ? 0 : completed.get(completed.size() - 1).getEndTime();
+            if (offset > 0) {
+                log.info("Resuming transcription at {}s after {} checkpointed segments", String.format("%.2f", offset), completed.size());
+            }
+        }
+
+        /**
+         * Byte offset into the 16kHz stream where sending resumes.
+         */
+        int offsetBytes(int streamLength) {
+            return (int) Math.min(streamLength, Math.round(offset * SAMPLE_RATE) * 2);
+        }
+
+        synchronized void accept(TranscriptEvent event) {
+            if (event == null || event.getTranscript() == null || !event.getTranscript().hasResults() || event.getTranscript().getResults().isEmpty()) {
+                return;
+            }
+            Result transcriptResult = event.getTranscript().getResults().get(0);
+            if (transcriptResult.isPartial()) {
+                listener.onPartial(transcriptResult.getStartTime() + offset, transcriptResult.getTranscript());
+                return;
+            }
+            String transcript = transcriptResult.getTranscript();
+
+            // Create a unique key for this segment to avoid duplicates
+            String segmentKey = transcriptResult.getStartTime() + "-" + transcriptResult.getEndTime() + "-" + transcript.hashCode();
+
+            // Only process if we haven't seen this segment before
+            if (!processedSegments.add(segmentKey)) {
+                return;
+            }
+
+            // Extract PII entities directly from the parsed event, shifted to the start of the audio
+            List<PIIEntity> piiEntities = event.getAllPIIEntities();
+            for (PIIEntity entity : piiEntities) {
+                entity.setStartTime(entity.getStartTime() + offset);
+                entity.setEndTime(entity.getEndTime() + offset);
+                entity.setChannel(channel);
+                log.debug("PII Entity: {}", entity);
+            }
+
+            // Add only unique PII intervals (deduplicate by content and timing)
+            addUniqueEntities(allPIIEntities, piiEntities);
+
+            finalTranscription.append(transcript).append(" ");
+            WordItems segmentItems = transcriptResult.getFirstAlternative()
+                    .map(alternative -> new WordItems.Builder(alternative.getItems().size())
+                            .addAll(alternative.getItems(), offset).build())
+                    .orElse(WordItems.EMPTY);
+            allItems.addAll(segmentItems);
+            finalTranscriptionReceived = true;
+            listener.onSegment(new TranscriptSegment(transcriptResult.getStartTime() + offset,
+                    transcriptResult.getEndTime() + offset, transcript, piiEntities, segmentItems, channel));
+
+            log.debug("Segment {}s - {}s: {}", transcriptResult.getStartTime() + offset, transcriptResult.getEndTime() + offset, transcript);
         }
 
-        return new TranscriptionResult(finalTranscription.toString(), timeIntervals, allPIIEntities);
+        /**
+         * Builds the result once the stream has ended.
+         * @param audioBytesData The whole 16kHz stream, used to place redaction edges at quiet points
+         */
+        synchronized TranscriptionResult result(PcmBuffer audioBytesData) {
+            // Log final results
+            log.info("\n=== COMPLETE TRANSCRIPTION ===");
+            log.info("{}", finalTranscription.toString());
+
+            log.info("\n=== PII INTERVALS FOR BEEP INSERTION ===");
+            if (!allPIIEntities.isEmpty()) {
+                log.info("Total PII intervals: {}", allPIIEntities.size());
+                for (PIIEntity entity : allPIIEntities) {
+                    log.info(" {}s - {}s ({}: {})",
+                        String.format("%.2f", entity.getStartTime()), 
+                        String.format("%.2f", entity.getEndTime()), 
+                        entity.getType(), entity.getContent());
+                }
+            } else {
+                log.info("No PII intervals detected");
+            }
+
+            // Snap each entity to its words and to the quietest nearby point in the streamed audio
+            WordItems words = allItems.build();
+            List<TimeInterval> timeIntervals = intervalRefiner.refine(allPIIEntities, words, audioBytesData, STREAM_FORMAT);
+
+            return new TranscriptionResult(finalTranscription.toString(), timeIntervals, allPIIEntities, words);
+        }
     }
 
     /**
@@ -188,25 +620,151 @@ public class TranscribeWithPII {
         return result.getPiiIntervals();
     }
 
-    private void sendAudioStream(TranscriptionWebSocketClient clientEndPoint, String audioPath) throws UnsupportedAudioFileException, IOException, InterruptedException {
-        log.info("Loading audio file: {}", audioPath);
-        byte[] audioBytesData = convertAudioTo16kHzPCM(audioPath);
-        log.info("Audio file loaded, size: {} bytes", audioBytesData.length);
+    /**
+     * Joins the results of separately transcribed channels: one labelled line of text per channel that said
+     * anything, and the entities and intervals of every channel, which carry their channel. The channel
+     * results are kept on the joined one so a policy can be applied to each of them later.
+     */
+    static TranscriptionResult combineChannels(List<TranscriptionResult> channels) {
+        if (channels.size() == 1) {
+            return channels.get(0);
+        }
+        StringBuilder original = new StringBuilder();
+        StringBuilder redacted = new StringBuilder();
+        List<TimeInterval> intervals = new ArrayList<>();
+        List<PIIEntity> entities = new ArrayList<>();
+        List<PIIEntity> review = new ArrayList<>();
+        for (int channel = 0; channel < channels.size(); channel++) {
+            TranscriptionResult result = channels.get(channel);
+            if (!result.getOriginalTranscription().isBlank()) {
+                String label = (original.length() > 0 ? "\n" : "") + "Channel " + (channel + 1) + ": ";
+                original.append(label).append(result.getOriginalTranscription().trim());
+                redacted.append(label).append(result.getRedactedTranscription().trim());
+            }
+            intervals.addAll(result.getPiiIntervals());
+            entities.addAll(result.getPiiEntities());
+            review.addAll(result.getReviewEntities());
+        }
+        TranscriptionResult combined = new TranscriptionResult(original.toString(), redacted.toString(), intervals, entities, review);
+        combined.setChannels(channels);
+        return combined;
+    }
+
+    /**
+     * The checkpointed segments of one channel, or all of them for a downmix.
+     */
+    private static List<TranscriptSegment> segmentsOf(List<TranscriptSegment> completed, Integer channel) {
+        if (channel == null) {
+            return completed;
+        }
+        return completed.stream().filter(segment -> channel.equals(segment.getChannel())).toList();
+    }
+
+    /**
+     * Reports the audio covered by checkpointed segments as already streamed.
+     */
+    private static void reportResumed(TranscriptionListener listener, int offsetBytes, int length) {
+        if (offsetBytes > 0) {
+            double bytesPerSecond = SAMPLE_RATE * 2.0;
+            listener.onStreamed(offsetBytes / bytesPerSecond, length / bytesPerSecond);
+        }
+    }
+
+    private static Integer channelOf(List<PcmBuffer> tracks, int track) {
+        return tracks.size() > 1 ? track : null;
+    }
+
+    private static ThreadFactory channelThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "transcribe-channel-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Reports the streaming progress of concurrently streamed tracks as that of the track furthest behind;
+     * partial results and segments are passed straight through.
+     */
+    private static final class ChannelProgress {
+        private final TranscriptionListener listener;
+        private final double[] streamed;
+
+        ChannelProgress(TranscriptionListener listener, int tracks) {
+            this.listener = listener;
+            this.streamed = new double[tracks];
+        }
+
+        TranscriptionListener track(int track) {
+            if (streamed.length == 1) {
+                return listener;
+            }
+            return new TranscriptionListener() {
+                @Override
+                public void onStreamed(double seconds, double totalSeconds) {
+                    double behind;
+                    synchronized (ChannelProgress.this) {
+                        streamed[track] = seconds;
+                        behind = Arrays.stream(streamed).min().orElse(seconds);
+                    }
+                    listener.onStreamed(behind, totalSeconds);
+                }
+
+                @Override
+                public void onPartial(double startTime, String transcript) {
+                    listener.onPartial(startTime, transcript);
+                }
+
+                @Override
+                public void onSegment(TranscriptSegment segment) {
+                    listener.onSegment(segment);
+                }
+            };
+        }
+    }
+
+    /**
+     * Appends the entities that are not already present, treating two entities with the same content
+     * starting less than a second apart as duplicates.
+     * @param allEntities Accumulated unique entities, modified in place
+     * @param newEntities Entities from the latest final segment
+     */
+    public static void addUniqueEntities(List<PIIEntity> allEntities, List<PIIEntity> newEntities) {
+        for (PIIEntity newEntity : newEntities) {
+            boolean isDuplicate = false;
+            for (PIIEntity existingEntity : allEntities) {
+                if (existingEntity.getContent().equals(newEntity.getContent()) &&
+                    Math.abs(existingEntity.getStartTime() - newEntity.getStartTime()) < 1.0) {
+                    isDuplicate = true;
+                    break;
+                }
+            }
+            if (!isDuplicate) {
+                allEntities.add(newEntity);
+            }
+        }
+    }
+
+    private void sendAudioStream(TranscriptionWebSocketClient clientEndPoint, PcmBuffer audioBytesData, int offset,
+                                 TranscriptionListener listener) throws InterruptedException {
+        double bytesPerSecond = SAMPLE_RATE * 2.0;
+        log.info("Streaming {} bytes of 16kHz PCM", audioBytesData.length() - offset);
 
         int chunkSize = getChunkSize();
         long startTime = System.currentTimeMillis();
         int chunkCount = 0;
 
-        for (int i = 0, j=0; i < audioBytesData.length; i += chunkSize, j++) {
+        for (int i = offset, j=0; i < audioBytesData.length(); i += chunkSize, j++) {
             if (!clientEndPoint.isOpen()) {
                 log.error("WebSocket connection lost! Stopping audio stream.");
+                metrics.recordConnectionFailure("stream");
                 break;
             }
 
-            int end = Math.min(i + chunkSize, audioBytesData.length);
-            byte[] chunk = Arrays.copyOfRange(audioBytesData, i, end);
+            int end = Math.min(i + chunkSize, audioBytesData.length());
             byte[] fullSizedChunk = new byte[CHUNK_SIZE];
-            System.arraycopy(chunk, 0, fullSizedChunk, 0, chunk.length);
+            audioBytesData.get(i, fullSizedChunk, 0, end - i);
 
             long elapsed = System.currentTimeMillis() - startTime;
             long desiredSendTime = (j + 1) * CHUNK_DURATION_MS;
@@ -217,6 +775,7 @@ public class TranscribeWithPII {
             try {
                 clientEndPoint.send(ByteBuffer.wrap(fullSizedChunk));
                 chunkCount++;
+                listener.onStreamed(end / bytesPerSecond, audioBytesData.length() / bytesPerSecond);
             } catch (Exception e) {
                 log.error("Error sending chunk {}: {}", chunkCount, e.getMessage(), e);
                 break;
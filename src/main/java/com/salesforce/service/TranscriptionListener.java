@@ -0,0 +1,33 @@
+package com.salesforce.service;
+
+import com.salesforce.models.TranscriptSegment;
+
+/**
+ * Receives progress from a streaming transcription as it happens. Times are relative to the start of
+ * the audio, including when a transcription resumes part way through.
+ */
+public interface TranscriptionListener {
+
+    TranscriptionListener NONE = new TranscriptionListener() {
+    };
+
+    /**
+     * Called as audio is sent to the transcription service.
+     * @param seconds      Audio sent so far
+     * @param totalSeconds Length of the audio
+     */
+    default void onStreamed(double seconds, double totalSeconds) {
+    }
+
+    /**
+     * Called with each interim result; later results for the same speech replace it.
+     */
+    default void onPartial(double startTime, String transcript) {
+    }
+
+    /**
+     * Called once per final segment, with the PII entities found in it.
+     */
+    default void onSegment(TranscriptSegment segment) {
+    }
+}
@@ -0,0 +1,353 @@
+package com.salesforce.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.TranscriptSegment;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * File-based store of redaction jobs and their stage checkpoints, so unfinished jobs can resume after a
+ * restart instead of starting over.
+ * <p>
+ * Each job is kept under the jobs directory as:
+ * <ul>
+ *   <li>{@code <jobId>.json} — the job itself, including its transcription once that stage completes,
+ *       rewritten atomically at every checkpoint;</li>
+ *   <li>{@code <jobId>.upload} — a copy of the encoded upload, written while it is decoded, so it does not
+ *       have to be received again; jobs with a server-side input are decoded from that instead;</li>
+ *   <li>{@code <jobId>.segments.jsonl} — final transcript segments, appended as they arrive, so an
+ *       interrupted transcription only streams the audio after the last one.</li>
+ * </ul>
+ * Upload and segment checkpoints are deleted once the job finishes; finished jobs are forgotten after the
+ * retention period. Upload checkpoints share a byte quota; an upload that does not fit is not checkpointed,
+ * so a crash loop cannot fill the disk.
+ */
+@Slf4j
+@Component
+public class JobStore {
+
+    private static final Gson gson = new Gson();
+    private static final String JOB_SUFFIX = ".json";
+    private static final String UPLOAD_SUFFIX = ".upload";
+    private static final String SEGMENTS_SUFFIX = ".segments.jsonl";
+
+    private final Path jobsDir;
+    private final Duration retention;
+    private final boolean checkpointUploads;
+    private final long maxCheckpointBytes;
+    private final Map<String, RedactionJob> jobs = new ConcurrentHashMap<>();
+    /** Bytes of upload checkpoints on disk or being written. */
+    private final AtomicLong checkpointBytes = new AtomicLong();
+
+    public JobStore(@Value("${jobs.dir:jobs}") String jobsDir,
+                    @Value("${jobs.retention:PT24H}") Duration retention,
+                    @Value("${jobs.checkpoint-uploads:true}") boolean checkpointUploads,
+                    @Value("${jobs.checkpoint-max-bytes:2147483648}") long maxCheckpointBytes) {
+        this.jobsDir = Paths.get(System.getProperty("user.dir")).resolve(jobsDir);
+        this.retention = retention;
+        this.checkpointUploads = checkpointUploads;
+        this.maxCheckpointBytes = maxCheckpointBytes;
+    }
+
+    /**
+     * Loads the jobs persisted by a previous run and removes checkpoints that no job refers to.
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(jobsDir);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(jobsDir)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (!name.endsWith(JOB_SUFFIX)) {
+                continue;
+            }
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                RedactionJob job = gson.fromJson(reader, RedactionJob.class);
+                jobs.put(job.getJobId(), job);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Dropping unreadable job file {}: {}", name, e.getMessage());
+                Files.deleteIfExists(file);
+            }
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(JOB_SUFFIX)) {
+                continue;
+            }
+            RedactionJob job = jobs.get(name.substring(0, name.indexOf('.')));
+            if (job == null || job.getStage().isFinished() || name.endsWith(".tmp")) {
+                Files.deleteIfExists(file);
+            } else if (name.endsWith(UPLOAD_SUFFIX)) {
+                checkpointBytes.addAndGet(Files.size(file));
+            }
+        }
+        log.info("Job store loaded: {} jobs, {} unfinished in {}", jobs.size(), unfinished().size(), jobsDir);
+    }
+
+    /**
+     * Persists the job's current state, replacing the previous checkpoint.
+     */
+    public void save(RedactionJob job) {
+        jobs.put(job.getJobId(), job);
+        Path temp = jobsDir.resolve(job.getJobId() + JOB_SUFFIX + ".tmp");
+        synchronized (job) {
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    gson.toJson(job, writer);
+                }
+                Files.move(temp, fileFor(job, JOB_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Failed to persist job {}: {}", job.getJobId(), e.getMessage());
+            }
+        }
+    }
+
+    public RedactionJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Every known job, oldest first.
+     */
+    public List<RedactionJob> all() {
+        List<RedactionJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparingLong(RedactionJob::getCreatedAt));
+        return all;
+    }
+
+    /**
+     * Jobs that had not finished when they were last saved, oldest first.
+     */
+    public List<RedactionJob> unfinished() {
+        return all().stream().filter(job -> !job.getStage().isFinished()).toList();
+    }
+
+    /**
+     * Opens the checkpoint the job's encoded upload is copied to while it is decoded.
+     *
+     * @return the checkpoint, or null if upload checkpoints are disabled
+     */
+    public UploadCheckpoint openUploadCheckpoint(RedactionJob job) {
+        if (!checkpointUploads) {
+            return null;
+        }
+        return new UploadCheckpoint(job.getJobId(), jobsDir.resolve(job.getJobId() + UPLOAD_SUFFIX + ".tmp"), fileFor(job, UPLOAD_SUFFIX));
+    }
+
+    /**
+     * The job's upload checkpoint, if one was completed before the job stopped.
+     */
+    public Optional<Path> uploadCheckpoint(RedactionJob job) {
+        Path file = fileFor(job, UPLOAD_SUFFIX);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public long getCheckpointBytes() {
+        return checkpointBytes.get();
+    }
+
+    /**
+     * Appends a final transcript segment to the job's segment log.
+     */
+    public void appendSegment(RedactionJob job, TranscriptSegment segment) {
+        String line = gson.toJson(segment) + "\n";
+        try {
+            Files.writeString(fileFor(job, SEGMENTS_SUFFIX), line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to checkpoint transcript segment of job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the segments received before the job stopped. A line cut short by the crash ends the log.
+     */
+    public List<TranscriptSegment> loadSegments(RedactionJob job) throws IOException {
+        Path file = fileFor(job, SEGMENTS_SUFFIX);
+        List<TranscriptSegment> segments = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return segments;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    segments.add(gson.fromJson(line, TranscriptSegment.class));
+                } catch (JsonParseException e) {
+                    log.warn("Ignoring truncated transcript checkpoint of job {}", job.getJobId());
+                    break;
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Drops the job's upload and segment checkpoints once they are no longer needed.
+     */
+    public void releaseCheckpoints(RedactionJob job) {
+        Path upload = fileFor(job, UPLOAD_SUFFIX);
+        try {
+            long size = Files.size(upload);
+            if (Files.deleteIfExists(upload)) {
+                checkpointBytes.addAndGet(-size);
+            }
+        } catch (NoSuchFileException e) {
+            // Not checkpointed
+        } catch (IOException e) {
+            log.warn("Failed to delete job file {}: {}", upload.getFileName(), e.getMessage());
+        }
+        deleteQuietly(fileFor(job, SEGMENTS_SUFFIX));
+    }
+
+    /**
+     * Forgets finished jobs past the retention period.
+     */
+    @Scheduled(fixedDelayString = "${storage.sweep-interval:PT1M}", initialDelayString = "${storage.sweep-interval:PT1M}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        for (RedactionJob job : jobs.values()) {
+            if (job.getStage().isFinished() && job.getUpdatedAt() < cutoff) {
+                jobs.remove(job.getJobId());
+                deleteQuietly(fileFor(job, JOB_SUFFIX));
+            }
+        }
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    private Path fileFor(RedactionJob job, String suffix) {
+        return jobsDir.resolve(job.getJobId() + suffix);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete job file {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Copy of an upload being written to its checkpoint. Writes never fail: if the copy cannot be written or
+     * would take the checkpoints over their quota it is abandoned, and the job simply cannot be resumed.
+     */
+    public final class UploadCheckpoint extends OutputStream {
+        private final String jobId;
+        private final Path temp;
+        private final Path file;
+        private OutputStream out;
+        private long written;
+        private boolean done;
+
+        private UploadCheckpoint(String jobId, Path temp, Path file) {
+            this.jobId = jobId;
+            this.temp = temp;
+            this.file = file;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (done) {
+                return;
+            }
+            if (checkpointBytes.addAndGet(len) > maxCheckpointBytes) {
+                checkpointBytes.addAndGet(-len);
+                log.info("Upload checkpoint quota is full; job {} will not be resumable", jobId);
+                abandon();
+                return;
+            }
+            written += len;
+            try {
+                if (out == null) {
+                    out = Files.newOutputStream(temp);
+                }
+                out.write(b, off, len);
+            } catch (IOException e) {
+                log.warn("Failed to checkpoint upload of job {}: {}", jobId, e.getMessage());
+                abandon();
+            }
+        }
+
+        /**
+         * Keeps the checkpoint once the whole upload has been copied.
+         */
+        public void commit() {
+            if (done) {
+                return;
+            }
+            try {
+                if (out == null) {
+                    out = Files.newOutputStream(temp);
+                }
+                out.close();
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                done = true;
+            } catch (IOException e) {
+                log.warn("Failed to checkpoint upload of job {}: {}", jobId, e.getMessage());
+                abandon();
+            }
+        }
+
+        /**
+         * Discards the copy unless it was committed.
+         */
+        @Override
+        public void close() {
+            if (!done) {
+                abandon();
+            }
+        }
+
+        private void abandon() {
+            done = true;
+            checkpointBytes.addAndGet(-written);
+            written = 0;
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close upload checkpoint of job {}: {}", jobId, e.getMessage());
+                }
+            }
+            deleteQuietly(temp);
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package com.salesforce.storage;
+
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionAuditEntry;
+import com.salesforce.models.TimeInterval;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit trail of what was redacted: one record per redacted file with its id, content hash and
+ * replacement method, and each redacted interval with the PII type and confidence that caused it.
+ * <p>
+ * Records are binary, framed by their length and CRC-32, in one log per UTC day under the audit directory,
+ * {@code <yyyy-MM-dd>.log}. Next to each log, {@code <yyyy-MM-dd>.idx} holds a fixed {@value #INDEX_ENTRY_BYTES}-byte
+ * entry per record: its time, offset and length, a 64-bit mask of the PII types it contains and a hash of
+ * its file id. A query only opens the days in its time range, binary searches their index for its start
+ * and reads just the records whose type mask and file hash can match.
+ * <p>
+ * {@link #append} only queues the record; a single writer thread appends queued records in batches,
+ * forcing the log to disk before their index entries are written. On startup, index entries past the end
+ * of the log are dropped, records missing from the index are indexed again, and a torn last record is cut off.
+ */
+@Slf4j
+@Component
+public class RedactionAuditLog {
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int HEADER_BYTES = 8;
+    private static final int INDEX_ENTRY_BYTES = 32;
+    private static final int MAX_BATCH = 256;
+    private static final int QUERY_CHUNK_ENTRIES = 4096;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    private final Path auditDir;
+    private final boolean enabled;
+    private final boolean fsync;
+    private final BlockingQueue<Record> queue;
+    /** Days with a log, by {@code yyyy-MM-dd}. */
+    private final NavigableMap<String, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object writtenLock = new Object();
+
+    private Clock clock = Clock.systemUTC();
+    private Thread writer;
+    private volatile boolean closed;
+    /** Guarded by this; keeps record times increasing, so each day's index is sorted. */
+    private long lastTimestamp;
+    private long appended;
+    /** Guarded by writtenLock. */
+    private long written;
+    /** The day the writer is appending to, with its channels open. Writer thread only. */
+    private Segment current;
+
+    public RedactionAuditLog(@Value("${audit.dir:audit}") String auditDir,
+                             @Value("${audit.enabled:true}") boolean enabled,
+                             @Value("${audit.fsync:true}") boolean fsync,
+                             @Value("${audit.queue-capacity:10000}") int queueCapacity) {
+        this.auditDir = Paths.get(System.getProperty("user.dir")).resolve(auditDir);
+        this.enabled = enabled;
+        this.fsync = fsync;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Recovers the logs of previous runs and starts the writer.
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(auditDir);
+        List<Path> logs = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(auditDir)) {
+            stream.filter(path -> path.getFileName().toString().endsWith(LOG_SUFFIX)).forEach(logs::add);
+        }
+        long records = 0;
+        for (Path file : logs) {
+            String name = file.getFileName().toString();
+            Segment segment = new Segment(name.substring(0, name.length() - LOG_SUFFIX.length()));
+            recover(segment);
+            segments.put(segment.day, segment);
+            records += segment.indexedBytes / INDEX_ENTRY_BYTES;
+        }
+        if (!segments.isEmpty()) {
+            lastTimestamp = lastTimestamp(segments.lastEntry().getValue());
+        }
+        writer = new Thread(this::writeLoop, "redaction-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Redaction audit log loaded: {} records over {} days in {}", records, segments.size(), auditDir);
+    }
+
+    /**
+     * Writes the queued records and stops the writer.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        if (writer != null) {
+            writer.join();
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Queues the redactions of one file. Interval {@code i} is taken to be caused by entity {@code i}, as
+     * produced by the interval refiner; intervals without an entity are recorded with type {@code UNKNOWN}.
+     * Only blocks if the writer is {@code audit.queue-capacity} records behind.
+     *
+     * @param method Replacement written over the intervals, e.g. {@code beep:chime}
+     */
+    public void append(String fileId, String contentHash, String method, List<TimeInterval> intervals,
+                       List<PIIEntity> entities) {
+        if (!enabled || intervals.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            long timestamp = Math.max(lastTimestamp, clock.millis());
+            List<RedactionAuditEntry> entries = new ArrayList<>(intervals.size());
+            for (int i = 0; i < intervals.size(); i++) {
+                TimeInterval interval = intervals.get(i);
+                PIIEntity entity = i < entities.size() ? entities.get(i) : null;
+                entries.add(new RedactionAuditEntry(timestamp, fileId, contentHash, method, interval.getStartTime(),
+                        interval.getEndTime(), interval.getChannel(), normalizedType(entity != null ? entity.getType() : null),
+                        entity != null ? entity.getConfidence() : 0));
+            }
+            try {
+                queue.put(new Record(appended + 1, timestamp, fileId, contentHash, method, entries));
+                appended++;
+                lastTimestamp = timestamp;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted before auditing {} redactions of {}", entries.size(), fileId);
+            }
+        }
+    }
+
+    /**
+     * Waits until every record queued before this call has been written.
+     */
+    public void flush() throws InterruptedException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        synchronized (writtenLock) {
+            while (written < target && writer != null && writer.isAlive()) {
+                writtenLock.wait(100);
+            }
+        }
+    }
+
+    /**
+     * Redactions recorded in {@code [from, to)}, oldest first. Records still queued are not seen.
+     *
+     * @param type   PII type to match, ignoring case, or null for any
+     * @param fileId File id to match, or null for any
+     * @param limit  Maximum number of entries returned
+     */
+    public List<RedactionAuditEntry> query(Instant from, Instant to, String type, String fileId, int limit) throws IOException {
+        List<RedactionAuditEntry> result = new ArrayList<>();
+        if (!enabled || !from.isBefore(to)) {
+            return result;
+        }
+        String wantedType = type != null ? normalizedType(type) : null;
+        long typeMask = wantedType != null ? typeBit(wantedType) : -1L;
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        for (Segment segment : segments.subMap(DAY.format(from), true, DAY.format(to), true).values()) {
+            long count = segment.indexedBytes / INDEX_ENTRY_BYTES;
+            try (FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.READ);
+                 FileChannel records = FileChannel.open(segment.logFile, StandardOpenOption.READ)) {
+                ByteBuffer entries = ByteBuffer.allocate(QUERY_CHUNK_ENTRIES * INDEX_ENTRY_BYTES);
+                long next = firstAtOrAfter(index, count, fromMillis);
+                while (next < count) {
+                    int chunk = (int) Math.min(QUERY_CHUNK_ENTRIES, count - next);
+                    entries.clear().limit(chunk * INDEX_ENTRY_BYTES);
+                    readFully(index, entries, next * INDEX_ENTRY_BYTES);
+                    for (int e = 0; e < chunk; e++) {
+                        int at = e * INDEX_ENTRY_BYTES;
+                        if (entries.getLong(at) >= toMillis) {
+                            return result;
+                        }
+                        if ((entries.getLong(at + 16) & typeMask) == 0
+                                || fileId != null && entries.getInt(at + 24) != fileId.hashCode()) {
+                            continue;
+                        }
+                        ByteBuffer body = ByteBuffer.allocate(entries.getInt(at + 28) - HEADER_BYTES);
+                        readFully(records, body, entries.getLong(at + 8) + HEADER_BYTES);
+                        for (RedactionAuditEntry entry : decode(body.array()).entries) {
+                            if ((wantedType == null || wantedType.equals(entry.getType()))
+                                    && (fileId == null || fileId.equals(entry.getFileId()))) {
+                                result.add(entry);
+                                if (result.size() >= limit) {
+                                    return result;
+                                }
+                            }
+                        }
+                    }
+                    next += chunk;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void writeLoop() {
+        List<Record> batch = new ArrayList<>(MAX_BATCH);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Record first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                if (!batch.isEmpty()) {
+                    markWritten(batch.get(batch.size() - 1).sequence);
+                    batch.clear();
+                }
+            }
+        }
+        closeCurrent();
+    }
+
+    private void write(List<Record> batch) {
+        int from = 0;
+        while (from < batch.size()) {
+            String day = DAY.format(Instant.ofEpochMilli(batch.get(from).timestamp));
+            int to = from + 1;
+            while (to < batch.size() && day.equals(DAY.format(Instant.ofEpochMilli(batch.get(to).timestamp)))) {
+                to++;
+            }
+            List<Record> records = batch.subList(from, to);
+            try {
+                writeDay(open(day), records);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to audit {} redaction records of {}: {}", records.size(), day, e.getMessage(), e);
+                resync(day);
+            }
+            from = to;
+        }
+    }
+
+    private void writeDay(Segment segment, List<Record> records) throws IOException {
+        ByteBuffer[] frames = new ByteBuffer[records.size()];
+        ByteBuffer entries = ByteBuffer.allocate(records.size() * INDEX_ENTRY_BYTES);
+        long offset = segment.logBytes;
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = frame(encode(records.get(i)));
+            putIndexEntry(entries, records.get(i), offset, frames[i].remaining());
+            offset += frames[i].remaining();
+        }
+        entries.flip();
+        while (frames[frames.length - 1].hasRemaining()) {
+            segment.logChannel.write(frames);
+        }
+        if (fsync) {
+            segment.logChannel.force(false);
+        }
+        while (entries.hasRemaining()) {
+            segment.indexChannel.write(entries);
+        }
+        if (fsync) {
+            segment.indexChannel.force(false);
+        }
+        segment.logBytes = offset;
+        segment.indexedBytes += (long) records.size() * INDEX_ENTRY_BYTES;
+    }
+
+    private Segment open(String day) throws IOException {
+        if (current != null && current.day.equals(day)) {
+            return current;
+        }
+        closeCurrent();
+        Segment segment = segments.get(day);
+        if (segment == null) {
+            segment = new Segment(day);
+        }
+        segment.logChannel = FileChannel.open(segment.logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segment.indexChannel = FileChannel.open(segment.indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segment.logBytes = segment.logChannel.size();
+        segments.putIfAbsent(day, segment);
+        current = segment;
+        return segment;
+    }
+
+    /**
+     * After a failed write, brings the day's index back in line with whatever reached its log.
+     */
+    private void resync(String day) {
+        closeCurrent();
+        Segment segment = segments.get(day);
+        if (segment == null || !Files.exists(segment.logFile)) {
+            return;
+        }
+        try {
+            recover(segment);
+        } catch (IOException e) {
+            log.error("Failed to recover audit log {}: {}", segment.logFile, e.getMessage());
+        }
+    }
+
+    private void closeCurrent() {
+        if (current == null) {
+            return;
+        }
+        for (FileChannel channel : new FileChannel[]{current.logChannel, current.indexChannel}) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to close audit log {}: {}", current.logFile, e.getMessage());
+            }
+        }
+        current.logChannel = null;
+        current.indexChannel = null;
+        current = null;
+    }
+
+    private void markWritten(long sequence) {
+        synchronized (writtenLock) {
+            written = sequence;
+            writtenLock.notifyAll();
+        }
+    }
+
+    private void recover(Segment segment) throws IOException {
+        try (FileChannel records = FileChannel.open(segment.logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long logSize = records.size();
+            long indexed = index.size() / INDEX_ENTRY_BYTES * INDEX_ENTRY_BYTES;
+            long end = 0;
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            while (indexed > 0) {
+                entry.clear();
+                readFully(index, entry, indexed - INDEX_ENTRY_BYTES);
+                long recordEnd = entry.getLong(8) + entry.getInt(28);
+                if (recordEnd <= logSize) {
+                    end = recordEnd;
+                    break;
+                }
+                indexed -= INDEX_ENTRY_BYTES;
+            }
+            index.truncate(indexed);
+
+            int reindexed = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (end + HEADER_BYTES <= logSize) {
+                header.clear();
+                readFully(records, header, end);
+                int length = header.getInt(0);
+                if (length <= 0 || end + HEADER_BYTES + length > logSize) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length);
+                readFully(records, body, end + HEADER_BYTES);
+                if (crc(body.array()) != header.getInt(4)) {
+                    break;
+                }
+                entry.clear();
+                putIndexEntry(entry, decode(body.array()), end, HEADER_BYTES + length);
+                entry.flip();
+                while (entry.hasRemaining()) {
+                    index.write(entry, indexed + entry.position());
+                }
+                indexed += INDEX_ENTRY_BYTES;
+                end += HEADER_BYTES + length;
+                reindexed++;
+            }
+            if (end < logSize) {
+                log.warn("Cutting {} bytes of incomplete records off audit log {}", logSize - end, segment.logFile);
+                records.truncate(end);
+            }
+            if (reindexed > 0) {
+                log.info("Indexed {} audit records missing from {}", reindexed, segment.indexFile);
+            }
+            records.force(false);
+            index.force(false);
+            segment.logBytes = end;
+            segment.indexedBytes = indexed;
+        }
+    }
+
+    private static long lastTimestamp(Segment segment) throws IOException {
+        if (segment.indexedBytes == 0) {
+            return 0;
+        }
+        try (FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.READ)) {
+            ByteBuffer timestamp = ByteBuffer.allocate(8);
+            readFully(index, timestamp, segment.indexedBytes - INDEX_ENTRY_BYTES);
+            return timestamp.getLong(0);
+        }
+    }
+
+    /**
+     * Position of the first index entry at or after {@code timestamp}, or {@code count} if there is none.
+     */
+    private static long firstAtOrAfter(FileChannel index, long count, long timestamp) throws IOException {
+        ByteBuffer entryTime = ByteBuffer.allocate(8);
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            entryTime.clear();
+            readFully(index, entryTime, mid * INDEX_ENTRY_BYTES);
+            if (entryTime.getLong(0) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void putIndexEntry(ByteBuffer entries, Record record, long offset, int length) {
+        long types = 0;
+        for (RedactionAuditEntry entry : record.entries) {
+            types |= typeBit(entry.getType());
+        }
+        entries.putLong(record.timestamp).putLong(offset).putLong(types).putInt(record.fileId.hashCode()).putInt(length);
+    }
+
+    private static byte[] encode(Record record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 40 * record.entries.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(record.timestamp);
+        out.writeUTF(record.fileId);
+        out.writeUTF(record.contentHash != null ? record.contentHash : "");
+        out.writeUTF(record.method);
+        out.writeInt(record.entries.size());
+        for (RedactionAuditEntry entry : record.entries) {
+            out.writeDouble(entry.getStartTime());
+            out.writeDouble(entry.getEndTime());
+            out.writeShort(entry.getChannel() != null ? entry.getChannel() : -1);
+            out.writeUTF(entry.getType());
+            out.writeDouble(entry.getConfidence());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Record decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        long timestamp = in.readLong();
+        String fileId = in.readUTF();
+        String contentHash = in.readUTF();
+        String method = in.readUTF();
+        int count = in.readInt();
+        List<RedactionAuditEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double start = in.readDouble();
+            double end = in.readDouble();
+            short channel = in.readShort();
+            entries.add(new RedactionAuditEntry(timestamp, fileId, contentHash.isEmpty() ? null : contentHash, method,
+                    start, end, channel >= 0 ? Integer.valueOf(channel) : null, in.readUTF(), in.readDouble()));
+        }
+        return new Record(0, timestamp, fileId, contentHash, method, entries);
+    }
+
+    private static ByteBuffer frame(byte[] body) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        frame.putInt(body.length).putInt(crc(body)).put(body).flip();
+        return frame;
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + channel);
+            }
+        }
+    }
+
+    private static String normalizedType(String type) {
+        return type != null ? type.toUpperCase(Locale.ROOT) : "UNKNOWN";
+    }
+
+    /** One of 64 bits per type; a type that shares its bit with another only costs reading extra records. */
+    private static long typeBit(String type) {
+        return 1L << (type.hashCode() & 63);
+    }
+
+    private final class Segment {
+        private final String day;
+        private final Path logFile;
+        private final Path indexFile;
+        /** Bytes of index a query may read; grows once their records are on disk. */
+        private volatile long indexedBytes;
+        private long logBytes;
+        private FileChannel logChannel;
+        private FileChannel indexChannel;
+
+        private Segment(String day) {
+            this.day = day;
+            this.logFile = auditDir.resolve(day + LOG_SUFFIX);
+            this.indexFile = auditDir.resolve(day + INDEX_SUFFIX);
+        }
+    }
+
+    private static final class Record {
+        private final long sequence;
+        private final long timestamp;
+        private final String fileId;
+        private final String contentHash;
+        private final String method;
+        private final List<RedactionAuditEntry> entries;
+
+        private Record(long sequence, long timestamp, String fileId, String contentHash, String method,
+                       List<RedactionAuditEntry> entries) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.fileId = fileId;
+            this.contentHash = contentHash;
+            this.method = method;
+            this.entries = entries;
+        }
+    }
+}
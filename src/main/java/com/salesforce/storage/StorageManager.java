@@ -0,0 +1,250 @@
+package com.salesforce.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Owns the lifecycle of files in {@code uploads/} and {@code outputs/}.
+ * <p>
+ * Every file the service writes is registered in an in-memory index (size, creation and last access
+ * time). A background sweeper evicts files past their area's TTL and then least recently used files
+ * until the area is back under its byte quota. Directories are only scanned once, at startup, to pick up
+ * files left behind by a previous run. Files that are pinned (being written or streamed) are never evicted.
+ */
+@Slf4j
+@Component
+public class StorageManager {
+
+    public enum Area {
+        UPLOADS,
+        OUTPUTS
+    }
+
+    private final Map<Area, AreaState> areas = new EnumMap<>(Area.class);
+    private final Map<Path, FileRecord> index = new ConcurrentHashMap<>();
+    private final Map<Path, AtomicInteger> pins = new ConcurrentHashMap<>();
+    private final AtomicLong sweeps = new AtomicLong();
+    private volatile long lastSweepMillis;
+
+    public StorageManager(@Value("${storage.uploads.dir:uploads}") String uploadsDir,
+                          @Value("${storage.uploads.ttl:PT1H}") Duration uploadsTtl,
+                          @Value("${storage.uploads.max-bytes:2147483648}") long uploadsMaxBytes,
+                          @Value("${storage.outputs.dir:outputs}") String outputsDir,
+                          @Value("${storage.outputs.ttl:PT24H}") Duration outputsTtl,
+                          @Value("${storage.outputs.max-bytes:10737418240}") long outputsMaxBytes) {
+        Path workingDir = Paths.get(System.getProperty("user.dir"));
+        areas.put(Area.UPLOADS, new AreaState(workingDir.resolve(uploadsDir), uploadsTtl, uploadsMaxBytes));
+        areas.put(Area.OUTPUTS, new AreaState(workingDir.resolve(outputsDir), outputsTtl, outputsMaxBytes));
+    }
+
+    /**
+     * Creates the storage directories and indexes files left over from a previous run, so they age out
+     * through the normal TTL and quota rules.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        for (Map.Entry<Area, AreaState> entry : areas.entrySet()) {
+            Path dir = entry.getValue().dir;
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    long modified = Files.getLastModifiedTime(file).toMillis();
+                    add(entry.getKey(), file, Files.size(file), modified);
+                }
+            }
+            log.info("Storage area {} at {}: {} files, {} bytes", entry.getKey(), dir,
+                    entry.getValue().files.get(), entry.getValue().bytesUsed.get());
+        }
+    }
+
+    /**
+     * Resolves a file name inside a storage area.
+     */
+    public Path resolve(Area area, String fileName) {
+        return areas.get(area).dir.resolve(fileName);
+    }
+
+    /**
+     * Records a file that has been fully written and enforces the area quota.
+     */
+    public void register(Area area, Path file) throws IOException {
+        add(area, file, Files.size(file), System.currentTimeMillis());
+        if (areas.get(area).bytesUsed.get() > areas.get(area).maxBytes) {
+            evict(area, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Prevents a file from being evicted while it is being written or streamed.
+     */
+    public void pin(Path file) {
+        pins.computeIfAbsent(file, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void unpin(Path file) {
+        pins.computeIfPresent(file, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    /**
+     * Marks a file as recently used, moving it to the back of the LRU eviction order.
+     */
+    public void touch(Path file) {
+        FileRecord record = index.get(file);
+        if (record != null) {
+            record.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Deletes a file and drops it from the index.
+     *
+     * @return true if a file was deleted
+     */
+    public boolean delete(Path file) throws IOException {
+        FileRecord record = index.remove(file);
+        if (record != null) {
+            AreaState state = areas.get(record.area);
+            state.bytesUsed.addAndGet(-record.size);
+            state.files.decrementAndGet();
+        }
+        return Files.deleteIfExists(file);
+    }
+
+    /**
+     * Evicts expired files, then least recently used files until every area is within its quota.
+     */
+    @Scheduled(fixedDelayString = "${storage.sweep-interval:PT1M}", initialDelayString = "${storage.sweep-interval:PT1M}")
+    public void sweep() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        for (Area area : Area.values()) {
+            evict(area, now);
+        }
+        lastSweepMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        sweeps.incrementAndGet();
+        log.debug("Storage sweep finished in {} ms", lastSweepMillis);
+    }
+
+    /**
+     * Snapshot of storage metrics: bytes and files per area, evictions and sweep timings.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<Area, AreaState> entry : areas.entrySet()) {
+            AreaState state = entry.getValue();
+            Map<String, Object> areaStats = new LinkedHashMap<>();
+            areaStats.put("bytesUsed", state.bytesUsed.get());
+            areaStats.put("maxBytes", state.maxBytes);
+            areaStats.put("files", state.files.get());
+            areaStats.put("filesEvicted", state.filesEvicted.get());
+            areaStats.put("bytesEvicted", state.bytesEvicted.get());
+            areaStats.put("ttlSeconds", state.ttl.toSeconds());
+            stats.put(entry.getKey().name().toLowerCase(), areaStats);
+        }
+        stats.put("sweeps", sweeps.get());
+        stats.put("lastSweepMillis", lastSweepMillis);
+        return stats;
+    }
+
+    public long getBytesUsed(Area area) {
+        return areas.get(area).bytesUsed.get();
+    }
+
+    public long getFilesEvicted(Area area) {
+        return areas.get(area).filesEvicted.get();
+    }
+
+    public long getLastSweepMillis() {
+        return lastSweepMillis;
+    }
+
+    private void add(Area area, Path file, long size, long createdAt) {
+        FileRecord previous = index.put(file, new FileRecord(area, size, createdAt));
+        AreaState state = areas.get(area);
+        if (previous != null) {
+            state.bytesUsed.addAndGet(-previous.size);
+            state.files.decrementAndGet();
+        }
+        state.bytesUsed.addAndGet(size);
+        state.files.incrementAndGet();
+    }
+
+    private synchronized void evict(Area area, long now) {
+        AreaState state = areas.get(area);
+        List<Map.Entry<Path, FileRecord>> candidates = new ArrayList<>();
+        for (Map.Entry<Path, FileRecord> entry : index.entrySet()) {
+            if (entry.getValue().area == area && !pins.containsKey(entry.getKey())) {
+                candidates.add(entry);
+            }
+        }
+
+        // TTL first, oldest access first, so the quota pass only removes what is still needed
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<Path, FileRecord> entry : candidates) {
+            boolean expired = now - entry.getValue().createdAt > state.ttl.toMillis();
+            boolean overQuota = state.bytesUsed.get() > state.maxBytes;
+            if (!expired && !overQuota) {
+                continue;
+            }
+            try {
+                if (index.get(entry.getKey()) == entry.getValue() && delete(entry.getKey())) {
+                    state.filesEvicted.incrementAndGet();
+                    state.bytesEvicted.addAndGet(entry.getValue().size);
+                    log.info("Evicted {} ({} bytes, {})", entry.getKey().getFileName(), entry.getValue().size,
+                            expired ? "expired" : "over quota");
+                }
+            } catch (IOException e) {
+                log.warn("Failed to evict {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class AreaState {
+        private final Path dir;
+        private final Duration ttl;
+        private final long maxBytes;
+        private final AtomicLong bytesUsed = new AtomicLong();
+        private final AtomicInteger files = new AtomicInteger();
+        private final AtomicLong filesEvicted = new AtomicLong();
+        private final AtomicLong bytesEvicted = new AtomicLong();
+
+        private AreaState(Path dir, Duration ttl, long maxBytes) {
+            this.dir = dir;
+            this.ttl = ttl;
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    private static final class FileRecord {
+        private final Area area;
+        private final long size;
+        private final long createdAt;
+        private volatile long lastAccess;
+
+        private FileRecord(Area area, long size, long createdAt) {
+            this.area = area;
+            this.size = size;
+            this.createdAt = createdAt;
+            this.lastAccess = createdAt;
+        }
+    }
+}
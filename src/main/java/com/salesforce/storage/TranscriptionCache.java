@@ -0,0 +1,254 @@
+package com.salesforce.storage;
+
+import com.google.gson.Gson;
+import com.salesforce.models.TranscriptionResult;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of transcription results, keyed by the SHA-256 of the uploaded audio.
+ * <p>
+ * Results are persisted as JSON under the cache directory so they survive restarts, and the most
+ * recently used ones are also kept in memory. Entries expire after the configured TTL and the least
+ * recently used entries are evicted once the on-disk size exceeds its budget.
+ * <p>
+ * The index and memory maps are guarded by this object's lock, but entries are read and serialized
+ * outside it, so a lookup never waits for another request's JSON to be parsed or written.
+ */
+@Slf4j
+@Component
+public class TranscriptionCache {
+
+    private static final Gson gson = new Gson();
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path cacheDir;
+    private final int maxMemoryEntries;
+    private final long maxDiskBytes;
+    private final Duration ttl;
+
+    /** Every entry on disk, in access order (least recently used first). */
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, TranscriptionResult> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long diskBytes;
+
+    public TranscriptionCache(@Value("${transcription.cache.dir:cache/transcriptions}") String cacheDir,
+                              @Value("${transcription.cache.max-memory-entries:256}") int maxMemoryEntries,
+                              @Value("${transcription.cache.max-disk-bytes:268435456}") long maxDiskBytes,
+                              @Value("${transcription.cache.ttl:P7D}") Duration ttl) {
+        this.cacheDir = Paths.get(System.getProperty("user.dir")).resolve(cacheDir);
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.maxDiskBytes = maxDiskBytes;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Loads the index of persisted entries, oldest first, so eviction order survives restarts, and removes
+     * entries left half-written by a crash.
+     */
+    @PostConstruct
+    public synchronized void load() throws IOException {
+        Files.createDirectories(cacheDir);
+        List<Path> files = new ArrayList<>();
+        List<Path> partial = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.forEach(path -> (path.getFileName().toString().endsWith(SUFFIX) ? files : partial).add(path));
+        }
+        for (Path file : partial) {
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Map.Entry<String, Entry>> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            entries.add(Map.entry(name.substring(0, name.length() - SUFFIX.length()), new Entry(Files.size(file), modified)));
+        }
+        entries.sort(Map.Entry.comparingByValue((a, b) -> Long.compare(a.createdAt, b.createdAt)));
+        for (Map.Entry<String, Entry> entry : entries) {
+            index.put(entry.getKey(), entry.getValue());
+            diskBytes += entry.getValue().size;
+        }
+        evict();
+        log.info("Transcription cache loaded: {} entries, {} bytes in {}", index.size(), diskBytes, cacheDir);
+    }
+
+    /**
+     * Looks up a previous transcription of identical audio.
+     *
+     * @param contentHash Hex SHA-256 of the uploaded file, suffixed for a per-channel transcription
+     * @return a copy of the cached result, or empty on a miss or expired entry
+     */
+    public Optional<TranscriptionResult> get(String contentHash) {
+        Entry entry;
+        synchronized (this) {
+            entry = index.get(contentHash);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (isExpired(entry)) {
+                remove(contentHash);
+                return Optional.empty();
+            }
+            TranscriptionResult cached = memory.get(contentHash);
+            if (cached != null) {
+                log.info("Transcription cache hit for {}", contentHash);
+                return Optional.of(copyOf(cached));
+            }
+        }
+
+        TranscriptionResult result;
+        try (Reader reader = Files.newBufferedReader(fileFor(contentHash), StandardCharsets.UTF_8)) {
+            result = gson.fromJson(reader, TranscriptionResult.class);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropping unreadable cache entry {}: {}", contentHash, e.getMessage());
+            synchronized (this) {
+                // Unless a put replaced the entry while it was being read
+                if (index.get(contentHash) == entry) {
+                    remove(contentHash);
+                }
+            }
+            return Optional.empty();
+        }
+        synchronized (this) {
+            if (index.get(contentHash) == entry) {
+                remember(contentHash, result);
+            }
+        }
+        log.info("Transcription cache hit for {}", contentHash);
+        return Optional.of(copyOf(result));
+    }
+
+    /**
+     * Stores a transcription result for the given content hash, replacing any previous entry.
+     */
+    public void put(String contentHash, TranscriptionResult result) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cacheDir, contentHash, TEMP_SUFFIX);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(result, writer);
+            }
+            long size = Files.size(temp);
+            TranscriptionResult copy = copyOf(result);
+            synchronized (this) {
+                // Renamed under the lock so the file on disk always matches the indexed entry
+                Files.move(temp, fileFor(contentHash), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Entry previous = index.put(contentHash, new Entry(size, System.currentTimeMillis()));
+                if (previous != null) {
+                    diskBytes -= previous.size;
+                }
+                diskBytes += size;
+                remember(contentHash, copy);
+                evict();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to persist transcription cache entry {}: {}", contentHash, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Removed on the next start
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    private void remember(String contentHash, TranscriptionResult result) {
+        memory.put(contentHash, result);
+        if (memory.size() > maxMemoryEntries) {
+            Iterator<String> eldest = memory.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = index.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (diskBytes <= maxDiskBytes && !isExpired(eldest.getValue())) {
+                continue;
+            }
+            iterator.remove();
+            diskBytes -= eldest.getValue().size;
+            memory.remove(eldest.getKey());
+            deleteQuietly(eldest.getKey());
+        }
+    }
+
+    private void remove(String contentHash) {
+        Entry entry = index.remove(contentHash);
+        if (entry != null) {
+            diskBytes -= entry.size;
+        }
+        memory.remove(contentHash);
+        deleteQuietly(contentHash);
+    }
+
+    private void deleteQuietly(String contentHash) {
+        try {
+            Files.deleteIfExists(fileFor(contentHash));
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.createdAt > ttl.toMillis();
+    }
+
+    private Path fileFor(String contentHash) {
+        return cacheDir.resolve(contentHash + SUFFIX);
+    }
+
+    private static TranscriptionResult copyOf(TranscriptionResult result) {
+        TranscriptionResult copy = new TranscriptionResult(result.getOriginalTranscription(), result.getRedactedTranscription(),
+                new ArrayList<>(result.getPiiIntervals()), new ArrayList<>(result.getPiiEntities()),
+                new ArrayList<>(result.getReviewEntities()));
+        copy.setItems(result.getItems());
+        if (result.getChannels() != null) {
+            copy.setChannels(result.getChannels().stream().map(TranscriptionCache::copyOf).toList());
+        }
+        return copy;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long createdAt;
+
+        private Entry(long size, long createdAt) {
+            this.size = size;
+            this.createdAt = createdAt;
+        }
+    }
+}
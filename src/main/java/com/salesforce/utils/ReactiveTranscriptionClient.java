@@ -0,0 +1,94 @@
+package com.salesforce.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.models.TranscriptEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import static com.salesforce.utils.StreamingBenchmarkUtils.*;
+
+/**
+ * Non-blocking counterpart of {@link TranscriptionWebSocketClient}: one transcription session as a
+ * {@link Flux} of transcript events. Audio chunks are paced by the Reactor timer rather than a sleeping
+ * thread, so a session holds no thread while it waits on the service.
+ */
+@Slf4j
+public class ReactiveTranscriptionClient {
+
+    private static final Gson gson = new Gson();
+    /** How long the service may take to send its final results after the last chunk. */
+    private static final Duration FINAL_WAIT = Duration.ofSeconds(30);
+    private static final int MAX_FRAME_PAYLOAD = 1 << 20;
+
+    private final WebSocketClient client = new ReactorNettyWebSocketClient(HttpClient.create(),
+            () -> WebsocketClientSpec.builder().maxFramePayloadLength(MAX_FRAME_PAYLOAD));
+
+    /**
+     * Opens a session and streams 16kHz mono PCM to it in real time.
+     *
+     * @param uri     Streaming endpoint
+     * @param headers Handshake headers
+     * @param pcm     16kHz mono 16-bit PCM; must stay open until the returned Flux terminates
+     * @param offset  Byte offset in {@code pcm} to start sending from
+     * @param onSent  Called with the end offset of each chunk once it is handed to the socket
+     * @return transcript events as they arrive; completes when the service closes the session
+     */
+    public Flux<TranscriptEvent> stream(URI uri, Map<String, String> headers, PcmBuffer pcm, int offset, IntConsumer onSent) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        headers.forEach(httpHeaders::add);
+        int chunkSize = getChunkSize();
+        int chunks = (pcm.length() - offset + chunkSize - 1) / chunkSize;
+
+        return Flux.create(sink -> {
+            Disposable session = client.execute(uri, httpHeaders, webSocket -> {
+                Mono<Void> received = webSocket.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .doOnNext(message -> {
+                            try {
+                                TranscriptEvent event = gson.fromJson(message, TranscriptEvent.class);
+                                if (event != null) {
+                                    sink.next(event);
+                                }
+                            } catch (JsonParseException e) {
+                                log.error("Error parsing message: {}", e.getMessage());
+                            }
+                        })
+                        .then()
+                        .cache();
+
+                Flux<WebSocketMessage> audio = Flux.range(0, chunks)
+                        .delayElements(Duration.ofMillis(calculateChunkDurationMS()))
+                        .map(i -> {
+                            int from = offset + i * chunkSize;
+                            int end = Math.min(from + chunkSize, pcm.length());
+                            byte[] chunk = new byte[CHUNK_SIZE];
+                            pcm.get(from, chunk, 0, end - from);
+                            onSent.accept(end);
+                            return webSocket.binaryMessage(factory -> factory.wrap(chunk));
+                        })
+                        .concatWith(Mono.fromSupplier(() -> webSocket.binaryMessage(factory -> factory.wrap(new byte[0]))));
+
+                // Once the audio is sent the service gets a bounded time to finish and close the session
+                Mono<Void> sent = webSocket.send(audio)
+                        .then(received.timeout(FINAL_WAIT, webSocket.close()));
+                return Mono.when(received, sent);
+            }).subscribe(null, sink::error, sink::complete);
+            sink.onDispose(session);
+        });
+    }
+}
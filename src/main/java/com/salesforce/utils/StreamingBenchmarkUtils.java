@@ -1,6 +1,10 @@
 package com.salesforce.utils;
 
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.audio.PcmBufferPool;
+
 import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
@@ -34,9 +38,49 @@ public class StreamingBenchmarkUtils {
     public static byte[] convertAudioTo16kHzPCM(String audioPath) throws UnsupportedAudioFileException, IOException {
         File audioFile = new File(audioPath);
         AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(audioFile);
-        
-        // Create target format: 16kHz, 16-bit, mono
-        AudioFormat targetFormat = new AudioFormat(
+        return convertTo16kHzPCM(audioInputStream);
+    }
+
+    /**
+     * Convert already decoded PCM to 16kHz mono PCM without touching the disk
+     */
+    public static byte[] convertAudioTo16kHzPCM(byte[] pcm, AudioFormat format) throws IOException {
+        AudioInputStream audioInputStream = new AudioInputStream(
+            new ByteArrayInputStream(pcm), format, pcm.length / format.getFrameSize());
+        return convertTo16kHzPCM(audioInputStream);
+    }
+
+    /**
+     * Convert decoded PCM to 16kHz mono PCM in a pooled off-heap buffer, which the caller must close
+     */
+    public static PcmBuffer convertAudioTo16kHzPCM(PcmBuffer pcm, AudioFormat format) throws IOException {
+        long frames = pcm.length() / format.getFrameSize();
+        return resampleOffHeap(new AudioInputStream(pcm.newInputStream(), format, frames));
+    }
+
+    /**
+     * Convert one channel of decoded PCM to 16kHz mono PCM in a pooled off-heap buffer, which the caller must
+     * close. The channel is read straight out of the interleaved frames.
+     */
+    public static PcmBuffer convertAudioTo16kHzPCM(PcmBuffer pcm, AudioFormat format, int channel) throws IOException {
+        AudioFormat channelFormat = new AudioFormat(format.getSampleRate(), 16, 1, true, false);
+        long frames = pcm.length() / format.getFrameSize();
+        return resampleOffHeap(new AudioInputStream(pcm.newChannelInputStream(channel, format.getChannels()),
+                channelFormat, frames));
+    }
+
+    private static PcmBuffer resampleOffHeap(AudioInputStream audioInputStream) throws IOException {
+        long frames = audioInputStream.getFrameLength();
+        float sampleRate = audioInputStream.getFormat().getSampleRate();
+        try (audioInputStream;
+             AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat(), audioInputStream)) {
+            long expectedBytes = (long) Math.ceil(frames * (double) SAMPLE_RATE / sampleRate) * CHANNELS * BITS_PER_SAMPLE / 8;
+            return PcmBufferPool.shared().readFully(convertedStream, (int) Math.min(expectedBytes, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private static AudioFormat targetFormat() {
+        return new AudioFormat(
             AudioFormat.Encoding.PCM_SIGNED,
             SAMPLE_RATE,
             BITS_PER_SAMPLE,
@@ -45,9 +89,11 @@ public class StreamingBenchmarkUtils {
             SAMPLE_RATE,
             false
         );
-        
-        // Convert to target format
-        AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat, audioInputStream);
+    }
+
+    private static byte[] convertTo16kHzPCM(AudioInputStream audioInputStream) throws IOException {
+        // Convert to 16kHz, 16-bit, mono
+        AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat(), audioInputStream);
         
         // Read all bytes
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
@@ -1,9 +1,13 @@
 package com.salesforce;
 
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.service.IntervalRefiner;
 import com.salesforce.service.TranscribeWithPII;
 import com.salesforce.models.TimeInterval;
 import com.salesforce.models.TranscriptionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.StandardEnvironment;
 
 import java.util.List;
 
@@ -25,7 +29,8 @@ public class TranscribeWithPIITest {
         
         try {
             // Create the service instance
-            TranscribeWithPII transcribeWithPII = new TranscribeWithPII();
+            TranscribeWithPII transcribeWithPII = new TranscribeWithPII(new PipelineMetrics(new SimpleMeterRegistry()),
+                    new IntervalRefiner(new StandardEnvironment()));
             
             // Call the service method
             log.info("Starting PII detection...");
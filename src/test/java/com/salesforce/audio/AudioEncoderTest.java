@@ -0,0 +1,95 @@
+package com.salesforce.audio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AudioEncoderTest {
+
+    private static final AudioFormat STEREO_16K = new AudioFormat(16000, 16, 2, true, false);
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("encoder-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void wavRoundTripsThroughJavaSound() throws Exception {
+        byte[] pcm = sine(10_000);
+        Path file = encode(OutputFormat.WAV, pcm);
+
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile())) {
+            assertEquals(STEREO_16K.getChannels(), in.getFormat().getChannels());
+            assertArrayEquals(pcm, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void flacIsSmallerAndRecordsTotalSamples() throws Exception {
+        int frames = 3 * FlacEncoder.BLOCK_SIZE + 123;
+        byte[] pcm = sine(frames);
+        Path file = encode(OutputFormat.FLAC, pcm);
+        byte[] flac = Files.readAllBytes(file);
+
+        assertEquals("fLaC", new String(flac, 0, 4, "US-ASCII"));
+        long totalSamples = ((flac[21] & 0x0FL) << 32) | ((flac[22] & 0xFFL) << 24)
+                | ((flac[23] & 0xFFL) << 16) | ((flac[24] & 0xFFL) << 8) | (flac[25] & 0xFFL);
+        assertEquals(frames, totalSamples);
+        assertTrue("FLAC should compress a pure tone", flac.length < pcm.length / 2);
+    }
+
+    @Test
+    public void adpcmIsAQuarterOfPcm() throws Exception {
+        byte[] pcm = sine(20_410);
+        Path file = encode(OutputFormat.ADPCM, pcm);
+
+        long size = Files.size(file);
+        assertTrue("ADPCM should be about 4:1, was " + size, size < pcm.length / 3);
+    }
+
+    private Path encode(OutputFormat format, byte[] pcm) throws IOException {
+        Path file = dir.resolve("out" + format.getExtension());
+        try (AudioEncoder encoder = format.createEncoder(file, STEREO_16K)) {
+            // Odd-sized writes exercise the encoders' internal block buffering
+            for (int offset = 0; offset < pcm.length; offset += 1001) {
+                encoder.write(pcm, offset, Math.min(1001, pcm.length - offset));
+            }
+        }
+        return file;
+    }
+
+    private static byte[] sine(int frames) {
+        byte[] pcm = new byte[frames * 4];
+        for (int i = 0; i < frames; i++) {
+            short sample = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / 16000.0));
+            for (int ch = 0; ch < 2; ch++) {
+                pcm[i * 4 + ch * 2] = (byte) sample;
+                pcm[i * 4 + ch * 2 + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,99 @@
+package com.salesforce.audio;
+
+import org.junit.Test;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NoiseReplacementTest {
+
+    private static final AudioFormat MONO = new AudioFormat(16000, 16, 1, true, false);
+    private static final AudioFormat STEREO = new AudioFormat(44100, 16, 2, true, false);
+
+    @Test
+    public void fillsTheSameAcrossBlockBoundaries() {
+        byte[] audio = new byte[44100 * 4];
+        for (Replacement replacement : new Replacement[]{
+                new NoiseReplacement(NoiseReplacement.Color.PINK, 0.5f),
+                new NoiseReplacement(NoiseReplacement.Color.BROWN, 0.5f)}) {
+            byte[] whole = new byte[40000];
+            replacement.begin(PcmBuffer.wrap(audio), STEREO, 0, whole.length, 0, audio.length)
+                    .fill(whole, 0, whole.length);
+
+            byte[] split = new byte[whole.length];
+            Replacement.Fill fill = replacement.begin(PcmBuffer.wrap(audio), STEREO, 0, split.length, 0, audio.length);
+            fill.fill(split, 0, 4000);
+            fill.fill(split, 4000, split.length);
+
+            assertArrayEquals(whole, split);
+            assertTrue(rms(whole, 0) > 100);
+        }
+    }
+
+    @Test
+    public void matchedNoiseFollowsContextLevelAndSpectrum() {
+        // One second of low-passed noise, then a second to redact, then another second of context
+        short[] context = new short[48000];
+        Random random = new Random(7);
+        double state = 0;
+        for (int i = 0; i < context.length; i++) {
+            state = 0.95 * state + random.nextGaussian() * 300;
+            context[i] = (short) state;
+        }
+        byte[] audio = new byte[context.length * 2];
+        for (int i = 0; i < context.length; i++) {
+            audio[2 * i] = (byte) context[i];
+            audio[2 * i + 1] = (byte) (context[i] >> 8);
+        }
+        byte[] original = Arrays.copyOfRange(audio, 32000, 64000);
+
+        byte[] gap = new byte[32000];
+        new MatchedNoiseReplacement().begin(PcmBuffer.wrap(audio), MONO, 32000, 64000, 0, audio.length)
+                .fill(gap, 0, gap.length);
+
+        double expected = rms(original, 0);
+        assertEquals(expected, rms(gap, 0), expected * 0.25);
+        // Low-passed like the context: neighbouring samples stay strongly correlated
+        assertTrue(lagOneCorrelation(gap) > 0.8);
+    }
+
+    @Test
+    public void matchedNoiseIsSilentWithoutContext() {
+        byte[] audio = new byte[32000];
+        Arrays.fill(audio, (byte) 0x40);
+        byte[] gap = new byte[audio.length];
+        Arrays.fill(gap, (byte) 1);
+        new MatchedNoiseReplacement().begin(PcmBuffer.wrap(audio), MONO, 0, audio.length, 0, audio.length)
+                .fill(gap, 0, gap.length);
+        assertArrayEquals(new byte[audio.length], gap);
+    }
+
+    private static double rms(byte[] pcm, int channel) {
+        double sum = 0;
+        int count = 0;
+        for (int i = channel * 2; i + 1 < pcm.length; i += 2) {
+            double sample = (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            sum += sample * sample;
+            count++;
+        }
+        return Math.sqrt(sum / count);
+    }
+
+    private static double lagOneCorrelation(byte[] pcm) {
+        double product = 0;
+        double energy = 0;
+        short previous = 0;
+        for (int i = 0; i < pcm.length; i += 2) {
+            short sample = (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            product += sample * (double) previous;
+            energy += sample * (double) sample;
+            previous = sample;
+        }
+        return product / energy;
+    }
+}
@@ -0,0 +1,69 @@
+package com.salesforce.audio;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PcmBufferPoolTest {
+
+    @Test
+    public void reusesReleasedBuffers() {
+        PcmBufferPool pool = new PcmBufferPool(1 << 20);
+        pool.acquire(100_000).close();
+        try (PcmBuffer pcm = pool.acquire(90_000)) {
+            assertEquals(90_000, pcm.length());
+            assertEquals(1, pool.getAllocations());
+            assertEquals(0, pool.getPooledBytes());
+        }
+        assertEquals(0, pool.getBytesInUse());
+    }
+
+    @Test
+    public void readFullyGrowsPastExpectedLength() throws Exception {
+        byte[] data = new byte[300_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        PcmBufferPool pool = new PcmBufferPool(0);
+        try (PcmBuffer pcm = pool.readFully(new ByteArrayInputStream(data), 1000)) {
+            assertArrayEquals(data, pcm.toByteArray());
+            assertEquals((short) (0x01 << 8 | 0x00), pcm.sample(0));
+        }
+        assertEquals(0, pool.getBytesInUse());
+    }
+
+    @Test
+    public void closedBufferCannotBeRead() {
+        PcmBuffer pcm = new PcmBufferPool(1 << 20).acquire(1000);
+        pcm.close();
+        pcm.close();
+        try {
+            pcm.sample(0);
+            fail("Expected read of a released buffer to fail");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void channelStreamReadsOneChannelOfTheFrames() throws Exception {
+        // Three stereo frames: left 1, 2, 3 and right -1, -2, -3
+        byte[] stereo = {1, 0, -1, -1, 2, 0, -2, -1, 3, 0, -3, -1};
+        PcmBuffer pcm = PcmBuffer.wrap(stereo);
+
+        assertArrayEquals(new byte[]{-1, -1, -2, -1, -3, -1}, pcm.newChannelInputStream(1, 2).readAllBytes());
+
+        InputStream left = pcm.newChannelInputStream(0, 2);
+        assertEquals(1, left.read());
+        byte[] rest = new byte[8];
+        assertEquals(1, left.read(rest, 0, 8));
+        assertEquals(4, left.read(rest, 1, 8));
+        assertArrayEquals(new byte[]{0, 2, 0, 3, 0}, Arrays.copyOf(rest, 5));
+        assertEquals(-1, left.read());
+    }
+}
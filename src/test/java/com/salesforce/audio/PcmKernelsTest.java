@@ -0,0 +1,87 @@
+package com.salesforce.audio;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PcmKernelsTest {
+
+    /** Longer than any vector, and not a multiple of one, so the scalar tail runs too. */
+    private static final int COUNT = 1037;
+
+    private final PcmKernels scalar = PcmKernels.scalar();
+    private final PcmKernels vector = PcmKernels.vector();
+    private final Random random = new Random(42);
+
+    @Test
+    public void vectorKernelsMatchScalarOnes() {
+        assertNotNull("tests run with --add-modules jdk.incubator.vector", vector);
+
+        float[] samples = floats(40000f);
+        samples[0] = 1e9f;
+        samples[1] = -1e9f;
+        samples[2] = 32767.9f;
+        samples[3] = -32768.9f;
+        short[] expected = new short[COUNT];
+        short[] actual = new short[COUNT];
+        scalar.toPcm16(samples, expected, COUNT);
+        vector.toPcm16(samples, actual, COUNT);
+        assertArrayEquals(expected, actual);
+        assertEquals(Short.MAX_VALUE, actual[0]);
+        assertEquals(Short.MIN_VALUE, actual[1]);
+
+        float[] scaled = samples.clone();
+        scalar.scale(samples, COUNT, 0.37f);
+        vector.scale(scaled, COUNT, 0.37f);
+        assertArrayEquals(samples, scaled, 0f);
+
+        float[] band = floats(1f);
+        float[] mixed = samples.clone();
+        scalar.mulAdd(samples, band, 1234.5f, COUNT);
+        vector.mulAdd(mixed, band, 1234.5f, COUNT);
+        assertArrayEquals(samples, mixed, 0f);
+
+        short[] original = shorts();
+        short[] weight = Fades.raisedCosine(COUNT, 1)[0];
+        short[] replaced = shorts();
+        original[0] = Short.MIN_VALUE;
+        replaced[0] = Short.MAX_VALUE;
+        short[] blended = replaced.clone();
+        scalar.crossfade(original, replaced, weight, COUNT);
+        vector.crossfade(original, blended, weight, COUNT);
+        assertArrayEquals(replaced, blended);
+
+        short[] loud = new short[COUNT];
+        Arrays.fill(loud, Short.MIN_VALUE);
+        assertEquals(COUNT * (long) Short.MIN_VALUE * Short.MIN_VALUE, vector.sumOfSquares(loud, COUNT));
+        assertEquals(scalar.sumOfSquares(original, COUNT), vector.sumOfSquares(original, COUNT));
+    }
+
+    @Test
+    public void modesSelectKernels() {
+        assertEquals("scalar", PcmKernels.forMode("scalar").name());
+        assertEquals(vector.name(), PcmKernels.forMode("auto").name());
+        assertEquals(vector.name(), PcmKernels.forMode(" Vector ").name());
+    }
+
+    private float[] floats(float range) {
+        float[] values = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = (random.nextFloat() * 2 - 1) * range;
+        }
+        return values;
+    }
+
+    private short[] shorts() {
+        short[] values = new short[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = (short) random.nextInt();
+        }
+        return values;
+    }
+}
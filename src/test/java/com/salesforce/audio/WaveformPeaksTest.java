@@ -0,0 +1,66 @@
+package com.salesforce.audio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sound.sampled.AudioFormat;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class WaveformPeaksTest {
+
+    private static final AudioFormat STEREO = new AudioFormat(8000, 16, 2, true, false);
+    private static final int FRAMES_PER_PEAK = WaveformPeaks.BASE_FRAMES_PER_PEAK;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("peaks", ".bin");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void keepsMinAndMaxOverAllChannelsAtEveryLevel() throws Exception {
+        // 2000 base peaks: peak n has its extremes n / 16 on the left channel and -n / 16 on the right
+        int peaks = 2000;
+        byte[] pcm = new byte[peaks * FRAMES_PER_PEAK * 4];
+        for (int peak = 0; peak < peaks; peak++) {
+            int frame = peak * FRAMES_PER_PEAK + 7;
+            LittleEndian.putShort(pcm, frame * 4, (short) ((peak / 16) << 8));
+            LittleEndian.putShort(pcm, frame * 4 + 2, (short) (-(peak / 16) << 8));
+        }
+        WaveformPeaks waveform = new WaveformPeaks(STEREO, peaks * FRAMES_PER_PEAK);
+        // Blocks that do not line up with peaks, as the redaction pass writes them
+        for (int offset = 0; offset < pcm.length; offset += 12_000) {
+            int length = Math.min(12_000, pcm.length - offset);
+            waveform.original().write(pcm, offset, length);
+            waveform.redacted().write(new byte[length], 0, length);
+        }
+        waveform.write(file);
+
+        double seconds = (double) FRAMES_PER_PEAK / 8000;
+        WaveformPeaks.Slice base = WaveformPeaks.read(file, 100 * seconds, 110 * seconds, 10);
+        assertEquals(FRAMES_PER_PEAK, base.framesPerPeak());
+        assertEquals(100, base.firstPeak());
+        assertEquals(20, base.original().length);
+        assertEquals(-6, base.original()[0]);
+        assertEquals(6, base.original()[1]);
+        assertEquals(0, base.redacted()[1]);
+
+        // 500 peaks wide over the whole file is the 4x level, whose peaks each cover four base peaks
+        WaveformPeaks.Slice overview = WaveformPeaks.read(file, 0, Double.MAX_VALUE, 500);
+        assertEquals(4 * FRAMES_PER_PEAK, overview.framesPerPeak());
+        assertEquals(0, overview.firstPeak());
+        assertEquals(1000, overview.original().length);
+        assertEquals(-(1999 / 16), overview.original()[998]);
+        assertEquals(1999 / 16, overview.original()[999]);
+    }
+}
@@ -0,0 +1,104 @@
+package com.salesforce.controller;
+
+import com.salesforce.service.ActiveOutputRegistry;
+import com.salesforce.storage.StorageManager;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+public class AudioRedactionControllerTest {
+
+    private static final String FILE_ID = "c0ffee00-0000-4000-8000-000000000000";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final byte[] content = new byte[100];
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        StorageManager storageManager = new StorageManager(folder.newFolder("uploads").toString(), Duration.ofHours(1),
+                Long.MAX_VALUE, folder.newFolder("outputs").toString(), Duration.ofHours(24), Long.MAX_VALUE);
+        storageManager.init();
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(storageManager.resolve(StorageManager.Area.OUTPUTS, FILE_ID + "_redacted.wav"), content);
+        mockMvc = MockMvcBuilders.standaloneSetup(new AudioRedactionController(null, new ActiveOutputRegistry(),
+                storageManager, null, null, null, null)).build();
+    }
+
+    @Test
+    public void servesTheWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void servesARangeAsPartialContent() throws Exception {
+        MockHttpServletResponse response = download(request().header(HttpHeaders.RANGE, "bytes=10-19"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void rejectsARangePastTheEnd() throws Exception {
+        MockHttpServletResponse response = download(request().header(HttpHeaders.RANGE, "bytes=200-299"));
+
+        assertEquals(416, response.getStatus());
+    }
+
+    @Test
+    public void answersAMatchingValidatorWithNotModified() throws Exception {
+        String eTag = download(request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = download(request().header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void servesTheWholeFileWhenIfRangeIsStale() throws Exception {
+        String eTag = download(request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse current = download(request()
+                .header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, eTag));
+        MockHttpServletResponse stale = download(request()
+                .header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, "\"0-0\""));
+
+        assertEquals(206, current.getStatus());
+        assertEquals(200, stale.getStatus());
+        assertArrayEquals(content, stale.getContentAsByteArray());
+    }
+
+    private static MockHttpServletRequestBuilder request() {
+        return get("/api/audio/download/{fileId}", FILE_ID);
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,54 @@
+package com.salesforce.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+    @Test
+    public void uploadTimeIsSplitFromDecodeTime() throws Exception {
+        PipelineMetrics.TimedInputStream in = metrics.timeUpload(new ByteArrayInputStream(new byte[10_000]));
+        assertEquals(10_000, in.readAllBytes().length);
+        in.finish(in.getNanos() + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(10_000, registry.get("redaction.bytes.processed").tag("direction", "in").counter().count(), 0);
+        assertEquals(in.getNanos(), stageNanos("upload"), 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), stageNanos("decode"), 1);
+    }
+
+    @Test
+    public void writeTimeIsSplitFromRedactionTime() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PipelineMetrics.TimedSink sink = metrics.timeWrites(out::write);
+        sink.write(new byte[4096], 0, 4096);
+        sink.finish(sink.getNanos() + TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertEquals(4096, out.size());
+        assertEquals(1, registry.get("redaction.stage").tag("stage", "write").timer().count());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(3), stageNanos("redact"), 1);
+    }
+
+    @Test
+    public void piiEntitiesAreNormalisedPerMinuteOfAudio() {
+        metrics.recordPiiEntities(3, 30.0);
+        metrics.recordPiiEntities(0, 0.0);
+
+        assertEquals(3, registry.get("redaction.pii.entities").counter().count(), 0);
+        assertEquals(30.0, registry.get("redaction.audio.duration").counter().count(), 0);
+        assertEquals(6.0, registry.get("redaction.pii.entities.per.minute").summary().max(), 0);
+        assertEquals(1, registry.get("redaction.pii.entities.per.minute").summary().count());
+    }
+
+    private double stageNanos(String stage) {
+        return registry.get("redaction.stage").tag("stage", stage).timer().totalTime(TimeUnit.NANOSECONDS);
+    }
+}
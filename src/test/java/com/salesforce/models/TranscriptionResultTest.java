@@ -0,0 +1,96 @@
+package com.salesforce.models;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TranscriptionResultTest {
+
+    @Test
+    public void redactsOnlyTheWordsSpokenDuringTheEntity() {
+        // "one" appears twice but only the second occurrence is the PII
+        String text = "Press one. My PIN is one two three. ";
+        WordItems items = new WordItems.Builder()
+                .addWord(0.0, 0.4, "Press", 0.99f).addWord(0.5, 0.8, "one", 0.99f).addPunctuation(".")
+                .addWord(1.0, 1.2, "My", 0.99f).addWord(1.2, 1.5, "PIN", 0.99f).addWord(1.5, 1.7, "is", 0.99f)
+                .addWord(1.8, 2.1, "one", 0.99f).addWord(2.1, 2.4, "two", 0.99f).addWord(2.4, 2.8, "three", 0.99f)
+                .addPunctuation(".")
+                .build();
+        PIIEntity pin = new PIIEntity("PIN", 1.8, 2.8, "one two three", 0.99);
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), List.of(pin), items);
+
+        assertEquals("Press one. My PIN is [REDACTED]. ", result.getRedactedTranscription());
+    }
+
+    @Test
+    public void keepsSeparateMarkersForAdjacentEntities() {
+        String text = "Jordan Lee 4111 ";
+        WordItems items = new WordItems.Builder()
+                .addWord(0.0, 0.4, "Jordan", 0.9f).addWord(0.4, 0.8, "Lee", 0.9f).addWord(0.9, 1.5, "4111", 0.9f)
+                .build();
+        List<PIIEntity> entities = List.of(
+                new PIIEntity("CREDIT_DEBIT_NUMBER", 0.9, 1.5, "4111", 0.9),
+                new PIIEntity("NAME", 0.0, 0.8, "Jordan Lee", 0.9));
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), entities, items);
+
+        assertEquals("[REDACTED] [REDACTED] ", result.getRedactedTranscription());
+    }
+
+    @Test
+    public void withoutItemsRedactsEachEntityOnceInOrder() {
+        String text = "Call 555 then dial 555 again";
+        PIIEntity phone = new PIIEntity("PHONE", 3.0, 3.5, "555", 0.9);
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), List.of(phone));
+
+        assertEquals("Call [REDACTED] then dial 555 again", result.getRedactedTranscription());
+    }
+
+    @Test
+    public void findsEntityWordsFarPastTheCursor() {
+        // The filler has no timed items, so the entity word sits well beyond the search window
+        String filler = "um ".repeat(30);
+        String text = "Hello " + filler + "4111 thanks";
+        WordItems items = new WordItems.Builder()
+                .addWord(0.0, 0.4, "Hello", 0.99f).addWord(9.0, 9.5, "4111", 0.99f).addWord(9.6, 9.9, "thanks", 0.99f)
+                .build();
+        PIIEntity card = new PIIEntity("CREDIT_DEBIT_NUMBER", 9.0, 9.5, "4111", 0.99);
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), List.of(card), items);
+
+        assertEquals("Hello " + filler + "[REDACTED] thanks", result.getRedactedTranscription());
+    }
+
+    @Test
+    public void matchesWholeWordsOnly() {
+        // "Allison" is normalised differently in the text, so "Al" must not match the start of "Alison"
+        String text = "Speak to Alison, Al speaking";
+        WordItems items = new WordItems.Builder()
+                .addWord(0.0, 0.3, "Speak", 0.99f).addWord(0.3, 0.4, "to", 0.99f).addWord(0.4, 0.9, "Allison", 0.99f)
+                .addPunctuation(",").addWord(1.0, 1.2, "Al", 0.99f).addWord(1.2, 1.7, "speaking", 0.99f)
+                .build();
+        PIIEntity name = new PIIEntity("NAME", 1.0, 1.2, "Al", 0.99);
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), List.of(name), items);
+
+        assertEquals("Speak to Alison, [REDACTED] speaking", result.getRedactedTranscription());
+    }
+
+    @Test
+    public void fallsBackToEntityContentWhenAnEntityWordIsMissing() {
+        String text = "My number is 555-0100 ok";
+        WordItems items = new WordItems.Builder()
+                .addWord(0.0, 0.2, "My", 0.99f).addWord(0.2, 0.5, "number", 0.99f).addWord(0.5, 0.6, "is", 0.99f)
+                .addWord(0.7, 1.5, "5550100", 0.99f).addWord(1.6, 1.8, "ok", 0.99f)
+                .build();
+        PIIEntity phone = new PIIEntity("PHONE", 0.7, 1.5, "555-0100", 0.99);
+
+        TranscriptionResult result = new TranscriptionResult(text, List.of(), List.of(phone), items);
+
+        assertEquals("My number is [REDACTED] ok", result.getRedactedTranscription());
+    }
+}
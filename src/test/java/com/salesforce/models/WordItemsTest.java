@@ -0,0 +1,42 @@
+package com.salesforce.models;
+
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WordItemsTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void parsesItemsColumnWise() {
+        String json = "{\"transcript\":\"Hello, there\",\"items\":["
+                + "{\"startTime\":0.1,\"endTime\":0.5,\"type\":\"pronunciation\",\"content\":\"Hello\",\"confidence\":0.98,\"vocabularyFilterMatch\":false},"
+                + "{\"type\":\"punctuation\",\"content\":\",\",\"confidence\":null},"
+                + "{\"startTime\":0.6,\"endTime\":0.9,\"type\":\"pronunciation\",\"content\":\"there\",\"confidence\":0.91}]}";
+
+        WordItems items = gson.fromJson(json, Alternative.class).getItems();
+
+        assertEquals(3, items.size());
+        assertTrue(items.isPronunciation(0));
+        assertFalse(items.isPronunciation(1));
+        assertEquals(",", items.getContent(1));
+        assertEquals(0.6, items.getStartTime(2), 0);
+        assertEquals(0.9, items.getEndTime(2), 0);
+        assertEquals(0.91f, items.getConfidence(2), 0);
+    }
+
+    @Test
+    public void sharesRepeatedWordsAndDefaultsMissingItems() {
+        String json = "{\"items\":[{\"type\":\"pronunciation\",\"content\":\"yes\"},{\"type\":\"pronunciation\",\"content\":\"yes\"}]}";
+
+        WordItems items = gson.fromJson(json, Alternative.class).getItems();
+
+        assertSame(items.getContent(0), items.getContent(1));
+        assertSame(WordItems.EMPTY, gson.fromJson("{\"transcript\":\"\"}", Alternative.class).getItems());
+    }
+}
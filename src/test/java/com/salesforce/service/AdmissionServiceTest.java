@@ -0,0 +1,72 @@
+package com.salesforce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdmissionServiceTest {
+
+    private static AdmissionService service(int maxActive, long maxPcmBytes) {
+        return new AdmissionService(maxActive, 0, Long.MAX_VALUE, maxPcmBytes, 1000, 4, 2,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void admitsWaitingClientsRoundRobin() {
+        AdmissionService admission = service(1, Long.MAX_VALUE);
+        AdmissionService.Ticket running = admission.request("a", 100).join();
+        CompletableFuture<AdmissionService.Ticket> a1 = admission.request("a", 100);
+        CompletableFuture<AdmissionService.Ticket> a2 = admission.request("a", 100);
+        CompletableFuture<AdmissionService.Ticket> b1 = admission.request("b", 100);
+        assertEquals(3, admission.snapshot().queued());
+
+        running.close();
+        assertTrue(a1.isDone());
+        a1.join().close();
+        // b queued after both of a's requests but is admitted before a's second one
+        assertTrue(b1.isDone());
+        assertFalse(a2.isDone());
+        b1.join().close();
+        assertTrue(a2.isDone());
+        a2.join().close();
+        assertEquals(0, admission.snapshot().active());
+    }
+
+    @Test
+    public void rejectsWhenClientQueueIsFull() {
+        AdmissionService admission = service(1, Long.MAX_VALUE);
+        admission.request("a", 100).join();
+        admission.request("a", 100);
+        admission.request("a", 100);
+        try {
+            admission.request("a", 100);
+            fail("Expected rejection");
+        } catch (AdmissionRejectedException e) {
+            assertEquals("client-queue-full", e.getReason());
+            assertTrue(e.getRetryAfterSeconds() >= 1);
+        }
+        // Other clients can still queue
+        assertFalse(admission.request("b", 100).isDone());
+    }
+
+    @Test
+    public void decodedSizeReplacesEstimate() {
+        AdmissionService admission = service(4, 1000);
+        AdmissionService.Ticket first = admission.request("a", 400).join();
+        assertEquals(800, admission.snapshot().pcmBytes());
+        CompletableFuture<AdmissionService.Ticket> second = admission.request("b", 400);
+        assertFalse(second.isDone());
+
+        // Smaller than estimated once decoded, which makes room for the waiting request
+        admission.decoded(first, 100);
+        assertTrue(second.isDone());
+        assertEquals(900, admission.snapshot().pcmBytes());
+    }
+}
@@ -0,0 +1,116 @@
+package com.salesforce.service;
+
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.TimeInterval;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AudioRedactionServiceTest {
+
+    private static final AudioFormat MONO = new AudioFormat(16000, 16, 1, true, false);
+    private static final short LEVEL = 10000;
+
+    private final AudioRedactionService service = new AudioRedactionService(new PipelineMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    public void crossfadesIntoAndOutOfEachRange() throws Exception {
+        // 5 ms is 80 frames at 16 kHz; the range starts 40 frames after the first block, so its fade in spans two
+        service.setCrossfadeMillis(5);
+        short[] out = redact(List.of(new TimeInterval(8232 / 16000.0, 9000 / 16000.0)));
+
+        assertEquals(LEVEL, out[8232 - 81]);
+        for (int i = 8232 - 80; i < 8232; i++) {
+            assertTrue(out[i] < out[i - 1]);
+        }
+        assertTrue(out[8231] < LEVEL / 10);
+        for (int i = 8232; i < 9000; i++) {
+            assertEquals(0, out[i]);
+        }
+        for (int i = 9000; i < 9080; i++) {
+            assertTrue(out[i] > out[i - 1]);
+        }
+        assertEquals(LEVEL, out[9080]);
+    }
+
+    @Test
+    public void rangesCloserThanTwoFadesShareTheGap() throws Exception {
+        service.setCrossfadeMillis(5);
+        short[] out = redact(List.of(new TimeInterval(0.1, 0.2), new TimeInterval(0.2025, 0.3)));
+
+        // The 40-frame gap fades out for 20 frames and back in for 20, never reaching full level
+        for (int i = 3200; i < 3240; i++) {
+            assertTrue(out[i] > 0 && out[i] < LEVEL);
+        }
+        assertTrue(out[3219] > out[3218] && out[3221] < out[3220]);
+        assertEquals(0, out[3240]);
+    }
+
+    @Test
+    public void zeroCrossfadeSwitchesAbruptly() throws Exception {
+        service.setCrossfadeMillis(0);
+        short[] out = redact(List.of(new TimeInterval(0.1, 0.2)));
+
+        assertEquals(LEVEL, out[1599]);
+        assertEquals(0, out[1600]);
+        assertEquals(0, out[3199]);
+        assertEquals(LEVEL, out[3200]);
+    }
+
+    @Test
+    public void redactsOnlyTheIntervalsChannel() throws Exception {
+        service.setCrossfadeMillis(0);
+        AudioFormat stereo = new AudioFormat(16000, 16, 2, true, false);
+        byte[] audio = new byte[16000 * 4];
+        for (int i = 0; i < audio.length; i += 2) {
+            audio[i] = (byte) LEVEL;
+            audio[i + 1] = (byte) (LEVEL >> 8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.applyRedactionsWithSilence(audio, stereo,
+                List.of(new TimeInterval(0.1, 0.6, 1), new TimeInterval(0.5, 0.7, null)), out::write);
+        short[] samples = toSamples(out.toByteArray());
+
+        // Frame 1600 to 8000 is silenced on the right only, 8000 to 11200 on both channels
+        assertEquals(LEVEL, samples[2 * 1599 + 1]);
+        for (int frame = 1600; frame < 8000; frame++) {
+            assertEquals(LEVEL, samples[2 * frame]);
+            assertEquals(0, samples[2 * frame + 1]);
+        }
+        for (int frame = 8000; frame < 11200; frame++) {
+            assertEquals(0, samples[2 * frame]);
+            assertEquals(0, samples[2 * frame + 1]);
+        }
+        assertEquals(LEVEL, samples[2 * 11200]);
+        assertEquals(LEVEL, samples[2 * 11200 + 1]);
+    }
+
+    private short[] redact(List<TimeInterval> intervals) throws Exception {
+        short[] samples = new short[16000];
+        Arrays.fill(samples, LEVEL);
+        byte[] audio = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            audio[2 * i] = (byte) samples[i];
+            audio[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.applyRedactionsWithSilence(audio, MONO, intervals, out::write);
+
+        return toSamples(out.toByteArray());
+    }
+
+    private static short[] toSamples(byte[] pcm) {
+        short[] samples = new short[pcm.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((pcm[2 * i] & 0xFF) | (pcm[2 * i + 1] << 8));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,82 @@
+package com.salesforce.service;
+
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class BatchRedactionServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private StorageManager storageManager;
+    private BatchRedactionService service;
+
+    @Before
+    public void setUp() throws Exception {
+        root = folder.getRoot().toPath();
+        storageManager = new StorageManager(root.resolve("uploads").toString(), Duration.ofHours(1), Long.MAX_VALUE,
+                root.resolve("outputs").toString(), Duration.ofHours(24), Long.MAX_VALUE);
+        storageManager.init();
+        JobStore jobStore = new JobStore(root.resolve("jobs").toString(), Duration.ofHours(1), false, Long.MAX_VALUE);
+        jobStore.load();
+        // Archives over the limits are rejected before any job is scheduled, so no redaction service is needed
+        service = new BatchRedactionService(null, new ActiveOutputRegistry(), storageManager, jobStore,
+                root.resolve("input").toString(), 2, 1000, 1500, 1, 1, 1);
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void rejectsOversizedEntriesAndTotals() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> submit(new byte[1001]));
+        assertThrows(IllegalArgumentException.class, () -> submit(new byte[800], new byte[800]));
+        assertEquals(0, uploadedFiles());
+    }
+
+    @Test
+    public void rejectsTooManyEntries() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> submit(new byte[10], new byte[10], new byte[10]));
+        assertEquals(0, uploadedFiles());
+    }
+
+    private void submit(byte[]... files) throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            for (int i = 0; i < files.length; i++) {
+                zip.putNextEntry(new ZipEntry("call" + i + ".wav"));
+                zip.write(files[i]);
+                zip.closeEntry();
+            }
+        }
+        service.submitArchive(new ByteArrayInputStream(archive.toByteArray()), new RedactionOptions());
+    }
+
+    private long uploadedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(storageManager.resolve(StorageManager.Area.UPLOADS, ""))) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.PcmBuffer;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.models.WordItems;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntervalRefinerTest {
+
+    private static final AudioFormat FORMAT = new AudioFormat(16000, 16, 1, true, false);
+
+    // "my pin is | one two | thanks", with the PII spoken from 1.0 to 1.6 seconds
+    private final WordItems words = new WordItems.Builder()
+            .addWord(0.0, 0.3, "my", 0.9f).addWord(0.4, 0.7, "pin", 0.9f)
+            .addWord(1.0, 1.3, "one", 0.9f).addWord(1.3, 1.6, "two", 0.9f)
+            .addWord(2.0, 2.4, "thanks", 0.9f)
+            .build();
+    // Entity timings are slightly inside the words, as returned by the service
+    private final PIIEntity pin = new PIIEntity("PIN", 1.05, 1.55, "one two", 0.95);
+
+    @Test
+    public void snapsToWordsAndCutsAtTheQuietestPointInThePadding() {
+        byte[] pcm = pcm(2.5, new double[][]{{0.0, 0.3}, {0.4, 0.7}, {1.0, 1.6}, {2.0, 2.4}},
+                new double[][]{{0.75, 0.8}, {1.65, 1.7}});
+        IntervalRefiner refiner = new IntervalRefiner(new MockEnvironment().withProperty("redaction.padding.default", "0.25,0.1"));
+
+        TimeInterval interval = refiner.refine(List.of(pin), words, PcmBuffer.wrap(pcm), FORMAT).get(0);
+
+        assertEquals(0.75, interval.getStartTime(), 1e-9);
+        assertEquals(1.7, interval.getEndTime(), 1e-9);
+    }
+
+    @Test
+    public void usesPerTypePaddingAndNeverReachesIntoNeighbouringWords() {
+        IntervalRefiner refiner = new IntervalRefiner(new MockEnvironment()
+                .withProperty("redaction.padding.default", "0.5,0.5")
+                .withProperty("redaction.padding.PIN", "0.05,0"));
+        PIIEntity name = new PIIEntity("NAME", 0.45, 0.65, "pin", 0.9);
+
+        List<TimeInterval> intervals = refiner.refine(List.of(pin, name), words, null, FORMAT);
+
+        assertEquals(0.95, intervals.get(0).getStartTime(), 1e-9);
+        assertEquals(1.6, intervals.get(0).getEndTime(), 1e-9);
+        // Default padding of half a second is limited by "my" (ends 0.3) and "one" (starts 1.0)
+        assertEquals(0.3, intervals.get(1).getStartTime(), 1e-9);
+        assertEquals(1.0, intervals.get(1).getEndTime(), 1e-9);
+    }
+
+    /**
+     * Loud tone inside {@code speech}, digital silence inside {@code silence}, low noise elsewhere.
+     */
+    private static byte[] pcm(double seconds, double[][] speech, double[][] silence) {
+        int frames = (int) (seconds * 16000);
+        byte[] pcm = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            double t = i / 16000.0;
+            int sample = i % 2 == 0 ? 60 : -60;
+            if (within(t, speech)) {
+                sample = (int) (8000 * Math.sin(2 * Math.PI * 220 * t));
+            } else if (within(t, silence)) {
+                sample = 0;
+            }
+            pcm[2 * i] = (byte) sample;
+            pcm[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private static boolean within(double t, double[][] ranges) {
+        for (double[] range : ranges) {
+            if (t >= range[0] && t < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.OutputFormat;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.StorageManager;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+public class JobIdsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private ActiveOutputRegistry activeOutputs;
+    private JobStore jobStore;
+    private StorageManager storageManager;
+    private JobIds jobIds;
+
+    @Before
+    public void setUp() throws Exception {
+        root = folder.getRoot().toPath();
+        activeOutputs = new ActiveOutputRegistry();
+        jobStore = new JobStore(root.resolve("jobs").toString(), Duration.ofHours(1), false, Long.MAX_VALUE);
+        jobStore.load();
+        storageManager = new StorageManager(root.resolve("uploads").toString(), Duration.ofHours(1), Long.MAX_VALUE,
+                root.resolve("outputs").toString(), Duration.ofHours(24), Long.MAX_VALUE);
+        storageManager.init();
+        jobIds = new JobIds(activeOutputs, jobStore, storageManager, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void reservedIdCanBeClaimedOnce() {
+        String id = jobIds.reserve();
+
+        assertEquals(id, jobIds.claim(id));
+        assertThrows(JobIdConflictException.class, () -> jobIds.claim(id));
+    }
+
+    @Test
+    public void unreservedIdIsRejected() {
+        assertThrows(JobIdConflictException.class, () -> jobIds.claim(UUID.randomUUID().toString()));
+        assertThrows(IllegalArgumentException.class, () -> jobIds.claim("../outputs"));
+    }
+
+    @Test
+    public void idOfAnExistingJobOrOutputIsRejected() throws Exception {
+        String active = jobIds.reserve();
+        activeOutputs.begin(active, root.resolve("outputs").resolve(active + "_redacted.wav"), OutputFormat.WAV);
+        String stored = jobIds.reserve();
+        jobStore.save(new RedactionJob(stored, "call.wav", new RedactionOptions()));
+        String written = jobIds.reserve();
+        Files.write(storageManager.resolve(StorageManager.Area.OUTPUTS, written + "_redacted.flac"), new byte[4]);
+
+        assertThrows(JobIdConflictException.class, () -> jobIds.claim(active));
+        assertThrows(JobIdConflictException.class, () -> jobIds.claim(stored));
+        assertThrows(JobIdConflictException.class, () -> jobIds.claim(written));
+    }
+
+    @Test
+    public void withoutARequestedIdAFreshOneIsUsed() {
+        assertNotEquals(jobIds.claim(null), jobIds.claim(null));
+    }
+}
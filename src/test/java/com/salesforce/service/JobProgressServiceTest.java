@@ -0,0 +1,243 @@
+package com.salesforce.service;
+
+import com.salesforce.models.JobStage;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptSegment;
+import com.salesforce.models.TranscriptionResult;
+import com.salesforce.storage.JobStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JobProgressServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Emitters handed out by the next subscriptions, in order. */
+    private final Queue<RecordingEmitter> emitters = new ArrayDeque<>();
+    private JobStore jobStore;
+    private JobProgressService progress;
+    private RedactionJob job;
+
+    @Before
+    public void setUp() throws Exception {
+        jobStore = new JobStore(folder.newFolder("jobs").toString(), Duration.ofHours(1), false, Long.MAX_VALUE);
+        jobStore.load();
+        progress = new JobProgressService(jobStore, Duration.ofMinutes(1), 2, 4) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.remove();
+            }
+        };
+        job = new RedactionJob("job", "call.wav", new RedactionOptions());
+    }
+
+    @After
+    public void tearDown() {
+        progress.shutdown();
+    }
+
+    @Test
+    public void lateSubscriberIsReplayedTheProgressSoFarInOrder() throws Exception {
+        setStage(JobStage.TRANSCRIBING);
+        progress.streamed(job, 5, 10);
+        progress.segment(job, segment(0, "my name is jane"));
+        progress.segment(job, segment(1, "call me"));
+        setStage(JobStage.REDACTING);
+        progress.redacted(job, 0.25);
+
+        RecordingEmitter late = subscribe(new RecordingEmitter());
+        progress.segment(job, segment(2, "live"));
+
+        late.awaitEvents(6);
+        assertEquals(List.of("stage", "streamed", "segment", "segment", "redacted", "segment"), late.names);
+        assertEquals("redacting", late.data("stage", 0).get("stage"));
+        assertEquals(50, late.data("streamed", 0).get("percent"));
+        assertEquals("my name is jane", late.data("segment", 0).get("transcript"));
+        assertEquals("call me", late.data("segment", 1).get("transcript"));
+        assertEquals(25, late.data("redacted", 0).get("percent"));
+        assertEquals("live", late.data("segment", 2).get("transcript"));
+    }
+
+    @Test
+    public void progressQueuedBehindASlowSendIsCoalesced() throws Exception {
+        RecordingEmitter slow = subscribe(new RecordingEmitter(new CountDownLatch(1)));
+        setStage(JobStage.TRANSCRIBING);
+        slow.awaitSending();
+
+        for (int second = 1; second <= 3; second++) {
+            progress.streamed(job, second, 10);
+            progress.partial(job, 0, "partial " + second);
+        }
+        progress.segment(job, segment(0, "final"));
+        progress.redacted(job, 0.1);
+        progress.redacted(job, 0.2);
+        slow.release.countDown();
+
+        slow.awaitEvents(5);
+        assertEquals(List.of("stage", "streamed", "partial", "segment", "redacted"), slow.names);
+        assertEquals(30, slow.data("streamed", 0).get("percent"));
+        assertEquals("partial 3", slow.data("partial", 0).get("transcript"));
+        assertEquals(20, slow.data("redacted", 0).get("percent"));
+    }
+
+    @Test
+    public void subscriberThatFallsBehindIsDroppedWithoutStallingOthers() throws Exception {
+        RecordingEmitter slow = subscribe(new RecordingEmitter(new CountDownLatch(1)));
+        RecordingEmitter fast = subscribe(new RecordingEmitter());
+        setStage(JobStage.TRANSCRIBING);
+        slow.awaitSending();
+
+        // Segments are never coalesced; the queue holds 4
+        for (int i = 0; i < 6; i++) {
+            progress.segment(job, segment(i, "segment " + i));
+            fast.awaitEvents(i + 2);
+        }
+
+        Throwable error = slow.completion.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(error instanceof IOException);
+        assertEquals("segment 5", fast.data("segment", 5).get("transcript"));
+        assertFalse(fast.completion.isDone());
+
+        slow.release.countDown();
+        finish(JobStage.COMPLETED);
+        fast.awaitEvents(8);
+        assertEquals("completed", fast.names.get(7));
+        assertNull(fast.completion.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("stage"), slow.names);
+    }
+
+    @Test
+    public void subscriberToAFinishedJobGetsItsFinalEvent() throws Exception {
+        setStage(JobStage.REDACTING);
+        finish(JobStage.COMPLETED);
+
+        RecordingEmitter emitter = subscribe(new RecordingEmitter());
+
+        assertNull(emitter.completion.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("completed"), emitter.names);
+        assertEquals("/api/audio/download/job", emitter.data("completed", 0).get("download"));
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter) {
+        emitters.add(emitter);
+        progress.subscribe(job.getJobId());
+        return emitter;
+    }
+
+    private void setStage(JobStage stage) {
+        job.setStage(stage);
+        progress.stage(job);
+    }
+
+    private void finish(JobStage stage) {
+        job.setStage(stage);
+        job.setTranscription(new TranscriptionResult("", List.of(), List.of()));
+        jobStore.save(job);
+        progress.finished(job);
+    }
+
+    private static TranscriptSegment segment(int index, String transcript) {
+        TranscriptSegment segment = new TranscriptSegment();
+        segment.setStartTime(index);
+        segment.setEndTime(index + 1);
+        segment.setTranscript(transcript);
+        segment.setPiiEntities(List.of());
+        return segment;
+    }
+
+    /**
+     * Records the name and data of each event sent and how the stream ended. With a release latch, the
+     * first send blocks until it opens, as if the client had stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<Object> data = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Throwable> completion = new CompletableFuture<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            // "event:<name>\ndata:", the data object, then the line breaks ending the event
+            List<DataWithMediaType> parts = List.copyOf(builder.build());
+            String header = (String) parts.get(0).getData();
+            data.add(parts.get(1).getData());
+            names.add(header.substring("event:".length(), header.indexOf('\n')));
+        }
+
+        @Override
+        public void complete() {
+            completion.complete(null);
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completion.complete(ex);
+        }
+
+        void awaitSending() throws InterruptedException {
+            assertTrue(sending.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (names.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(count, names.size());
+        }
+
+        /**
+         * Data of the {@code index}-th event named {@code name}.
+         */
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data(String name, int index) {
+            int seen = 0;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equals(name) && seen++ == index) {
+                    return (Map<String, Object>) data.get(i);
+                }
+            }
+            throw new AssertionError("No " + name + " event " + index + " in " + names);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptSegment;
+import com.salesforce.models.TranscriptionResult;
+import com.salesforce.models.WordItems;
+import com.salesforce.storage.JobStore;
+import com.salesforce.storage.TranscriptionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sound.sampled.AudioFormat;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RedactionJobServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger transcriptions = new AtomicInteger();
+    private RedactionJobService service;
+
+    @Before
+    public void setUp() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        TranscribeWithPII transcribeWithPII = new TranscribeWithPII(metrics, new IntervalRefiner(new MockEnvironment())) {
+            @Override
+            public TranscriptionResult transcribeAndDetectPII(DecodedAudio audio, List<TranscriptSegment> completed,
+                                                              TranscriptionListener listener) {
+                transcriptions.incrementAndGet();
+                WordItems words = new WordItems.Builder()
+                        .addWord(0.1, 0.4, "jane", 0.99f)
+                        .addWord(1.2, 1.8, "five", 0.99f)
+                        .build();
+                return new TranscriptionResult("jane five", List.of(), List.of(
+                        new PIIEntity("NAME", 0.1, 0.4, "jane", 0.95),
+                        new PIIEntity("PHONE", 1.2, 1.8, "five", 0.7)), words);
+            }
+        };
+        TranscriptionCache cache = new TranscriptionCache(folder.newFolder("cache").toString(), 16, Long.MAX_VALUE,
+                Duration.ofDays(1));
+        cache.load();
+        JobStore jobStore = new JobStore(folder.newFolder("jobs").toString(), Duration.ofHours(1), false, Long.MAX_VALUE);
+        jobStore.load();
+        service = new RedactionJobService(null, transcribeWithPII, null, cache, null, null, jobStore, null,
+                new RedactionPolicyCompiler(new MockEnvironment()),
+                new JobProgressService(jobStore, Duration.ofMinutes(1), 1, 16), metrics);
+    }
+
+    @Test
+    public void policyChangeReusesTheCachedTranscription() throws Exception {
+        TranscriptionResult lenient;
+        TranscriptionResult strict;
+        try (DecodedAudio audio = new DecodedAudio(new AudioFormat(8000, 16, 1, true, false), new byte[2 * 8000 * 2], "hash")) {
+            lenient = service.transcribe(job("lenient", 0.5), audio);
+            strict = service.transcribe(job("strict", 0.9), audio);
+        }
+
+        assertEquals(1, transcriptions.get());
+        assertEquals(2, lenient.getPiiEntities().size());
+        assertEquals(2, lenient.getPiiIntervals().size());
+        assertEquals(1, strict.getPiiEntities().size());
+        assertEquals("NAME", strict.getPiiEntities().get(0).getType());
+        assertEquals(1, strict.getPiiIntervals().size());
+        assertTrue(strict.getPiiIntervals().get(0).getEndTime() < 1.2);
+        assertTrue(strict.getRedactedTranscription().contains("five"));
+        assertFalse(strict.getRedactedTranscription().contains("jane"));
+    }
+
+    private static RedactionJob job(String jobId, double minConfidence) {
+        RedactionOptions options = new RedactionOptions();
+        options.setMinConfidence(minConfidence);
+        return new RedactionJob(jobId, "call.wav", options);
+    }
+}
@@ -0,0 +1,73 @@
+package com.salesforce.service;
+
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionOptions;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.salesforce.service.RedactionPolicy.Decision.REDACT;
+import static com.salesforce.service.RedactionPolicy.Decision.REVIEW;
+import static com.salesforce.service.RedactionPolicy.Decision.SKIP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RedactionPolicyCompilerTest {
+
+    private final RedactionPolicyCompiler compiler = new RedactionPolicyCompiler(new MockEnvironment()
+            .withProperty("redaction.min-confidence.default", "0.5")
+            .withProperty("redaction.min-confidence.NAME", "0.9")
+            .withProperty("redaction.review-band", "0.1"));
+
+    @Test
+    public void appliesConfiguredThresholdsWithReviewBand() {
+        RedactionPolicy policy = compiler.compile(new RedactionOptions());
+
+        assertEquals(REDACT, policy.decide(entity("NAME", 0.9)));
+        assertEquals(REVIEW, policy.decide(entity("NAME", 0.85)));
+        assertEquals(SKIP, policy.decide(entity("NAME", 0.7)));
+        assertEquals(REDACT, policy.decide(entity("PHONE", 0.7)));
+        assertEquals(REVIEW, policy.decide(entity("PHONE", 0.45)));
+        assertFalse(policy.redactsAll());
+    }
+
+    @Test
+    public void requestOptionsOverrideDefaultsAndFilterTypes() {
+        RedactionOptions options = new RedactionOptions();
+        options.setMinConfidence(0.0);
+        options.setConfidenceThresholds("ssn:0.8, ");
+        options.setReviewBand(0.0);
+        options.setRedactTypes("NAME,SSN,PHONE");
+        options.setSkipTypes("phone");
+        RedactionPolicy policy = compiler.compile(options);
+
+        // minConfidence replaces the configured NAME threshold
+        assertEquals(REDACT, policy.decide(entity("NAME", 0.1)));
+        assertEquals(SKIP, policy.decide(entity("SSN", 0.75)));
+        assertEquals(SKIP, policy.decide(entity("PHONE", 1.0)));
+        assertEquals(SKIP, policy.decide(entity("ADDRESS", 1.0)));
+    }
+
+    @Test
+    public void redactsAllOnlyWithoutThresholds() {
+        RedactionOptions all = new RedactionOptions();
+        all.setMinConfidence(0.0);
+        all.setRedactTypes("");
+        assertTrue(compiler.compile(all).redactsAll());
+
+        RedactionOptions strict = new RedactionOptions();
+        strict.setMinConfidence(0.95);
+        assertFalse(compiler.compile(strict).redactsAll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsThresholdsOutsideZeroToOne() {
+        RedactionOptions options = new RedactionOptions();
+        options.setConfidenceThresholds("NAME:1.5");
+        compiler.compile(options);
+    }
+
+    private static PIIEntity entity(String type, double confidence) {
+        return new PIIEntity(type, 1.0, 2.0, "x", confidence);
+    }
+}
@@ -0,0 +1,53 @@
+package com.salesforce.service;
+
+import com.salesforce.audio.DecodedAudio;
+import com.salesforce.metrics.PipelineMetrics;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TranscriptReplayTest {
+
+    private static final String PARTIAL = "{\"transcript\":{\"results\":[{\"startTime\":0.1,\"endTime\":0.4,"
+            + "\"isPartial\":true,\"alternatives\":[{\"transcript\":\"my\",\"items\":[],\"entities\":[]}]}]}}";
+    private static final String NAME = "{\"transcript\":{\"results\":[{\"startTime\":0.1,\"endTime\":1.0,"
+            + "\"isPartial\":false,\"alternatives\":[{\"transcript\":\"my name is jane\",\"items\":["
+            + "{\"startTime\":0.1,\"endTime\":0.3,\"type\":\"pronunciation\",\"content\":\"my\",\"confidence\":0.99},"
+            + "{\"startTime\":0.7,\"endTime\":1.0,\"type\":\"pronunciation\",\"content\":\"jane\",\"confidence\":0.99}],"
+            + "\"entities\":[{\"type\":\"NAME\",\"startTime\":0.7,\"endTime\":1.0,\"content\":\"jane\",\"confidence\":0.95}]}]}]}}";
+    private static final String PHONE = "{\"transcript\":{\"results\":[{\"startTime\":1.2,\"endTime\":1.8,"
+            + "\"isPartial\":false,\"alternatives\":[{\"transcript\":\"five five\",\"items\":[],"
+            + "\"entities\":[{\"type\":\"PHONE\",\"startTime\":1.2,\"endTime\":1.8,\"content\":\"five five\",\"confidence\":0.7}]}]}]}}";
+
+    @Test
+    public void replaysMessagesThroughTheSessionCollector() throws Exception {
+        TranscribeWithPII transcribeWithPII = new TranscribeWithPII(new PipelineMetrics(new SimpleMeterRegistry()),
+                new IntervalRefiner(new MockEnvironment()));
+        RedactionPolicy policy = new RedactionPolicyCompiler(new MockEnvironment()
+                .withProperty("redaction.min-confidence.default", "0.8")
+                .withProperty("redaction.review-band", "0.2")).compile(new RedactionOptions());
+        AudioFormat format = new AudioFormat(8000, 16, 1, true, false);
+
+        TranscriptionResult result;
+        try (DecodedAudio audio = new DecodedAudio(format, new byte[2 * 8000 * 2], "hash")) {
+            // The final NAME segment arrives twice, as it can when the service repeats a result
+            result = transcribeWithPII.replay(audio, List.of(PARTIAL, NAME, NAME, PHONE), policy);
+        }
+
+        assertEquals("my name is jane five five ", result.getOriginalTranscription());
+        assertEquals(1, result.getPiiEntities().size());
+        assertEquals("NAME", result.getPiiEntities().get(0).getType());
+        assertEquals(1, result.getPiiIntervals().size());
+        assertTrue(result.getPiiIntervals().get(0).getStartTime() <= 0.7);
+        assertEquals(1, result.getReviewEntities().size());
+        assertEquals("PHONE", result.getReviewEntities().get(0).getType());
+    }
+}
@@ -0,0 +1,122 @@
+package com.salesforce.storage;
+
+import com.salesforce.models.JobStage;
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionJob;
+import com.salesforce.models.RedactionOptions;
+import com.salesforce.models.TranscriptSegment;
+import com.salesforce.models.WordItems;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JobStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void unfinishedJobResumesFromCheckpoints() throws Exception {
+        JobStore store = newStore();
+        RedactionJob job = new RedactionJob("job-1", "call.wav", new RedactionOptions());
+        job.setContentHash("abc");
+        job.setStage(JobStage.TRANSCRIBING);
+        byte[] upload = {1, 0, 2, 0, 3, 0, 4, 0};
+        try (JobStore.UploadCheckpoint checkpoint = store.openUploadCheckpoint(job)) {
+            checkpoint.write(upload, 0, 4);
+            checkpoint.write(upload, 4, 4);
+            checkpoint.commit();
+        }
+        store.save(job);
+        WordItems items = new WordItems.Builder().addWord(1.0, 1.5, "John", 0.9f).build();
+        store.appendSegment(job, new TranscriptSegment(0.5, 2.0, "John here",
+                List.of(new PIIEntity("NAME", 1.0, 1.5, "John", 0.9)), items));
+        // A crash mid-append leaves a partial line behind
+        Files.writeString(dir.resolve("job-1.segments.jsonl"), "{\"startTime\":2.0,\"end", StandardOpenOption.APPEND);
+
+        JobStore reloaded = newStore();
+        RedactionJob resumed = reloaded.unfinished().get(0);
+        assertEquals("job-1", resumed.getJobId());
+        assertEquals(JobStage.TRANSCRIBING, resumed.getStage());
+        assertArrayEquals(upload, Files.readAllBytes(reloaded.uploadCheckpoint(resumed).orElseThrow()));
+        assertEquals(upload.length, reloaded.getCheckpointBytes());
+        List<TranscriptSegment> segments = reloaded.loadSegments(resumed);
+        assertEquals(1, segments.size());
+        assertEquals(2.0, segments.get(0).getEndTime(), 0.0);
+        assertEquals("John", segments.get(0).getItems().getContent(0));
+        assertEquals("NAME", segments.get(0).getPiiEntities().get(0).getType());
+    }
+
+    @Test
+    public void finishedJobsKeepNoCheckpoints() throws Exception {
+        JobStore store = newStore();
+        RedactionJob job = new RedactionJob("job-2", "call.wav", new RedactionOptions());
+        try (JobStore.UploadCheckpoint checkpoint = store.openUploadCheckpoint(job)) {
+            checkpoint.write(new byte[4], 0, 4);
+            checkpoint.commit();
+        }
+        job.setStage(JobStage.COMPLETED);
+        store.save(job);
+        Files.writeString(dir.resolve("orphan.upload"), "x", StandardCharsets.UTF_8);
+
+        JobStore reloaded = newStore();
+        assertTrue(reloaded.unfinished().isEmpty());
+        assertEquals(JobStage.COMPLETED, reloaded.get("job-2").getStage());
+        assertFalse(Files.exists(dir.resolve("job-2.upload")));
+        assertFalse(Files.exists(dir.resolve("orphan.upload")));
+        assertEquals(0, reloaded.getCheckpointBytes());
+    }
+
+    @Test
+    public void uploadsOverTheQuotaAreNotCheckpointed() throws Exception {
+        JobStore store = newStore(10);
+        RedactionJob fits = new RedactionJob("job-3", "a.wav", new RedactionOptions());
+        RedactionJob tooBig = new RedactionJob("job-4", "b.wav", new RedactionOptions());
+
+        try (JobStore.UploadCheckpoint checkpoint = store.openUploadCheckpoint(fits)) {
+            checkpoint.write(new byte[6], 0, 6);
+            checkpoint.commit();
+        }
+        try (JobStore.UploadCheckpoint checkpoint = store.openUploadCheckpoint(tooBig)) {
+            checkpoint.write(new byte[3], 0, 3);
+            checkpoint.write(new byte[3], 0, 3);
+            checkpoint.commit();
+        }
+
+        assertTrue(store.uploadCheckpoint(fits).isPresent());
+        assertFalse(store.uploadCheckpoint(tooBig).isPresent());
+        assertEquals(6, store.getCheckpointBytes());
+        store.releaseCheckpoints(fits);
+        assertEquals(0, store.getCheckpointBytes());
+    }
+
+    private JobStore newStore() throws Exception {
+        return newStore(Long.MAX_VALUE);
+    }
+
+    private JobStore newStore(long maxCheckpointBytes) throws Exception {
+        JobStore store = new JobStore(dir.toString(), Duration.ofHours(1), true, maxCheckpointBytes);
+        store.load();
+        return store;
+    }
+}
@@ -0,0 +1,109 @@
+package com.salesforce.storage;
+
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.RedactionAuditEntry;
+import com.salesforce.models.TimeInterval;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RedactionAuditLogTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void queriesByTypeFileAndTime() throws Exception {
+        RedactionAuditLog auditLog = open();
+        appendAt(auditLog, NOW.minus(Duration.ofDays(40)), "old", "PHONE");
+        appendAt(auditLog, NOW.minus(Duration.ofDays(3)), "a", "PHONE", "NAME");
+        appendAt(auditLog, NOW.minus(Duration.ofHours(1)), "b", "NAME");
+        auditLog.flush();
+
+        List<RedactionAuditEntry> phones = auditLog.query(NOW.minus(Duration.ofDays(30)), NOW, "phone", null, 100);
+        assertEquals(1, phones.size());
+        RedactionAuditEntry phone = phones.get(0);
+        assertEquals("a", phone.getFileId());
+        assertEquals("hash-a", phone.getContentHash());
+        assertEquals("beep:chime", phone.getMethod());
+        assertEquals(1.0, phone.getStartTime(), 0);
+        assertEquals(2.5, phone.getEndTime(), 0);
+        assertEquals(Integer.valueOf(1), phone.getChannel());
+        assertEquals(0.9, phone.getConfidence(), 0);
+        assertEquals(NOW.minus(Duration.ofDays(3)).toEpochMilli(), phone.getTimestamp());
+
+        assertEquals(3, auditLog.query(NOW.minus(Duration.ofDays(30)), NOW, null, null, 100).size());
+        assertEquals(2, auditLog.query(NOW.minus(Duration.ofDays(30)), NOW, null, "a", 100).size());
+        assertEquals(1, auditLog.query(NOW.minus(Duration.ofDays(30)), NOW, null, null, 1).size());
+        assertEquals(0, auditLog.query(NOW.minus(Duration.ofDays(30)), NOW, "SSN", null, 100).size());
+        auditLog.close();
+    }
+
+    @Test
+    public void recoversMissingIndexAndTornRecordOnRestart() throws Exception {
+        RedactionAuditLog auditLog = open();
+        appendAt(auditLog, NOW, "a", "PHONE");
+        appendAt(auditLog, NOW.plusSeconds(1), "b", "PHONE");
+        auditLog.close();
+
+        // A crash after the log was written but before the index, in the middle of a third record
+        Path log = dir.resolve("2026-10-18.log");
+        Files.delete(dir.resolve("2026-10-18.idx"));
+        long complete = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        RedactionAuditLog reopened = open();
+        assertEquals(complete, Files.size(log));
+        List<RedactionAuditEntry> entries = reopened.query(NOW.minusSeconds(60), NOW.plusSeconds(60), "PHONE", null, 100);
+        assertEquals(2, entries.size());
+        assertEquals("b", entries.get(1).getFileId());
+        assertNull(entries.get(1).getChannel());
+
+        appendAt(reopened, NOW.plusSeconds(2), "c", "PHONE");
+        reopened.flush();
+        assertEquals(3, reopened.query(NOW.minusSeconds(60), NOW.plusSeconds(60), "PHONE", null, 100).size());
+        reopened.close();
+        assertTrue(Files.size(dir.resolve("2026-10-18.idx")) > 0);
+    }
+
+    private RedactionAuditLog open() throws Exception {
+        RedactionAuditLog auditLog = new RedactionAuditLog(dir.toString(), true, false, 16);
+        auditLog.load();
+        return auditLog;
+    }
+
+    private static void appendAt(RedactionAuditLog auditLog, Instant time, String fileId, String... types) {
+        auditLog.setClock(Clock.fixed(time, ZoneOffset.UTC));
+        List<TimeInterval> intervals = new ArrayList<>();
+        List<PIIEntity> entities = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            intervals.add(new TimeInterval(1.0 + 3 * i, 2.5 + 3 * i, fileId.equals("a") ? Integer.valueOf(1) : null));
+            entities.add(new PIIEntity(types[i], 1.1 + 3 * i, 2.4 + 3 * i, "secret", 0.9));
+        }
+        auditLog.append(fileId, "hash-" + fileId, "beep:chime", intervals, entities);
+    }
+}
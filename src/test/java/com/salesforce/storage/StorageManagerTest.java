@@ -0,0 +1,74 @@
+package com.salesforce.storage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StorageManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void leftoverFilesPastTtlAreEvictedBySweep() throws IOException {
+        Path uploads = Files.createDirectories(root.resolve("uploads"));
+        Path orphan = Files.write(uploads.resolve("orphan_input.mp3"), new byte[100]);
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        StorageManager manager = newManager(Long.MAX_VALUE);
+        assertEquals(100, manager.getBytesUsed(StorageManager.Area.UPLOADS));
+
+        manager.sweep();
+        assertFalse(Files.exists(orphan));
+        assertEquals(0, manager.getBytesUsed(StorageManager.Area.UPLOADS));
+        assertEquals(1, manager.getFilesEvicted(StorageManager.Area.UPLOADS));
+    }
+
+    @Test
+    public void quotaEvictsLeastRecentlyUsedButNotPinnedFiles() throws IOException, InterruptedException {
+        StorageManager manager = newManager(250);
+        Path pinned = write(manager, "a_redacted.wav");
+        Thread.sleep(5);
+        Path older = write(manager, "b_redacted.wav");
+        Thread.sleep(5);
+        manager.pin(pinned);
+        Path newest = write(manager, "c_redacted.wav");
+
+        assertTrue(Files.exists(pinned));
+        assertFalse(Files.exists(older));
+        assertTrue(Files.exists(newest));
+        assertEquals(200, manager.getBytesUsed(StorageManager.Area.OUTPUTS));
+    }
+
+    private Path write(StorageManager manager, String name) throws IOException {
+        Path file = Files.write(manager.resolve(StorageManager.Area.OUTPUTS, name), new byte[100]);
+        manager.register(StorageManager.Area.OUTPUTS, file);
+        return file;
+    }
+
+    private StorageManager newManager(long outputsMaxBytes) throws IOException {
+        StorageManager manager = new StorageManager(root.resolve("uploads").toString(), Duration.ofHours(1), Long.MAX_VALUE,
+                root.resolve("outputs").toString(), Duration.ofHours(24), outputsMaxBytes);
+        manager.init();
+        return manager;
+    }
+}
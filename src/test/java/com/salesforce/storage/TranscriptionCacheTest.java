@@ -0,0 +1,122 @@
+package com.salesforce.storage;
+
+import com.salesforce.models.PIIEntity;
+import com.salesforce.models.TimeInterval;
+import com.salesforce.models.TranscriptionResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TranscriptionCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void persistedEntriesSurviveRestart() throws IOException {
+        TranscriptionCache cache = newCache(10_000_000, Duration.ofDays(1));
+        cache.put("abc", result("my number is 555"));
+
+        TranscriptionCache reloaded = newCache(10_000_000, Duration.ofDays(1));
+        TranscriptionResult hit = reloaded.get("abc").orElseThrow();
+        assertEquals("my number is 555", hit.getOriginalTranscription());
+        assertEquals(1, hit.getPiiEntities().size());
+        assertEquals(1, hit.getPiiIntervals().size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvictedOverBudget() throws IOException {
+        TranscriptionCache cache = newCache(Long.MAX_VALUE, Duration.ofDays(1));
+        cache.put("a", result("first"));
+        long entrySize = cache.getDiskBytes();
+
+        cache = newCache(entrySize * 2 + entrySize / 2, Duration.ofDays(1));
+        cache.put("b", result("first"));
+        cache.get("a");
+        cache.put("c", result("first"));
+
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    public void expiredEntriesAreMisses() throws IOException {
+        TranscriptionCache cache = newCache(10_000_000, Duration.ofMillis(-1));
+        cache.put("abc", result("hello"));
+
+        assertFalse(cache.get("abc").isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void concurrentPutsAndGetsKeepTheIndexInStepWithTheFiles() throws Exception {
+        TranscriptionCache cache = newCache(Long.MAX_VALUE, Duration.ofDays(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String key = "k" + (i % 10);
+                boolean write = i % 3 == 0;
+                tasks.add(pool.submit(() -> {
+                    if (write) {
+                        cache.put(key, result("text of " + key));
+                    } else {
+                        cache.get(key).ifPresent(hit -> assertEquals("text of " + key, hit.getOriginalTranscription()));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long bytes = 0;
+        int files = 0;
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                assertTrue(path.toString().endsWith(".json"));
+                bytes += Files.size(path);
+                files++;
+            }
+        }
+        assertEquals(files, cache.size());
+        assertEquals(bytes, cache.getDiskBytes());
+    }
+
+    private TranscriptionCache newCache(long maxDiskBytes, Duration ttl) throws IOException {
+        TranscriptionCache cache = new TranscriptionCache(dir.toString(), 16, maxDiskBytes, ttl);
+        cache.load();
+        return cache;
+    }
+
+    private static TranscriptionResult result(String text) {
+        PIIEntity entity = new PIIEntity("PHONE", 1.0, 2.0, "555", 0.9);
+        return new TranscriptionResult(text, List.of(new TimeInterval(0.75, 2.0)), List.of(entity));
+    }
+}
@@ -0,0 +1,103 @@
+package com.salesforce.audio;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the kernels that convert between element sizes, at the platform's preferred width,
+ * e.g. 8 float or int lanes with AVX2. 16-bit samples are loaded at half that width and widened, so every
+ * loop works on the same number of lanes; the remainder is done with scalar code. The float kernels are
+ * inherited, since C2 already vectorises them. Only loaded by {@link PcmKernels#vector()} once the
+ * incubator module is known to be present.
+ */
+final class VectorPcmKernels extends PcmKernels {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = INTS.withLanes(long.class);
+    private static final VectorSpecies<Short> SHORTS = VectorShape.forBitSize(INTS.vectorBitSize() / 2).withLanes(short.class);
+    private static final int FULL_SCALE_BITS = Float.floatToRawIntBits(-(float) Short.MIN_VALUE);
+    private static final float ROUNDING_BIAS = 0x1.8p23f;
+    private static final int ROUNDING_BIAS_BITS = Float.floatToRawIntBits(ROUNDING_BIAS);
+
+    VectorPcmKernels() {
+        if (INTS.vectorBitSize() < 128) {
+            throw new UnsupportedOperationException("No vector unit, preferred shape is " + INTS.vectorShape());
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + FLOATS.vectorBitSize();
+    }
+
+    /**
+     * JDK 17 compiles neither the float to int lane cast nor float min and max to plain AVX2 instructions, so
+     * the conversion avoids both. The magnitude is clamped as int bits, which order like the non-negative
+     * floats they hold, then truncated with the float adder: adding 1.5 * 2^23 leaves round(|x|) in the low
+     * mantissa bits, one too high exactly when {@code |x| - round(|x|)} is negative. The sign is applied back
+     * as two's complement. NaN becomes 32767 rather than 0.
+     */
+    @Override
+    public void toPcm16(float[] samples, short[] out, int count) {
+        int n = 0;
+        for (int bound = FLOATS.loopBound(count); n < bound; n += FLOATS.length()) {
+            FloatVector sample = FloatVector.fromArray(FLOATS, samples, n);
+            FloatVector magnitude = sample.abs().reinterpretAsInts().min(FULL_SCALE_BITS).reinterpretAsFloats();
+            FloatVector biased = magnitude.add(ROUNDING_BIAS);
+            IntVector roundedUp = magnitude.sub(biased.sub(ROUNDING_BIAS)).reinterpretAsInts()
+                    .lanewise(VectorOperators.LSHR, 31);
+            IntVector truncated = biased.reinterpretAsInts().sub(ROUNDING_BIAS_BITS).sub(roundedUp);
+            IntVector sign = sample.reinterpretAsInts().lanewise(VectorOperators.ASHR, 31);
+            truncated.lanewise(VectorOperators.XOR, sign).sub(sign).min(Short.MAX_VALUE)
+                    .convertShape(VectorOperators.I2S, SHORTS, 0)
+                    .reinterpretAsShorts()
+                    .intoArray(out, n);
+        }
+        for (; n < count; n++) {
+            out[n] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, (int) samples[n]));
+        }
+    }
+
+    @Override
+    public void crossfade(short[] original, short[] replaced, short[] weight, int count) {
+        int n = 0;
+        for (int bound = SHORTS.loopBound(count); n < bound; n += SHORTS.length()) {
+            IntVector from = widen(original, n);
+            widen(replaced, n).sub(from).mul(widen(weight, n)).lanewise(VectorOperators.ASHR, 15).add(from)
+                    .convertShape(VectorOperators.I2S, SHORTS, 0)
+                    .reinterpretAsShorts()
+                    .intoArray(replaced, n);
+        }
+        for (; n < count; n++) {
+            replaced[n] = (short) (original[n] + ((replaced[n] - original[n]) * weight[n] >> 15));
+        }
+    }
+
+    @Override
+    public long sumOfSquares(short[] samples, int count) {
+        // Each square fits an int, but two of them may not, so they are summed as longs
+        LongVector sum = LongVector.zero(LONGS);
+        int n = 0;
+        for (int bound = SHORTS.loopBound(count); n < bound; n += SHORTS.length()) {
+            IntVector sample = widen(samples, n);
+            IntVector square = sample.mul(sample);
+            sum = sum.add(square.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add(square.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        long total = sum.reduceLanes(VectorOperators.ADD);
+        for (; n < count; n++) {
+            total += samples[n] * samples[n];
+        }
+        return total;
+    }
+
+    private static IntVector widen(short[] samples, int offset) {
+        return (IntVector) ShortVector.fromArray(SHORTS, samples, offset).convertShape(VectorOperators.S2I, INTS, 0);
+    }
+}